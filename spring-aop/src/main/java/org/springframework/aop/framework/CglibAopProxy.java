@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -322,17 +323,19 @@ class CglibAopProxy implements AopProxy, Serializable {
 		// direct to the target using the fixed chain for that method.
 		if (isStatic && isFrozen) {
 			Method[] methods = rootClass.getMethods();
-			Callback[] fixedCallbacks = new Callback[methods.length];
+			List<Callback> fixedCallbackList = new ArrayList<>(methods.length);
 			this.fixedInterceptorMap = new HashMap<>(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
-			for (int x = 0; x < methods.length; x++) {
-				Method method = methods[x];
+			// Unadvised methods go straight to the target, not needing a fixed chain.
+			for (Method method : methods) {
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-				this.fixedInterceptorMap.put(method, x);
+				if (!chain.isEmpty()) {
+					this.fixedInterceptorMap.put(method, fixedCallbackList.size());
+					fixedCallbackList.add(new FixedChainStaticTargetInterceptor(chain,
+							this.advised.getTargetSource().getTarget(), this.advised.getTargetClass(), exposeProxy));
+				}
 			}
+			Callback[] fixedCallbacks = fixedCallbackList.toArray(new Callback[0]);
 
 			// Now copy both the callbacks from mainCallbacks
 			// and fixedCallbacks into the callbacks array.
@@ -623,23 +626,37 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final Class<?> targetClass;
 
-		public FixedChainStaticTargetInterceptor(
-				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
+		private final boolean exposeProxy;
+
+		public FixedChainStaticTargetInterceptor(List<Object> adviceChain,
+				@Nullable Object target, @Nullable Class<?> targetClass, boolean exposeProxy) {
 
 			this.adviceChain = adviceChain;
 			this.target = target;
 			this.targetClass = targetClass;
+			this.exposeProxy = exposeProxy;
 		}
 
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-			MethodInvocation invocation = new CglibMethodInvocation(
-					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
-			// If we get here, we need to create a MethodInvocation.
-			Object retVal = invocation.proceed();
-			retVal = processReturnType(proxy, this.target, method, retVal);
-			return retVal;
+			Object oldProxy = null;
+			if (this.exposeProxy) {
+				oldProxy = AopContext.setCurrentProxy(proxy);
+			}
+			try {
+				MethodInvocation invocation = new CglibMethodInvocation(
+						proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
+				// If we get here, we need to create a MethodInvocation.
+				Object retVal = invocation.proceed();
+				retVal = processReturnType(proxy, this.target, method, retVal);
+				return retVal;
+			}
+			finally {
+				if (this.exposeProxy) {
+					AopContext.setCurrentProxy(oldProxy);
+				}
+			}
 		}
 	}
 
@@ -865,16 +882,9 @@ class CglibAopProxy implements AopProxy, Serializable {
 			boolean isStatic = this.advised.getTargetSource().isStatic();
 			boolean isFrozen = this.advised.isFrozen();
 			if (haveAdvice || !isFrozen) {
-				// If exposing the proxy, then AOP_PROXY must be used.
-				if (exposeProxy) {
-					if (logger.isTraceEnabled()) {
-						logger.trace("Must expose proxy on advised method: " + method);
-					}
-					return AOP_PROXY;
-				}
 				Method key = method;
-				// Check to see if we have fixed interceptor to serve this method.
-				// Else use the AOP_PROXY.
+				// Check to see if we have fixed interceptor to serve this method,
+				// exposing the proxy itself if necessary. Else use the AOP_PROXY.
 				if (isStatic && isFrozen && this.fixedInterceptorMap.containsKey(key)) {
 					if (logger.isTraceEnabled()) {
 						logger.trace("Method has advice and optimizations are enabled: " + method);
@@ -883,6 +893,12 @@ class CglibAopProxy implements AopProxy, Serializable {
 					int index = this.fixedInterceptorMap.get(key);
 					return (index + this.fixedInterceptorOffset);
 				}
+				else if (exposeProxy) {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Must expose proxy on advised method: " + method);
+					}
+					return AOP_PROXY;
+				}
 				else {
 					if (logger.isTraceEnabled()) {
 						logger.trace("Unable to apply any optimizations to advised method: " + method);
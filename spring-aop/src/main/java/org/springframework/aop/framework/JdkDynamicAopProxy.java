@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -53,6 +55,10 @@ import org.springframework.util.ClassUtils;
  * <p>Proxies are serializable so long as all Advisors (including Advices
  * and Pointcuts) and the TargetSource are serializable.
  *
+ * <p>As of 5.3, proxies for a frozen configuration with a static target bind
+ * the interceptor chain of each interface method on creation, sparing the
+ * method cache lookup on each call.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Rob Harrop
@@ -92,6 +98,12 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interceptor chains per interface method, if bound on proxy creation.
+	 */
+	@Nullable
+	private transient Map<Method, List<Object>> fixedChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -120,9 +132,36 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		if (this.advised.isFrozen() && this.advised.getTargetSource().isStatic()) {
+			this.fixedChains = bindFixedChains(proxiedInterfaces);
+		}
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
+	/**
+	 * Determine the interceptor chain of each method on the supplied interfaces,
+	 * which cannot change for a frozen configuration with a static target.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 * @return the chains per method
+	 */
+	private Map<Method, List<Object>> bindFixedChains(Class<?>[] proxiedInterfaces) {
+		Object target;
+		try {
+			target = this.advised.getTargetSource().getTarget();
+		}
+		catch (Exception ex) {
+			throw new AopConfigException("Could not obtain static target for binding interceptor chains", ex);
+		}
+		Class<?> targetClass = (target != null ? target.getClass() : null);
+		Map<Method, List<Object>> fixedChains = new HashMap<>();
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			for (Method method : proxiedInterface.getMethods()) {
+				fixedChains.put(method, this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			}
+		}
+		return fixedChains;
+	}
+
 	/**
 	 * Finds any {@link #equals} or {@link #hashCode} method that may be defined
 	 * on the supplied set of interfaces.
@@ -193,7 +232,11 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
 			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			Map<Method, List<Object>> fixedChains = this.fixedChains;
+			List<Object> chain = (fixedChains != null ? fixedChains.get(method) : null);
+			if (chain == null) {
+				chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -174,13 +174,28 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 			if (targetExecutor == null) {
 				return null;
 			}
-			executor = (targetExecutor instanceof AsyncListenableTaskExecutor ?
-					(AsyncListenableTaskExecutor) targetExecutor : new TaskExecutorAdapter(targetExecutor));
+			executor = adaptExecutor(targetExecutor);
 			this.executors.put(method, executor);
 		}
 		return executor;
 	}
 
+	/**
+	 * Adapt the given target executor to an {@link AsyncTaskExecutor}, preferably
+	 * an {@link AsyncListenableTaskExecutor} implementation.
+	 * <p>The default implementation returns an {@code AsyncListenableTaskExecutor}
+	 * as-is and wraps any other executor in a {@link TaskExecutorAdapter}. Subclasses
+	 * may provide dedicated adapters for specific kinds of executors.
+	 * @param targetExecutor the executor determined for an async method
+	 * @return the executor to submit the method invocations to
+	 * @since 5.3
+	 * @see #determineAsyncExecutor(Method)
+	 */
+	protected AsyncTaskExecutor adaptExecutor(Executor targetExecutor) {
+		return (targetExecutor instanceof AsyncListenableTaskExecutor ?
+				(AsyncListenableTaskExecutor) targetExecutor : new TaskExecutorAdapter(targetExecutor));
+	}
+
 	/**
 	 * Return the qualifier or bean name of the executor to be used when executing the
 	 * given async method, typically specified in the form of an annotation attribute.
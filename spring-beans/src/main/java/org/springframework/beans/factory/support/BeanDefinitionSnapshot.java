@@ -0,0 +1,811 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeanMetadataAttribute;
+import org.springframework.beans.BeanMetadataAttributeAccessor;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compact binary snapshot of the bean definitions held by a bean factory,
+ * allowing a subsequent startup to restore the fully parsed and post-processed
+ * bean definition registry instead of re-parsing XML files and re-processing
+ * configuration classes.
+ *
+ * <p>A snapshot is keyed by a fingerprint which callers typically derive from
+ * the classpath through {@link #classpathFingerprint(ClassLoader)}. A snapshot
+ * whose fingerprint does not match is rejected on {@link #read read}, letting the
+ * caller fall back to regular bean definition loading.
+ *
+ * <p>Bean definitions are written in their merged form, so restored definitions
+ * are standalone {@link RootBeanDefinition RootBeanDefinitions} which do not need
+ * to be merged with parent definitions again. Inner bean definitions which refer
+ * to a parent definition are restored as {@link GenericBeanDefinition
+ * GenericBeanDefinitions} with that parent. Only declarative definition state is
+ * supported: definitions with an instance supplier, as well as property values or
+ * attributes of types other than the ones produced by the standard bean definition
+ * readers, cause {@link #write} to fail with a {@link NotSerializableException}.
+ *
+ * <p>Mainly intended for internal use by application contexts.
+ *
+ * @since 5.3
+ * @see org.springframework.context.support.AbstractRefreshableApplicationContext#setBeanDefinitionSnapshotFile
+ */
+public abstract class BeanDefinitionSnapshot {
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte TYPED_STRING = 2;
+
+	private static final byte BEAN_REFERENCE = 3;
+
+	private static final byte BEAN_NAME_REFERENCE = 4;
+
+	private static final byte BEAN_DEFINITION_HOLDER = 5;
+
+	private static final byte BEAN_DEFINITION = 6;
+
+	private static final byte LIST = 7;
+
+	private static final byte ARRAY = 8;
+
+	private static final byte SET = 9;
+
+	private static final byte MAP = 10;
+
+	private static final byte PROPERTIES = 11;
+
+	private static final byte BOOLEAN = 12;
+
+	private static final byte INTEGER = 13;
+
+	private static final byte LONG = 14;
+
+	private static final byte LOOKUP_OVERRIDE = 1;
+
+	private static final byte REPLACE_OVERRIDE = 2;
+
+
+	/**
+	 * Write a snapshot of all bean definitions in the given bean factory,
+	 * including their aliases, to the given stream.
+	 * <p>The stream is not closed by this method.
+	 * @param beanFactory the bean factory to take the snapshot from
+	 * @param fingerprint the fingerprint identifying the snapshot
+	 * @param out the stream to write to
+	 * @throws NotSerializableException if a bean definition contains state
+	 * which cannot be represented in a snapshot
+	 * @throws IOException in case of I/O errors
+	 */
+	public static void write(ConfigurableListableBeanFactory beanFactory, String fingerprint, OutputStream out)
+			throws IOException {
+
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		Assert.notNull(fingerprint, "Fingerprint must not be null");
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+		DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+		dos.writeInt(MAGIC);
+		dos.writeInt(FORMAT_VERSION);
+		dos.writeUTF(fingerprint);
+		dos.writeInt(beanNames.length);
+		for (String beanName : beanNames) {
+			BeanDefinition bd = beanFactory.getMergedBeanDefinition(beanName);
+			dos.writeUTF(beanName);
+			writeStrings(dos, beanFactory.getAliases(beanName));
+			writeBeanDefinition(dos, beanName, bd);
+		}
+		dos.flush();
+	}
+
+	/**
+	 * Read a snapshot from the given stream and register its bean definitions
+	 * and aliases with the given registry, provided that the snapshot has been
+	 * written with the same fingerprint.
+	 * <p>The snapshot is fully decoded before any bean definition gets registered.
+	 * The stream is not closed by this method.
+	 * @param in the stream to read from
+	 * @param fingerprint the expected fingerprint
+	 * @param registry the registry to register the bean definitions with
+	 * @return {@code true} if the snapshot has been applied, or {@code false} if
+	 * it was written with a different fingerprint or format version
+	 * @throws IOException in case of I/O errors or a corrupt snapshot
+	 * @see #read(InputStream, String, BeanDefinitionRegistry, ClassLoader)
+	 */
+	public static boolean read(InputStream in, String fingerprint, BeanDefinitionRegistry registry)
+			throws IOException {
+
+		ClassLoader classLoader = (registry instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) registry).getBeanClassLoader() : null);
+		return read(in, fingerprint, registry, classLoader);
+	}
+
+	/**
+	 * Read a snapshot from the given stream and register its bean definitions
+	 * and aliases with the given registry, provided that the snapshot has been
+	 * written with the same fingerprint.
+	 * <p>The snapshot is fully decoded before any bean definition gets registered.
+	 * The stream is not closed by this method.
+	 * @param in the stream to read from
+	 * @param fingerprint the expected fingerprint
+	 * @param registry the registry to register the bean definitions with
+	 * @param classLoader the ClassLoader to resolve bean types with, typically
+	 * the one that the fingerprint has been computed for (may be {@code null}
+	 * to use the default ClassLoader)
+	 * @return {@code true} if the snapshot has been applied, or {@code false} if
+	 * it was written with a different fingerprint or format version
+	 * @throws IOException in case of I/O errors or a corrupt snapshot
+	 * @see #classpathFingerprint(ClassLoader)
+	 */
+	public static boolean read(InputStream in, String fingerprint, BeanDefinitionRegistry registry,
+			@Nullable ClassLoader classLoader) throws IOException {
+
+		Assert.notNull(fingerprint, "Fingerprint must not be null");
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		if (dis.readInt() != FORMAT_VERSION || !fingerprint.equals(dis.readUTF())) {
+			return false;
+		}
+		int count = dis.readInt();
+		List<BeanDefinitionHolder> holders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String beanName = dis.readUTF();
+			String[] aliases = readStrings(dis);
+			holders.add(new BeanDefinitionHolder(readBeanDefinition(dis, classLoader), beanName, aliases));
+		}
+		for (BeanDefinitionHolder holder : holders) {
+			BeanDefinitionReaderUtils.registerBeanDefinition(holder, registry);
+		}
+		return true;
+	}
+
+	/**
+	 * Compute a fingerprint for the classpath visible to the given ClassLoader,
+	 * based on the name, size and last modification time of each classpath entry.
+	 * Directory entries are walked recursively.
+	 * <p>Uses the URLs of the ClassLoader hierarchy where available, falling back
+	 * to the {@code java.class.path} system property otherwise.
+	 * @param classLoader the ClassLoader to compute the fingerprint for
+	 * (may be {@code null} to use the default ClassLoader)
+	 * @return the fingerprint, as a hex-encoded MD5 digest
+	 */
+	public static String classpathFingerprint(@Nullable ClassLoader classLoader) {
+		Set<File> entries = new LinkedHashSet<>();
+		ClassLoader cl = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+		while (cl != null) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					try {
+						entries.add(ResourceUtils.getFile(url));
+					}
+					catch (FileNotFoundException ex) {
+						// Not a file system entry - cannot be fingerprinted
+					}
+				}
+			}
+			cl = cl.getParent();
+		}
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+				entries.add(new File(entry));
+			}
+		}
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+		}
+		for (File entry : entries) {
+			digestFile(digest, entry, entry.getAbsolutePath());
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static void digestFile(MessageDigest digest, File file, String path) {
+		digest.update(path.getBytes(StandardCharsets.UTF_8));
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					digestFile(digest, child, path + '/' + child.getName());
+				}
+			}
+		}
+		else {
+			digest.update((":" + file.length() + ":" + file.lastModified() + ";").getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+
+	// Writing
+
+	private static void writeBeanDefinition(DataOutputStream dos, String beanName, BeanDefinition bd)
+			throws IOException {
+
+		if (!(bd instanceof AbstractBeanDefinition)) {
+			throw unsupported(beanName, "definition type " + bd.getClass().getName());
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+		if (abd.getInstanceSupplier() != null) {
+			throw unsupported(beanName, "instance supplier");
+		}
+
+		String className = abd.getBeanClassName();
+		if (abd.hasBeanClass()) {
+			// Generated subclasses (e.g. enhanced configuration classes) won't survive a restart
+			className = ClassUtils.getUserClass(abd.getBeanClass()).getName();
+		}
+		writeString(dos, className);
+		writeString(dos, abd.getParentName());
+		writeString(dos, abd.getScope());
+		dos.writeBoolean(abd.isAbstract());
+		writeBoolean(dos, abd.getLazyInit());
+		dos.writeInt(abd.getAutowireMode());
+		dos.writeInt(abd.getDependencyCheck());
+		writeStrings(dos, abd.getDependsOn());
+		dos.writeBoolean(abd.isAutowireCandidate());
+		dos.writeBoolean(abd.isPrimary());
+		dos.writeBoolean(abd.isNonPublicAccessAllowed());
+		dos.writeBoolean(abd.isLenientConstructorResolution());
+		writeString(dos, abd.getFactoryBeanName());
+		writeString(dos, abd.getFactoryMethodName());
+		writeString(dos, abd.getInitMethodName());
+		dos.writeBoolean(abd.isEnforceInitMethod());
+		writeString(dos, abd.getDestroyMethodName());
+		dos.writeBoolean(abd.isEnforceDestroyMethod());
+		dos.writeBoolean(abd.isSynthetic());
+		dos.writeInt(abd.getRole());
+		writeString(dos, abd.getDescription());
+		writeString(dos, abd.getResourceDescription());
+
+		Set<AutowireCandidateQualifier> qualifiers = abd.getQualifiers();
+		dos.writeInt(qualifiers.size());
+		for (AutowireCandidateQualifier qualifier : qualifiers) {
+			dos.writeUTF(qualifier.getTypeName());
+			writeAttributes(dos, beanName, qualifier);
+		}
+		writeAttributes(dos, beanName, abd);
+
+		ConstructorArgumentValues cargs = abd.getConstructorArgumentValues();
+		Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+		dos.writeInt(indexedArgs.size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+			dos.writeInt(entry.getKey());
+			writeValueHolder(dos, beanName, entry.getValue());
+		}
+		List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+		dos.writeInt(genericArgs.size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+			writeValueHolder(dos, beanName, valueHolder);
+		}
+
+		PropertyValue[] pvs = abd.getPropertyValues().getPropertyValues();
+		dos.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			dos.writeUTF(pv.getName());
+			dos.writeBoolean(pv.isOptional());
+			writeValue(dos, beanName, pv.getValue());
+		}
+
+		Set<MethodOverride> overrides = abd.getMethodOverrides().getOverrides();
+		dos.writeInt(overrides.size());
+		for (MethodOverride override : overrides) {
+			if (override instanceof LookupOverride) {
+				dos.writeByte(LOOKUP_OVERRIDE);
+				dos.writeUTF(override.getMethodName());
+				writeString(dos, ((LookupOverride) override).getBeanName());
+			}
+			else if (override instanceof ReplaceOverride) {
+				ReplaceOverride replaceOverride = (ReplaceOverride) override;
+				dos.writeByte(REPLACE_OVERRIDE);
+				dos.writeUTF(replaceOverride.getMethodName());
+				dos.writeUTF(replaceOverride.getMethodReplacerBeanName());
+				writeStrings(dos, StringUtils.toStringArray(replaceOverride.getTypeIdentifiers()));
+			}
+			else {
+				throw unsupported(beanName, "method override " + override);
+			}
+		}
+
+		if (abd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) abd;
+			dos.writeBoolean(rbd.isFactoryMethodUnique);
+			Class<?> targetType = rbd.getTargetType();
+			writeString(dos, targetType != null ? targetType.getName() : null);
+			BeanDefinitionHolder decorated = rbd.getDecoratedDefinition();
+			if (decorated != null) {
+				dos.writeBoolean(true);
+				writeBeanDefinitionHolder(dos, decorated);
+			}
+			else {
+				dos.writeBoolean(false);
+			}
+		}
+		else {
+			dos.writeBoolean(false);
+			writeString(dos, null);
+			dos.writeBoolean(false);
+		}
+	}
+
+	private static void writeBeanDefinitionHolder(DataOutputStream dos, BeanDefinitionHolder holder)
+			throws IOException {
+
+		dos.writeUTF(holder.getBeanName());
+		writeStrings(dos, holder.getAliases());
+		writeBeanDefinition(dos, holder.getBeanName(), holder.getBeanDefinition());
+	}
+
+	private static void writeValueHolder(DataOutputStream dos, String beanName,
+			ConstructorArgumentValues.ValueHolder valueHolder) throws IOException {
+
+		writeString(dos, valueHolder.getType());
+		writeString(dos, valueHolder.getName());
+		writeValue(dos, beanName, valueHolder.getValue());
+	}
+
+	private static void writeAttributes(DataOutputStream dos, String beanName, BeanMetadataAttributeAccessor accessor)
+			throws IOException {
+
+		String[] names = accessor.attributeNames();
+		dos.writeInt(names.length);
+		for (String name : names) {
+			Object value = accessor.getAttribute(name);
+			if (value != null && !(value instanceof String || value instanceof Boolean ||
+					value instanceof Integer || value instanceof Long)) {
+				throw unsupported(beanName, "attribute '" + name + "' of type " + value.getClass().getName());
+			}
+			dos.writeUTF(name);
+			writeValue(dos, beanName, value);
+		}
+	}
+
+	private static void writeValue(DataOutputStream dos, String beanName, @Nullable Object value)
+			throws IOException {
+
+		if (value == null) {
+			dos.writeByte(NULL);
+		}
+		else if (value instanceof String) {
+			dos.writeByte(STRING);
+			dos.writeUTF((String) value);
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			dos.writeByte(TYPED_STRING);
+			writeString(dos, typedValue.getValue());
+			writeString(dos, typedValue.getTargetTypeName());
+			writeString(dos, typedValue.getSpecifiedTypeName());
+			dos.writeBoolean(typedValue.isDynamic());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (ref.getBeanType() != null) {
+				throw unsupported(beanName, "type-based bean reference " + ref);
+			}
+			dos.writeByte(BEAN_REFERENCE);
+			dos.writeUTF(ref.getBeanName());
+			dos.writeBoolean(ref.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			dos.writeByte(BEAN_NAME_REFERENCE);
+			dos.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			dos.writeByte(BEAN_DEFINITION_HOLDER);
+			writeBeanDefinitionHolder(dos, (BeanDefinitionHolder) value);
+		}
+		else if (value instanceof BeanDefinition) {
+			dos.writeByte(BEAN_DEFINITION);
+			writeBeanDefinition(dos, beanName, (BeanDefinition) value);
+		}
+		else if (value instanceof ManagedArray) {
+			ManagedArray array = (ManagedArray) value;
+			dos.writeByte(ARRAY);
+			writeString(dos, array.getElementTypeName());
+			dos.writeBoolean(array.isMergeEnabled());
+			writeElements(dos, beanName, array);
+		}
+		else if (value instanceof ManagedList) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			dos.writeByte(LIST);
+			writeString(dos, list.getElementTypeName());
+			dos.writeBoolean(list.isMergeEnabled());
+			writeElements(dos, beanName, list);
+		}
+		else if (value instanceof ManagedSet) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			dos.writeByte(SET);
+			writeString(dos, set.getElementTypeName());
+			dos.writeBoolean(set.isMergeEnabled());
+			writeElements(dos, beanName, set);
+		}
+		else if (value instanceof ManagedMap) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			dos.writeByte(MAP);
+			writeString(dos, map.getKeyTypeName());
+			writeString(dos, map.getValueTypeName());
+			dos.writeBoolean(map.isMergeEnabled());
+			writeEntries(dos, beanName, map);
+		}
+		else if (value instanceof ManagedProperties) {
+			ManagedProperties props = (ManagedProperties) value;
+			dos.writeByte(PROPERTIES);
+			dos.writeBoolean(props.isMergeEnabled());
+			writeEntries(dos, beanName, props);
+		}
+		else if (value instanceof Boolean) {
+			dos.writeByte(BOOLEAN);
+			dos.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			dos.writeByte(INTEGER);
+			dos.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			dos.writeByte(LONG);
+			dos.writeLong((Long) value);
+		}
+		else {
+			throw unsupported(beanName, "value of type " + value.getClass().getName());
+		}
+	}
+
+	private static void writeElements(DataOutputStream dos, String beanName, Collection<?> elements)
+			throws IOException {
+
+		dos.writeInt(elements.size());
+		for (Object element : elements) {
+			writeValue(dos, beanName, element);
+		}
+	}
+
+	private static void writeEntries(DataOutputStream dos, String beanName, Map<?, ?> map) throws IOException {
+		dos.writeInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeValue(dos, beanName, entry.getKey());
+			writeValue(dos, beanName, entry.getValue());
+		}
+	}
+
+	private static void writeString(DataOutputStream dos, @Nullable String value) throws IOException {
+		dos.writeBoolean(value != null);
+		if (value != null) {
+			dos.writeUTF(value);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream dos, @Nullable String[] values) throws IOException {
+		if (values == null) {
+			dos.writeInt(-1);
+			return;
+		}
+		dos.writeInt(values.length);
+		for (String value : values) {
+			dos.writeUTF(value);
+		}
+	}
+
+	private static void writeBoolean(DataOutputStream dos, @Nullable Boolean value) throws IOException {
+		dos.writeByte(value == null ? -1 : (value ? 1 : 0));
+	}
+
+	private static NotSerializableException unsupported(String beanName, String what) {
+		return new NotSerializableException(
+				"Bean definition '" + beanName + "' cannot be written to a snapshot: unsupported " + what);
+	}
+
+
+	// Reading
+
+	private static AbstractBeanDefinition readBeanDefinition(DataInputStream dis, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		String className = readString(dis);
+		String parentName = readString(dis);
+		AbstractBeanDefinition bd;
+		if (parentName != null) {
+			GenericBeanDefinition gbd = new GenericBeanDefinition();
+			gbd.setParentName(parentName);
+			bd = gbd;
+		}
+		else {
+			bd = new RootBeanDefinition();
+		}
+		bd.setBeanClassName(className);
+		bd.setScope(readString(dis));
+		bd.setAbstract(dis.readBoolean());
+		byte lazyInit = dis.readByte();
+		if (lazyInit != -1) {
+			bd.setLazyInit(lazyInit == 1);
+		}
+		bd.setAutowireMode(dis.readInt());
+		bd.setDependencyCheck(dis.readInt());
+		bd.setDependsOn(readStrings(dis));
+		bd.setAutowireCandidate(dis.readBoolean());
+		bd.setPrimary(dis.readBoolean());
+		bd.setNonPublicAccessAllowed(dis.readBoolean());
+		bd.setLenientConstructorResolution(dis.readBoolean());
+		bd.setFactoryBeanName(readString(dis));
+		bd.setFactoryMethodName(readString(dis));
+		bd.setInitMethodName(readString(dis));
+		bd.setEnforceInitMethod(dis.readBoolean());
+		bd.setDestroyMethodName(readString(dis));
+		bd.setEnforceDestroyMethod(dis.readBoolean());
+		bd.setSynthetic(dis.readBoolean());
+		bd.setRole(dis.readInt());
+		bd.setDescription(readString(dis));
+		bd.setResourceDescription(readString(dis));
+
+		int qualifierCount = dis.readInt();
+		for (int i = 0; i < qualifierCount; i++) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(dis.readUTF());
+			readAttributes(dis, qualifier, classLoader);
+			bd.addQualifier(qualifier);
+		}
+		readAttributes(dis, bd, classLoader);
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		int indexedCount = dis.readInt();
+		for (int i = 0; i < indexedCount; i++) {
+			int index = dis.readInt();
+			cargs.addIndexedArgumentValue(index, readValueHolder(dis, classLoader));
+		}
+		int genericCount = dis.readInt();
+		for (int i = 0; i < genericCount; i++) {
+			cargs.addGenericArgumentValue(readValueHolder(dis, classLoader));
+		}
+
+		MutablePropertyValues pvs = bd.getPropertyValues();
+		int pvCount = dis.readInt();
+		for (int i = 0; i < pvCount; i++) {
+			String name = dis.readUTF();
+			boolean optional = dis.readBoolean();
+			PropertyValue pv = new PropertyValue(name, readValue(dis, classLoader));
+			pv.setOptional(optional);
+			pvs.addPropertyValue(pv);
+		}
+
+		int overrideCount = dis.readInt();
+		for (int i = 0; i < overrideCount; i++) {
+			byte type = dis.readByte();
+			if (type == LOOKUP_OVERRIDE) {
+				String methodName = dis.readUTF();
+				bd.getMethodOverrides().addOverride(new LookupOverride(methodName, readString(dis)));
+			}
+			else if (type == REPLACE_OVERRIDE) {
+				ReplaceOverride override = new ReplaceOverride(dis.readUTF(), dis.readUTF());
+				String[] typeIdentifiers = readStrings(dis);
+				if (typeIdentifiers != null) {
+					for (String typeIdentifier : typeIdentifiers) {
+						override.addTypeIdentifier(typeIdentifier);
+					}
+				}
+				bd.getMethodOverrides().addOverride(override);
+			}
+			else {
+				throw new IOException("Corrupt bean definition snapshot: unknown method override type " + type);
+			}
+		}
+
+		boolean factoryMethodUnique = dis.readBoolean();
+		String targetTypeName = readString(dis);
+		BeanDefinitionHolder decorated = (dis.readBoolean() ? readBeanDefinitionHolder(dis, classLoader) : null);
+		if (bd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			rbd.isFactoryMethodUnique = factoryMethodUnique;
+			if (targetTypeName != null) {
+				try {
+					rbd.setTargetType(ClassUtils.forName(targetTypeName, classLoader));
+				}
+				catch (ClassNotFoundException | LinkageError ex) {
+					// Target type is merely a hint - let the bean factory determine it at runtime
+				}
+			}
+			rbd.setDecoratedDefinition(decorated);
+		}
+		return bd;
+	}
+
+	private static BeanDefinitionHolder readBeanDefinitionHolder(DataInputStream dis, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		String beanName = dis.readUTF();
+		String[] aliases = readStrings(dis);
+		return new BeanDefinitionHolder(readBeanDefinition(dis, classLoader), beanName, aliases);
+	}
+
+	private static ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream dis,
+			@Nullable ClassLoader classLoader) throws IOException {
+
+		String type = readString(dis);
+		String name = readString(dis);
+		return new ConstructorArgumentValues.ValueHolder(readValue(dis, classLoader), type, name);
+	}
+
+	private static void readAttributes(DataInputStream dis, BeanMetadataAttributeAccessor accessor,
+			@Nullable ClassLoader classLoader) throws IOException {
+
+		int count = dis.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = dis.readUTF();
+			accessor.addMetadataAttribute(new BeanMetadataAttribute(name, readValue(dis, classLoader)));
+		}
+	}
+
+	@Nullable
+	private static Object readValue(DataInputStream dis, @Nullable ClassLoader classLoader) throws IOException {
+		byte tag = dis.readByte();
+		switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return dis.readUTF();
+			case TYPED_STRING:
+				TypedStringValue typedValue = new TypedStringValue(readString(dis));
+				typedValue.setTargetTypeName(readString(dis));
+				typedValue.setSpecifiedTypeName(readString(dis));
+				if (dis.readBoolean()) {
+					typedValue.setDynamic();
+				}
+				return typedValue;
+			case BEAN_REFERENCE:
+				return new RuntimeBeanReference(dis.readUTF(), dis.readBoolean());
+			case BEAN_NAME_REFERENCE:
+				return new RuntimeBeanNameReference(dis.readUTF());
+			case BEAN_DEFINITION_HOLDER:
+				return readBeanDefinitionHolder(dis, classLoader);
+			case BEAN_DEFINITION:
+				return readBeanDefinition(dis, classLoader);
+			case ARRAY: {
+				String elementTypeName = readString(dis);
+				boolean mergeEnabled = dis.readBoolean();
+				int size = dis.readInt();
+				ManagedArray array = new ManagedArray(elementTypeName != null ? elementTypeName : "", size);
+				array.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					array.add(readValue(dis, classLoader));
+				}
+				return array;
+			}
+			case LIST: {
+				ManagedList<Object> list = new ManagedList<>();
+				String elementTypeName = readString(dis);
+				if (elementTypeName != null) {
+					list.setElementTypeName(elementTypeName);
+				}
+				list.setMergeEnabled(dis.readBoolean());
+				int size = dis.readInt();
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(dis, classLoader));
+				}
+				return list;
+			}
+			case SET: {
+				ManagedSet<Object> set = new ManagedSet<>();
+				set.setElementTypeName(readString(dis));
+				set.setMergeEnabled(dis.readBoolean());
+				int size = dis.readInt();
+				for (int i = 0; i < size; i++) {
+					set.add(readValue(dis, classLoader));
+				}
+				return set;
+			}
+			case MAP: {
+				ManagedMap<Object, Object> map = new ManagedMap<>();
+				map.setKeyTypeName(readString(dis));
+				map.setValueTypeName(readString(dis));
+				map.setMergeEnabled(dis.readBoolean());
+				int size = dis.readInt();
+				for (int i = 0; i < size; i++) {
+					map.put(readValue(dis, classLoader), readValue(dis, classLoader));
+				}
+				return map;
+			}
+			case PROPERTIES: {
+				ManagedProperties props = new ManagedProperties();
+				props.setMergeEnabled(dis.readBoolean());
+				int size = dis.readInt();
+				for (int i = 0; i < size; i++) {
+					props.put(readValue(dis, classLoader), readValue(dis, classLoader));
+				}
+				return props;
+			}
+			case BOOLEAN:
+				return dis.readBoolean();
+			case INTEGER:
+				return dis.readInt();
+			case LONG:
+				return dis.readLong();
+			default:
+				throw new IOException("Corrupt bean definition snapshot: unknown value tag " + tag);
+		}
+	}
+
+	@Nullable
+	private static String readString(DataInputStream dis) throws IOException {
+		return (dis.readBoolean() ? dis.readUTF() : null);
+	}
+
+	@Nullable
+	private static String[] readStrings(DataInputStream dis) throws IOException {
+		int length = dis.readInt();
+		if (length < 0) {
+			return null;
+		}
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = dis.readUTF();
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,545 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * {@link XmlBeanDefinitionReader} variant which reads the "spring-beans" XML format
+ * through a StAX stream instead of building a complete DOM {@code Document} upfront.
+ *
+ * <p>Every top-level element of a {@code <beans>} section is materialized as a small
+ * DOM fragment, handed to the regular {@link BeanDefinitionParserDelegate} (or to
+ * the applicable {@link NamespaceHandler} for custom elements) and discarded right
+ * afterwards. Nested {@code <beans>} sections, including their profile conditions,
+ * are processed in a streaming fashion as well. As a consequence, the heap needed
+ * per XML file is bounded by the largest top-level element rather than by the
+ * size of the entire document.
+ *
+ * <p>XML schema validation is <i>off by default</i> for this reader; it can be
+ * activated through {@link #setValidating} or {@link #setValidationMode}. If active,
+ * each resource gets validated in a separate streaming pass against a
+ * {@link Schema} instance which is shared across all files processed by this
+ * reader, so that grammars only get loaded once.
+ *
+ * <p>Falls back to the standard DOM-based processing of {@link XmlBeanDefinitionReader}
+ * for DTD-based documents, documents with a custom root element, resources which
+ * cannot be read more than once but require validation, as well as for custom
+ * {@link BeanDefinitionDocumentReader} implementations.
+ *
+ * @since 5.3
+ * @see XmlBeanDefinitionReader
+ * @see DefaultBeanDefinitionDocumentReader
+ */
+public class StaxXmlBeanDefinitionReader extends XmlBeanDefinitionReader {
+
+	private static final String XMLNS_ATTRIBUTE_NS_URI = "http://www.w3.org/2000/xmlns/";
+
+
+	private final XMLInputFactory inputFactory = StaxUtils.createDefensiveInputFactory();
+
+	@Nullable
+	private volatile DocumentBuilder documentBuilder;
+
+	@Nullable
+	private volatile Schema schema;
+
+
+	/**
+	 * Create a new StaxXmlBeanDefinitionReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public StaxXmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
+		super(registry);
+		setValidationMode(VALIDATION_NONE);
+	}
+
+
+	/**
+	 * This implementation streams through the given XML document if possible,
+	 * falling back to the standard DOM-based processing otherwise.
+	 */
+	@Override
+	protected int doLoadBeanDefinitions(InputSource inputSource, Resource resource)
+			throws BeanDefinitionStoreException {
+
+		BeanDefinitionDocumentReader documentReader = createBeanDefinitionDocumentReader();
+		if (documentReader.getClass() != DefaultBeanDefinitionDocumentReader.class ||
+				(inputSource.getByteStream() == null && inputSource.getCharacterStream() == null)) {
+			return super.doLoadBeanDefinitions(inputSource, resource);
+		}
+
+		try {
+			int validationMode = getValidationModeForResource(resource);
+			if (validationMode == VALIDATION_DTD) {
+				return super.doLoadBeanDefinitions(inputSource, resource);
+			}
+			if (validationMode == VALIDATION_XSD) {
+				if (resource.isOpen()) {
+					return super.doLoadBeanDefinitions(inputSource, resource);
+				}
+				validate(resource, inputSource.getEncoding());
+			}
+
+			int countBefore = getRegistry().getBeanDefinitionCount();
+			XMLStreamReader streamReader = createStreamReader(inputSource);
+			try {
+				if (!streamDocument(streamReader, (DefaultBeanDefinitionDocumentReader) documentReader, resource)) {
+					if (resource.isOpen()) {
+						throw new BeanDefinitionStoreException(resource.getDescription(),
+								"Passed-in Resource [" + resource + "] contains a DTD declaration " +
+								"and cannot be re-read for DOM-based processing");
+					}
+					if (logger.isDebugEnabled()) {
+						logger.debug("Falling back to DOM-based processing for DTD-based XML document from " +
+								resource);
+					}
+					InputSource fallbackSource = new InputSource(resource.getInputStream());
+					fallbackSource.setEncoding(inputSource.getEncoding());
+					return super.doLoadBeanDefinitions(fallbackSource, resource);
+				}
+			}
+			finally {
+				streamReader.close();
+			}
+			int count = getRegistry().getBeanDefinitionCount() - countBefore;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " bean definitions from " + resource + " via StAX");
+			}
+			return count;
+		}
+		catch (BeanDefinitionStoreException ex) {
+			throw ex;
+		}
+		catch (XMLStreamException ex) {
+			Location location = ex.getLocation();
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					(location != null ? "Line " + location.getLineNumber() + " in XML document from " :
+							"XML document from ") + resource + " is invalid", ex);
+		}
+		catch (SAXParseException ex) {
+			throw new XmlBeanDefinitionStoreException(resource.getDescription(),
+					"Line " + ex.getLineNumber() + " in XML document from " + resource + " is invalid", ex);
+		}
+		catch (SAXException ex) {
+			throw new XmlBeanDefinitionStoreException(resource.getDescription(),
+					"XML document from " + resource + " is invalid", ex);
+		}
+		catch (ParserConfigurationException ex) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					"Parser configuration exception parsing XML from " + resource, ex);
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					"IOException parsing XML document from " + resource, ex);
+		}
+		catch (Throwable ex) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					"Unexpected exception parsing XML document from " + resource, ex);
+		}
+	}
+
+	private XMLStreamReader createStreamReader(InputSource inputSource) throws XMLStreamException {
+		InputStream inputStream = inputSource.getByteStream();
+		if (inputStream != null) {
+			String encoding = inputSource.getEncoding();
+			return (encoding != null ? this.inputFactory.createXMLStreamReader(inputStream, encoding) :
+					this.inputFactory.createXMLStreamReader(inputStream));
+		}
+		Reader reader = inputSource.getCharacterStream();
+		return this.inputFactory.createXMLStreamReader(reader);
+	}
+
+	/**
+	 * Stream through the given document, registering bean definitions as we go.
+	 * @return {@code true} if the document has been processed, or {@code false}
+	 * if a DTD declaration has been encountered before the root element
+	 */
+	private boolean streamDocument(XMLStreamReader streamReader, DefaultBeanDefinitionDocumentReader documentReader,
+			Resource resource) throws XMLStreamException, ParserConfigurationException {
+
+		while (streamReader.hasNext()) {
+			int event = streamReader.next();
+			if (event == XMLStreamConstants.DTD) {
+				return false;
+			}
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				XmlReaderContext readerContext = createReaderContext(resource);
+				Document doc = getDocumentBuilder().newDocument();
+				Element root = createElement(doc, streamReader);
+				doc.appendChild(root);
+				if (!BeanDefinitionParserDelegate.BEANS_NAMESPACE_URI.equals(root.getNamespaceURI()) &&
+						StringUtils.hasLength(root.getNamespaceURI())) {
+					// Custom root element: requires the entire tree for its NamespaceHandler.
+					readChildren(doc, root, streamReader);
+					documentReader.registerBeanDefinitions(doc, readerContext);
+				}
+				else {
+					documentReader.initReaderContext(readerContext);
+					streamBeansElement(streamReader, documentReader, root, null);
+				}
+				return true;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Process the given {@code <beans>} element, whose start tag has just been
+	 * read, along with its content up until the corresponding end tag.
+	 */
+	private void streamBeansElement(XMLStreamReader streamReader, DefaultBeanDefinitionDocumentReader documentReader,
+			Element beans, @Nullable BeanDefinitionParserDelegate parent) throws XMLStreamException {
+
+		BeanDefinitionParserDelegate delegate =
+				documentReader.createDelegate(documentReader.getReaderContext(), beans, parent);
+		if (delegate.isDefaultNamespace(beans) && !documentReader.acceptsProfiles(beans)) {
+			skipElement(streamReader);
+			return;
+		}
+
+		Document doc = beans.getOwnerDocument();
+		documentReader.preProcessXml(beans);
+		while (streamReader.hasNext()) {
+			int event = streamReader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				Element ele = createElement(doc, streamReader);
+				beans.appendChild(ele);
+				if (delegate.nodeNameEquals(ele, DefaultBeanDefinitionDocumentReader.NESTED_BEANS_ELEMENT) &&
+						delegate.isDefaultNamespace(ele)) {
+					streamBeansElement(streamReader, documentReader, ele, delegate);
+				}
+				else {
+					readChildren(doc, ele, streamReader);
+					if (delegate.isDefaultNamespace(ele)) {
+						documentReader.parseDefaultElement(ele, delegate);
+					}
+					else {
+						delegate.parseCustomElement(ele);
+					}
+				}
+				// Release the fragment right away, keeping the memory footprint flat.
+				beans.removeChild(ele);
+			}
+		}
+		documentReader.postProcessXml(beans);
+	}
+
+	/**
+	 * Build the DOM subtree for the element whose start tag has just been read,
+	 * consuming the stream up until the corresponding end tag.
+	 */
+	private void readChildren(Document doc, Element parent, XMLStreamReader streamReader)
+			throws XMLStreamException {
+
+		Element current = parent;
+		int depth = 0;
+		while (streamReader.hasNext()) {
+			int event = streamReader.next();
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					Element child = createElement(doc, streamReader);
+					current.appendChild(child);
+					current = child;
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if (depth == 0) {
+						return;
+					}
+					current = (Element) current.getParentNode();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					current.appendChild(doc.createTextNode(streamReader.getText()));
+					break;
+				case XMLStreamConstants.CDATA:
+					current.appendChild(doc.createCDATASection(streamReader.getText()));
+					break;
+				case XMLStreamConstants.COMMENT:
+					current.appendChild(doc.createComment(streamReader.getText()));
+					break;
+				case XMLStreamConstants.ENTITY_REFERENCE:
+					current.appendChild(doc.createEntityReference(streamReader.getLocalName()));
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private void skipElement(XMLStreamReader streamReader) throws XMLStreamException {
+		int depth = 0;
+		while (streamReader.hasNext()) {
+			int event = streamReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (depth == 0) {
+					return;
+				}
+				depth--;
+			}
+		}
+	}
+
+	private Element createElement(Document doc, XMLStreamReader streamReader) {
+		String namespaceUri = streamReader.getNamespaceURI();
+		Element element = doc.createElementNS(StringUtils.hasLength(namespaceUri) ? namespaceUri : null,
+				qualifiedName(streamReader.getPrefix(), streamReader.getLocalName()));
+		for (int i = 0; i < streamReader.getNamespaceCount(); i++) {
+			String prefix = streamReader.getNamespacePrefix(i);
+			element.setAttributeNS(XMLNS_ATTRIBUTE_NS_URI,
+					(StringUtils.hasLength(prefix) ? XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix :
+							XMLConstants.XMLNS_ATTRIBUTE),
+					streamReader.getNamespaceURI(i));
+		}
+		for (int i = 0; i < streamReader.getAttributeCount(); i++) {
+			String attributeNamespaceUri = streamReader.getAttributeNamespace(i);
+			element.setAttributeNS(StringUtils.hasLength(attributeNamespaceUri) ? attributeNamespaceUri : null,
+					qualifiedName(streamReader.getAttributePrefix(i), streamReader.getAttributeLocalName(i)),
+					streamReader.getAttributeValue(i));
+		}
+		return element;
+	}
+
+	private static String qualifiedName(@Nullable String prefix, String localName) {
+		return (StringUtils.hasLength(prefix) ? prefix + ":" + localName : localName);
+	}
+
+	private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder documentBuilder = this.documentBuilder;
+		if (documentBuilder == null) {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			documentBuilder = factory.newDocumentBuilder();
+			this.documentBuilder = documentBuilder;
+		}
+		return documentBuilder;
+	}
+
+	/**
+	 * Validate the given resource against the XML schemas that it refers to,
+	 * reading it in a separate streaming pass.
+	 */
+	private void validate(Resource resource, @Nullable String encoding) throws IOException, SAXException {
+		Validator validator = getSchema().newValidator();
+		validator.setErrorHandler(getErrorHandler());
+		validator.setResourceResolver(new EntityResolverAdapter(getEntityResolver()));
+		try (InputStream inputStream = resource.getInputStream()) {
+			InputSource inputSource = new InputSource(inputStream);
+			inputSource.setEncoding(encoding);
+			validator.validate(new SAXSource(inputSource));
+		}
+	}
+
+	/**
+	 * Return the shared {@link Schema} for all validation passes of this reader.
+	 * The schema is built from the {@code xsi:schemaLocation} hints in each
+	 * document, caching the grammars that have been loaded in the process.
+	 */
+	private Schema getSchema() throws SAXException {
+		Schema schema = this.schema;
+		if (schema == null) {
+			SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			schemaFactory.setErrorHandler(getErrorHandler());
+			schemaFactory.setResourceResolver(new EntityResolverAdapter(getEntityResolver()));
+			schema = schemaFactory.newSchema();
+			this.schema = schema;
+		}
+		return schema;
+	}
+
+
+	/**
+	 * Adapts an {@link EntityResolver} to the {@link LSResourceResolver} contract
+	 * of the {@code javax.xml.validation} API.
+	 */
+	private static class EntityResolverAdapter implements LSResourceResolver {
+
+		private final EntityResolver entityResolver;
+
+		public EntityResolverAdapter(EntityResolver entityResolver) {
+			this.entityResolver = entityResolver;
+		}
+
+		@Override
+		@Nullable
+		public LSInput resolveResource(String type, @Nullable String namespaceURI, @Nullable String publicId,
+				@Nullable String systemId, @Nullable String baseURI) {
+
+			if (systemId == null) {
+				return null;
+			}
+			try {
+				InputSource inputSource = this.entityResolver.resolveEntity(publicId, systemId);
+				return (inputSource != null ? new InputSourceInput(inputSource, baseURI) : null);
+			}
+			catch (IOException | SAXException ex) {
+				return null;
+			}
+		}
+	}
+
+
+	/**
+	 * {@link LSInput} implementation exposing a SAX {@link InputSource}.
+	 */
+	private static class InputSourceInput implements LSInput {
+
+		private final InputSource inputSource;
+
+		@Nullable
+		private String stringData;
+
+		@Nullable
+		private String baseURI;
+
+		private boolean certifiedText;
+
+		public InputSourceInput(InputSource inputSource, @Nullable String baseURI) {
+			this.inputSource = inputSource;
+			this.baseURI = baseURI;
+		}
+
+		@Override
+		@Nullable
+		public Reader getCharacterStream() {
+			return this.inputSource.getCharacterStream();
+		}
+
+		@Override
+		public void setCharacterStream(Reader characterStream) {
+			this.inputSource.setCharacterStream(characterStream);
+		}
+
+		@Override
+		@Nullable
+		public InputStream getByteStream() {
+			return this.inputSource.getByteStream();
+		}
+
+		@Override
+		public void setByteStream(InputStream byteStream) {
+			this.inputSource.setByteStream(byteStream);
+		}
+
+		@Override
+		@Nullable
+		public String getStringData() {
+			return this.stringData;
+		}
+
+		@Override
+		public void setStringData(String stringData) {
+			this.stringData = stringData;
+		}
+
+		@Override
+		@Nullable
+		public String getSystemId() {
+			return this.inputSource.getSystemId();
+		}
+
+		@Override
+		public void setSystemId(String systemId) {
+			this.inputSource.setSystemId(systemId);
+		}
+
+		@Override
+		@Nullable
+		public String getPublicId() {
+			return this.inputSource.getPublicId();
+		}
+
+		@Override
+		public void setPublicId(String publicId) {
+			this.inputSource.setPublicId(publicId);
+		}
+
+		@Override
+		@Nullable
+		public String getBaseURI() {
+			return this.baseURI;
+		}
+
+		@Override
+		public void setBaseURI(String baseURI) {
+			this.baseURI = baseURI;
+		}
+
+		@Override
+		@Nullable
+		public String getEncoding() {
+			return this.inputSource.getEncoding();
+		}
+
+		@Override
+		public void setEncoding(String encoding) {
+			this.inputSource.setEncoding(encoding);
+		}
+
+		@Override
+		public boolean getCertifiedText() {
+			return this.certifiedText;
+		}
+
+		@Override
+		public void setCertifiedText(boolean certifiedText) {
+			this.certifiedText = certifiedText;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -283,6 +283,14 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
 		this.errorHandler = errorHandler;
 	}
 
+	/**
+	 * Return the {@code org.xml.sax.ErrorHandler} to use for XML parsing errors.
+	 * @since 5.3
+	 */
+	protected ErrorHandler getErrorHandler() {
+		return this.errorHandler;
+	}
+
 	/**
 	 * Specify the {@link BeanDefinitionDocumentReader} implementation to use,
 	 * responsible for the actual reading of the XML bean definition document.
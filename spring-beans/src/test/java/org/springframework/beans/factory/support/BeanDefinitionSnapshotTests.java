@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ */
+public class BeanDefinitionSnapshotTests {
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(this.beanFactory).loadBeanDefinitions(
+				new ClassPathResource("beanDefinitionSnapshotTests.xml", getClass()));
+	}
+
+
+	@Test
+	public void restoredBeanDefinitionsAreMerged() throws IOException {
+		DefaultListableBeanFactory restored = roundTrip("fp");
+
+		assertThat(restored.getBeanDefinitionNames()).containsExactly(this.beanFactory.getBeanDefinitionNames());
+		BeanDefinition child = restored.getBeanDefinition("child");
+		assertThat(child).isInstanceOf(RootBeanDefinition.class);
+		assertThat(child.getParentName()).isNull();
+		assertThat(child.getBeanClassName()).isEqualTo(TestBean.class.getName());
+		assertThat(child.isLazyInit()).isTrue();
+		assertThat(child.isPrimary()).isTrue();
+		assertThat(restored.getBeanDefinition("parent").isAbstract()).isTrue();
+		assertThat(restored.getAliases("child")).containsExactly("kid");
+
+		BeanDefinition other = restored.getBeanDefinition("other");
+		assertThat(other.isPrototype()).isTrue();
+		assertThat(other.getDependsOn()).containsExactly("child");
+		assertThat(((AbstractBeanDefinition) other).hasQualifier("org.springframework.beans.factory.annotation.Qualifier")).isTrue();
+	}
+
+	@Test
+	public void restoredBeanDefinitionsCreateEquivalentBeans() throws IOException {
+		DefaultListableBeanFactory restored = roundTrip("fp");
+
+		TestBean original = (TestBean) this.beanFactory.getBean("kid");
+		TestBean bean = (TestBean) restored.getBean("kid");
+		assertThat(bean.getName()).isEqualTo(original.getName());
+		assertThat(bean.getAge()).isEqualTo(42);
+		assertThat(bean.getSpouse().getName()).isEqualTo("inner");
+		assertThat(bean.getSpouse().getAge()).isEqualTo(7);
+		assertThat(bean.getSomeList()).hasSize(2).element(0).isEqualTo("one");
+		assertThat(((TestBean) bean.getSomeList().get(1)).getName()).isEqualTo("other");
+		assertThat(bean.getSomeMap().get("key")).isEqualTo("value");
+		assertThat(bean.getSomeProperties()).containsEntry("prop", "propValue");
+	}
+
+	@Test
+	public void innerBeanDefinitionKeepsParent() throws IOException {
+		DefaultListableBeanFactory restored = roundTrip("fp");
+
+		Object spouse = restored.getBeanDefinition("withInnerChild").getPropertyValues().get("spouse");
+		assertThat(spouse).isInstanceOf(BeanDefinitionHolder.class);
+		BeanDefinition inner = ((BeanDefinitionHolder) spouse).getBeanDefinition();
+		assertThat(inner).isInstanceOf(GenericBeanDefinition.class);
+		assertThat(inner.getParentName()).isEqualTo("parent");
+
+		TestBean bean = (TestBean) restored.getBean("withInnerChild");
+		assertThat(bean.getSpouse().getName()).isEqualTo("innerChild");
+		assertThat(bean.getSpouse().getAge()).isEqualTo(42);
+	}
+
+	@Test
+	public void targetTypeIsResolvedWithGivenClassLoader() throws IOException {
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setTargetType(TestBean.class);
+		this.beanFactory.registerBeanDefinition("typed", bd);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.write(this.beanFactory, "fp", out);
+
+		List<String> requested = new ArrayList<>();
+		ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			public Class<?> loadClass(String name) throws ClassNotFoundException {
+				requested.add(name);
+				return super.loadClass(name);
+			}
+		};
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		BeanDefinitionSnapshot.read(new ByteArrayInputStream(out.toByteArray()), "fp", restored, classLoader);
+		assertThat(requested).contains(TestBean.class.getName());
+		assertThat(((RootBeanDefinition) restored.getBeanDefinition("typed")).getTargetType()).isEqualTo(TestBean.class);
+	}
+
+	@Test
+	public void snapshotWithDifferentFingerprintIsRejected() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.write(this.beanFactory, "fp1", out);
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		boolean applied = BeanDefinitionSnapshot.read(new ByteArrayInputStream(out.toByteArray()), "fp2", restored);
+		assertThat(applied).isFalse();
+		assertThat(restored.getBeanDefinitionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void instanceSupplierIsNotSupported() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class, TestBean::new);
+		this.beanFactory.registerBeanDefinition("supplied", bd);
+
+		assertThatExceptionOfType(NotSerializableException.class).isThrownBy(() ->
+				BeanDefinitionSnapshot.write(this.beanFactory, "fp", new ByteArrayOutputStream()))
+			.withMessageContaining("supplied");
+	}
+
+	@Test
+	public void classpathFingerprintIsStable() {
+		String fingerprint = BeanDefinitionSnapshot.classpathFingerprint(getClass().getClassLoader());
+		assertThat(fingerprint).hasSize(32);
+		assertThat(BeanDefinitionSnapshot.classpathFingerprint(getClass().getClassLoader())).isEqualTo(fingerprint);
+	}
+
+
+	private DefaultListableBeanFactory roundTrip(String fingerprint) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.write(this.beanFactory, fingerprint, out);
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		boolean applied = BeanDefinitionSnapshot.read(new ByteArrayInputStream(out.toByteArray()), fingerprint, restored);
+		assertThat(applied).isTrue();
+		return restored;
+	}
+
+}
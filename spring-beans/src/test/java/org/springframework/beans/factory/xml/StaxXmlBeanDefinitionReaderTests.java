@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.xml.sax.SAXParseException;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link StaxXmlBeanDefinitionReader}.
+ */
+public class StaxXmlBeanDefinitionReaderTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"collections.xml", "testUtilNamespace.xml", "simplePropertyNamespaceHandlerTests.xml",
+			"NestedBeansElementAttributeRecursionTests-lazy-context.xml", "factory-methods.xml", "withMeta.xml",
+			"validateWithDtd.xml"})
+	public void sameBeanDefinitionsAsDomReader(String location) {
+		Resource resource = new ClassPathResource(location, getClass());
+
+		DefaultListableBeanFactory domFactory = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(domFactory).loadBeanDefinitions(resource);
+		DefaultListableBeanFactory staxFactory = new DefaultListableBeanFactory();
+		int count = new StaxXmlBeanDefinitionReader(staxFactory).loadBeanDefinitions(resource);
+
+		assertThat(count).isEqualTo(domFactory.getBeanDefinitionCount());
+		assertThat(staxFactory.getBeanDefinitionNames()).containsExactly(domFactory.getBeanDefinitionNames());
+		for (String beanName : domFactory.getBeanDefinitionNames()) {
+			// Not comparing the definitions as such, since inner bean names are generated
+			BeanDefinition domDefinition = domFactory.getBeanDefinition(beanName);
+			BeanDefinition staxDefinition = staxFactory.getBeanDefinition(beanName);
+			assertThat(staxDefinition.toString()).isEqualTo(domDefinition.toString());
+			assertThat(staxDefinition.getPropertyValues().size()).isEqualTo(domDefinition.getPropertyValues().size());
+			assertThat(staxDefinition.getConstructorArgumentValues().getArgumentCount())
+					.isEqualTo(domDefinition.getConstructorArgumentValues().getArgumentCount());
+			assertThat(staxFactory.getAliases(beanName)).containsExactlyInAnyOrder(domFactory.getAliases(beanName));
+		}
+	}
+
+	@Test
+	public void customNamespaceElements() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+				new ClassPathResource("testUtilNamespace.xml", getClass()));
+
+		assertThat(bf.getBean("min")).isEqualTo(Integer.MIN_VALUE);
+		assertThat(bf.getBean("testBean", TestBean.class).getName()).isEqualTo("Rob Harrop");
+	}
+
+	@Test
+	public void nestedBeansElementWithoutActiveProfile() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+				new ClassPathResource("NestedBeansElementTests-context.xml", getClass()));
+
+		assertThat(bf.getBean("foo")).isInstanceOf(String.class);
+		assertThat(bf.containsBeanDefinition("devOnlyBean")).isFalse();
+	}
+
+	@Test
+	public void nestedBeansElementWithActiveProfile() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(bf);
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setActiveProfiles("dev");
+		reader.setEnvironment(environment);
+		reader.loadBeanDefinitions(new ClassPathResource("NestedBeansElementTests-context.xml", getClass()));
+
+		assertThat(bf.getBean("foo")).isEqualTo(42);
+		assertThat(bf.containsBeanDefinition("devOnlyBean")).isTrue();
+	}
+
+	@Test
+	public void noValidationByDefault() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		int count = new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+				new ClassPathResource("invalidPerSchema.xml", getClass()));
+
+		assertThat(count).isEqualTo(0);
+	}
+
+	@Test
+	public void withExplicitValidationMode() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(bf);
+		reader.setValidationMode(XmlBeanDefinitionReader.VALIDATION_XSD);
+
+		assertThat(reader.loadBeanDefinitions(new ClassPathResource("schemaValidated.xml", getClass()))).isEqualTo(2);
+		assertThat(bf.getBean("fooBean", TestBean.class).getFriends()).hasSize(2);
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				reader.loadBeanDefinitions(new ClassPathResource("invalidPerSchema.xml", getClass())))
+			.withCauseInstanceOf(SAXParseException.class);
+	}
+
+	@Test
+	public void inputStreamResource() throws Exception {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		Resource resource = new ClassPathResource("collections.xml", getClass());
+		int count = new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+				new InputStreamResource(resource.getInputStream()));
+
+		assertThat(count).isGreaterThan(0);
+		assertThat(bf.getBeanDefinitionCount()).isEqualTo(count);
+	}
+
+}
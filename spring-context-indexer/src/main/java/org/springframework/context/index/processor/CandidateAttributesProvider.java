@@ -0,0 +1,267 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Collect the attributes of a candidate type that describe its class structure,
+ * its runtime annotations and its annotated methods, so that the equivalent
+ * metadata can be exposed at runtime without reading the class file. This covers
+ * {@code @Conditional}, {@code @Scope}, {@code @Lazy}, {@code @Primary},
+ * {@code @DependsOn} as well as {@code @Bean} method signatures.
+ *
+ * <p>Attributes are keyed by a name relative to the candidate type:
+ * <ul>
+ * <li>{@code ""}: the modifiers of the type</li>
+ * <li>{@code "/super"}, {@code "/interfaces"}, {@code "/members"} and
+ * {@code "/enclosing"}: the related type names</li>
+ * <li>{@code "/method/<index>"}: the modifiers of an annotated method, with
+ * {@code "/name"} and {@code "/returns"} sub-keys</li>
+ * <li>{@code "@<annotation>"}: an annotation declared on the type (or on the
+ * method whose key is used as a prefix), with an {@code "/<attribute>"} sub-key
+ * for each attribute that is explicitly set</li>
+ * </ul>
+ * <p>Array values are comma-delimited. A type with an attribute value that cannot
+ * be represented, such as a nested annotation, gets no attributes at all and is
+ * introspected as usual at runtime.
+ *
+ * @since 5.3
+ */
+class CandidateAttributesProvider {
+
+	private final Elements elements;
+
+	private final Types types;
+
+	private final TypeHelper typeHelper;
+
+
+	public CandidateAttributesProvider(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+		this.typeHelper = new TypeHelper(env);
+	}
+
+
+	/**
+	 * Return the attributes of the specified {@link Element} or an empty map if
+	 * it cannot be described by attributes.
+	 */
+	public Map<String, String> getAttributes(Element element) {
+		if (!(element instanceof TypeElement)) {
+			return Collections.emptyMap();
+		}
+		TypeElement type = (TypeElement) element;
+		String binaryName = getBinaryName(type);
+		if (!binaryName.equals(this.typeHelper.getType(type))) {
+			// Deeply nested type that is indexed under a different name
+			return Collections.emptyMap();
+		}
+		Map<String, String> attributes = new LinkedHashMap<>();
+		if (!addTypeAttributes(type, attributes)) {
+			return Collections.emptyMap();
+		}
+		return attributes;
+	}
+
+	private boolean addTypeAttributes(TypeElement type, Map<String, String> attributes) {
+		List<String> modifiers = getModifiers(type);
+		if (type.getKind().isInterface()) {
+			modifiers.add(0, "interface");
+			if (type.getKind() == ElementKind.ANNOTATION_TYPE) {
+				modifiers.add(1, "annotation");
+			}
+		}
+		attributes.put("", String.join(",", modifiers));
+		if (type.getSuperclass().getKind() == TypeKind.DECLARED) {
+			attributes.put("/super", getTypeName(type.getSuperclass()));
+		}
+		else if (!type.getKind().isInterface()) {
+			attributes.put("/super", Object.class.getName());
+		}
+		List<String> interfaces = new ArrayList<>();
+		for (TypeMirror candidate : type.getInterfaces()) {
+			String interfaceName = getTypeName(candidate);
+			if (interfaceName == null) {
+				return false;
+			}
+			interfaces.add(interfaceName);
+		}
+		addListAttribute(attributes, "/interfaces", interfaces);
+		List<String> members = new ArrayList<>();
+		for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+			members.add(getBinaryName(member));
+		}
+		addListAttribute(attributes, "/members", members);
+		Element enclosingElement = type.getEnclosingElement();
+		if (enclosingElement instanceof TypeElement) {
+			attributes.put("/enclosing", getBinaryName((TypeElement) enclosingElement));
+		}
+		if (!addAnnotationAttributes("", type, attributes)) {
+			return false;
+		}
+		int index = 0;
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			if (!getRuntimeAnnotations(method).isEmpty()) {
+				String prefix = "/method/" + index++;
+				String returnType = getTypeName(method.getReturnType());
+				if (returnType == null) {
+					return false;
+				}
+				attributes.put(prefix, String.join(",", getModifiers(method)));
+				attributes.put(prefix + "/name", method.getSimpleName().toString());
+				attributes.put(prefix + "/returns", returnType);
+				if (!addAnnotationAttributes(prefix, method, attributes)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean addAnnotationAttributes(String prefix, Element element, Map<String, String> attributes) {
+		for (AnnotationMirror annotation : getRuntimeAnnotations(element)) {
+			String annotationPrefix = prefix + "@" + this.typeHelper.getType(annotation);
+			attributes.put(annotationPrefix, "");
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+					annotation.getElementValues().entrySet()) {
+				String value = getValue(entry.getValue());
+				if (value == null) {
+					return false;
+				}
+				attributes.put(annotationPrefix + "/" + entry.getKey().getSimpleName(), value);
+			}
+		}
+		return true;
+	}
+
+	private List<AnnotationMirror> getRuntimeAnnotations(Element element) {
+		List<AnnotationMirror> annotations = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			String annotationType = this.typeHelper.getType(annotation);
+			if (annotationType.startsWith("java.lang.") || annotationType.startsWith("org.springframework.lang.")) {
+				continue;
+			}
+			Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+			if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+				annotations.add(annotation);
+			}
+		}
+		return annotations;
+	}
+
+	private String getValue(AnnotationValue annotationValue) {
+		Object value = annotationValue.getValue();
+		if (value instanceof List) {
+			List<String> elements = new ArrayList<>();
+			for (Object element : (List<?>) value) {
+				String elementValue = getSingleValue(((AnnotationValue) element).getValue());
+				if (elementValue == null || elementValue.isEmpty() || elementValue.contains(",")) {
+					return null;
+				}
+				elements.add(elementValue);
+			}
+			return String.join(",", elements);
+		}
+		return getSingleValue(value);
+	}
+
+	private String getSingleValue(Object value) {
+		if (value instanceof TypeMirror) {
+			return getTypeName((TypeMirror) value);
+		}
+		if (value instanceof VariableElement) {
+			return ((VariableElement) value).getSimpleName().toString();
+		}
+		if (value instanceof AnnotationMirror) {
+			return null;
+		}
+		return value.toString();
+	}
+
+	private List<String> getModifiers(Element element) {
+		Set<Modifier> modifiers = element.getModifiers();
+		List<String> result = new ArrayList<>();
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			result.add("abstract");
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			result.add("final");
+		}
+		if (modifiers.contains(Modifier.STATIC)) {
+			result.add("static");
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			result.add("private");
+		}
+		return result;
+	}
+
+	private void addListAttribute(Map<String, String> attributes, String key, List<String> values) {
+		if (!values.isEmpty()) {
+			attributes.put(key, String.join(",", values));
+		}
+	}
+
+	/**
+	 * Return the name of the specified type as it would be reported by the class
+	 * file, or {@code null} if it cannot be resolved.
+	 */
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		if (erasure.getKind().isPrimitive() || erasure.getKind() == TypeKind.VOID) {
+			return erasure.toString();
+		}
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			String componentType = getTypeName(((ArrayType) erasure).getComponentType());
+			return (componentType != null ? componentType + "[]" : null);
+		}
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			return getBinaryName((TypeElement) this.types.asElement(erasure));
+		}
+		return null;
+	}
+
+	private String getBinaryName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 
 package org.springframework.context.index.processor;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -25,6 +28,10 @@ import java.util.Set;
  * be used to retrieve the candidates. A typical use case is the presence of a given
  * annotation on the candidate.
  *
+ * <p>An entry may also hold descriptive attributes of the candidate type (class
+ * structure, annotation attributes, annotated methods) so that its metadata can
+ * be exposed at runtime without reading the class file.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -34,10 +41,17 @@ class ItemMetadata {
 
 	private final Set<String> stereotypes;
 
+	private final Map<String, String> attributes;
+
 
 	public ItemMetadata(String type, Set<String> stereotypes) {
+		this(type, stereotypes, Collections.emptyMap());
+	}
+
+	public ItemMetadata(String type, Set<String> stereotypes, Map<String, String> attributes) {
 		this.type = type;
 		this.stereotypes = new HashSet<>(stereotypes);
+		this.attributes = new LinkedHashMap<>(attributes);
 	}
 
 
@@ -49,4 +63,13 @@ class ItemMetadata {
 		return this.stereotypes;
 	}
 
+	/**
+	 * Return the attributes of the candidate, keyed by a name relative to the type.
+	 * @since 5.3
+	 * @see CandidateAttributesProvider
+	 */
+	public Map<String, String> getAttributes() {
+		return this.attributes;
+	}
+
 }
@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -50,4 +53,48 @@ abstract class PropertiesMarshaller {
 		return result;
 	}
 
+	/**
+	 * Write the attributes of the specified {@link CandidateComponentsMetadata}
+	 * as properties, each key being prefixed by the type of its item.
+	 * @since 5.3
+	 */
+	public static void writeAttributes(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		Properties props = new SortedProperties(true);
+		metadata.getItems().forEach(m -> m.getAttributes().forEach((key, value) -> props.put(m.getType() + key, value)));
+		props.store(out, null);
+	}
+
+	/**
+	 * Read the attributes written by {@link #writeAttributes} and associate them
+	 * to the matching items of the specified {@link CandidateComponentsMetadata}.
+	 * @since 5.3
+	 */
+	public static CandidateComponentsMetadata readAttributes(CandidateComponentsMetadata metadata, InputStream in)
+			throws IOException {
+
+		Properties props = new Properties();
+		props.load(in);
+		Map<String, Map<String, String>> attributes = new HashMap<>();
+		props.forEach((key, value) -> {
+			String name = (String) key;
+			int index = indexOfAttributeName(name);
+			attributes.computeIfAbsent(name.substring(0, index), type -> new LinkedHashMap<>())
+					.put(name.substring(index), (String) value);
+		});
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		metadata.getItems().forEach(m -> result.add(new ItemMetadata(m.getType(), m.getStereotypes(),
+				attributes.getOrDefault(m.getType(), m.getAttributes()))));
+		return result;
+	}
+
+	private static int indexOfAttributeName(String key) {
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (c == '/' || c == '@') {
+				return i;
+			}
+		}
+		return key.length();
+	}
+
 }
@@ -35,11 +35,19 @@ import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
 import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConditionalComponent;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleEmbedded;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
+import org.springframework.context.index.sample.SampleNestedAnnotationComponent;
 import org.springframework.context.index.sample.SampleNonStaticEmbedded;
 import org.springframework.context.index.sample.SampleNone;
 import org.springframework.context.index.sample.SampleRepository;
@@ -218,6 +226,52 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(0);
 	}
 
+	@Test
+	void attributesOfCandidate() {
+		CandidateComponentsMetadata metadata = compile(SampleConditionalComponent.class);
+		assertThat(metadata.getItems()).hasSize(1);
+		String annotation = "@" + Component.class.getName();
+		assertThat(metadata.getItems().get(0).getAttributes())
+				.containsEntry("", "")
+				.containsEntry("/super", Object.class.getName())
+				.containsEntry("/interfaces", "java.io.Serializable")
+				.containsEntry("/members", SampleConditionalComponent.SampleCondition.class.getName())
+				.doesNotContainKey("/enclosing")
+				.containsEntry(annotation, "")
+				.containsEntry(annotation + "/value", "sample")
+				.containsEntry("@" + Conditional.class.getName() + "/value",
+						SampleConditionalComponent.SampleCondition.class.getName())
+				.containsEntry("@" + Scope.class.getName() + "/scopeName", "prototype")
+				.containsEntry("@" + Scope.class.getName() + "/proxyMode", "TARGET_CLASS")
+				.containsEntry("@" + Lazy.class.getName(), "")
+				.containsEntry("@" + Primary.class.getName(), "")
+				.containsEntry("@" + DependsOn.class.getName() + "/value", "first,second")
+				.doesNotContainKey("@" + SuppressWarnings.class.getName());
+	}
+
+	@Test
+	void attributesOfCandidateBeanMethods() {
+		CandidateComponentsMetadata metadata = compile(SampleConditionalComponent.class);
+		assertThat(metadata.getItems().get(0).getAttributes())
+				.containsEntry("/method/0", "static")
+				.containsEntry("/method/0/name", "first")
+				.containsEntry("/method/0/returns", String.class.getName())
+				.containsEntry("/method/0@" + Bean.class.getName(), "")
+				.containsEntry("/method/1", "")
+				.containsEntry("/method/1/name", "second")
+				.containsEntry("/method/1/returns", "java.util.List")
+				.containsEntry("/method/1@" + Bean.class.getName() + "/name", "second,secondAlias")
+				.containsEntry("/method/1@" + Lazy.class.getName() + "/value", "false")
+				.doesNotContainKey("/method/2");
+	}
+
+	@Test
+	void attributesOfCandidateWithNestedAnnotationAreIgnored() {
+		CandidateComponentsMetadata metadata = compile(SampleNestedAnnotationComponent.class);
+		assertThat(metadata).has(Metadata.of(SampleNestedAnnotationComponent.class, Component.class));
+		assertThat(metadata.getItems().get(0).getAttributes()).isEmpty();
+	}
+
 	private void testComponent(Class<?>... classes) {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -246,10 +300,12 @@ class CandidateComponentsIndexerTests {
 
 	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation) {
 		File metadataFile = new File(outputLocation, MetadataStore.METADATA_PATH);
+		File attributesFile = new File(outputLocation, MetadataStore.ATTRIBUTES_PATH);
 		if (metadataFile.isFile()) {
-			try (FileInputStream fileInputStream = new FileInputStream(metadataFile)) {
+			try (FileInputStream fileInputStream = new FileInputStream(metadataFile);
+					FileInputStream attributesInputStream = new FileInputStream(attributesFile)) {
 				CandidateComponentsMetadata metadata = PropertiesMarshaller.read(fileInputStream);
-				return metadata;
+				return PropertiesMarshaller.readAttributes(metadata, attributesInputStream);
 			}
 			catch (IOException ex) {
 				throw new IllegalStateException("Failed to read metadata from disk", ex);
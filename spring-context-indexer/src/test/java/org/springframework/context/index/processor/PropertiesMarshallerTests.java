@@ -21,7 +21,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -63,6 +66,33 @@ public class PropertiesMarshallerTests {
 		assertThat(contents.split(System.lineSeparator())).containsExactly("com.a=type", "com.b=type", "com.c=type");
 	}
 
+	@Test
+	public void readWriteAttributes() throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		Map<String, String> attributes = new LinkedHashMap<>();
+		attributes.put("", "final");
+		attributes.put("/super", "com.Base");
+		attributes.put("@com.Ann/value", "test");
+		metadata.add(new ItemMetadata("com.foo", Collections.singleton("first"), attributes));
+		metadata.add(createItem("com.bar", "first"));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.writeAttributes(metadata, outputStream);
+		CandidateComponentsMetadata readMetadata = PropertiesMarshaller.readAttributes(
+				PropertiesMarshaller.read(toInputStream(metadata)), new ByteArrayInputStream(outputStream.toByteArray()));
+		assertThat(readMetadata.getItems()).hasSize(2);
+		assertThat(readMetadata.getItems()).filteredOn(item -> item.getType().equals("com.foo"))
+				.allSatisfy(item -> assertThat(item.getAttributes()).isEqualTo(attributes));
+		assertThat(readMetadata.getItems()).filteredOn(item -> item.getType().equals("com.bar"))
+				.allSatisfy(item -> assertThat(item.getAttributes()).isEmpty());
+	}
+
+	private static ByteArrayInputStream toInputStream(CandidateComponentsMetadata metadata) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		PropertiesMarshaller.write(metadata, outputStream);
+		return new ByteArrayInputStream(outputStream.toByteArray());
+	}
+
 	private static ItemMetadata createItem(String type, String... stereotypes) {
 		return new ItemMetadata(type, new HashSet<>(Arrays.asList(stereotypes)));
 	}
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,4 +81,35 @@ public class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<Caffeine
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testAsyncCacheRetrieve() throws Exception {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		assertThat(cache.getAsyncCache()).isNotNull();
+
+		CompletableFuture<String> load = new CompletableFuture<>();
+		CompletableFuture<String> first = cache.retrieve("key", () -> load);
+		CompletableFuture<String> second = cache.retrieve("key", () -> CompletableFuture.completedFuture("other"));
+		// The in-flight load is visible to non-blocking retrieval
+		CompletableFuture<Cache.ValueWrapper> pending = cache.retrieve("key");
+		assertThat(pending).isNotDone();
+
+		load.complete("value");
+		assertThat(pending.get().get()).isEqualTo("value");
+		assertThat(first.get()).isEqualTo("value");
+		assertThat(second.get()).isEqualTo("value");
+		assertThat(cache.retrieve("key").get().get()).isEqualTo("value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testAsyncCacheRetrieveDoesNotStoreFailure() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		CompletableFuture<String> load = new CompletableFuture<>();
+		CompletableFuture<String> result = cache.retrieve("key", () -> load);
+
+		load.completeExceptionally(new IllegalStateException("Expected failure"));
+		assertThat(result).isCompletedExceptionally();
+		assertThat(cache.get("key")).isNull();
+	}
+
 }
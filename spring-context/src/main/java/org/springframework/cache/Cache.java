@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +105,57 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the value to which this cache maps the specified key, wrapped in
+	 * a {@link CompletableFuture}. This operation must not block, provided that
+	 * the cache implementation supports non-blocking retrieval.
+	 * <p>The returned future completes with a {@link ValueWrapper} for the
+	 * cached value (which may be {@code null} itself), or with {@code null}
+	 * if the cache contains no mapping for this key.
+	 * <p>The default implementation delegates to {@link #get(Object)}, which
+	 * may block the calling thread. Implementations backed by a store with
+	 * non-blocking access are encouraged to override this method.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future for the value wrapper (never {@code null})
+	 * @since 5.3
+	 * @see #retrieve(Object, Supplier)
+	 */
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		return CompletableFuture.completedFuture(get(key));
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from {@code valueLoader} if necessary. This method provides
+	 * a simple substitute for the conventional "if cached, return; otherwise
+	 * create, cache and return" pattern, based on {@link CompletableFuture}.
+	 * <p>The value is only stored once the loader's future completes
+	 * successfully: neither failures nor cancellations are cached. Concurrent
+	 * retrievals for the same key are expected to share a single load in
+	 * progress, if supported by the cache implementation.
+	 * <p>The default implementation looks up the key through
+	 * {@link #retrieve(Object)} and stores a loaded value through
+	 * {@link #put(Object, Object)}, without coalescing concurrent loads.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the supplier of a future for the value, if not cached yet
+	 * @return a future for the value to which this cache maps the specified key
+	 * (never {@code null})
+	 * @since 5.3
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		return retrieve(key).thenCompose(wrapper -> {
+			if (wrapper != null) {
+				return CompletableFuture.completedFuture((T) wrapper.get());
+			}
+			return valueLoader.get().thenApply(value -> {
+				put(key, value);
+				return value;
+			});
+		});
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -150,6 +206,47 @@ public interface Cache {
 		return existingValue;
 	}
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>Keys without a mapping in this cache are simply not contained in the
+	 * returned map, whereas a key that is explicitly mapped to {@code null}
+	 * is reported with a {@link ValueWrapper} holding {@code null}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Implementations backed by a store with native multi-get support are
+	 * encouraged to override this method in order to retrieve all entries in a
+	 * single round trip.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each present key to its value wrapper, in the iteration
+	 * order of the given keys (never {@code null})
+	 * @since 5.3
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate the given values with their keys in this cache.
+	 * <p>Like {@link #put(Object, Object)}, the actual registration may be
+	 * performed in an asynchronous or deferred fashion.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Implementations backed by a store with native bulk write
+	 * support are encouraged to override this method.
+	 * @param entries the key-value pairs to be stored
+	 * @since 5.3
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Evict the mapping for this key from this cache if it is present.
 	 * <p>Actual eviction may be performed in an asynchronous or deferred
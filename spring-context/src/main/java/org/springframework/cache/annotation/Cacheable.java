@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,33 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a collection-keyed method individually.
+	 * <p>The annotated method must declare a single {@link java.util.Collection}
+	 * parameter holding the requested keys and return a {@link java.util.Map}
+	 * of those keys to their values. Each key is looked up in the cache(s)
+	 * through a single {@link org.springframework.cache.Cache#getAll multi-get},
+	 * the method is only invoked for the keys that were not found (or not at all
+	 * if every key is present), and the newly loaded entries are written back
+	 * through {@link org.springframework.cache.Cache#putAll}. The returned map
+	 * combines both, in the iteration order of the requested keys.
+	 * <p>Bulk caching leads to a couple of limitations:
+	 * <ol>
+	 * <li>The collection elements are used as cache keys: {@link #key()} is not
+	 * supported</li>
+	 * <li>{@link #unless()} is evaluated for every loaded value, with
+	 * {@code #result} referring to that value</li>
+	 * <li>It cannot be combined with {@link #sync()}</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * Restricting the invocation to the missing keys requires an interceptor that
+	 * is able to invoke the method with different arguments, such as the
+	 * proxy-based {@link org.springframework.cache.interceptor.CacheInterceptor}.
+	 * Otherwise the method is invoked with all requested keys on a partial miss.
+	 * @since 5.3
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
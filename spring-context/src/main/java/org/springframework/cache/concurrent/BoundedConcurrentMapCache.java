@@ -0,0 +1,540 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.support.LoadCoalescer;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ConcurrentMapCache} variant that enforces the bounds of a
+ * {@link ConcurrentMapCacheConfiguration}: a maximum number of entries
+ * as well as time-to-live and time-to-idle expiration.
+ *
+ * <p>Once the maximum size is exceeded, entries are evicted in insertion
+ * order, except that recently used entries get a second chance: each entry
+ * tracks a small, decaying access frequency, so that frequently read entries
+ * survive a scan through many entries that are only used once. The size may
+ * be exceeded briefly under concurrent writes.
+ *
+ * <p>Expired entries are never returned. They are removed when encountered
+ * on lookup, during eviction and, incrementally, on subsequent writes;
+ * {@link #cleanUp()} removes all of them at once, e.g. when invoked from a
+ * scheduled task for caches that see few writes.
+ *
+ * <p>Concurrent loads through {@link #get(Object, Callable)} are coalesced per
+ * key without holding any lock while loading. If configured with a
+ * {@linkplain ConcurrentMapCacheConfiguration#withRefreshAhead refresh-ahead}
+ * period, such lookups also reload entries that are about to expire on the
+ * configured executor, returning the current value in the meantime.
+ *
+ * <p>Hits, misses, loads and removals are recorded; see {@link #getStatistics()}.
+ * Note that the {@linkplain #getNativeCache() native cache} of this class
+ * holds internal entry objects rather than the cached values themselves.
+ *
+ * @since 5.3
+ * @see ConcurrentMapCacheConfiguration
+ * @see ConcurrentMapCacheManager#setCacheConfiguration
+ */
+public class BoundedConcurrentMapCache extends ConcurrentMapCache {
+
+	private static final int MAX_FREQUENCY = 15;
+
+	private static final int EXPIRATION_BATCH_SIZE = 16;
+
+	private static final int PURGE_THRESHOLD = 64;
+
+	private static final AtomicIntegerFieldUpdater<Entry> REFRESHING =
+			AtomicIntegerFieldUpdater.newUpdater(Entry.class, "refreshing");
+
+	private static final Log logger = LogFactory.getLog(BoundedConcurrentMapCache.class);
+
+
+	private final ConcurrentMapCacheConfiguration configuration;
+
+	private final long maximumSize;
+
+	private final long expireAfterWrite;
+
+	private final long expireAfterAccess;
+
+	private final long refreshAhead;
+
+	private final boolean expiring;
+
+	private final Executor refreshExecutor;
+
+	private final Clock clock;
+
+	private final LoadCoalescer loads = new LoadCoalescer();
+
+	private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger evictionQueueSize = new AtomicInteger();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder loadSuccessCount = new LongAdder();
+
+	private final LongAdder loadFailureCount = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and bounds.
+	 * @param name the name of the cache
+	 * @param configuration the bounds to enforce
+	 */
+	public BoundedConcurrentMapCache(String name, ConcurrentMapCacheConfiguration configuration) {
+		this(name, configuration, true);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and bounds.
+	 * @param name the name of the cache
+	 * @param configuration the bounds to enforce
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, ConcurrentMapCacheConfiguration configuration,
+			boolean allowNullValues) {
+
+		this(name, configuration, allowNullValues, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and bounds.
+	 * If the {@link SerializationDelegate} is specified,
+	 * {@link #isStoreByValue() store-by-value} is enabled.
+	 * @param name the name of the cache
+	 * @param configuration the bounds to enforce
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entry or {@code null} to store the reference
+	 */
+	protected BoundedConcurrentMapCache(String name, ConcurrentMapCacheConfiguration configuration,
+			boolean allowNullValues, @Nullable SerializationDelegate serialization) {
+
+		super(name, new ConcurrentHashMap<>(256), allowNullValues, serialization);
+		Assert.notNull(configuration, "ConcurrentMapCacheConfiguration must not be null");
+		this.configuration = configuration;
+		this.maximumSize = configuration.getMaximumSize();
+		this.expireAfterWrite = toMillis(configuration.getExpireAfterWrite());
+		this.expireAfterAccess = toMillis(configuration.getExpireAfterAccess());
+		this.refreshAhead = toMillis(configuration.getRefreshAhead());
+		Assert.isTrue(this.refreshAhead < 0 || this.expireAfterWrite > this.refreshAhead,
+				"Refresh ahead requires a longer expire after write period");
+		this.expiring = (this.expireAfterWrite >= 0 || this.expireAfterAccess >= 0);
+		this.refreshExecutor = configuration.getRefreshExecutor();
+		this.clock = configuration.getClock();
+	}
+
+	private static long toMillis(@Nullable Duration duration) {
+		return (duration != null ? duration.toMillis() : -1);
+	}
+
+
+	/**
+	 * Return the bounds enforced by this cache.
+	 */
+	public final ConcurrentMapCacheConfiguration getConfiguration() {
+		return this.configuration;
+	}
+
+	/**
+	 * Return the number of entries currently held, possibly including
+	 * expired entries that have not been removed yet.
+	 */
+	public long getEstimatedSize() {
+		return getNativeCache().size();
+	}
+
+	/**
+	 * Return a snapshot of the statistics recorded so far.
+	 */
+	public ConcurrentMapCacheStatistics getStatistics() {
+		return new ConcurrentMapCacheStatistics(this.hitCount.sum(), this.missCount.sum(),
+				this.loadSuccessCount.sum(), this.loadFailureCount.sum(), this.totalLoadTime.sum(),
+				this.evictionCount.sum(), this.expirationCount.sum());
+	}
+
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Entry entry = (Entry) getNativeCache().get(key);
+		if (entry != null) {
+			long now = currentTime();
+			if (!isExpired(entry, now)) {
+				entry.recordAccess(now);
+				this.hitCount.increment();
+				return entry.value;
+			}
+			removeExpired(entry);
+		}
+		this.missCount.increment();
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		long now = currentTime();
+		Entry entry = (Entry) getNativeCache().get(key);
+		if (entry != null) {
+			if (!isExpired(entry, now)) {
+				entry.recordAccess(now);
+				this.hitCount.increment();
+				if (isRefreshDue(entry, now)) {
+					refresh(entry, valueLoader);
+				}
+				return (T) fromStoreValue(entry.value);
+			}
+			removeExpired(entry);
+		}
+		this.missCount.increment();
+		try {
+			entry = this.loads.load(key, () -> load(key, valueLoader));
+		}
+		catch (Exception ex) {
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		return (T) fromStoreValue(entry.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		long now = currentTime();
+		Entry entry = new Entry(key, toStoreValue(value), now);
+		Entry previous = (Entry) getNativeCache().put(key, entry);
+		if (previous != null) {
+			entry.frequency = previous.frequency;
+		}
+		afterWrite(entry, now);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long now = currentTime();
+		Entry entry = new Entry(key, toStoreValue(value), now);
+		while (true) {
+			Entry existing = (Entry) getNativeCache().putIfAbsent(key, entry);
+			if (existing == null) {
+				afterWrite(entry, now);
+				return null;
+			}
+			if (!isExpired(existing, now)) {
+				existing.recordAccess(now);
+				return toValueWrapper(existing.value);
+			}
+			if (getNativeCache().replace(key, existing, entry)) {
+				this.expirationCount.increment();
+				afterWrite(entry, now);
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		Entry entry = (Entry) getNativeCache().remove(key);
+		return (entry != null && !isExpired(entry, currentTime()));
+	}
+
+	@Override
+	public void clear() {
+		getNativeCache().clear();
+		this.evictionLock.lock();
+		try {
+			this.evictionQueue.clear();
+			this.evictionQueueSize.set(0);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !getNativeCache().isEmpty();
+		clear();
+		return notEmpty;
+	}
+
+	/**
+	 * Remove all expired entries right away, rather than waiting for them
+	 * to be encountered during lookups and writes.
+	 */
+	public void cleanUp() {
+		long now = currentTime();
+		this.evictionLock.lock();
+		try {
+			for (Object value : getNativeCache().values()) {
+				Entry entry = (Entry) value;
+				if (isExpired(entry, now)) {
+					removeExpired(entry);
+				}
+			}
+			purgeEvictionQueue();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+
+	private Entry load(Object key, Callable<?> valueLoader) throws Exception {
+		// Another load for the same key may have completed in the meantime
+		Entry existing = (Entry) getNativeCache().get(key);
+		if (existing != null && !isExpired(existing, currentTime())) {
+			return existing;
+		}
+		Object storeValue = toStoreValue(loadValue(valueLoader));
+		long now = currentTime();
+		Entry entry = new Entry(key, storeValue, now);
+		getNativeCache().put(key, entry);
+		afterWrite(entry, now);
+		return entry;
+	}
+
+	@Nullable
+	private Object loadValue(Callable<?> valueLoader) throws Exception {
+		long startTime = System.nanoTime();
+		try {
+			Object value = valueLoader.call();
+			this.loadSuccessCount.increment();
+			return value;
+		}
+		catch (Throwable ex) {
+			this.loadFailureCount.increment();
+			throw ex;
+		}
+		finally {
+			this.totalLoadTime.add(System.nanoTime() - startTime);
+		}
+	}
+
+	private boolean isRefreshDue(Entry entry, long now) {
+		return (this.refreshAhead >= 0 && now - entry.writeTime >= this.expireAfterWrite - this.refreshAhead);
+	}
+
+	private void refresh(Entry entry, Callable<?> valueLoader) {
+		if (!REFRESHING.compareAndSet(entry, 0, 1)) {
+			return;
+		}
+		try {
+			this.refreshExecutor.execute(() -> {
+				try {
+					Object storeValue = toStoreValue(loadValue(valueLoader));
+					long now = currentTime();
+					Entry refreshed = new Entry(entry.key, storeValue, now);
+					refreshed.frequency = entry.frequency;
+					if (getNativeCache().replace(entry.key, entry, refreshed)) {
+						afterWrite(refreshed, now);
+					}
+				}
+				catch (Exception ex) {
+					// Keep the current value until it expires, allowing for another attempt
+					entry.refreshing = 0;
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to refresh entry for key '" + entry.key + "' in cache '" +
+								getName() + "'", ex);
+					}
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			entry.refreshing = 0;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not schedule refresh of entry for key '" + entry.key + "' in cache '" +
+						getName() + "'", ex);
+			}
+		}
+	}
+
+	private long currentTime() {
+		return (this.expiring ? this.clock.millis() : 0);
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return ((this.expireAfterWrite >= 0 && now - entry.writeTime >= this.expireAfterWrite) ||
+				(this.expireAfterAccess >= 0 && now - entry.accessTime >= this.expireAfterAccess));
+	}
+
+	private void removeExpired(Entry entry) {
+		if (getNativeCache().remove(entry.key, entry)) {
+			this.expirationCount.increment();
+		}
+	}
+
+	private boolean isLive(Entry entry) {
+		return (getNativeCache().get(entry.key) == entry);
+	}
+
+	private void afterWrite(Entry entry, long now) {
+		if (!this.configuration.isBounded()) {
+			return;
+		}
+		this.evictionQueue.offer(entry);
+		int queueSize = this.evictionQueueSize.incrementAndGet();
+		int size = getNativeCache().size();
+		if (this.maximumSize >= 0 && size > this.maximumSize) {
+			this.evictionLock.lock();
+		}
+		else if (!this.expiring && queueSize <= 2 * size + PURGE_THRESHOLD) {
+			return;
+		}
+		else if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			expireEldest(now);
+			evictOverflow(now);
+			if (this.evictionQueueSize.get() > 2 * getNativeCache().size() + PURGE_THRESHOLD) {
+				purgeEvictionQueue();
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void expireEldest(long now) {
+		if (!this.expiring) {
+			return;
+		}
+		for (int i = 0; i < EXPIRATION_BATCH_SIZE; i++) {
+			Entry eldest = this.evictionQueue.peek();
+			if (eldest == null) {
+				return;
+			}
+			boolean live = isLive(eldest);
+			if (live && !isExpired(eldest, now)) {
+				return;
+			}
+			pollEvictionQueue();
+			if (live) {
+				removeExpired(eldest);
+			}
+		}
+	}
+
+	private void evictOverflow(long now) {
+		if (this.maximumSize < 0) {
+			return;
+		}
+		while (getNativeCache().size() > this.maximumSize) {
+			Entry candidate = pollEvictionQueue();
+			if (candidate == null) {
+				return;
+			}
+			if (!isLive(candidate)) {
+				continue;
+			}
+			if (isExpired(candidate, now)) {
+				removeExpired(candidate);
+			}
+			else if (candidate.frequency > 0) {
+				// Second chance for a recently used entry, with its frequency decaying
+				candidate.frequency >>= 1;
+				this.evictionQueue.offer(candidate);
+				this.evictionQueueSize.incrementAndGet();
+			}
+			else if (getNativeCache().remove(candidate.key, candidate)) {
+				this.evictionCount.increment();
+			}
+		}
+	}
+
+	@Nullable
+	private Entry pollEvictionQueue() {
+		Entry entry = this.evictionQueue.poll();
+		if (entry != null) {
+			this.evictionQueueSize.decrementAndGet();
+		}
+		return entry;
+	}
+
+	private void purgeEvictionQueue() {
+		this.evictionQueue.removeIf(entry -> !isLive(entry));
+		this.evictionQueueSize.set(this.evictionQueue.size());
+	}
+
+
+	/**
+	 * Internal holder for a cached value and its usage metadata.
+	 */
+	private static final class Entry {
+
+		final Object key;
+
+		@Nullable
+		final Object value;
+
+		final long writeTime;
+
+		volatile long accessTime;
+
+		volatile int frequency;
+
+		volatile int refreshing;
+
+		Entry(Object key, @Nullable Object value, long writeTime) {
+			this.key = key;
+			this.value = value;
+			this.writeTime = writeTime;
+			this.accessTime = writeTime;
+		}
+
+		void recordAccess(long now) {
+			this.accessTime = now;
+			int frequency = this.frequency;
+			if (frequency < MAX_FREQUENCY) {
+				this.frequency = frequency + 1;
+			}
+		}
+	}
+
+}
@@ -20,10 +20,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.LoadCoalescer;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -41,6 +44,12 @@ import org.springframework.util.Assert;
  * them with a predefined internal object. This behavior can be changed through the
  * {@link #ConcurrentMapCache(String, ConcurrentMap, boolean)} constructor.
  *
+ * <p>Concurrent calls to {@link #get(Object, Callable)} for the same missing key
+ * share a single invocation of the value loader, without holding a lock on the
+ * underlying map while the value is being loaded. The same applies to
+ * {@link #retrieve(Object, Supplier)}, which stores the loaded value once its
+ * future completes successfully.
+ *
  * @author Costin Leau
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -55,6 +64,10 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	@Nullable
 	private final SerializationDelegate serialization;
 
+	private final LoadCoalescer loads = new LoadCoalescer();
+
+	private final ConcurrentMap<Object, CompletableFuture<Object>> asyncLoads = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new ConcurrentMapCache with the specified name.
@@ -141,14 +154,78 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 	@Override
 	@Nullable
 	public <T> T get(Object key, Callable<T> valueLoader) {
-		return (T) fromStoreValue(this.store.computeIfAbsent(key, k -> {
+		Object storeValue = this.store.get(key);
+		if (storeValue == null) {
 			try {
-				return toStoreValue(valueLoader.call());
+				storeValue = this.loads.load(key, () -> {
+					Object existing = this.store.get(key);
+					if (existing != null) {
+						return existing;
+					}
+					Object loaded = toStoreValue(valueLoader.call());
+					existing = this.store.putIfAbsent(key, loaded);
+					return (existing != null ? existing : loaded);
+				});
 			}
-			catch (Throwable ex) {
+			catch (Exception ex) {
 				throw new ValueRetrievalException(key, valueLoader, ex);
 			}
-		}));
+		}
+		return (T) fromStoreValue(storeValue);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper wrapper = get(key);
+		if (wrapper != null) {
+			return CompletableFuture.completedFuture((T) wrapper.get());
+		}
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.asyncLoads.putIfAbsent(key, load);
+		if (existing == null) {
+			existing = load;
+			wrapper = get(key);
+			if (wrapper != null) {
+				// Another load for the same key completed in the meantime
+				this.asyncLoads.remove(key, load);
+				load.complete(wrapper.get());
+			}
+			else {
+				loadAsync(key, valueLoader, load);
+			}
+		}
+		// Expose a dependent future so that callers cannot complete or cancel the shared one
+		return existing.thenApply(value -> (T) value);
+	}
+
+	private void loadAsync(Object key, Supplier<? extends CompletableFuture<?>> valueLoader,
+			CompletableFuture<Object> load) {
+
+		try {
+			valueLoader.get().whenComplete((value, ex) -> {
+				Throwable failure = ex;
+				if (failure == null) {
+					try {
+						put(key, value);
+					}
+					catch (Throwable putEx) {
+						failure = putEx;
+					}
+				}
+				this.asyncLoads.remove(key, load);
+				if (failure != null) {
+					load.completeExceptionally(failure);
+				}
+				else {
+					load.complete(value);
+				}
+			});
+		}
+		catch (Throwable ex) {
+			this.asyncLoads.remove(key, load);
+			load.completeExceptionally(ex);
+		}
 	}
 
 	@Override
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Immutable configuration for the bounds of a {@link BoundedConcurrentMapCache}:
+ * a maximum number of entries as well as time-to-live and time-to-idle periods,
+ * optionally reloading entries ahead of their expiration.
+ *
+ * <p>Start from {@link #defaultCacheConfig()}, which imposes no bounds, and
+ * customize it through the {@code with...} methods:
+ * <pre class="code">
+ * ConcurrentMapCacheConfiguration config = ConcurrentMapCacheConfiguration.defaultCacheConfig()
+ *     .withMaximumSize(10_000)
+ *     .withExpireAfterWrite(Duration.ofMinutes(10));
+ * </pre>
+ *
+ * @since 5.3
+ * @see BoundedConcurrentMapCache
+ * @see ConcurrentMapCacheManager#setCacheConfiguration
+ */
+public final class ConcurrentMapCacheConfiguration {
+
+	private static final ConcurrentMapCacheConfiguration DEFAULT =
+			new ConcurrentMapCacheConfiguration(-1, null, null, null, null, Clock.systemUTC());
+
+
+	private final long maximumSize;
+
+	@Nullable
+	private final Duration expireAfterWrite;
+
+	@Nullable
+	private final Duration expireAfterAccess;
+
+	@Nullable
+	private final Duration refreshAhead;
+
+	@Nullable
+	private final Executor refreshExecutor;
+
+	private final Clock clock;
+
+
+	private ConcurrentMapCacheConfiguration(long maximumSize, @Nullable Duration expireAfterWrite,
+			@Nullable Duration expireAfterAccess, @Nullable Duration refreshAhead,
+			@Nullable Executor refreshExecutor, Clock clock) {
+
+		this.maximumSize = maximumSize;
+		this.expireAfterWrite = expireAfterWrite;
+		this.expireAfterAccess = expireAfterAccess;
+		this.refreshAhead = refreshAhead;
+		this.refreshExecutor = refreshExecutor;
+		this.clock = clock;
+	}
+
+
+	/**
+	 * Return a configuration without any bounds, i.e. with no maximum size
+	 * and without expiration.
+	 */
+	public static ConcurrentMapCacheConfiguration defaultCacheConfig() {
+		return DEFAULT;
+	}
+
+
+	/**
+	 * Limit the number of entries in the cache. Once the limit is exceeded,
+	 * entries that have been used the least are evicted first.
+	 * @param maximumSize the maximum number of entries
+	 * @return a new configuration instance
+	 */
+	public ConcurrentMapCacheConfiguration withMaximumSize(long maximumSize) {
+		Assert.isTrue(maximumSize >= 0, "Maximum size must not be negative");
+		return new ConcurrentMapCacheConfiguration(maximumSize, this.expireAfterWrite,
+				this.expireAfterAccess, this.refreshAhead, this.refreshExecutor, this.clock);
+	}
+
+	/**
+	 * Expire entries once the given period has elapsed after they have been
+	 * created or their value has been replaced (time-to-live).
+	 * @param expireAfterWrite the time-to-live period
+	 * @return a new configuration instance
+	 */
+	public ConcurrentMapCacheConfiguration withExpireAfterWrite(Duration expireAfterWrite) {
+		Assert.isTrue(!expireAfterWrite.isNegative() && !expireAfterWrite.isZero(),
+				"Expire after write period must be positive");
+		return new ConcurrentMapCacheConfiguration(this.maximumSize, expireAfterWrite,
+				this.expireAfterAccess, this.refreshAhead, this.refreshExecutor, this.clock);
+	}
+
+	/**
+	 * Expire entries once the given period has elapsed after their last
+	 * read or write (time-to-idle).
+	 * @param expireAfterAccess the time-to-idle period
+	 * @return a new configuration instance
+	 */
+	public ConcurrentMapCacheConfiguration withExpireAfterAccess(Duration expireAfterAccess) {
+		Assert.isTrue(!expireAfterAccess.isNegative() && !expireAfterAccess.isZero(),
+				"Expire after access period must be positive");
+		return new ConcurrentMapCacheConfiguration(this.maximumSize, this.expireAfterWrite,
+				expireAfterAccess, this.refreshAhead, this.refreshExecutor, this.clock);
+	}
+
+	/**
+	 * Reload entries in the background once they get within the given period
+	 * of their {@linkplain #withExpireAfterWrite time-to-live}, while callers
+	 * keep getting the current value until the reloaded one replaces it.
+	 * <p>Reloading relies on the value loader passed to
+	 * {@link org.springframework.cache.Cache#get(Object, java.util.concurrent.Callable)},
+	 * as used by {@code @Cacheable(sync = true)}: a lookup through that method
+	 * triggers at most one reload per entry. Requires a time-to-live period
+	 * that is longer than the given period.
+	 * @param refreshAhead the period before expiration in which to reload entries
+	 * @return a new configuration instance
+	 * @see #withRefreshExecutor
+	 */
+	public ConcurrentMapCacheConfiguration withRefreshAhead(Duration refreshAhead) {
+		Assert.isTrue(!refreshAhead.isNegative() && !refreshAhead.isZero(),
+				"Refresh ahead period must be positive");
+		return new ConcurrentMapCacheConfiguration(this.maximumSize, this.expireAfterWrite,
+				this.expireAfterAccess, refreshAhead, this.refreshExecutor, this.clock);
+	}
+
+	/**
+	 * Use the given {@link Executor} to reload entries ahead of their expiration.
+	 * <p>Default is {@link ForkJoinPool#commonPool()}.
+	 * @param refreshExecutor the executor to use
+	 * @return a new configuration instance
+	 * @see #withRefreshAhead
+	 */
+	public ConcurrentMapCacheConfiguration withRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "Executor must not be null");
+		return new ConcurrentMapCacheConfiguration(this.maximumSize, this.expireAfterWrite,
+				this.expireAfterAccess, this.refreshAhead, refreshExecutor, this.clock);
+	}
+
+	/**
+	 * Use the given {@link Clock} to determine expiration, e.g. for testing.
+	 * <p>Default is {@link Clock#systemUTC()}.
+	 * @param clock the clock to use
+	 * @return a new configuration instance
+	 */
+	public ConcurrentMapCacheConfiguration withClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		return new ConcurrentMapCacheConfiguration(this.maximumSize, this.expireAfterWrite,
+				this.expireAfterAccess, this.refreshAhead, this.refreshExecutor, clock);
+	}
+
+
+	/**
+	 * Return the maximum number of entries, or {@code -1} if unlimited.
+	 */
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Return the time-to-live period, if any.
+	 */
+	@Nullable
+	public Duration getExpireAfterWrite() {
+		return this.expireAfterWrite;
+	}
+
+	/**
+	 * Return the time-to-idle period, if any.
+	 */
+	@Nullable
+	public Duration getExpireAfterAccess() {
+		return this.expireAfterAccess;
+	}
+
+	/**
+	 * Return the period before expiration in which entries are reloaded, if any.
+	 */
+	@Nullable
+	public Duration getRefreshAhead() {
+		return this.refreshAhead;
+	}
+
+	/**
+	 * Return the {@link Executor} to reload entries with.
+	 */
+	public Executor getRefreshExecutor() {
+		return (this.refreshExecutor != null ? this.refreshExecutor : ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Return the {@link Clock} to determine expiration with.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Return whether this configuration imposes any bound on the cache,
+	 * i.e. a maximum size or an expiration period.
+	 */
+	public boolean isBounded() {
+		return (this.maximumSize >= 0 || this.expireAfterWrite != null || this.expireAfterAccess != null);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ConcurrentMapCacheConfiguration)) {
+			return false;
+		}
+		ConcurrentMapCacheConfiguration otherConfig = (ConcurrentMapCacheConfiguration) other;
+		return (this.maximumSize == otherConfig.maximumSize &&
+				ObjectUtils.nullSafeEquals(this.expireAfterWrite, otherConfig.expireAfterWrite) &&
+				ObjectUtils.nullSafeEquals(this.expireAfterAccess, otherConfig.expireAfterAccess) &&
+				ObjectUtils.nullSafeEquals(this.refreshAhead, otherConfig.refreshAhead) &&
+				ObjectUtils.nullSafeEquals(this.refreshExecutor, otherConfig.refreshExecutor) &&
+				this.clock.equals(otherConfig.clock));
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.maximumSize) * 29 + ObjectUtils.nullSafeHashCode(this.expireAfterWrite);
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentMapCacheConfiguration [maximumSize=" + this.maximumSize +
+				", expireAfterWrite=" + this.expireAfterWrite +
+				", expireAfterAccess=" + this.expireAfterAccess +
+				", refreshAhead=" + this.refreshAhead + "]";
+	}
+
+}
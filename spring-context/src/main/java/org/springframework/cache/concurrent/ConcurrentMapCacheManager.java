@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.cache.concurrent;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -28,6 +29,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,9 +37,14 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
- * caching scenarios. For advanced local caching needs, consider
+ * <p>By default, caches are unbounded. As of 5.3, a maximum size and expiration
+ * can be configured for all caches or per cache name through
+ * {@link ConcurrentMapCacheConfiguration}, in which case a
+ * {@link BoundedConcurrentMapCache} gets created instead.
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager. However, it may be
+ * useful for testing or simple caching scenarios. For advanced local caching
+ * needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
  * {@link org.springframework.cache.caffeine.CaffeineCacheManager}.
@@ -56,6 +63,11 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private ConcurrentMapCacheConfiguration defaultCacheConfiguration =
+			ConcurrentMapCacheConfiguration.defaultCacheConfig();
+
+	private Map<String, ConcurrentMapCacheConfiguration> cacheConfigurations = Collections.emptyMap();
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +158,48 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the bounds to apply to all caches that have no specific
+	 * {@linkplain #setCacheConfigurations configuration} of their own.
+	 * <p>Default is {@link ConcurrentMapCacheConfiguration#defaultCacheConfig()},
+	 * i.e. unbounded caches.
+	 * <p>Note: A change of the cache configuration will reset all existing caches,
+	 * if any, to reconfigure them with the new bounds.
+	 * @since 5.3
+	 * @see BoundedConcurrentMapCache
+	 */
+	public void setCacheConfiguration(ConcurrentMapCacheConfiguration cacheConfiguration) {
+		Assert.notNull(cacheConfiguration, "ConcurrentMapCacheConfiguration must not be null");
+		if (!cacheConfiguration.equals(this.defaultCacheConfiguration)) {
+			this.defaultCacheConfiguration = cacheConfiguration;
+			// Need to recreate all Cache instances with the new bounds...
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the bounds to apply to individual caches, keyed by cache name,
+	 * taking precedence over the {@linkplain #setCacheConfiguration default}.
+	 * <p>Note: A change of the cache configurations will reset all existing caches,
+	 * if any, to reconfigure them with the new bounds.
+	 * @since 5.3
+	 */
+	public void setCacheConfigurations(Map<String, ConcurrentMapCacheConfiguration> cacheConfigurations) {
+		Assert.notNull(cacheConfigurations, "Cache configurations must not be null");
+		this.cacheConfigurations = new HashMap<>(cacheConfigurations);
+		// Need to recreate all Cache instances with the new bounds...
+		recreateCaches();
+	}
+
+	/**
+	 * Return the bounds to apply to the cache with the specified name.
+	 * @param name the name of the cache
+	 * @since 5.3
+	 */
+	public ConcurrentMapCacheConfiguration getCacheConfiguration(String name) {
+		return this.cacheConfigurations.getOrDefault(name, this.defaultCacheConfiguration);
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -190,6 +244,10 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
+		ConcurrentMapCacheConfiguration cacheConfiguration = getCacheConfiguration(name);
+		if (cacheConfiguration.isBounded()) {
+			return new BoundedConcurrentMapCache(name, cacheConfiguration, isAllowNullValues(), actualSerialization);
+		}
 		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
 				isAllowNullValues(), actualSerialization);
 
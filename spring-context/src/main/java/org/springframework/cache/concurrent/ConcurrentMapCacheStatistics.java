@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+/**
+ * Immutable snapshot of the statistics of a {@link BoundedConcurrentMapCache}.
+ *
+ * @since 5.3
+ * @see BoundedConcurrentMapCache#getStatistics()
+ */
+public final class ConcurrentMapCacheStatistics {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long loadSuccessCount;
+
+	private final long loadFailureCount;
+
+	private final long totalLoadTime;
+
+	private final long evictionCount;
+
+	private final long expirationCount;
+
+
+	/**
+	 * Create a new statistics snapshot with the given counts.
+	 * @param hitCount the number of lookups that found a live entry
+	 * @param missCount the number of lookups that found no live entry
+	 * @param loadSuccessCount the number of values loaded successfully
+	 * @param loadFailureCount the number of value loaders that failed
+	 * @param totalLoadTime the total time spent loading values, in nanoseconds
+	 * @param evictionCount the number of entries evicted due to the size limit
+	 * @param expirationCount the number of entries removed due to expiration
+	 */
+	public ConcurrentMapCacheStatistics(long hitCount, long missCount, long loadSuccessCount,
+			long loadFailureCount, long totalLoadTime, long evictionCount, long expirationCount) {
+
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+	}
+
+
+	/**
+	 * Return the number of lookups that found a live entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that found no live entry.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that found a live entry, or {@code 1.0}
+	 * if there have not been any lookups yet.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	/**
+	 * Return the number of values loaded successfully through
+	 * {@link org.springframework.cache.Cache#get(Object, java.util.concurrent.Callable)}.
+	 */
+	public long getLoadSuccessCount() {
+		return this.loadSuccessCount;
+	}
+
+	/**
+	 * Return the number of value loaders that failed with an exception.
+	 */
+	public long getLoadFailureCount() {
+		return this.loadFailureCount;
+	}
+
+	/**
+	 * Return the total time spent loading values, in nanoseconds.
+	 */
+	public long getTotalLoadTime() {
+		return this.totalLoadTime;
+	}
+
+	/**
+	 * Return the average time spent loading a value, in nanoseconds.
+	 */
+	public double getAverageLoadPenalty() {
+		long loadCount = this.loadSuccessCount + this.loadFailureCount;
+		return (loadCount == 0 ? 0.0 : (double) this.totalLoadTime / loadCount);
+	}
+
+	/**
+	 * Return the number of entries evicted due to the maximum size.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Return the number of entries removed because they expired.
+	 */
+	public long getExpirationCount() {
+		return this.expirationCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "ConcurrentMapCacheStatistics [hitCount=" + this.hitCount + ", missCount=" + this.missCount +
+				", loadSuccessCount=" + this.loadSuccessCount + ", loadFailureCount=" + this.loadFailureCount +
+				", totalLoadTime=" + this.totalLoadTime + ", evictionCount=" + this.evictionCount +
+				", expirationCount=" + this.expirationCount + "]";
+	}
+
+}
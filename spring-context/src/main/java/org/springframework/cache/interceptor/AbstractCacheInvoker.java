@@ -16,13 +16,22 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.cache.Cache;
+import org.springframework.cache.support.CacheMetrics;
+import org.springframework.cache.support.CacheMetricsRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
 
 /**
  * A base component for invoking {@link Cache} operations and using a
  * configurable {@link CacheErrorHandler} when an exception occurs.
+ * Optionally records the outcome of each operation in a {@link CacheMetricsRegistry}.
  *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
@@ -33,6 +42,9 @@ public abstract class AbstractCacheInvoker {
 
 	protected SingletonSupplier<CacheErrorHandler> errorHandler;
 
+	@Nullable
+	private CacheMetricsRegistry metricsRegistry;
+
 
 	protected AbstractCacheInvoker() {
 		this.errorHandler = SingletonSupplier.of(SimpleCacheErrorHandler::new);
@@ -59,6 +71,36 @@ public abstract class AbstractCacheInvoker {
 		return this.errorHandler.obtain();
 	}
 
+	/**
+	 * Set the {@link CacheMetricsRegistry} in which to record the hits, misses,
+	 * puts and evictions of the cache operations performed by this invoker.
+	 * <p>Default is none, not recording any statistics.
+	 * @since 5.3
+	 */
+	public void setMetricsRegistry(@Nullable CacheMetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	/**
+	 * Return the {@link CacheMetricsRegistry} to record statistics in, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public CacheMetricsRegistry getMetricsRegistry() {
+		return this.metricsRegistry;
+	}
+
+	/**
+	 * Return the {@link CacheMetrics} to record the operations on the given
+	 * {@link Cache} in, or {@code null} if no statistics are recorded.
+	 * @since 5.3
+	 */
+	@Nullable
+	protected CacheMetrics getCacheMetrics(Cache cache) {
+		CacheMetricsRegistry metricsRegistry = this.metricsRegistry;
+		return (metricsRegistry != null ? metricsRegistry.getMetrics(cache.getName()) : null);
+	}
+
 
 	/**
 	 * Execute {@link Cache#get(Object)} on the specified {@link Cache} and
@@ -70,7 +112,17 @@ public abstract class AbstractCacheInvoker {
 	@Nullable
 	protected Cache.ValueWrapper doGet(Cache cache, Object key) {
 		try {
-			return cache.get(key);
+			Cache.ValueWrapper wrapper = cache.get(key);
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				if (wrapper != null) {
+					metrics.recordHit(key);
+				}
+				else {
+					metrics.recordMiss(key);
+				}
+			}
+			return wrapper;
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheGetError(ex, cache, key);
@@ -78,6 +130,43 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either right away or on
+	 * completion of the returned future. Return a future completing with
+	 * {@code null} if the handler does not throw any exception, which simulates
+	 * a cache miss in case of error.
+	 * @since 5.3
+	 * @see Cache#retrieve(Object)
+	 */
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		try {
+			CompletableFuture<Cache.ValueWrapper> result = cache.retrieve(key);
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				result = result.thenApply(wrapper -> {
+					if (wrapper != null) {
+						metrics.recordHit(key);
+					}
+					else {
+						metrics.recordMiss(key);
+					}
+					return wrapper;
+				});
+			}
+			return result.exceptionally(ex -> {
+				Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+						(RuntimeException) cause : new CompletionException(cause)), cache, key);
+				return null;  // If the exception is handled, return a cache miss
+			});
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return CompletableFuture.completedFuture(null);  // If the exception is handled, return a cache miss
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
@@ -85,12 +174,64 @@ public abstract class AbstractCacheInvoker {
 	protected void doPut(Cache cache, Object key, @Nullable Object result) {
 		try {
 			cache.put(key, result);
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				metrics.recordPuts(1);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCachePutError(ex, cache, key, result);
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs. Return an empty map if
+	 * the handler does not throw any exception, which simulates a cache miss
+	 * for all keys in case of error.
+	 * @since 5.3
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			Map<Object, Cache.ValueWrapper> hits = cache.getAll(keys);
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				for (Object key : keys) {
+					if (hits.containsKey(key)) {
+						metrics.recordHit(key);
+					}
+					else {
+						metrics.recordMiss(key);
+					}
+				}
+			}
+			return hits;
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return cache misses
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs.
+	 * @since 5.3
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			cache.putAll(entries);
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				metrics.recordPuts(entries.size());
+			}
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries);
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)}/{@link Cache#evictIfPresent(Object)} on the
 	 * specified {@link Cache} and invoke the error handler if an exception occurs.
@@ -103,6 +244,10 @@ public abstract class AbstractCacheInvoker {
 			else {
 				cache.evict(key);
 			}
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				metrics.recordEviction();
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheEvictError(ex, cache, key);
@@ -121,6 +266,10 @@ public abstract class AbstractCacheInvoker {
 			else {
 				cache.clear();
 			}
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null) {
+				metrics.recordClear();
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheClearError(ex, cache);
@@ -21,18 +21,31 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
@@ -42,9 +55,15 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CacheMetrics;
+import org.springframework.cache.support.LoadCoalescer;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -52,6 +71,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.function.SingletonSupplier;
 import org.springframework.util.function.SupplierUtils;
@@ -81,13 +101,21 @@ import org.springframework.util.function.SupplierUtils;
  * @since 3.1
  */
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
-		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
+		implements BeanClassLoaderAware, BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
-	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
+	private final Map<Method, Map<Class<?>, CacheInvocationPlan>> invocationPlanCache = new ConcurrentHashMap<>(256);
+
+	private final boolean fastPathSupported = isFastPathSupported(getClass());
+
+	private CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
 	private CacheOperationSource cacheOperationSource;
@@ -100,6 +128,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	private boolean coalesceInvocations = false;
+
+	private final LoadCoalescer invocations = new LoadCoalescer();
+
+	private final ConcurrentMap<Object, CompletableFuture<Object>> asyncInvocations = new ConcurrentHashMap<>(16);
+
 	private boolean initialized = false;
 
 
@@ -194,6 +228,49 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Specify whether concurrent invocations that miss the same cache entries
+	 * should share a single invocation of the underlying method.
+	 * <p>Applies to methods that only declare {@code @Cacheable} operations,
+	 * for any {@link Cache} implementation and any number of caches: the first
+	 * caller invokes the method and populates the caches, while callers that
+	 * miss the same entries in the meantime wait for and return its outcome.
+	 * <p>Note that waiting callers receive the very same return value as the
+	 * first caller, or the same exception, rather than a result of their own:
+	 * a mutable return value is shared between them. Invocations are matched
+	 * by method, cache names and keys only, so neither the target instance nor
+	 * any thread-bound state (such as a security context or transaction) of
+	 * the waiting callers is taken into account.
+	 * <p>Default is "false", letting every caller that misses invoke the method
+	 * on its own. Switch this flag to "true" for methods whose result only
+	 * depends on the cache key, analogous to {@link CacheableOperation#isSync()}
+	 * but across any number of caches.
+	 * @since 5.3
+	 * @see CacheableOperation#isSync()
+	 */
+	public void setCoalesceInvocations(boolean coalesceInvocations) {
+		this.coalesceInvocations = coalesceInvocations;
+	}
+
+	/**
+	 * Return whether concurrent invocations that miss the same cache entries
+	 * share a single invocation of the underlying method.
+	 * @since 5.3
+	 */
+	public boolean isCoalesceInvocations() {
+		return this.coalesceInvocations;
+	}
+
+	/**
+	 * Set the class loader to compile cache expressions against, typically
+	 * the bean class loader of the containing bean factory.
+	 * @since 5.3
+	 */
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.evaluator = new CacheOperationExpressionEvaluator(classLoader);
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -330,6 +407,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	 */
 	protected void clearMetadataCache() {
 		this.metadataCache.clear();
+		this.invocationPlanCache.clear();
 		this.evaluator.clear();
 	}
 
@@ -338,19 +416,74 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		// Check whether aspect is enabled (to cope with cases where the AJ is pulled in automatically)
 		if (this.initialized) {
 			Class<?> targetClass = getTargetClass(target);
-			CacheOperationSource cacheOperationSource = getCacheOperationSource();
-			if (cacheOperationSource != null) {
-				Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
-				if (!CollectionUtils.isEmpty(operations)) {
-					return execute(invoker, method,
-							new CacheOperationContexts(operations, method, args, target, targetClass));
+			CacheInvocationPlan plan = getInvocationPlan(method, targetClass);
+			if (plan != null) {
+				boolean cacheMiss = false;
+				CacheOperationMetadata metadata = plan.fastPathMetadata;
+				Cache cache = (metadata != null ? plan.getFastPathCache() : null);
+				if (metadata != null && cache != null) {
+					// Serve a hit for a single plain @Cacheable operation without setting up contexts
+					Object key = metadata.keyGenerator.generate(target, metadata.method, args);
+					if (key != null) {
+						Cache.ValueWrapper cacheHit = findInCache(cache, key);
+						if (cacheHit != null) {
+							return wrapCacheValue(method, cacheHit.get());
+						}
+						cacheMiss = true;
+					}
 				}
+				return execute(invoker, method,
+						new CacheOperationContexts(plan, method, args, target, targetClass), cacheMiss);
 			}
 		}
 
 		return invoker.invoke();
 	}
 
+	/**
+	 * Return the {@link CacheInvocationPlan} for the specified method and target
+	 * class, building it from the {@link CacheOperationSource} on first use.
+	 * @return the plan, or {@code null} if the method has no cache operations
+	 */
+	@Nullable
+	private CacheInvocationPlan getInvocationPlan(Method method, Class<?> targetClass) {
+		Map<Class<?>, CacheInvocationPlan> plans = this.invocationPlanCache.get(method);
+		CacheInvocationPlan plan = (plans != null ? plans.get(targetClass) : null);
+		if (plan == null) {
+			CacheOperationSource cacheOperationSource = getCacheOperationSource();
+			if (cacheOperationSource == null) {
+				return null;
+			}
+			Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
+			plan = new CacheInvocationPlan(
+					(operations != null ? operations : Collections.emptyList()), method, targetClass);
+			this.invocationPlanCache.computeIfAbsent(method, key -> new ConcurrentHashMap<>(4)).put(targetClass, plan);
+		}
+		return (!plan.operations.isEmpty() ? plan : null);
+	}
+
+	@Nullable
+	private Cache.ValueWrapper findInCache(Cache cache, Object key) {
+		Cache.ValueWrapper wrapper = doGet(cache, key);
+		if (wrapper != null && logger.isTraceEnabled()) {
+			logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
+		}
+		return wrapper;
+	}
+
+	/**
+	 * Determine whether hits may be served without creating operation contexts,
+	 * i.e. whether the given aspect class does not customize their creation.
+	 */
+	private static boolean isFastPathSupported(Class<?> aspectClass) {
+		Method getOperationContext = ReflectionUtils.findMethod(aspectClass, "getOperationContext",
+				CacheOperation.class, Method.class, Object[].class, Object.class, Class.class);
+		Method getCaches = ReflectionUtils.findMethod(aspectClass, "getCaches",
+				CacheOperationInvocationContext.class, CacheResolver.class);
+		return (getOperationContext != null && getOperationContext.getDeclaringClass() == CacheAspectSupport.class &&
+				getCaches != null && getCaches.getDeclaringClass() == CacheAspectSupport.class);
+	}
+
 	/**
 	 * Execute the underlying operation (typically in case of cache miss) and return
 	 * the result of the invocation. If an exception occurs it will be wrapped in a
@@ -370,14 +503,29 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 	@Nullable
-	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts,
+			boolean cacheMiss) {
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				CacheMetrics metrics = getCacheMetrics(cache);
+				AsyncResultAdapter asyncAdapter = contexts.getAsyncResultAdapter();
+				if (asyncAdapter != null) {
+					if (metrics != null) {
+						return asyncAdapter.fromFuture(() ->
+								retrieveAndRecord(cache, key, metrics, invoker, asyncAdapter));
+					}
+					return asyncAdapter.fromFuture(() ->
+							cache.retrieve(key, () -> invokeOperationAsync(invoker, asyncAdapter)));
+				}
 				try {
+					if (metrics != null) {
+						return wrapCacheValue(method, getAndRecord(cache, key, metrics, invoker));
+					}
 					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
 				}
 				catch (Cache.ValueRetrievalException ex) {
@@ -392,13 +540,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			return executeBulk(invoker, method, contexts);
+		}
+
+		// Special handling of asynchronous results, caching their values once available
+		AsyncResultAdapter asyncAdapter = contexts.getAsyncResultAdapter();
+		if (asyncAdapter != null) {
+			return asyncAdapter.fromFuture(() -> executeAsync(invoker, method, contexts, asyncAdapter));
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
 				CacheOperationExpressionEvaluator.NO_RESULT);
 
 		// Check if we have a cached item matching the conditions
-		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+		Cache.ValueWrapper cacheHit = (!cacheMiss ? findCachedItem(contexts.get(CacheableOperation.class)) : null);
 
 		// Collect puts from any @Cacheable miss, if no cached item is found
 		List<CachePutRequest> cachePutRequests = new LinkedList<>();
@@ -415,9 +573,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			cacheValue = cacheHit.get();
 			returnValue = wrapCacheValue(method, cacheValue);
 		}
+		else if (isCoalescing(contexts, cachePutRequests)) {
+			// Share the invocation with concurrent callers missing the same entries
+			returnValue = invokeCoalesced(invoker, method, cachePutRequests);
+			cacheValue = unwrapReturnValue(returnValue);
+			cachePutRequests.clear();
+		}
 		else {
 			// Invoke the method if we don't have a cache hit
-			returnValue = invokeOperation(invoker);
+			returnValue = invokeOperation(invoker, getLoadMetrics(cachePutRequests));
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
@@ -435,6 +599,346 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	private Map<Object, Object> executeBulk(
+			CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		int keysIndex = contexts.getBulkArgumentIndex();
+		Collection<?> keys = (Collection<?>) contexts.getArgs()[keysIndex];
+		if (CollectionUtils.isEmpty(keys) ||
+				!isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching required, only call the underlying method
+			return toBulkResult(invokeOperation(invoker));
+		}
+
+		// Look up all requested keys, consulting further caches for the remaining ones only
+		Map<Object, Object> cachedValues = new HashMap<>();
+		Set<Object> missingKeys = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> hits = doGetAll(cache, missingKeys);
+			for (Map.Entry<Object, Cache.ValueWrapper> hit : hits.entrySet()) {
+				cachedValues.put(hit.getKey(), hit.getValue().get());
+				missingKeys.remove(hit.getKey());
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Found " + cachedValues.size() + " of " + keys.size() + " requested cache entries in " +
+					"cache(s) " + context.getCacheNames() + " for operation " + context.metadata.operation);
+		}
+
+		Map<Object, Object> loadedValues = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			// Invoke the method for the missing keys only, if possible
+			loadedValues = toBulkResult(invokeOperation(
+					determineBulkInvoker(invoker, method, contexts, keys, missingKeys), getLoadMetrics(context)));
+			Map<Object, Object> cacheEntries = new LinkedHashMap<>(loadedValues.size());
+			loadedValues.forEach((key, value) -> {
+				if (key != null && context.canPutToCache(value)) {
+					cacheEntries.put(key, value);
+				}
+			});
+			if (!cacheEntries.isEmpty()) {
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, cacheEntries);
+				}
+			}
+		}
+
+		// Merge cached and loaded values in the order of the requested keys
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			if (loadedValues.containsKey(key)) {
+				result.put(key, loadedValues.get(key));
+			}
+			else if (cachedValues.containsKey(key)) {
+				result.put(key, cachedValues.get(key));
+			}
+		}
+		return result;
+	}
+
+	private CacheOperationInvoker determineBulkInvoker(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, Collection<?> keys, Collection<Object> missingKeys) {
+
+		if (missingKeys.size() == keys.size()) {
+			return invoker;
+		}
+		int keysIndex = contexts.getBulkArgumentIndex();
+		Collection<Object> keysToLoad;
+		try {
+			keysToLoad = CollectionFactory.createCollection(
+					method.getParameterTypes()[keysIndex], missingKeys.size());
+		}
+		catch (IllegalArgumentException ex) {
+			// Collection type cannot be instantiated: load all requested keys
+			return invoker;
+		}
+		keysToLoad.addAll(missingKeys);
+		Object[] args = contexts.getArgs().clone();
+		args[keysIndex] = keysToLoad;
+		CacheOperationInvoker invokerToUse = invoker.withArguments(args);
+		return (invokerToUse != null ? invokerToUse : invoker);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Object, Object> toBulkResult(@Nullable Object returnValue) {
+		return (returnValue != null ? (Map<Object, Object>) returnValue : Collections.emptyMap());
+	}
+
+	private CompletableFuture<Object> executeAsync(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, AsyncResultAdapter asyncAdapter) {
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		// Check if we have a cached item matching the conditions, without blocking
+		return findCachedItemAsync(contexts.get(CacheableOperation.class)).thenCompose(cacheHit -> {
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				// If there are no put requests, just use the cache hit
+				Object cacheValue = cacheHit.get();
+				processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+				return CompletableFuture.completedFuture(cacheValue);
+			}
+			if (isCoalescing(contexts, cachePutRequests)) {
+				// Share the invocation with concurrent callers missing the same entries
+				return invokeCoalescedAsync(invoker, method, contexts, asyncAdapter, cachePutRequests);
+			}
+			return invokeAndCacheAsync(invoker, contexts, asyncAdapter, cachePutRequests);
+		});
+	}
+
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		CompletableFuture<Cache.ValueWrapper> result = CompletableFuture.completedFuture(null);
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				for (Cache cache : context.getCaches()) {
+					result = result.thenCompose(cached ->
+							(cached != null ? CompletableFuture.completedFuture(cached) : doRetrieve(cache, key)));
+				}
+			}
+		}
+		return result;
+	}
+
+	private CompletableFuture<Object> invokeAndCacheAsync(CacheOperationInvoker invoker,
+			CacheOperationContexts contexts, AsyncResultAdapter asyncAdapter, List<CachePutRequest> cachePutRequests) {
+
+		// Only cache the value of a successfully completed result
+		List<CacheMetrics> loadMetrics = getLoadMetrics(cachePutRequests);
+		return invokeOperationAsync(invoker, asyncAdapter, loadMetrics).thenApply(cacheValue -> {
+			collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+			for (CachePutRequest cachePutRequest : cachePutRequests) {
+				cachePutRequest.apply(cacheValue);
+			}
+			processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+			return cacheValue;
+		});
+	}
+
+	private CompletableFuture<Object> invokeCoalescedAsync(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, AsyncResultAdapter asyncAdapter, List<CachePutRequest> cachePutRequests) {
+
+		Object invocationKey = createInvocationKey(method, cachePutRequests);
+		CompletableFuture<Object> invocation = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.asyncInvocations.putIfAbsent(invocationKey, invocation);
+		if (existing == null) {
+			existing = invocation;
+			invokeAndCacheAsync(invoker, contexts, asyncAdapter, cachePutRequests).whenComplete((value, ex) -> {
+				this.asyncInvocations.remove(invocationKey, invocation);
+				if (ex != null) {
+					invocation.completeExceptionally(ex);
+				}
+				else {
+					invocation.complete(value);
+				}
+			});
+		}
+		// Expose a dependent future so that callers cannot complete or cancel the shared one
+		return existing.thenApply(Function.identity());
+	}
+
+	/**
+	 * Invoke the underlying operation and adapt its asynchronous result to a
+	 * {@link CompletableFuture}, turning an exception thrown by the invocation
+	 * into an exceptionally completed future.
+	 */
+	private CompletableFuture<Object> invokeOperationAsync(
+			CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter) {
+
+		try {
+			return asyncAdapter.toFuture(invokeOperation(invoker));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex.getOriginal());
+			return failed;
+		}
+	}
+
+	/**
+	 * Invoke the underlying operation to load missing values, recording the
+	 * time spent in the given cache metrics, if any.
+	 */
+	private Object invokeOperation(CacheOperationInvoker invoker, @Nullable List<CacheMetrics> loadMetrics) {
+		if (loadMetrics == null) {
+			return invokeOperation(invoker);
+		}
+		long startTime = System.nanoTime();
+		boolean success = false;
+		try {
+			Object returnValue = invokeOperation(invoker);
+			success = true;
+			return returnValue;
+		}
+		finally {
+			recordLoad(loadMetrics, startTime, success);
+		}
+	}
+
+	/**
+	 * Invoke the underlying operation to load missing values asynchronously,
+	 * recording the time until completion in the given cache metrics, if any.
+	 */
+	private CompletableFuture<Object> invokeOperationAsync(CacheOperationInvoker invoker,
+			AsyncResultAdapter asyncAdapter, @Nullable List<CacheMetrics> loadMetrics) {
+
+		if (loadMetrics == null) {
+			return invokeOperationAsync(invoker, asyncAdapter);
+		}
+		long startTime = System.nanoTime();
+		return invokeOperationAsync(invoker, asyncAdapter).whenComplete(
+				(value, ex) -> recordLoad(loadMetrics, startTime, ex == null));
+	}
+
+	@Nullable
+	private Object getAndRecord(Cache cache, Object key, CacheMetrics metrics, CacheOperationInvoker invoker) {
+		AtomicBoolean loaded = new AtomicBoolean();
+		Object value = cache.get(key, () -> {
+			loaded.set(true);
+			return unwrapReturnValue(invokeOperation(invoker, Collections.singletonList(metrics)));
+		});
+		recordLookup(metrics, key, !loaded.get());
+		return value;
+	}
+
+	private CompletableFuture<Object> retrieveAndRecord(Cache cache, Object key, CacheMetrics metrics,
+			CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter) {
+
+		AtomicBoolean loaded = new AtomicBoolean();
+		CompletableFuture<Object> result = cache.retrieve(key, () -> {
+			loaded.set(true);
+			return invokeOperationAsync(invoker, asyncAdapter, Collections.singletonList(metrics));
+		});
+		recordLookup(metrics, key, !loaded.get());
+		return result;
+	}
+
+	private void recordLookup(CacheMetrics metrics, Object key, boolean hit) {
+		if (hit) {
+			metrics.recordHit(key);
+		}
+		else {
+			metrics.recordMiss(key);
+		}
+	}
+
+	private void recordLoad(List<CacheMetrics> loadMetrics, long startTime, boolean success) {
+		long loadTime = System.nanoTime() - startTime;
+		for (CacheMetrics metrics : loadMetrics) {
+			metrics.recordLoad(loadTime, success);
+		}
+	}
+
+	/**
+	 * Determine the metrics of the caches that the given put requests load
+	 * values for, or {@code null} if no statistics are recorded.
+	 */
+	@Nullable
+	private List<CacheMetrics> getLoadMetrics(Collection<CachePutRequest> cachePutRequests) {
+		if (getMetricsRegistry() == null || cachePutRequests.isEmpty()) {
+			return null;
+		}
+		List<CacheMetrics> loadMetrics = new ArrayList<>(cachePutRequests.size());
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			addLoadMetrics(cachePutRequest.context, loadMetrics);
+		}
+		return loadMetrics;
+	}
+
+	/**
+	 * Determine the metrics of the caches of the given context,
+	 * or {@code null} if no statistics are recorded.
+	 */
+	@Nullable
+	private List<CacheMetrics> getLoadMetrics(CacheOperationContext context) {
+		if (getMetricsRegistry() == null) {
+			return null;
+		}
+		List<CacheMetrics> loadMetrics = new ArrayList<>(context.getCaches().size());
+		addLoadMetrics(context, loadMetrics);
+		return loadMetrics;
+	}
+
+	private void addLoadMetrics(CacheOperationContext context, List<CacheMetrics> loadMetrics) {
+		for (Cache cache : context.getCaches()) {
+			CacheMetrics metrics = getCacheMetrics(cache);
+			if (metrics != null && !loadMetrics.contains(metrics)) {
+				loadMetrics.add(metrics);
+			}
+		}
+	}
+
+	private boolean isCoalescing(CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+		return (this.coalesceInvocations && !cachePutRequests.isEmpty() &&
+				contexts.get(CachePutOperation.class).isEmpty() && contexts.get(CacheEvictOperation.class).isEmpty());
+	}
+
+	@Nullable
+	private Object invokeCoalesced(
+			CacheOperationInvoker invoker, Method method, List<CachePutRequest> cachePutRequests) {
+
+		List<CacheMetrics> loadMetrics = getLoadMetrics(cachePutRequests);
+		try {
+			return this.invocations.load(createInvocationKey(method, cachePutRequests), () -> {
+				Object returnValue = invokeOperation(invoker, loadMetrics);
+				Object cacheValue = unwrapReturnValue(returnValue);
+				for (CachePutRequest cachePutRequest : cachePutRequests) {
+					cachePutRequest.apply(cacheValue);
+				}
+				return returnValue;
+			});
+		}
+		catch (RuntimeException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			// Interrupted while waiting for a concurrent invocation
+			throw new CacheOperationInvoker.ThrowableWrapper(ex);
+		}
+	}
+
+	private Object createInvocationKey(Method method, List<CachePutRequest> cachePutRequests) {
+		List<Object> invocationKey = new ArrayList<>(cachePutRequests.size() * 2 + 1);
+		invocationKey.add(method);
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			invocationKey.add(cachePutRequest.context.getCacheNames());
+			invocationKey.add(cachePutRequest.key);
+		}
+		return invocationKey;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -551,11 +1055,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
 		for (Cache cache : context.getCaches()) {
-			Cache.ValueWrapper wrapper = doGet(cache, key);
+			Cache.ValueWrapper wrapper = findInCache(cache, key);
 			if (wrapper != null) {
-				if (logger.isTraceEnabled()) {
-					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
-				}
 				return wrapper;
 			}
 		}
@@ -588,16 +1089,33 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final MultiValueMap<Class<? extends CacheOperation>, CacheOperationContext> contexts;
 
+		private final Object[] args;
+
 		private final boolean sync;
 
-		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
+		private final int bulkArgumentIndex;
+
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
+		public CacheOperationContexts(CacheInvocationPlan plan, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
-			this.contexts = new LinkedMultiValueMap<>(operations.size());
-			for (CacheOperation op : operations) {
+			this.contexts = new LinkedMultiValueMap<>(plan.operations.size());
+			for (CacheOperation op : plan.operations) {
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
-			this.sync = determineSyncFlag(method);
+			this.args = args;
+			this.sync = plan.sync;
+			this.bulkArgumentIndex = plan.bulkArgumentIndex;
+			this.asyncResultAdapter = plan.asyncResultAdapter;
+			if (this.sync) {
+				CacheOperationContext cacheOperationContext = get(CacheableOperation.class).iterator().next();
+				if (cacheOperationContext.getCaches().size() > 1) {
+					throw new IllegalStateException("@Cacheable(sync=true) only allows a single cache on '" +
+							cacheOperationContext.getOperation() + "'");
+				}
+			}
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -605,37 +1123,115 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return (result != null ? result : Collections.emptyList());
 		}
 
+		public Object[] getArgs() {
+			return this.args;
+		}
+
 		public boolean isSynchronized() {
 			return this.sync;
 		}
 
-		private boolean determineSyncFlag(Method method) {
-			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
-			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
-				return false;
+		public boolean isBulk() {
+			return (this.bulkArgumentIndex != -1);
+		}
+
+		public int getBulkArgumentIndex() {
+			return this.bulkArgumentIndex;
+		}
+
+		@Nullable
+		public AsyncResultAdapter getAsyncResultAdapter() {
+			return this.asyncResultAdapter;
+		}
+	}
+
+
+	/**
+	 * Invocation plan for a method and target class, holding everything about
+	 * its cache operations that does not depend on a particular invocation.
+	 */
+	private class CacheInvocationPlan {
+
+		private final Collection<? extends CacheOperation> operations;
+
+		private final boolean sync;
+
+		private final int bulkArgumentIndex;
+
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
+		@Nullable
+		private final CacheOperationMetadata fastPathMetadata;
+
+		@Nullable
+		private final String fastPathCacheName;
+
+		public CacheInvocationPlan(Collection<? extends CacheOperation> operations, Method method,
+				Class<?> targetClass) {
+
+			this.operations = operations;
+			this.sync = determineSyncFlag(method);
+			this.bulkArgumentIndex = determineBulkArgumentIndex(method);
+			this.asyncResultAdapter = (!operations.isEmpty() ?
+					AsyncResultAdapter.forReturnType(BridgeMethodResolver.findBridgedMethod(method).getReturnType()) :
+					null);
+			this.fastPathMetadata = determineFastPathMetadata(method, targetClass);
+			this.fastPathCacheName = (this.fastPathMetadata != null ?
+					this.fastPathMetadata.operation.getCacheNames().iterator().next() : null);
+		}
+
+		/**
+		 * Resolve the single cache of the fast path operation, if any. A missing
+		 * cache is left to the regular code path to report.
+		 */
+		@Nullable
+		public Cache getFastPathCache() {
+			if (this.fastPathMetadata == null || this.fastPathCacheName == null) {
+				return null;
 			}
+			CacheManager cacheManager = ((SimpleCacheResolver) this.fastPathMetadata.cacheResolver).getCacheManager();
+			return cacheManager.getCache(this.fastPathCacheName);
+		}
+
+		private List<CacheableOperation> getCacheableOperations() {
+			List<CacheableOperation> cacheableOperations = new ArrayList<>(this.operations.size());
+			for (CacheOperation operation : this.operations) {
+				if (operation instanceof CacheableOperation) {
+					cacheableOperations.add((CacheableOperation) operation);
+				}
+			}
+			return cacheableOperations;
+		}
+
+		private boolean hasOtherOperations() {
+			for (CacheOperation operation : this.operations) {
+				if (!(operation instanceof CacheableOperation)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean determineSyncFlag(Method method) {
+			List<CacheableOperation> cacheableOperations = getCacheableOperations();
 			boolean syncEnabled = false;
-			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
-				if (((CacheableOperation) cacheOperationContext.getOperation()).isSync()) {
+			for (CacheableOperation cacheableOperation : cacheableOperations) {
+				if (cacheableOperation.isSync()) {
 					syncEnabled = true;
 					break;
 				}
 			}
 			if (syncEnabled) {
-				if (this.contexts.size() > 1) {
+				if (hasOtherOperations()) {
 					throw new IllegalStateException(
 							"@Cacheable(sync=true) cannot be combined with other cache operations on '" + method + "'");
 				}
-				if (cacheOperationContexts.size() > 1) {
+				if (cacheableOperations.size() > 1) {
 					throw new IllegalStateException(
 							"Only one @Cacheable(sync=true) entry is allowed on '" + method + "'");
 				}
-				CacheOperationContext cacheOperationContext = cacheOperationContexts.iterator().next();
-				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
-				if (cacheOperationContext.getCaches().size() > 1) {
-					throw new IllegalStateException(
-							"@Cacheable(sync=true) only allows a single cache on '" + operation + "'");
-				}
+				CacheableOperation operation = cacheableOperations.get(0);
 				if (StringUtils.hasText(operation.getUnless())) {
 					throw new IllegalStateException(
 							"@Cacheable(sync=true) does not support unless attribute on '" + operation + "'");
@@ -644,6 +1240,78 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBulkArgumentIndex(Method method) {
+			List<CacheableOperation> cacheableOperations = getCacheableOperations();
+			boolean bulkEnabled = false;
+			for (CacheableOperation cacheableOperation : cacheableOperations) {
+				if (cacheableOperation.isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (!bulkEnabled) {
+				return -1;
+			}
+			if (this.sync) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with sync=true on '" + method + "'");
+			}
+			if (hasOtherOperations()) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheableOperations.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = cacheableOperations.get(0);
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) does not support key attribute on '" + operation + "'");
+			}
+			Class<?> returnType = method.getReturnType();
+			if (!Map.class.isAssignableFrom(returnType) || !returnType.isAssignableFrom(LinkedHashMap.class)) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) requires a Map return type on '" + method + "'");
+			}
+			int index = -1;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					if (index != -1) {
+						throw new IllegalStateException(
+								"@Cacheable(bulk=true) requires a single Collection parameter on '" + method + "'");
+					}
+					index = i;
+				}
+			}
+			if (index == -1) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) requires a Collection parameter on '" + method + "'");
+			}
+			return index;
+		}
+
+		/**
+		 * Determine the metadata of a single {@code @Cacheable} operation whose hits
+		 * can be served from a single cache of a {@link SimpleCacheResolver}, without
+		 * evaluating any expression.
+		 */
+		@Nullable
+		private CacheOperationMetadata determineFastPathMetadata(Method method, Class<?> targetClass) {
+			if (!fastPathSupported || this.operations.size() != 1 || this.sync || this.bulkArgumentIndex != -1 ||
+					this.asyncResultAdapter != null || method.isVarArgs()) {
+				return null;
+			}
+			CacheOperation operation = this.operations.iterator().next();
+			if (!(operation instanceof CacheableOperation) || operation.getCacheNames().size() != 1 ||
+					StringUtils.hasText(operation.getCondition()) || StringUtils.hasText(operation.getKey())) {
+				return null;
+			}
+			CacheOperationMetadata metadata = getCacheOperationMetadata(operation, method, targetClass);
+			return (metadata.cacheResolver.getClass() == SimpleCacheResolver.class ? metadata : null);
+		}
 	}
 
 
@@ -667,6 +1335,17 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		private final String unless;
+
+		@Nullable
+		private volatile Expression keyExpression;
+
+		@Nullable
+		private volatile Expression conditionExpression;
+
+		@Nullable
+		private volatile Expression unlessExpression;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -678,6 +1357,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			if (operation instanceof CacheableOperation) {
+				this.unless = ((CacheableOperation) operation).getUnless();
+			}
+			else if (operation instanceof CachePutOperation) {
+				this.unless = ((CachePutOperation) operation).getUnless();
+			}
+			else {
+				this.unless = "";
+			}
 		}
 	}
 
@@ -700,6 +1388,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		private Boolean conditionPassing;
 
+		@Nullable
+		private EvaluationContext evaluationContext;
+
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
@@ -743,8 +1434,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (this.conditionPassing == null) {
 				if (StringUtils.hasText(this.metadata.operation.getCondition())) {
 					EvaluationContext evaluationContext = createEvaluationContext(result);
-					this.conditionPassing = evaluator.condition(this.metadata.operation.getCondition(),
-							this.metadata.methodKey, evaluationContext);
+					this.conditionPassing = Boolean.TRUE.equals(
+							getConditionExpression().getValue(evaluationContext, Boolean.class));
 				}
 				else {
 					this.conditionPassing = true;
@@ -754,16 +1445,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected boolean canPutToCache(@Nullable Object value) {
-			String unless = "";
-			if (this.metadata.operation instanceof CacheableOperation) {
-				unless = ((CacheableOperation) this.metadata.operation).getUnless();
-			}
-			else if (this.metadata.operation instanceof CachePutOperation) {
-				unless = ((CachePutOperation) this.metadata.operation).getUnless();
-			}
-			if (StringUtils.hasText(unless)) {
+			if (StringUtils.hasText(this.metadata.unless)) {
 				EvaluationContext evaluationContext = createEvaluationContext(value);
-				return !evaluator.unless(unless, this.metadata.methodKey, evaluationContext);
+				return !Boolean.TRUE.equals(getUnlessExpression().getValue(evaluationContext, Boolean.class));
 			}
 			return true;
 		}
@@ -775,12 +1459,51 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
 				EvaluationContext evaluationContext = createEvaluationContext(result);
-				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
+				return getKeyExpression().getValue(evaluationContext);
 			}
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
+		private Expression getKeyExpression() {
+			Expression expression = this.metadata.keyExpression;
+			if (expression == null) {
+				expression = evaluator.getKeyExpression(this.metadata.operation.getKey(), this.metadata.methodKey);
+				this.metadata.keyExpression = expression;
+			}
+			return expression;
+		}
+
+		private Expression getConditionExpression() {
+			Expression expression = this.metadata.conditionExpression;
+			if (expression == null) {
+				expression = evaluator.getConditionExpression(
+						this.metadata.operation.getCondition(), this.metadata.methodKey);
+				this.metadata.conditionExpression = expression;
+			}
+			return expression;
+		}
+
+		private Expression getUnlessExpression() {
+			Expression expression = this.metadata.unlessExpression;
+			if (expression == null) {
+				expression = evaluator.getUnlessExpression(this.metadata.unless, this.metadata.methodKey);
+				this.metadata.unlessExpression = expression;
+			}
+			return expression;
+		}
+
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
+			// Expressions evaluated before the invocation share the same context
+			if (result == CacheOperationExpressionEvaluator.NO_RESULT) {
+				if (this.evaluationContext == null) {
+					this.evaluationContext = doCreateEvaluationContext(result);
+				}
+				return this.evaluationContext;
+			}
+			return doCreateEvaluationContext(result);
+		}
+
+		private EvaluationContext doCreateEvaluationContext(@Nullable Object result) {
 			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
 					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
 		}
@@ -824,6 +1547,98 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Adapter between an asynchronous return type and {@link CompletableFuture},
+	 * allowing to cache the value of a result once it becomes available.
+	 */
+	private abstract static class AsyncResultAdapter {
+
+		@Nullable
+		static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			if (CompletionStage.class.isAssignableFrom(returnType) &&
+					returnType.isAssignableFrom(CompletableFuture.class)) {
+				return CompletableFutureAdapter.INSTANCE;
+			}
+			if (reactorPresent) {
+				return ReactiveResultAdapter.forReturnType(returnType);
+			}
+			return null;
+		}
+
+		/**
+		 * Adapt the given method result to a {@link CompletableFuture}.
+		 */
+		abstract CompletableFuture<Object> toFuture(@Nullable Object result);
+
+		/**
+		 * Adapt the future from the given supplier to the method's return type,
+		 * obtaining that future lazily if the return type supports deferred execution.
+		 */
+		abstract Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier);
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for {@link CompletableFuture} and
+	 * {@link CompletionStage} return types.
+	 */
+	private static class CompletableFutureAdapter extends AsyncResultAdapter {
+
+		static final CompletableFutureAdapter INSTANCE = new CompletableFutureAdapter();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		CompletableFuture<Object> toFuture(@Nullable Object result) {
+			return (result != null ? ((CompletionStage<Object>) result).toCompletableFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return futureSupplier.get();
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for single-value reactive return types such as
+	 * {@link Mono}, based on Reactor. Multi-value types such as {@link Flux} are
+	 * not adapted since their values would have to be buffered before being
+	 * emitted, which would defeat streaming and never complete for infinite
+	 * sequences: such results are cached as returned.
+	 */
+	private static class ReactiveResultAdapter extends AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		private ReactiveResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Nullable
+		static AsyncResultAdapter forReturnType(Class<?> returnType) {
+			ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() && !adapter.isMultiValue() ?
+					new ReactiveResultAdapter(adapter) : null);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		CompletableFuture<Object> toFuture(@Nullable Object result) {
+			if (result == null) {
+				return CompletableFuture.completedFuture(null);
+			}
+			Publisher<?> publisher = this.adapter.toPublisher(result);
+			return (CompletableFuture<Object>) Mono.from(publisher).toFuture();
+		}
+
+		@Override
+		Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return this.adapter.fromPublisher(Mono.defer(() -> Mono.fromFuture(futureSupplier.get())));
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
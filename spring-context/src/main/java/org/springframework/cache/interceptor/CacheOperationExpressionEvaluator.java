@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,8 @@ import org.springframework.lang.Nullable;
  * <p>Performs internal caching for performance reasons
  * using {@link AnnotatedElementKey}.
  *
+ * <p>As of 5.3, frequently evaluated expressions are compiled to bytecode.
+ *
  * @author Costin Leau
  * @author Phillip Webb
  * @author Sam Brannen
@@ -68,6 +70,22 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Create a new instance, compiling expressions against the default class loader.
+	 */
+	public CacheOperationExpressionEvaluator() {
+		this(null);
+	}
+
+	/**
+	 * Create a new instance, compiling expressions against the given class loader.
+	 * @since 5.3
+	 */
+	public CacheOperationExpressionEvaluator(@Nullable ClassLoader classLoader) {
+		super(createCompilingParser(classLoader));
+	}
+
+
 	/**
 	 * Create an {@link EvaluationContext}.
 	 * @param caches the current caches
@@ -87,6 +105,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
 				rootObject, targetMethod, args, getParameterNameDiscoverer());
+		applySharedResolvers(evaluationContext);
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
@@ -99,6 +118,34 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return evaluationContext;
 	}
 
+	/**
+	 * Return the parsed key expression for the specified method.
+	 * <p>The returned instance is shared and may be held on to by the caller,
+	 * avoiding repeated cache lookups for every invocation.
+	 * @since 5.3
+	 */
+	public Expression getKeyExpression(String keyExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.keyCache, methodKey, keyExpression);
+	}
+
+	/**
+	 * Return the parsed condition expression for the specified method.
+	 * @since 5.3
+	 * @see #getKeyExpression(String, AnnotatedElementKey)
+	 */
+	public Expression getConditionExpression(String conditionExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.conditionCache, methodKey, conditionExpression);
+	}
+
+	/**
+	 * Return the parsed unless expression for the specified method.
+	 * @since 5.3
+	 * @see #getKeyExpression(String, AnnotatedElementKey)
+	 */
+	public Expression getUnlessExpression(String unlessExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.unlessCache, methodKey, unlessExpression);
+	}
+
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.interceptor;
 
+import org.springframework.lang.Nullable;
+
 /**
  * Abstract the invocation of a cache operation.
  *
@@ -38,6 +40,21 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Return an invoker for the same cache operation that uses the given
+	 * arguments instead of the original ones, e.g. for a bulk operation
+	 * that only needs to load the values of some of the requested keys.
+	 * <p>The default implementation returns {@code null}, indicating that
+	 * argument substitution is not supported by this invoker.
+	 * @param arguments the arguments to use for the invocation
+	 * @return the invoker to use, or {@code null} if not supported
+	 * @since 5.3
+	 */
+	@Nullable
+	default CacheOperationInvoker withArguments(Object[] arguments) {
+		return null;
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
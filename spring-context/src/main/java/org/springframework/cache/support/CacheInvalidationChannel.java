@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy for propagating {@link CacheInvalidation} notifications between
+ * the nodes sharing a remote cache, so that each node can drop the entries
+ * of its local copy that have been changed by another node.
+ *
+ * <p>Implementations deliver every published invalidation to all subscribed
+ * listeners, including those of the publishing node, which is expected to
+ * ignore its own invalidations based on their {@link CacheInvalidation#getOrigin()
+ * origin}. Delivery may be asynchronous.
+ *
+ * @since 5.3
+ * @see LocalCacheInvalidationChannel
+ * @see TwoLevelCacheManager#setInvalidationChannel
+ */
+public interface CacheInvalidationChannel {
+
+	/**
+	 * Publish the given invalidation to all subscribed listeners.
+	 * @param invalidation the invalidation to publish
+	 */
+	void publish(CacheInvalidation invalidation);
+
+	/**
+	 * Register a listener to be notified of published invalidations.
+	 * @param listener the listener to register
+	 */
+	void subscribe(Consumer<CacheInvalidation> listener);
+
+	/**
+	 * Unregister a listener previously {@link #subscribe subscribed}.
+	 * @param listener the listener to unregister
+	 */
+	void unsubscribe(Consumer<CacheInvalidation> listener);
+
+}
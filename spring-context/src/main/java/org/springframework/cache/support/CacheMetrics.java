@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Thread-safe recorder of the operations performed on a single cache,
+ * independent of the cache provider. Typically obtained from a
+ * {@link CacheMetricsRegistry} and fed by the cache interceptor.
+ *
+ * @since 5.3
+ * @see CacheMetricsRegistry#getMetrics(String)
+ */
+public final class CacheMetrics {
+
+	private final String cacheName;
+
+	@Nullable
+	private final HotKeySampler hotKeySampler;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder putCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder clearCount = new LongAdder();
+
+	private final LongAdder loadSuccessCount = new LongAdder();
+
+	private final LongAdder loadFailureCount = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+	private final AtomicLongArray loadTimeHistogram =
+			new AtomicLongArray(CacheStatistics.getLoadTimeBucketCount());
+
+
+	/**
+	 * Create a new {@code CacheMetrics} instance for the given cache.
+	 * @param cacheName the name of the cache
+	 * @param hotKeySampleRate the rate at which lookups are sampled for the
+	 * hot key report (one in {@code hotKeySampleRate}), or {@code 0} to not
+	 * sample keys at all
+	 * @param hotKeyCapacity the maximum number of distinct keys to track
+	 */
+	CacheMetrics(String cacheName, int hotKeySampleRate, int hotKeyCapacity) {
+		this.cacheName = cacheName;
+		this.hotKeySampler = (hotKeySampleRate > 0 ? new HotKeySampler(hotKeySampleRate, hotKeyCapacity) : null);
+	}
+
+
+	/**
+	 * Return the name of the cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Record a lookup of the given key that found a cached value.
+	 */
+	public void recordHit(Object key) {
+		this.hitCount.increment();
+		sample(key);
+	}
+
+	/**
+	 * Record a lookup of the given key that did not find a cached value.
+	 */
+	public void recordMiss(Object key) {
+		this.missCount.increment();
+		sample(key);
+	}
+
+	private void sample(Object key) {
+		if (this.hotKeySampler != null) {
+			this.hotKeySampler.sample(key);
+		}
+	}
+
+	/**
+	 * Record the given number of values put into the cache.
+	 */
+	public void recordPuts(int count) {
+		this.putCount.add(count);
+	}
+
+	/**
+	 * Record the eviction of an entry.
+	 */
+	public void recordEviction() {
+		this.evictionCount.increment();
+	}
+
+	/**
+	 * Record the clearing of the entire cache.
+	 */
+	public void recordClear() {
+		this.clearCount.increment();
+	}
+
+	/**
+	 * Record the load of a missing value.
+	 * @param loadTime the time spent loading, in nanoseconds
+	 * @param success whether the value has been loaded successfully
+	 */
+	public void recordLoad(long loadTime, boolean success) {
+		if (success) {
+			this.loadSuccessCount.increment();
+		}
+		else {
+			this.loadFailureCount.increment();
+		}
+		this.totalLoadTime.add(loadTime);
+		this.loadTimeHistogram.incrementAndGet(CacheStatistics.getLoadTimeBucket(loadTime));
+	}
+
+	/**
+	 * Return a snapshot of the statistics recorded so far.
+	 */
+	public CacheStatistics getStatistics() {
+		long[] histogram = new long[this.loadTimeHistogram.length()];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = this.loadTimeHistogram.get(i);
+		}
+		return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(), this.putCount.sum(),
+				this.evictionCount.sum(), this.clearCount.sum(), this.loadSuccessCount.sum(),
+				this.loadFailureCount.sum(), this.totalLoadTime.sum(), histogram);
+	}
+
+	/**
+	 * Return the most frequently looked up keys, in descending order of their
+	 * estimated number of lookups. Keys are reported in their {@code toString()}
+	 * representation, and their counts are extrapolated from the sampled lookups.
+	 * @param limit the maximum number of keys to return
+	 * @return the hot keys along with their estimated lookup count, or an empty
+	 * map if keys are not sampled for this cache
+	 */
+	public Map<String, Long> getHotKeys(int limit) {
+		return (this.hotKeySampler != null ? this.hotKeySampler.getHotKeys(limit) : Collections.emptyMap());
+	}
+
+	/**
+	 * Reset all statistics and sampled keys.
+	 */
+	public void reset() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.putCount.reset();
+		this.evictionCount.reset();
+		this.clearCount.reset();
+		this.loadSuccessCount.reset();
+		this.loadFailureCount.reset();
+		this.totalLoadTime.reset();
+		for (int i = 0; i < this.loadTimeHistogram.length(); i++) {
+			this.loadTimeHistogram.set(i, 0);
+		}
+		if (this.hotKeySampler != null) {
+			this.hotKeySampler.reset();
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return "CacheMetrics for cache '" + this.cacheName + "': " + getStatistics();
+	}
+
+}
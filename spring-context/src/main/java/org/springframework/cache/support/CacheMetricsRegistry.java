@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Registry of the {@link CacheMetrics} recorded per cache name, independent
+ * of the cache provider. Set it on the cache interceptor through
+ * {@link org.springframework.cache.interceptor.AbstractCacheInvoker#setMetricsRegistry}
+ * to record the hits, misses, puts, evictions and load times of all cache
+ * operations it performs, along with a sampled report of the hottest keys.
+ *
+ * <p>Statistics are available programmatically via {@link #getStatistics(String)}
+ * and {@link #getHotKeys(String, int)}. Registered as a bean, this registry may
+ * also be exposed to JMX by an
+ * {@link org.springframework.jmx.export.MBeanExporter}, or by an
+ * {@link org.springframework.jmx.export.annotation.AnnotationMBeanExporter}
+ * based on its {@link ManagedResource} metadata.
+ *
+ * @since 5.3
+ * @see CacheMetrics
+ * @see CacheStatistics
+ */
+@ManagedResource(description = "Statistics of the caches used by the cache interceptor")
+public class CacheMetricsRegistry {
+
+	/**
+	 * The default rate at which lookups are sampled for the hot key report:
+	 * one in 16.
+	 */
+	public static final int DEFAULT_HOT_KEY_SAMPLE_RATE = 16;
+
+	/**
+	 * The default maximum number of distinct keys tracked per cache
+	 * for the hot key report.
+	 */
+	public static final int DEFAULT_HOT_KEY_CAPACITY = 256;
+
+
+	private final ConcurrentMap<String, CacheMetrics> metrics = new ConcurrentHashMap<>(16);
+
+	private int hotKeySampleRate = DEFAULT_HOT_KEY_SAMPLE_RATE;
+
+	private int hotKeyCapacity = DEFAULT_HOT_KEY_CAPACITY;
+
+
+	/**
+	 * Specify the rate at which lookups are sampled for the hot key report,
+	 * i.e. one in {@code hotKeySampleRate} lookups. Set it to {@code 1} to
+	 * sample every lookup, or to {@code 0} to disable the hot key report.
+	 * <p>Default is {@value #DEFAULT_HOT_KEY_SAMPLE_RATE}. Only applies to
+	 * caches that have not been recorded yet.
+	 */
+	public void setHotKeySampleRate(int hotKeySampleRate) {
+		Assert.isTrue(hotKeySampleRate >= 0, "Hot key sample rate must not be negative");
+		this.hotKeySampleRate = hotKeySampleRate;
+	}
+
+	/**
+	 * Specify the maximum number of distinct keys tracked per cache for the
+	 * hot key report. Once reached, the sampled counts are halved and rarely
+	 * used keys make room for new ones.
+	 * <p>Default is {@value #DEFAULT_HOT_KEY_CAPACITY}. Only applies to
+	 * caches that have not been recorded yet.
+	 */
+	public void setHotKeyCapacity(int hotKeyCapacity) {
+		Assert.isTrue(hotKeyCapacity > 0, "Hot key capacity must be greater than 0");
+		this.hotKeyCapacity = hotKeyCapacity;
+	}
+
+
+	/**
+	 * Return the {@link CacheMetrics} for the cache with the given name,
+	 * creating it on first access.
+	 * @param cacheName the name of the cache
+	 */
+	public CacheMetrics getMetrics(String cacheName) {
+		CacheMetrics cacheMetrics = this.metrics.get(cacheName);
+		if (cacheMetrics == null) {
+			cacheMetrics = this.metrics.computeIfAbsent(cacheName,
+					name -> new CacheMetrics(name, this.hotKeySampleRate, this.hotKeyCapacity));
+		}
+		return cacheMetrics;
+	}
+
+	/**
+	 * Return the names of the caches for which statistics have been recorded.
+	 */
+	@ManagedAttribute(description = "The names of the caches for which statistics have been recorded")
+	public String[] getCacheNames() {
+		return StringUtils.toStringArray(this.metrics.keySet());
+	}
+
+	/**
+	 * Return a snapshot of the statistics recorded for the given cache.
+	 * @param cacheName the name of the cache
+	 * @return the statistics (all zero if nothing has been recorded yet)
+	 */
+	public CacheStatistics getStatistics(String cacheName) {
+		CacheMetrics cacheMetrics = this.metrics.get(cacheName);
+		return (cacheMetrics != null ? cacheMetrics : new CacheMetrics(cacheName, 0, 1)).getStatistics();
+	}
+
+	/**
+	 * Return the statistics recorded for the given cache in a map of
+	 * JMX-friendly values, keyed by statistic name.
+	 * @param cacheName the name of the cache
+	 * @see #getStatistics(String)
+	 */
+	@ManagedOperation(description = "Return the statistics recorded for the given cache")
+	@ManagedOperationParameters(@ManagedOperationParameter(name = "cacheName", description = "The name of the cache"))
+	public Map<String, Object> describeStatistics(String cacheName) {
+		CacheStatistics statistics = getStatistics(cacheName);
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("hitCount", statistics.getHitCount());
+		description.put("missCount", statistics.getMissCount());
+		description.put("hitRate", statistics.getHitRate());
+		description.put("putCount", statistics.getPutCount());
+		description.put("evictionCount", statistics.getEvictionCount());
+		description.put("clearCount", statistics.getClearCount());
+		description.put("loadSuccessCount", statistics.getLoadSuccessCount());
+		description.put("loadFailureCount", statistics.getLoadFailureCount());
+		description.put("totalLoadTime", statistics.getTotalLoadTime());
+		description.put("averageLoadPenalty", statistics.getAverageLoadPenalty());
+		description.put("loadTimeBucketBounds", CacheStatistics.getLoadTimeBucketBounds());
+		description.put("loadTimeHistogram", statistics.getLoadTimeHistogram());
+		return description;
+	}
+
+	/**
+	 * Return the most frequently looked up keys of the given cache, in
+	 * descending order of their estimated number of lookups.
+	 * @param cacheName the name of the cache
+	 * @param limit the maximum number of keys to return
+	 * @see CacheMetrics#getHotKeys(int)
+	 */
+	@ManagedOperation(description = "Return the most frequently looked up keys of the given cache")
+	@ManagedOperationParameters({
+			@ManagedOperationParameter(name = "cacheName", description = "The name of the cache"),
+			@ManagedOperationParameter(name = "limit", description = "The maximum number of keys to return")})
+	public Map<String, Long> getHotKeys(String cacheName, int limit) {
+		CacheMetrics cacheMetrics = this.metrics.get(cacheName);
+		return (cacheMetrics != null ? cacheMetrics.getHotKeys(limit) : Collections.emptyMap());
+	}
+
+	/**
+	 * Reset the statistics and sampled keys of all caches.
+	 */
+	@ManagedOperation(description = "Reset the statistics of all caches")
+	public void reset() {
+		this.metrics.values().forEach(CacheMetrics::reset);
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the {@link CacheMetrics} recorded for a cache,
+ * including a histogram of the time spent loading missing values.
+ *
+ * @since 5.3
+ * @see CacheMetrics#getStatistics()
+ * @see CacheMetricsRegistry#getStatistics(String)
+ */
+public final class CacheStatistics {
+
+	private static final long[] LOAD_TIME_BUCKET_BOUNDS = {
+			10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L};
+
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long putCount;
+
+	private final long evictionCount;
+
+	private final long clearCount;
+
+	private final long loadSuccessCount;
+
+	private final long loadFailureCount;
+
+	private final long totalLoadTime;
+
+	private final long[] loadTimeHistogram;
+
+
+	/**
+	 * Create a new statistics snapshot with the given counts.
+	 * @param hitCount the number of lookups that found a cached value
+	 * @param missCount the number of lookups that did not find a cached value
+	 * @param putCount the number of values put into the cache
+	 * @param evictionCount the number of entries evicted by key
+	 * @param clearCount the number of times the cache has been cleared
+	 * @param loadSuccessCount the number of successful loads of missing values
+	 * @param loadFailureCount the number of loads that failed with an exception
+	 * @param totalLoadTime the total time spent loading, in nanoseconds
+	 * @param loadTimeHistogram the number of loads per bucket, as defined by
+	 * {@link #getLoadTimeBucketBounds()}, with one additional bucket for loads
+	 * exceeding the last bound
+	 */
+	public CacheStatistics(long hitCount, long missCount, long putCount, long evictionCount, long clearCount,
+			long loadSuccessCount, long loadFailureCount, long totalLoadTime, long[] loadTimeHistogram) {
+
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.evictionCount = evictionCount;
+		this.clearCount = clearCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.loadTimeHistogram = loadTimeHistogram.clone();
+	}
+
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that found a cached value,
+	 * or {@code 1.0} if there have not been any lookups yet.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	/**
+	 * Return the number of values put into the cache.
+	 */
+	public long getPutCount() {
+		return this.putCount;
+	}
+
+	/**
+	 * Return the number of entries evicted by key.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Return the number of times the entire cache has been cleared.
+	 */
+	public long getClearCount() {
+		return this.clearCount;
+	}
+
+	/**
+	 * Return the number of successful loads of missing values.
+	 */
+	public long getLoadSuccessCount() {
+		return this.loadSuccessCount;
+	}
+
+	/**
+	 * Return the number of loads that failed with an exception.
+	 */
+	public long getLoadFailureCount() {
+		return this.loadFailureCount;
+	}
+
+	/**
+	 * Return the total time spent loading missing values, in nanoseconds.
+	 */
+	public long getTotalLoadTime() {
+		return this.totalLoadTime;
+	}
+
+	/**
+	 * Return the average time spent loading a missing value, in nanoseconds.
+	 */
+	public double getAverageLoadPenalty() {
+		long loadCount = this.loadSuccessCount + this.loadFailureCount;
+		return (loadCount == 0 ? 0.0 : (double) this.totalLoadTime / loadCount);
+	}
+
+	/**
+	 * Return the number of loads per load time bucket. The element at index
+	 * {@code i} counts the loads that took at most {@code getLoadTimeBucketBounds()[i]}
+	 * nanoseconds (and more than the previous bound); the last element counts
+	 * the loads exceeding all bounds.
+	 */
+	public long[] getLoadTimeHistogram() {
+		return this.loadTimeHistogram.clone();
+	}
+
+	/**
+	 * Return the inclusive upper bounds of the load time buckets, in nanoseconds:
+	 * from 10 microseconds to 10 seconds in powers of ten.
+	 */
+	public static long[] getLoadTimeBucketBounds() {
+		return LOAD_TIME_BUCKET_BOUNDS.clone();
+	}
+
+	/**
+	 * Determine the index of the load time bucket for the given load time.
+	 */
+	static int getLoadTimeBucket(long loadTime) {
+		for (int i = 0; i < LOAD_TIME_BUCKET_BOUNDS.length; i++) {
+			if (loadTime <= LOAD_TIME_BUCKET_BOUNDS[i]) {
+				return i;
+			}
+		}
+		return LOAD_TIME_BUCKET_BOUNDS.length;
+	}
+
+	/**
+	 * Return the number of load time buckets, including the overflow bucket.
+	 */
+	static int getLoadTimeBucketCount() {
+		return LOAD_TIME_BUCKET_BOUNDS.length + 1;
+	}
+
+
+	@Override
+	public String toString() {
+		return "CacheStatistics [hitCount=" + this.hitCount + ", missCount=" + this.missCount +
+				", putCount=" + this.putCount + ", evictionCount=" + this.evictionCount +
+				", clearCount=" + this.clearCount + ", loadSuccessCount=" + this.loadSuccessCount +
+				", loadFailureCount=" + this.loadFailureCount + ", totalLoadTime=" + this.totalLoadTime +
+				", loadTimeHistogram=" + Arrays.toString(this.loadTimeHistogram) + "]";
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples the keys looked up in a cache in order to estimate the most
+ * frequently accessed ones. Only one in {@code sampleRate} lookups is
+ * sampled, and at most {@code capacity} distinct keys are tracked: keys
+ * sampled while the capacity is reached are ignored. Counts are halved
+ * after every {@code capacity * 8} samples, with the keys whose count drops
+ * to zero making room for new ones, favouring keys that stay hot.
+ *
+ * @since 5.3
+ */
+class HotKeySampler {
+
+	private final int sampleRate;
+
+	private final int capacity;
+
+	private final long decayInterval;
+
+	private final Map<String, LongAdder> counts;
+
+	private final AtomicLong sampleCount = new AtomicLong();
+
+	private final AtomicBoolean decaying = new AtomicBoolean();
+
+
+	HotKeySampler(int sampleRate, int capacity) {
+		this.sampleRate = sampleRate;
+		this.capacity = capacity;
+		this.decayInterval = capacity * 8L;
+		this.counts = new ConcurrentHashMap<>(capacity);
+	}
+
+
+	/**
+	 * Sample a lookup of the given key, if selected by the sample rate.
+	 */
+	void sample(Object key) {
+		if (this.sampleRate > 1 && ThreadLocalRandom.current().nextInt(this.sampleRate) != 0) {
+			return;
+		}
+		if (this.sampleCount.incrementAndGet() % this.decayInterval == 0) {
+			decay();
+		}
+		String keyToUse = String.valueOf(key);
+		LongAdder count = this.counts.get(keyToUse);
+		if (count == null) {
+			if (this.counts.size() >= this.capacity) {
+				return;
+			}
+			count = this.counts.computeIfAbsent(keyToUse, k -> new LongAdder());
+		}
+		count.increment();
+	}
+
+	private void decay() {
+		if (this.decaying.compareAndSet(false, true)) {
+			try {
+				for (Iterator<LongAdder> it = this.counts.values().iterator(); it.hasNext();) {
+					LongAdder count = it.next();
+					long halved = count.sumThenReset() / 2;
+					if (halved == 0) {
+						it.remove();
+					}
+					else {
+						count.add(halved);
+					}
+				}
+			}
+			finally {
+				this.decaying.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Return the hottest keys in descending order of their estimated number
+	 * of lookups, extrapolated from the sampled ones.
+	 * @param limit the maximum number of keys to return
+	 */
+	Map<String, Long> getHotKeys(int limit) {
+		List<Map.Entry<String, Long>> entries = new ArrayList<>(this.counts.size());
+		this.counts.forEach((key, count) ->
+				entries.add(new AbstractMap.SimpleImmutableEntry<>(key, count.sum() * this.sampleRate)));
+		entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+		Map<String, Long> hotKeys = new LinkedHashMap<>();
+		for (Map.Entry<String, Long> entry : entries) {
+			if (hotKeys.size() >= limit) {
+				break;
+			}
+			hotKeys.put(entry.getKey(), entry.getValue());
+		}
+		return hotKeys;
+	}
+
+	void reset() {
+		this.counts.clear();
+		this.sampleCount.set(0);
+	}
+
+}
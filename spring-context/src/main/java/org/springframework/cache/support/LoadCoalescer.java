@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Coalesces concurrent loads for the same key: the first caller performs
+ * the load while callers arriving in the meantime wait for its outcome
+ * instead of loading the same value again.
+ *
+ * <p>Unlike {@link ConcurrentMap#computeIfAbsent}, no lock is held while a
+ * value is being loaded, so loads for different keys never block each other
+ * and a loader may safely access the same map. A load that is re-entered for
+ * the same key by the thread performing it is executed directly rather than
+ * waiting for itself.
+ *
+ * <p>A load is only shared while it is in progress: it is discarded once it
+ * completes, whether successfully or not, so that it is up to the caller to
+ * keep the loaded value, typically in a cache.
+ *
+ * @since 5.3
+ * @see org.springframework.cache.Cache#get(Object, Callable)
+ */
+public class LoadCoalescer {
+
+	private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Return the value produced by the given loader, or the outcome of a load
+	 * already in progress for the same key.
+	 * @param key the key to coalesce loads for
+	 * @param loader the loader to invoke if no load is in progress for the key
+	 * @return the loaded value (may be {@code null})
+	 * @throws Exception any exception thrown by the loader that has been
+	 * invoked, either by this thread or by the thread that performed the load
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T load(Object key, Callable<T> loader) throws Exception {
+		Load load = new Load();
+		Load existing = this.loads.putIfAbsent(key, load);
+		if (existing != null) {
+			return (existing.thread == Thread.currentThread() ? loader.call() : (T) existing.await());
+		}
+		try {
+			T value = loader.call();
+			load.complete(value);
+			return value;
+		}
+		catch (Throwable ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.loads.remove(key, load);
+		}
+	}
+
+	/**
+	 * Return whether a load is currently in progress for the given key.
+	 */
+	public boolean isLoading(Object key) {
+		return this.loads.containsKey(key);
+	}
+
+	/**
+	 * Return the number of loads currently in progress.
+	 */
+	public int getLoadCount() {
+		return this.loads.size();
+	}
+
+
+	/**
+	 * A load in progress, remembering the thread that performs it.
+	 */
+	private static final class Load extends CompletableFuture<Object> {
+
+		final Thread thread = Thread.currentThread();
+
+		@Nullable
+		Object await() throws Exception {
+			try {
+				return get();
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw ex;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw ex;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationChannel} that delivers invalidations synchronously
+ * to the listeners subscribed within the same JVM, e.g. to keep several
+ * {@link TwoLevelCacheManager} instances sharing a remote cache coherent
+ * within one application.
+ *
+ * @since 5.3
+ */
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+	private final Set<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArraySet<>();
+
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		Assert.notNull(invalidation, "CacheInvalidation must not be null");
+		for (Consumer<CacheInvalidation> listener : this.listeners) {
+			listener.accept(invalidation);
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidation> listener) {
+		Assert.notNull(listener, "Listener must not be null");
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<CacheInvalidation> listener) {
+		this.listeners.remove(listener);
+	}
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} that serves hits from an in-process local cache (level 1)
+ * in front of a typically remote cache (level 2), as created by
+ * {@link TwoLevelCacheManager}.
+ *
+ * <p>Lookups check the local cache first and copy values found in the remote
+ * cache into it. Writes and evictions go to the remote cache first, are
+ * applied to the local cache and are then published to the other nodes
+ * through a {@link CacheInvalidationChannel}, so that those nodes drop the
+ * affected entries from their own local cache. A value that is copied from
+ * the remote cache while an invalidation of the same key (or of all entries)
+ * is being processed is not kept locally.
+ *
+ * <p>Note that local copies are only as coherent as the invalidation channel
+ * is reliable: consider bounding the lifetime of local entries if
+ * invalidations may be lost.
+ *
+ * @since 5.3
+ * @see TwoLevelCacheManager
+ */
+public class TwoLevelCache implements Cache {
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	private final CacheInvalidationChannel invalidationChannel;
+
+	private final String origin;
+
+	private final ConcurrentMap<Object, PendingCopies> pendingCopies = new ConcurrentHashMap<>();
+
+	private final AtomicLong clearCount = new AtomicLong();
+
+	private final LongAdder localHitCount = new LongAdder();
+
+	private final LongAdder remoteHitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder invalidationCount = new LongAdder();
+
+
+	/**
+	 * Create a new TwoLevelCache for the given caches.
+	 * @param localCache the in-process cache to serve hits from
+	 * @param remoteCache the cache holding the authoritative entries
+	 * @param invalidationChannel the channel to publish local changes to
+	 * @param origin the identifier of this node in published invalidations
+	 */
+	public TwoLevelCache(Cache localCache, Cache remoteCache,
+			CacheInvalidationChannel invalidationChannel, String origin) {
+
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		Assert.notNull(origin, "Origin must not be null");
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.invalidationChannel = invalidationChannel;
+		this.origin = origin;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	/**
+	 * Return the native cache of the remote cache.
+	 */
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	/**
+	 * Return the in-process cache serving hits (level 1).
+	 */
+	public final Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the cache holding the authoritative entries (level 2).
+	 */
+	public final Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	/**
+	 * Return a snapshot of the lookup statistics of both levels.
+	 */
+	public TwoLevelCacheStatistics getStatistics() {
+		return new TwoLevelCacheStatistics(this.localHitCount.sum(), this.remoteHitCount.sum(),
+				this.missCount.sum(), this.invalidationCount.sum());
+	}
+
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return wrapper;
+		}
+		PendingCopy copy = beginCopy(key);
+		try {
+			wrapper = this.remoteCache.get(key);
+			if (wrapper != null) {
+				this.remoteHitCount.increment();
+				this.localCache.put(key, wrapper.get());
+			}
+			else {
+				this.missCount.increment();
+			}
+		}
+		finally {
+			endCopy(copy);
+		}
+		return wrapper;
+	}
+
+	@Override
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		@SuppressWarnings("unchecked")
+		T result = (T) value;
+		return result;
+	}
+
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			@SuppressWarnings("unchecked")
+			T value = (T) wrapper.get();
+			return value;
+		}
+		PendingCopy copy = beginCopy(key);
+		try {
+			return this.localCache.get(key, () -> {
+				ValueWrapper remoteWrapper = this.remoteCache.get(key);
+				if (remoteWrapper != null) {
+					this.remoteHitCount.increment();
+					@SuppressWarnings("unchecked")
+					T remoteValue = (T) remoteWrapper.get();
+					return remoteValue;
+				}
+				this.missCount.increment();
+				try {
+					return this.remoteCache.get(key, valueLoader);
+				}
+				catch (ValueRetrievalException ex) {
+					// Let the local cache report the original loader failure rather than nesting it
+					Throwable cause = ex.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw ex;
+				}
+			});
+		}
+		finally {
+			endCopy(copy);
+		}
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		markInvalidated(key);
+		this.remoteCache.put(key, value);
+		this.localCache.put(key, value);
+		publish(key);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		markInvalidated(key);
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		this.localCache.evict(key);
+		if (existing == null) {
+			publish(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		markInvalidated(key);
+		this.remoteCache.evict(key);
+		this.localCache.evict(key);
+		publish(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		markInvalidated(key);
+		boolean evicted = this.remoteCache.evictIfPresent(key);
+		this.localCache.evict(key);
+		publish(key);
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.clearCount.incrementAndGet();
+		this.remoteCache.clear();
+		this.localCache.clear();
+		publish(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		this.clearCount.incrementAndGet();
+		boolean invalidated = this.remoteCache.invalidate();
+		this.localCache.invalidate();
+		publish(null);
+		return invalidated;
+	}
+
+	/**
+	 * Drop the given entry, or all entries, from the local cache only,
+	 * typically in response to an invalidation published by another node.
+	 * @param key the key of the entry to drop, or {@code null} for all entries
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		this.invalidationCount.increment();
+		if (key != null) {
+			markInvalidated(key);
+			this.localCache.evict(key);
+		}
+		else {
+			this.clearCount.incrementAndGet();
+			this.localCache.clear();
+		}
+	}
+
+	private PendingCopy beginCopy(Object key) {
+		long clearCount = this.clearCount.get();
+		PendingCopies copies = this.pendingCopies.compute(key, (k, existing) -> {
+			PendingCopies result = (existing != null ? existing : new PendingCopies());
+			result.count++;
+			return result;
+		});
+		return new PendingCopy(key, copies, copies.invalidations.get(), clearCount);
+	}
+
+	private void endCopy(PendingCopy copy) {
+		// An invalidation may have been processed before the copy made it into the local cache
+		boolean invalidated = (copy.copies.invalidations.get() != copy.invalidations ||
+				this.clearCount.get() != copy.clearCount);
+		this.pendingCopies.computeIfPresent(copy.key, (k, copies) -> (--copies.count > 0 ? copies : null));
+		if (invalidated) {
+			this.localCache.evict(copy.key);
+		}
+	}
+
+	private void markInvalidated(Object key) {
+		// Only keys with copies in progress are tracked
+		PendingCopies copies = this.pendingCopies.get(key);
+		if (copies != null) {
+			copies.invalidations.incrementAndGet();
+		}
+	}
+
+	private void publish(@Nullable Object key) {
+		this.invalidationChannel.publish(new CacheInvalidation(this.origin, getName(), key));
+	}
+
+
+	/**
+	 * The copies of a given key into the local cache that are in progress.
+	 * The count is only modified while holding the map entry.
+	 */
+	private static class PendingCopies {
+
+		int count;
+
+		final AtomicLong invalidations = new AtomicLong();
+	}
+
+
+	/**
+	 * A copy of a given key into the local cache, along with the invalidations
+	 * seen when it started.
+	 */
+	private static class PendingCopy {
+
+		final Object key;
+
+		final PendingCopies copies;
+
+		final long invalidations;
+
+		final long clearCount;
+
+		PendingCopy(Object key, PendingCopies copies, long invalidations, long clearCount) {
+			this.key = key;
+			this.copies = copies;
+			this.invalidations = invalidations;
+			this.clearCount = clearCount;
+		}
+	}
+
+}
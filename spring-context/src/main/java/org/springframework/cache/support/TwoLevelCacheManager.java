@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} that adds a bounded in-process cache (level 1) in front
+ * of each cache of a delegate {@link CacheManager} (level 2), typically backed
+ * by a remote store. Hot entries are then served without a round trip to the
+ * remote store.
+ *
+ * <p>Every node publishes its changes through a {@link CacheInvalidationChannel}
+ * and drops the affected entries from its local caches when another node
+ * publishes a change. By default, a {@link LocalCacheInvalidationChannel} private
+ * to this manager is used, which is only appropriate if a single node writes to
+ * the remote caches; specify a shared channel otherwise.
+ *
+ * <p>The invalidation listener is registered in {@link #afterPropertiesSet()}
+ * and removed in {@link #destroy()}; these callbacks need to be invoked when
+ * not using this class as a bean.
+ *
+ * @since 5.3
+ * @see TwoLevelCache
+ * @see #setLocalCacheConfiguration
+ * @see #setInvalidationChannel
+ */
+public class TwoLevelCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+	/**
+	 * The default maximum number of entries of each local cache.
+	 */
+	public static final long DEFAULT_LOCAL_MAXIMUM_SIZE = 10_000;
+
+
+	private final CacheManager remoteCacheManager;
+
+	private final ConcurrentMap<String, TwoLevelCache> cacheMap = new ConcurrentHashMap<>(16);
+
+	private final String origin = UUID.randomUUID().toString();
+
+	private final Consumer<CacheInvalidation> invalidationListener = this::onInvalidation;
+
+	private ConcurrentMapCacheConfiguration localCacheConfiguration =
+			ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(DEFAULT_LOCAL_MAXIMUM_SIZE);
+
+	private CacheInvalidationChannel invalidationChannel = new LocalCacheInvalidationChannel();
+
+
+	/**
+	 * Create a new TwoLevelCacheManager for the caches of the given manager.
+	 * @param remoteCacheManager the manager of the caches holding the
+	 * authoritative entries
+	 */
+	public TwoLevelCacheManager(CacheManager remoteCacheManager) {
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Specify the bounds of the local caches, applying to caches created
+	 * from then on.
+	 * <p>Default is a maximum of {@value #DEFAULT_LOCAL_MAXIMUM_SIZE} entries
+	 * per cache, without expiration.
+	 */
+	public void setLocalCacheConfiguration(ConcurrentMapCacheConfiguration localCacheConfiguration) {
+		Assert.notNull(localCacheConfiguration, "ConcurrentMapCacheConfiguration must not be null");
+		this.localCacheConfiguration = localCacheConfiguration;
+	}
+
+	/**
+	 * Return the bounds of the local caches.
+	 */
+	public ConcurrentMapCacheConfiguration getLocalCacheConfiguration() {
+		return this.localCacheConfiguration;
+	}
+
+	/**
+	 * Specify the channel through which local changes are published to, and
+	 * changes are received from, the other nodes sharing the remote caches.
+	 * <p>Default is a {@link LocalCacheInvalidationChannel} private to this manager.
+	 */
+	public void setInvalidationChannel(CacheInvalidationChannel invalidationChannel) {
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Return the channel through which changes are propagated.
+	 */
+	public CacheInvalidationChannel getInvalidationChannel() {
+		return this.invalidationChannel;
+	}
+
+	/**
+	 * Return the identifier of this manager in published invalidations.
+	 */
+	public String getOrigin() {
+		return this.origin;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		this.invalidationChannel.subscribe(this.invalidationListener);
+	}
+
+	@Override
+	public void destroy() {
+		this.invalidationChannel.unsubscribe(this.invalidationListener);
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		TwoLevelCache cache = this.cacheMap.get(name);
+		if (cache == null) {
+			Cache remoteCache = this.remoteCacheManager.getCache(name);
+			if (remoteCache == null) {
+				return null;
+			}
+			cache = this.cacheMap.computeIfAbsent(name, key ->
+					new TwoLevelCache(createLocalCache(name), remoteCache, this.invalidationChannel, this.origin));
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.remoteCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Create the local cache for the specified cache name.
+	 * <p>The default implementation creates a {@link BoundedConcurrentMapCache}
+	 * with the {@linkplain #setLocalCacheConfiguration local cache configuration},
+	 * accepting {@code null} values so that those can be kept as well.
+	 * @param name the name of the cache
+	 * @return the local cache
+	 */
+	protected Cache createLocalCache(String name) {
+		return new BoundedConcurrentMapCache(name, this.localCacheConfiguration);
+	}
+
+	/**
+	 * Apply the given invalidation to the local caches, unless it was
+	 * published by this manager.
+	 * @param invalidation the invalidation received
+	 */
+	protected void onInvalidation(CacheInvalidation invalidation) {
+		if (this.origin.equals(invalidation.getOrigin())) {
+			return;
+		}
+		TwoLevelCache cache = this.cacheMap.get(invalidation.getCacheName());
+		if (cache != null) {
+			cache.invalidateLocal(invalidation.getKey());
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+/**
+ * Immutable snapshot of the lookup statistics of a {@link TwoLevelCache},
+ * reporting the hits of each level separately.
+ *
+ * @since 5.3
+ * @see TwoLevelCache#getStatistics()
+ */
+public final class TwoLevelCacheStatistics {
+
+	private final long localHitCount;
+
+	private final long remoteHitCount;
+
+	private final long missCount;
+
+	private final long invalidationCount;
+
+
+	/**
+	 * Create a new statistics snapshot with the given counts.
+	 * @param localHitCount the number of lookups served by the local cache
+	 * @param remoteHitCount the number of lookups served by the remote cache
+	 * @param missCount the number of lookups found in neither cache
+	 * @param invalidationCount the number of invalidations received from other nodes
+	 */
+	public TwoLevelCacheStatistics(long localHitCount, long remoteHitCount, long missCount,
+			long invalidationCount) {
+
+		this.localHitCount = localHitCount;
+		this.remoteHitCount = remoteHitCount;
+		this.missCount = missCount;
+		this.invalidationCount = invalidationCount;
+	}
+
+
+	/**
+	 * Return the number of lookups served by the local cache.
+	 */
+	public long getLocalHitCount() {
+		return this.localHitCount;
+	}
+
+	/**
+	 * Return the number of lookups that missed the local cache
+	 * but were served by the remote cache.
+	 */
+	public long getRemoteHitCount() {
+		return this.remoteHitCount;
+	}
+
+	/**
+	 * Return the number of lookups found in neither cache.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups, all of which hit the local cache first.
+	 */
+	public long getRequestCount() {
+		return this.localHitCount + this.remoteHitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups served by the local cache,
+	 * or {@code 1.0} if there have not been any lookups yet.
+	 */
+	public double getLocalHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.localHitCount / requestCount);
+	}
+
+	/**
+	 * Return the ratio of lookups missing the local cache that were served by
+	 * the remote cache, or {@code 1.0} if the remote cache has not been used yet.
+	 */
+	public double getRemoteHitRate() {
+		long remoteRequestCount = this.remoteHitCount + this.missCount;
+		return (remoteRequestCount == 0 ? 1.0 : (double) this.remoteHitCount / remoteRequestCount);
+	}
+
+	/**
+	 * Return the number of invalidations received from other nodes.
+	 */
+	public long getInvalidationCount() {
+		return this.invalidationCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "TwoLevelCacheStatistics [localHitCount=" + this.localHitCount +
+				", remoteHitCount=" + this.remoteHitCount + ", missCount=" + this.missCount +
+				", invalidationCount=" + this.invalidationCount + "]";
+	}
+
+}
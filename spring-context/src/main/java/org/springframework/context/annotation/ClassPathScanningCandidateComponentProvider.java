@@ -18,10 +18,12 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
@@ -46,6 +48,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
@@ -113,6 +116,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private Map<String, List<MetadataReader>> prefetchedMetadataReaders;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -384,7 +390,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				MetadataReader metadataReader = getIndexedMetadataReader(index, type);
 				if (isCandidateComponent(metadataReader)) {
 					AnnotatedGenericBeanDefinition sbd = new AnnotatedGenericBeanDefinition(
 							metadataReader.getAnnotationMetadata());
@@ -416,11 +422,23 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	private Set<BeanDefinition> scanCandidateComponents(String basePackage) {
 		Set<BeanDefinition> candidates = new LinkedHashSet<>();
 		try {
-			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
-					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
+			String packageSearchPath = getPackageSearchPath(basePackage);
+			List<MetadataReader> prefetched = (this.prefetchedMetadataReaders != null ?
+					this.prefetchedMetadataReaders.get(packageSearchPath) : null);
+			if (prefetched != null) {
+				for (MetadataReader metadataReader : prefetched) {
+					try {
+						addCandidateComponent(metadataReader, candidates);
+					}
+					catch (Throwable ex) {
+						throw new BeanDefinitionStoreException(
+								"Failed to read candidate component class: " + metadataReader.getResource(), ex);
+					}
+				}
+				return candidates;
+			}
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
 			for (Resource resource : resources) {
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
@@ -428,27 +446,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 				if (resource.isReadable()) {
 					try {
 						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
-						}
+						addCandidateComponent(metadataReader, candidates);
 					}
 					catch (Throwable ex) {
 						throw new BeanDefinitionStoreException(
@@ -468,6 +466,87 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	private void addCandidateComponent(MetadataReader metadataReader, Set<BeanDefinition> candidates)
+			throws IOException {
+
+		Resource resource = metadataReader.getResource();
+		if (isCandidateComponent(metadataReader)) {
+			ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+			sbd.setResource(resource);
+			sbd.setSource(resource);
+			if (isCandidateComponent(sbd)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Identified candidate component class: " + resource);
+				}
+				candidates.add(sbd);
+			}
+			else {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignored because not a concrete top-level class: " + resource);
+				}
+			}
+		}
+		else {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Ignored because not matching any filter: " + resource);
+			}
+		}
+	}
+
+	/**
+	 * Specify class metadata which has been read upfront, keyed by
+	 * {@link #getPackageSearchPath package search path}, to be used instead of
+	 * resolving the corresponding classpath resources again.
+	 * <p>Filters and conditions still get applied to such metadata as usual.
+	 * @since 5.3
+	 * @see #readCandidateMetadata
+	 */
+	void setPrefetchedMetadataReaders(@Nullable Map<String, List<MetadataReader>> prefetchedMetadataReaders) {
+		this.prefetchedMetadataReaders = prefetchedMetadataReaders;
+	}
+
+	/**
+	 * Return whether this provider retrieves its candidates from a components index
+	 * rather than from scanning the classpath.
+	 * @since 5.3
+	 */
+	boolean hasComponentsIndex() {
+		return (this.componentsIndex != null);
+	}
+
+	/**
+	 * Return the classpath search path for the given base package,
+	 * as used for scanning.
+	 * @param basePackage the base package as specified by the user
+	 * @since 5.3
+	 */
+	String getPackageSearchPath(String basePackage) {
+		return ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+				resolveBasePackage(basePackage) + '/' + this.resourcePattern;
+	}
+
+	/**
+	 * Resolve the readable class resources for the given package search path
+	 * and read their metadata, without applying any filters or conditions.
+	 * <p>Safe to be called from several threads concurrently, provided that the
+	 * underlying {@code ResourcePatternResolver} and {@code MetadataReaderFactory}
+	 * are thread-safe (which is the case for the defaults).
+	 * @param packageSearchPath the package search path to resolve
+	 * @return the metadata readers, in resource resolution order
+	 * @since 5.3
+	 * @see #getPackageSearchPath
+	 */
+	List<MetadataReader> readCandidateMetadata(String packageSearchPath) throws IOException {
+		Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+		List<MetadataReader> metadataReaders = new ArrayList<>(resources.length);
+		for (Resource resource : resources) {
+			if (resource.isReadable()) {
+				metadataReaders.add(getMetadataReaderFactory().getMetadataReader(resource));
+			}
+		}
+		return metadataReaders;
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
@@ -481,6 +560,25 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return ClassUtils.convertClassNameToResourcePath(getEnvironment().resolveRequiredPlaceholders(basePackage));
 	}
 
+	/**
+	 * Obtain a {@link MetadataReader} for the specified candidate type, using the
+	 * metadata that the index holds for it if available.
+	 * @param index the components index
+	 * @param type the candidate type
+	 * @return the {@code MetadataReader} to use for the candidate type
+	 * @throws IOException in case of I/O failure when reading the class file
+	 * @since 5.3
+	 */
+	private MetadataReader getIndexedMetadataReader(CandidateComponentsIndex index, String type) throws IOException {
+		AnnotationMetadata metadata = index.getAnnotationMetadata(type);
+		if (metadata == null) {
+			return getMetadataReaderFactory().getMetadataReader(type);
+		}
+		Resource resource = getResourcePatternResolver().getResource(ResourceLoader.CLASSPATH_URL_PREFIX +
+				ClassUtils.convertClassNameToResourcePath(type) + ClassUtils.CLASS_FILE_SUFFIX);
+		return new IndexedMetadataReader(resource, metadata);
+	}
+
 	/**
 	 * Determine whether the given class does not match any exclude filter
 	 * and does match at least one include filter.
@@ -541,4 +639,36 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	/**
+	 * {@link MetadataReader} exposing the metadata that the index holds for a
+	 * candidate type, without reading its class file.
+	 */
+	private static class IndexedMetadataReader implements MetadataReader {
+
+		private final Resource resource;
+
+		private final AnnotationMetadata metadata;
+
+		IndexedMetadataReader(Resource resource, AnnotationMetadata metadata) {
+			this.resource = resource;
+			this.metadata = metadata;
+		}
+
+		@Override
+		public Resource getResource() {
+			return this.resource;
+		}
+
+		@Override
+		public ClassMetadata getClassMetadata() {
+			return this.metadata;
+		}
+
+		@Override
+		public AnnotationMetadata getAnnotationMetadata() {
+			return this.metadata;
+		}
+	}
+
 }
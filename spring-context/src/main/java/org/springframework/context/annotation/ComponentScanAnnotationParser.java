@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,9 +21,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
@@ -32,6 +37,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.filter.AbstractTypeHierarchyTraversingFilter;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AspectJTypeFilter;
@@ -54,6 +60,8 @@ import org.springframework.util.StringUtils;
  */
 class ComponentScanAnnotationParser {
 
+	private static final Log logger = LogFactory.getLog(ComponentScanAnnotationParser.class);
+
 	private final Environment environment;
 
 	private final ResourceLoader resourceLoader;
@@ -62,6 +70,8 @@ class ComponentScanAnnotationParser {
 
 	private final BeanDefinitionRegistry registry;
 
+	private final Map<String, List<MetadataReader>> prefetchedMetadataReaders = new ConcurrentHashMap<>();
+
 
 	public ComponentScanAnnotationParser(Environment environment, ResourceLoader resourceLoader,
 			BeanNameGenerator beanNameGenerator, BeanDefinitionRegistry registry) {
@@ -109,6 +119,71 @@ class ComponentScanAnnotationParser {
 			scanner.getBeanDefinitionDefaults().setLazyInit(true);
 		}
 
+		if (!this.prefetchedMetadataReaders.isEmpty()) {
+			scanner.setPrefetchedMetadataReaders(this.prefetchedMetadataReaders);
+		}
+
+		Set<String> basePackages = getBasePackages(componentScan, declaringClass);
+		scanner.addExcludeFilter(new AbstractTypeHierarchyTraversingFilter(false, false) {
+			@Override
+			protected boolean matchClassName(String className) {
+				return declaringClass.equals(className);
+			}
+		});
+		return scanner.doScan(StringUtils.toStringArray(basePackages));
+	}
+
+	/**
+	 * Create tasks for resolving and reading the candidate classes of the given
+	 * component scan upfront, one per base package, to be executed concurrently.
+	 * <p>The metadata read by these tasks is picked up by subsequent {@link #parse}
+	 * calls, which still apply filters and conditions in their regular order.
+	 * Tasks fail silently, leaving it up to {@code parse} to scan on its own.
+	 * @param componentScan the component scan attributes
+	 * @param declaringClass the name of the class declaring the component scan
+	 * @return the prefetch tasks (may be empty if a components index is in use)
+	 * @since 5.3
+	 * @see #clearPrefetchedMetadata()
+	 */
+	List<Runnable> getPrefetchTasks(AnnotationAttributes componentScan, String declaringClass) {
+		ClassPathScanningCandidateComponentProvider provider =
+				new ClassPathScanningCandidateComponentProvider(false, this.environment);
+		provider.setResourceLoader(this.resourceLoader);
+		if (provider.hasComponentsIndex()) {
+			return Collections.emptyList();
+		}
+		provider.setResourcePattern(componentScan.getString("resourcePattern"));
+
+		List<Runnable> tasks = new ArrayList<>();
+		for (String basePackage : getBasePackages(componentScan, declaringClass)) {
+			tasks.add(() -> {
+				try {
+					String packageSearchPath = provider.getPackageSearchPath(basePackage);
+					if (!this.prefetchedMetadataReaders.containsKey(packageSearchPath)) {
+						this.prefetchedMetadataReaders.put(packageSearchPath,
+								provider.readCandidateMetadata(packageSearchPath));
+					}
+				}
+				catch (Throwable ex) {
+					// Ignore - e.g. placeholder not resolvable yet: to be scanned in parse phase.
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to prefetch candidate components in package '" + basePackage + "'", ex);
+					}
+				}
+			});
+		}
+		return tasks;
+	}
+
+	/**
+	 * Release any metadata read through {@link #getPrefetchTasks prefetch tasks}.
+	 * @since 5.3
+	 */
+	void clearPrefetchedMetadata() {
+		this.prefetchedMetadataReaders.clear();
+	}
+
+	private Set<String> getBasePackages(AnnotationAttributes componentScan, String declaringClass) {
 		Set<String> basePackages = new LinkedHashSet<>();
 		String[] basePackagesArray = componentScan.getStringArray("basePackages");
 		for (String pkg : basePackagesArray) {
@@ -122,14 +197,7 @@ class ComponentScanAnnotationParser {
 		if (basePackages.isEmpty()) {
 			basePackages.add(ClassUtils.getPackageName(declaringClass));
 		}
-
-		scanner.addExcludeFilter(new AbstractTypeHierarchyTraversingFilter(false, false) {
-			@Override
-			protected boolean matchClassName(String className) {
-				return declaringClass.equals(className);
-			}
-		});
-		return scanner.doScan(StringUtils.toStringArray(basePackages));
+		return basePackages;
 	}
 
 	private List<TypeFilter> typeFiltersFor(AnnotationAttributes filterAttributes) {
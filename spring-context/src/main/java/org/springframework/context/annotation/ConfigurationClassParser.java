@@ -34,6 +34,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -69,6 +72,8 @@ import org.springframework.core.io.support.DefaultPropertySourceFactory;
 import org.springframework.core.io.support.EncodedResource;
 import org.springframework.core.io.support.PropertySourceFactory;
 import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.StandardAnnotationMetadata;
@@ -130,6 +135,11 @@ class ConfigurationClassParser {
 
 	private final ConditionEvaluator conditionEvaluator;
 
+	private final ApplicationStartup applicationStartup;
+
+	@Nullable
+	private Executor componentScanExecutor;
+
 	private final Map<ConfigurationClass, ConfigurationClass> configurationClasses = new LinkedHashMap<>();
 
 	private final Map<String, ConfigurationClass> knownSuperclasses = new HashMap<>();
@@ -149,7 +159,8 @@ class ConfigurationClassParser {
 	 */
 	public ConfigurationClassParser(MetadataReaderFactory metadataReaderFactory,
 			ProblemReporter problemReporter, Environment environment, ResourceLoader resourceLoader,
-			BeanNameGenerator componentScanBeanNameGenerator, BeanDefinitionRegistry registry) {
+			BeanNameGenerator componentScanBeanNameGenerator, BeanDefinitionRegistry registry,
+			ApplicationStartup applicationStartup) {
 
 		this.metadataReaderFactory = metadataReaderFactory;
 		this.problemReporter = problemReporter;
@@ -159,10 +170,32 @@ class ConfigurationClassParser {
 		this.componentScanParser = new ComponentScanAnnotationParser(
 				environment, resourceLoader, componentScanBeanNameGenerator, registry);
 		this.conditionEvaluator = new ConditionEvaluator(registry, environment, resourceLoader);
+		this.applicationStartup = applicationStartup;
+	}
+
+
+	/**
+	 * Set an {@link Executor} for reading the classpath resources of independent
+	 * component scans concurrently, ahead of the actual (sequential) parsing.
+	 * <p>Default is none, scanning each package when its component scan is parsed.
+	 * @since 5.3
+	 */
+	public void setComponentScanExecutor(@Nullable Executor componentScanExecutor) {
+		this.componentScanExecutor = componentScanExecutor;
 	}
 
 
 	public void parse(Set<BeanDefinitionHolder> configCandidates) {
+		try {
+			prefetchComponentScans(configCandidates);
+			doParse(configCandidates);
+		}
+		finally {
+			this.componentScanParser.clearPrefetchedMetadata();
+		}
+	}
+
+	private void doParse(Set<BeanDefinitionHolder> configCandidates) {
 		// 遍历所有的配置类
 		for (BeanDefinitionHolder holder : configCandidates) {
 			BeanDefinition bd = holder.getBeanDefinition();
@@ -191,6 +224,46 @@ class ConfigurationClassParser {
 		this.deferredImportSelectorHandler.process();
 	}
 
+	/**
+	 * Read the classpath resources for the component scans declared by the given
+	 * candidates concurrently, if a {@link #setComponentScanExecutor executor} has
+	 * been specified. Filters, conditions and bean definition registration are
+	 * left to the regular parsing phase which processes the candidates in order.
+	 */
+	private void prefetchComponentScans(Collection<BeanDefinitionHolder> candidates) {
+		Executor executor = this.componentScanExecutor;
+		if (executor == null) {
+			return;
+		}
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (BeanDefinitionHolder holder : candidates) {
+			BeanDefinition bd = holder.getBeanDefinition().getOriginatingBeanDefinition();
+			if (bd == null) {
+				bd = holder.getBeanDefinition();
+			}
+			if (bd instanceof AnnotatedBeanDefinition) {
+				AnnotationMetadata metadata = ((AnnotatedBeanDefinition) bd).getMetadata();
+				Set<AnnotationAttributes> componentScans = AnnotationConfigUtils.attributesForRepeatable(
+						metadata, ComponentScans.class, ComponentScan.class);
+				for (AnnotationAttributes componentScan : componentScans) {
+					List<Runnable> tasks = this.componentScanParser.getPrefetchTasks(componentScan, metadata.getClassName());
+					for (Runnable task : tasks) {
+						try {
+							futures.add(CompletableFuture.runAsync(task, executor));
+						}
+						catch (RejectedExecutionException ex) {
+							// Executor not accepting any more tasks: scan in parse phase instead.
+							break;
+						}
+					}
+				}
+			}
+		}
+		if (!futures.isEmpty()) {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		}
+	}
+
 	protected final void parse(@Nullable String className, String beanName) throws IOException {
 		Assert.notNull(className, "No bean class name for configuration class bean definition");
 		MetadataReader reader = this.metadataReaderFactory.getMetadataReader(className);
@@ -292,8 +365,12 @@ class ConfigurationClassParser {
 				!this.conditionEvaluator.shouldSkip(sourceClass.getMetadata(), ConfigurationPhase.REGISTER_BEAN)) {
 			for (AnnotationAttributes componentScan : componentScans) {
 				// The config class is annotated with @ComponentScan -> perform the scan immediately
+				StartupStep componentScanStep = this.applicationStartup.start("spring.context.component-scan")
+						.tag("configClass", sourceClass.getMetadata().getClassName());
 				Set<BeanDefinitionHolder> scannedBeanDefinitions =
 						this.componentScanParser.parse(componentScan, sourceClass.getMetadata().getClassName());
+				componentScanStep.tag("beanCount", () -> String.valueOf(scannedBeanDefinitions.size())).end();
+				prefetchComponentScans(scannedBeanDefinitions);
 				// Check the set of scanned definitions for any further config classes and parse recursively if needed
 				for (BeanDefinitionHolder holder : scannedBeanDefinitions) {
 					BeanDefinition bdCand = holder.getBeanDefinition().getOriginatingBeanDefinition();
@@ -36,12 +36,15 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -60,12 +63,17 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>For {@linkplain EventListener#batch() batch} listener methods, events
+ * handed over through {@link #onApplicationEvents} are passed to a single
+ * method invocation, with the condition evaluated for each event.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
  * @since 4.2
  */
-public class ApplicationListenerMethodAdapter implements GenericApplicationListener {
+public class ApplicationListenerMethodAdapter
+		implements GenericApplicationListener, BatchApplicationListener<ApplicationEvent> {
 
 	private static final boolean reactiveStreamsPresent = ClassUtils.isPresent(
 			"org.reactivestreams.Publisher", ApplicationListenerMethodAdapter.class.getClassLoader());
@@ -83,9 +91,13 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final List<ResolvableType> declaredEventTypes;
 
+	private final boolean payloadEventTypeDeclared;
+
 	@Nullable
 	private final String condition;
 
+	private final boolean batch;
+
 	private final int order;
 
 	@Nullable
@@ -94,6 +106,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private EventExpressionEvaluator evaluator;
 
+	@Nullable
+	private BeanResolver beanResolver;
+
+	@Nullable
+	private volatile Expression conditionExpression;
+
 
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
@@ -103,17 +121,27 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
-		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
+		this.batch = (ann != null && ann.batch());
+		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann, this.batch);
+		this.payloadEventTypeDeclared = this.declaredEventTypes.stream()
+				.anyMatch(type -> !ApplicationEvent.class.isAssignableFrom(type.toClass()));
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
+		ReflectionUtils.makeAccessible(this.method);
 	}
 
-	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
+	private static List<ResolvableType> resolveDeclaredEventTypes(
+			Method method, @Nullable EventListener ann, boolean batch) {
+
 		int count = method.getParameterCount();
 		if (count > 1) {
 			throw new IllegalStateException(
 					"Maximum one parameter is allowed for event listener method: " + method);
 		}
+		if (batch && (count == 0 || method.getParameterTypes()[0] != List.class)) {
+			throw new IllegalStateException(
+					"List parameter is mandatory for batch event listener method: " + method);
+		}
 
 		if (ann != null) {
 			Class<?>[] classes = ann.classes();
@@ -130,7 +158,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			throw new IllegalStateException(
 					"Event parameter is mandatory for event listener method: " + method);
 		}
-		return Collections.singletonList(ResolvableType.forMethodParameter(method, 0));
+		ResolvableType parameterType = ResolvableType.forMethodParameter(method, 0);
+		return Collections.singletonList(batch ? parameterType.asCollection().getGeneric() : parameterType);
 	}
 
 	private static int resolveOrder(Method method) {
@@ -145,6 +174,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	void init(ApplicationContext applicationContext, EventExpressionEvaluator evaluator) {
 		this.applicationContext = applicationContext;
 		this.evaluator = evaluator;
+		this.beanResolver = new BeanFactoryResolver(applicationContext);
 	}
 
 
@@ -153,6 +183,23 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		processEvent(event);
 	}
 
+	@Override
+	public void onApplicationEvents(List<ApplicationEvent> events) {
+		if (this.batch) {
+			processEvents(events);
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				processEvent(event);
+			}
+		}
+	}
+
+	@Override
+	public boolean supportsBatch() {
+		return this.batch;
+	}
+
 	@Override
 	public boolean supportsEventType(ResolvableType eventType) {
 		for (ResolvableType declaredEventType : this.declaredEventTypes) {
@@ -185,16 +232,45 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	 * matches and handling a non-null result, if any.
 	 */
 	public void processEvent(ApplicationEvent event) {
+		if (this.batch) {
+			processEvents(Collections.singletonList(event));
+			return;
+		}
 		Object[] args = resolveArguments(event);
 		if (shouldHandle(event, args)) {
-			Object result = doInvoke(args);
-			if (result != null) {
-				handleResult(result);
-			}
-			else {
-				logger.trace("No result object given - no result to handle");
+			invokeAndHandleResult(args);
+		}
+	}
+
+	/**
+	 * Process the specified batch of {@link ApplicationEvent ApplicationEvents}
+	 * with a single invocation of the underlying batch listener method, passing
+	 * the resolved argument of each event for which the condition matches.
+	 * @since 5.3
+	 * @see EventListener#batch()
+	 */
+	public void processEvents(List<ApplicationEvent> events) {
+		Assert.state(this.batch, "Not a batch event listener method");
+		List<Object> batchArgs = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object[] args = resolveArguments(event);
+			if (shouldHandle(event, args)) {
+				batchArgs.add(args[0]);
 			}
 		}
+		if (!batchArgs.isEmpty()) {
+			invokeAndHandleResult(new Object[] {batchArgs});
+		}
+	}
+
+	private void invokeAndHandleResult(Object[] args) {
+		Object result = doInvoke(args);
+		if (result != null) {
+			handleResult(result);
+		}
+		else {
+			logger.trace("No result object given - no result to handle");
+		}
 	}
 
 	/**
@@ -284,18 +360,27 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		if (StringUtils.hasText(condition)) {
 			Assert.notNull(this.evaluator, "EventExpressionEvaluator must not be null");
 			return this.evaluator.condition(
-					condition, event, this.targetMethod, this.methodKey, args, this.applicationContext);
+					getConditionExpression(condition), event, this.targetMethod, args, this.beanResolver);
 		}
 		return true;
 	}
 
+	private Expression getConditionExpression(String condition) {
+		Expression expression = this.conditionExpression;
+		if (expression == null || !condition.equals(expression.getExpressionString())) {
+			Assert.notNull(this.evaluator, "EventExpressionEvaluator must not be null");
+			expression = this.evaluator.getCondition(condition, this.methodKey);
+			this.conditionExpression = expression;
+		}
+		return expression;
+	}
+
 	/**
 	 * Invoke the event listener method with the given argument values.
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
-		ReflectionUtils.makeAccessible(this.method);
 		try {
 			return this.method.invoke(bean, args);
 		}
@@ -389,7 +474,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private ResolvableType getResolvableType(ApplicationEvent event) {
 		ResolvableType payloadType = null;
-		if (event instanceof PayloadApplicationEvent) {
+		if (this.payloadEventTypeDeclared && event instanceof PayloadApplicationEvent) {
 			PayloadApplicationEvent<?> payloadEvent = (PayloadApplicationEvent<?>) event;
 			ResolvableType eventType = payloadEvent.getResolvableType();
 			if (eventType != null) {
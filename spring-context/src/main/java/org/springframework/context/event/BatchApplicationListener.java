@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * allowing a multicaster to hand over several events in a single invocation.
+ *
+ * <p>Batching multicasters such as {@link PartitionedApplicationEventMulticaster}
+ * collect the events that a listener supports and call
+ * {@link #onApplicationEvents} with all of them, in publication order.
+ * Other multicasters keep calling {@link #onApplicationEvent} for each event.
+ *
+ * @since 5.3
+ * @param <E> the specific {@code ApplicationEvent} subclass to listen to
+ * @see EventListener#batch()
+ * @see PartitionedApplicationEventMulticaster
+ */
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle the given batch of application events.
+	 * @param events the events to respond to, in publication order
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Determine whether this listener actually wants to receive batches.
+	 * <p>The default implementation returns {@code true}. Listeners returning
+	 * {@code false} are invoked for each event individually.
+	 */
+	default boolean supportsBatch() {
+		return true;
+	}
+
+	/**
+	 * Handle a single application event as a batch of one.
+	 * <p>The default implementation delegates to {@link #onApplicationEvents}.
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+}
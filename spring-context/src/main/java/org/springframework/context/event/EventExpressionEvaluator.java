@@ -20,12 +20,11 @@ import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
-import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.expression.BeanResolver;
 import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 
@@ -33,6 +32,9 @@ import org.springframework.lang.Nullable;
  * Utility class for handling SpEL expression parsing for application events.
  * <p>Meant to be used as a reusable, thread-safe component.
  *
+ * <p>As of 5.3, conditions are compiled once they have been evaluated often
+ * enough, see {@link CachedExpressionEvaluator#createCompilingParser}.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
@@ -43,21 +45,47 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
 
 	/**
-	 * Determine if the condition defined by the specified expression evaluates
-	 * to {@code true}.
+	 * Create a new instance, compiling conditions against the default class loader.
+	 */
+	public EventExpressionEvaluator() {
+		this(null);
+	}
+
+	/**
+	 * Create a new instance, compiling conditions against the given class loader.
+	 * @since 5.3
 	 */
-	public boolean condition(String conditionExpression, ApplicationEvent event, Method targetMethod,
-			AnnotatedElementKey methodKey, Object[] args, @Nullable BeanFactory beanFactory) {
+	public EventExpressionEvaluator(@Nullable ClassLoader classLoader) {
+		super(createCompilingParser(classLoader));
+	}
+
+
+	/**
+	 * Return the parsed condition expression for the specified method.
+	 * <p>The returned instance is shared and may be held on to by the caller,
+	 * avoiding repeated cache lookups for every event.
+	 * @since 5.3
+	 */
+	public Expression getCondition(String conditionExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.conditionCache, methodKey, conditionExpression);
+	}
+
+	/**
+	 * Determine if the specified condition evaluates to {@code true}.
+	 * @since 5.3
+	 * @see #getCondition(String, AnnotatedElementKey)
+	 */
+	public boolean condition(Expression condition, ApplicationEvent event, Method targetMethod,
+			Object[] args, @Nullable BeanResolver beanResolver) {
 
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
 				root, targetMethod, args, getParameterNameDiscoverer());
-		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		applySharedResolvers(evaluationContext);
+		if (beanResolver != null) {
+			evaluationContext.setBeanResolver(beanResolver);
 		}
-
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evaluationContext, Boolean.class)));
+		return Boolean.TRUE.equals(condition.getValue(evaluationContext, Boolean.class));
 	}
 
 }
@@ -128,4 +128,20 @@ public @interface EventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * Whether the annotated method consumes events in batches.
+	 * <p>A batch listener method declares a single {@link java.util.List}
+	 * parameter whose element type reflects the event type to listen to,
+	 * unless the event types are specified via {@link #classes}.
+	 * <p>Multicasters that dispatch events in batches, such as the
+	 * {@link PartitionedApplicationEventMulticaster}, hand all events of a
+	 * batch to the method in a single invocation, in publication order.
+	 * Other multicasters invoke the method with a single-element list.
+	 * <p>A {@link #condition} is evaluated for each event individually, with
+	 * the method arguments referring to that event (or its payload).
+	 * @since 5.3
+	 * @see BatchApplicationListener
+	 */
+	boolean batch() default false;
+
 }
@@ -0,0 +1,526 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Asynchronous {@link ApplicationEventMulticaster} that dispatches events
+ * through a fixed number of partitions, each served by a single worker.
+ *
+ * <p>Events are assigned to a partition based on a
+ * {@linkplain #setPartitionKeyResolver partition key}, so that all events
+ * with the same key are delivered in publication order while events with
+ * different keys are processed concurrently. Each worker drains up to
+ * {@linkplain #setMaxBatchSize a batch} of queued events at a time, handing
+ * all of them to {@link BatchApplicationListener batch listeners} (including
+ * {@link EventListener#batch() batch} listener methods) in a single
+ * invocation, and to regular listeners one by one.
+ *
+ * <p>Each partition has a bounded queue; the {@link OverflowPolicy} determines
+ * what happens when a publisher outpaces the workers. Since listeners run
+ * decoupled from the publisher, listener exceptions are logged rather than
+ * propagated unless an {@linkplain #setErrorHandler error handler} is set.
+ *
+ * <p>Workers are started on first publication and stopped on {@link #destroy()},
+ * after delivering all events queued so far. Events published once shutdown
+ * has begun are delivered synchronously, as with a plain
+ * {@link SimpleApplicationEventMulticaster}.
+ * By default, each worker runs on a dedicated daemon thread; a
+ * {@linkplain #setTaskExecutor task executor} may be specified instead,
+ * which needs to provide a long-lived thread for every partition.
+ *
+ * @since 5.3
+ * @see BatchApplicationListener
+ * @see EventListener#batch()
+ */
+public class PartitionedApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+		implements DisposableBean {
+
+	/**
+	 * The default capacity of each partition queue.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/**
+	 * The default maximum number of events dispatched as one batch.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+	private static final PartitionedEvent SHUTDOWN = new PartitionedEvent(null, ResolvableType.NONE);
+
+	private static final long SHUTDOWN_CHECK_INTERVAL_MILLIS = 1000;
+
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private int partitionCount = Runtime.getRuntime().availableProcessors();
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private Function<? super ApplicationEvent, ?> partitionKeyResolver = ApplicationEvent::getSource;
+
+	private long awaitTerminationMillis = 10000;
+
+	private final CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("event-partition-");
+
+	@Nullable
+	private volatile Partition[] partitions;
+
+	private volatile boolean shutdown;
+
+	private final Object startupShutdownMonitor = new Object();
+
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster.
+	 */
+	public PartitionedApplicationEventMulticaster() {
+		this.threadCreator.setDaemon(true);
+	}
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public PartitionedApplicationEventMulticaster(BeanFactory beanFactory) {
+		this();
+		setBeanFactory(beanFactory);
+	}
+
+
+	/**
+	 * Set the number of partitions, i.e. the number of events that may be
+	 * processed concurrently.
+	 * <p>Default is the number of available processors.
+	 */
+	public void setPartitionCount(int partitionCount) {
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be greater than 0");
+		this.partitionCount = partitionCount;
+	}
+
+	/**
+	 * Set the maximum number of events to be queued per partition.
+	 * <p>Default is {@value #DEFAULT_QUEUE_CAPACITY}.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "'queueCapacity' must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of queued events that a partition worker hands
+	 * over to batch listeners at once.
+	 * <p>Default is {@value #DEFAULT_MAX_BATCH_SIZE}. A value of 1 disables batching.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the policy to apply when a partition queue is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the function that determines the partition key of an event.
+	 * Events with equal keys are delivered in publication order.
+	 * <p>Default is the {@linkplain ApplicationEvent#getSource() event source}.
+	 * Note that events published through an {@code ApplicationContext} as
+	 * arbitrary objects share the context as their source, so a custom
+	 * function is needed to spread such events across partitions, e.g. one
+	 * deriving an entity identifier from the
+	 * {@linkplain org.springframework.context.PayloadApplicationEvent#getPayload() payload}.
+	 */
+	public void setPartitionKeyResolver(Function<? super ApplicationEvent, ?> partitionKeyResolver) {
+		Assert.notNull(partitionKeyResolver, "Partition key resolver must not be null");
+		this.partitionKeyResolver = partitionKeyResolver;
+	}
+
+	/**
+	 * Set the prefix to use for the names of newly created worker threads.
+	 * <p>Default is "event-partition-".
+	 */
+	public void setThreadNamePrefix(@Nullable String threadNamePrefix) {
+		this.threadCreator.setThreadNamePrefix(threadNamePrefix);
+	}
+
+	/**
+	 * Set the maximum number of milliseconds that {@link #destroy()} waits for
+	 * the workers to deliver the events queued so far.
+	 * <p>Default is 10 seconds.
+	 */
+	public void setAwaitTerminationMillis(long awaitTerminationMillis) {
+		this.awaitTerminationMillis = awaitTerminationMillis;
+	}
+
+	/**
+	 * Return the number of events currently queued across all partitions.
+	 */
+	public int getQueuedEventCount() {
+		Partition[] partitions = this.partitions;
+		int count = 0;
+		if (partitions != null) {
+			for (Partition partition : partitions) {
+				count += partition.queue.size();
+			}
+		}
+		return count;
+	}
+
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Partition[] partitions = getPartitions();
+		if (partitions == null) {
+			super.multicastEvent(event, eventType);
+			return;
+		}
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		Object key = this.partitionKeyResolver.apply(event);
+		int hash = (key != null ? key.hashCode() : 0);
+		Partition partition = partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+		partition.enqueue(new PartitionedEvent(event, type));
+	}
+
+	@Nullable
+	private Partition[] getPartitions() {
+		Partition[] partitions = this.partitions;
+		if (partitions == null && !this.shutdown) {
+			synchronized (this.startupShutdownMonitor) {
+				partitions = this.partitions;
+				if (partitions == null && !this.shutdown) {
+					partitions = new Partition[this.partitionCount];
+					for (int i = 0; i < partitions.length; i++) {
+						partitions[i] = new Partition(this.queueCapacity);
+					}
+					Executor executor = getTaskExecutor();
+					for (Partition partition : partitions) {
+						if (executor != null) {
+							executor.execute(partition);
+						}
+						else {
+							this.threadCreator.createThread(partition).start();
+						}
+					}
+					this.partitions = partitions;
+				}
+			}
+		}
+		return partitions;
+	}
+
+	/**
+	 * Stop all partition workers after they have delivered the events
+	 * queued so far, waiting up to the configured termination period.
+	 * @see #setAwaitTerminationMillis
+	 */
+	@Override
+	public void destroy() {
+		Partition[] partitions;
+		synchronized (this.startupShutdownMonitor) {
+			this.shutdown = true;
+			partitions = this.partitions;
+			this.partitions = null;
+		}
+		if (partitions == null) {
+			return;
+		}
+		try {
+			for (Partition partition : partitions) {
+				// Only wakes up an idle worker: a busy one notices the shutdown once its queue is empty
+				partition.queue.offer(SHUTDOWN);
+			}
+			long deadline = System.currentTimeMillis() + this.awaitTerminationMillis;
+			for (Partition partition : partitions) {
+				long timeout = deadline - System.currentTimeMillis();
+				if (timeout <= 0 || !partition.terminated.await(timeout, TimeUnit.MILLISECONDS)) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Timed out waiting for event partition workers to deliver queued events");
+					}
+					return;
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Deliver the given batch of events, taken from a single partition.
+	 * <p>Regular listeners are invoked for each event in turn, whereas each
+	 * batch listener receives all of its supported events in one invocation,
+	 * so every listener observes the events in publication order.
+	 * @param batch the events to deliver, in publication order
+	 * @param eventTypes the corresponding event types
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void dispatchEvents(List<ApplicationEvent> batch, List<ResolvableType> eventTypes) {
+		Map<BatchApplicationListener, List<ApplicationEvent>> batchListeners = new LinkedHashMap<>();
+		for (int i = 0; i < batch.size(); i++) {
+			ApplicationEvent event = batch.get(i);
+			for (ApplicationListener<?> listener : getApplicationListeners(event, eventTypes.get(i))) {
+				if (batch.size() > 1 && listener instanceof BatchApplicationListener &&
+						((BatchApplicationListener) listener).supportsBatch()) {
+					batchListeners.computeIfAbsent((BatchApplicationListener) listener, l -> new ArrayList<>()).add(event);
+				}
+				else {
+					try {
+						invokeListener(listener, event);
+					}
+					catch (Throwable ex) {
+						logger.error("Failed to deliver event " + event + " to listener " + listener, ex);
+					}
+				}
+			}
+		}
+		batchListeners.forEach(this::invokeBatchListener);
+	}
+
+	/**
+	 * Invoke the given batch listener with the given events.
+	 * @param listener the BatchApplicationListener to invoke
+	 * @param events the events to propagate, in publication order
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeBatchListener(BatchApplicationListener listener, List<ApplicationEvent> events) {
+		StartupStep invokeListener = getApplicationStartup().start("spring.event.invoke-listener")
+				.tag("listener", listener::toString);
+		try {
+			listener.onApplicationEvents(events);
+		}
+		catch (Throwable err) {
+			ErrorHandler errorHandler = getErrorHandler();
+			if (errorHandler != null) {
+				errorHandler.handleError(err);
+			}
+			else {
+				logger.error("Failed to deliver " + events.size() + " events to listener " + listener, err);
+			}
+		}
+		finally {
+			invokeListener.tag("events", () -> String.valueOf(events.size())).end();
+		}
+	}
+
+
+	/**
+	 * Policies for events published while the target partition queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publisher until the partition queue has room again.
+		 * Preserves ordering and drops no events.
+		 */
+		BLOCK,
+
+		/**
+		 * Deliver the event synchronously in the publishing thread,
+		 * possibly ahead of events queued before it.
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * Silently discard the event being published.
+		 */
+		DISCARD,
+
+		/**
+		 * Discard the oldest queued event of the partition in favor
+		 * of the event being published.
+		 */
+		DISCARD_OLDEST,
+
+		/**
+		 * Reject the event with a {@link TaskRejectedException}.
+		 */
+		FAIL
+	}
+
+
+	private static final class PartitionedEvent {
+
+		@Nullable
+		final ApplicationEvent event;
+
+		final ResolvableType eventType;
+
+		PartitionedEvent(@Nullable ApplicationEvent event, ResolvableType eventType) {
+			this.event = event;
+			this.eventType = eventType;
+		}
+	}
+
+
+	private final class Partition implements Runnable {
+
+		final BlockingQueue<PartitionedEvent> queue;
+
+		final CountDownLatch terminated = new CountDownLatch(1);
+
+		Partition(int capacity) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		void enqueue(PartitionedEvent event) {
+			if (shutdown) {
+				deliverNow(event);
+				return;
+			}
+			if (this.queue.offer(event) || enqueueOnOverflow(event)) {
+				// The worker may have stopped after draining its queue in the meantime
+				if (shutdown && this.queue.remove(event)) {
+					deliverNow(event);
+				}
+			}
+		}
+
+		private boolean enqueueOnOverflow(PartitionedEvent event) {
+			switch (overflowPolicy) {
+				case BLOCK:
+					try {
+						while (!this.queue.offer(event, SHUTDOWN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+							if (shutdown) {
+								deliverNow(event);
+								return false;
+							}
+						}
+						return true;
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						throw new TaskRejectedException("Interrupted while publishing event " + event.event, ex);
+					}
+				case CALLER_RUNS:
+					deliverNow(event);
+					return false;
+				case DISCARD:
+					discarded(event);
+					return false;
+				case DISCARD_OLDEST:
+					while (!this.queue.offer(event)) {
+						PartitionedEvent oldest = this.queue.poll();
+						if (oldest == SHUTDOWN) {
+							// Never discard the shutdown signal
+							deliverNow(event);
+							this.queue.offer(SHUTDOWN);
+							return false;
+						}
+						if (oldest != null) {
+							discarded(oldest);
+						}
+					}
+					return true;
+				case FAIL:
+					throw new TaskRejectedException("Event partition queue is full, rejecting event " + event.event);
+				default:
+					throw new IllegalStateException("Unsupported overflow policy: " + overflowPolicy);
+			}
+		}
+
+		private void deliverNow(PartitionedEvent event) {
+			PartitionedApplicationEventMulticaster.super.multicastEvent(event.event, event.eventType);
+		}
+
+		private void discarded(PartitionedEvent event) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Event partition queue is full, discarding event " + event.event);
+			}
+		}
+
+		@Override
+		public void run() {
+			List<PartitionedEvent> drained = new ArrayList<>(maxBatchSize);
+			List<ApplicationEvent> batch = new ArrayList<>(maxBatchSize);
+			List<ResolvableType> eventTypes = new ArrayList<>(maxBatchSize);
+			try {
+				while (true) {
+					PartitionedEvent first = this.queue.poll(SHUTDOWN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+					if (first != null) {
+						drained.add(first);
+					}
+					this.queue.drainTo(drained, maxBatchSize - drained.size());
+					for (PartitionedEvent event : drained) {
+						if (event != SHUTDOWN) {
+							batch.add(event.event);
+							eventTypes.add(event.eventType);
+						}
+					}
+					drained.clear();
+					if (batch.isEmpty()) {
+						if (shutdown && this.queue.isEmpty()) {
+							break;
+						}
+						continue;
+					}
+					try {
+						dispatchEvents(batch, eventTypes);
+					}
+					catch (Throwable ex) {
+						logger.error("Failed to deliver batch of " + batch.size() + " events", ex);
+					}
+					finally {
+						batch.clear();
+						eventTypes.clear();
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.terminated.countDown();
+			}
+		}
+	}
+
+}
@@ -25,7 +25,10 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -54,6 +57,8 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -121,6 +126,24 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Set the {@link ApplicationStartup} to track listener invocations with.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording anything.
+	 * @since 5.3
+	 */
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	/**
+	 * Return the {@link ApplicationStartup} for this multicaster.
+	 * @since 5.3
+	 */
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
@@ -152,17 +175,24 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	 * @since 4.1
 	 */
 	protected void invokeListener(ApplicationListener<?> listener, ApplicationEvent event) {
+		StartupStep invokeListener = this.applicationStartup.start("spring.event.invoke-listener")
+				.tag("listener", listener::toString);
 		ErrorHandler errorHandler = getErrorHandler();
-		if (errorHandler != null) {
-			try {
-				doInvokeListener(listener, event);
+		try {
+			if (errorHandler != null) {
+				try {
+					doInvokeListener(listener, event);
+				}
+				catch (Throwable err) {
+					errorHandler.handleError(err);
+				}
 			}
-			catch (Throwable err) {
-				errorHandler.handleError(err);
+			else {
+				doInvokeListener(listener, event);
 			}
 		}
-		else {
-			doInvokeListener(listener, event);
+		finally {
+			invokeListener.tag("event", () -> event.getClass().getName()).end();
 		}
 	}
 
@@ -16,12 +16,22 @@
 
 package org.springframework.context.expression;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -36,10 +46,19 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class CachedExpressionEvaluator {
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+
 	private final SpelExpressionParser parser;
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final List<PropertyAccessor> propertyAccessors =
+			Collections.singletonList(new ReflectivePropertyAccessor());
+
+	private final List<MethodResolver> methodResolvers =
+			Collections.singletonList(new ReflectiveMethodResolver());
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -57,6 +76,23 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 
+	/**
+	 * Create a {@link SpelExpressionParser} whose expressions are compiled
+	 * against the given class loader once they have been interpreted often
+	 * enough, i.e. in {@link SpelCompilerMode#MIXED} mode, unless a compiler
+	 * mode has been set explicitly through the
+	 * {@code spring.expression.compiler.mode} property.
+	 * @param classLoader the class loader to compile expressions against
+	 * (may be {@code null} to use the default class loader)
+	 * @since 5.3
+	 */
+	protected static SpelExpressionParser createCompilingParser(@Nullable ClassLoader classLoader) {
+		SpelCompilerMode compilerMode = (SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) == null ?
+				SpelCompilerMode.MIXED : null);
+		return new SpelExpressionParser(new SpelParserConfiguration(compilerMode, classLoader));
+	}
+
+
 	/**
 	 * Return the {@link SpelExpressionParser} to use.
 	 */
@@ -72,6 +108,17 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Apply the property accessors and method resolvers shared by all
+	 * evaluations of this instance to the given evaluation context, so
+	 * that their reflection caches are kept across evaluations.
+	 * @since 5.3
+	 */
+	protected void applySharedResolvers(StandardEvaluationContext evaluationContext) {
+		evaluationContext.setPropertyAccessors(this.propertyAccessors);
+		evaluationContext.setMethodResolvers(this.methodResolvers);
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,15 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,11 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>As of 5.3, the index may also describe candidates by the attributes that are
+ * defined in {@code META-INF/spring.components.attributes}, in which case their
+ * {@link #getAnnotationMetadata(String) metadata} is available without reading
+ * their class file.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +61,20 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, Map<String, String>> attributes;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList(), null);
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> attributes, @Nullable ClassLoader classLoader) {
 		this.index = parseIndex(content);
+		this.attributes = parseAttributes(attributes);
+		this.classLoader = classLoader;
 	}
 
 
@@ -76,6 +96,30 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the {@link AnnotationMetadata} of the specified candidate type as
+	 * described by the index, so that it can be inspected without reading its
+	 * class file.
+	 * @param type the candidate type
+	 * @return the metadata of the candidate type, or {@code null} if the index
+	 * does not describe it (or does not match the annotation types in use)
+	 * @since 5.3
+	 */
+	@Nullable
+	public AnnotationMetadata getAnnotationMetadata(String type) {
+		Map<String, String> typeAttributes = this.attributes.get(type);
+		if (typeAttributes == null) {
+			return null;
+		}
+		try {
+			return new IndexedAnnotationMetadata(type, typeAttributes, this.classLoader);
+		}
+		catch (IllegalArgumentException ex) {
+			// Index out of sync with the annotation types -> read the class file instead
+			return null;
+		}
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +133,29 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, Map<String, String>> parseAttributes(List<Properties> content) {
+		Map<String, Map<String, String>> attributes = new HashMap<>();
+		for (Properties entry : content) {
+			entry.forEach((key, value) -> {
+				String name = (String) key;
+				int index = indexOfAttributeName(name);
+				attributes.computeIfAbsent(name.substring(0, index), type -> new HashMap<>())
+						.put(name.substring(index), (String) value);
+			});
+		}
+		return attributes;
+	}
+
+	private static int indexOfAttributeName(String key) {
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (c == '/' || c == '@') {
+				return i;
+			}
+		}
+		return key.length();
+	}
+
 	private static class Entry {
 		private final String type;
 		private final String packageName;
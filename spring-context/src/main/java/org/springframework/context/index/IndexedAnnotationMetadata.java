@@ -0,0 +1,275 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.core.annotation.AnnotationFilter;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link AnnotationMetadata} created from the attributes that the indexer
+ * recorded for a candidate type, exposing the same information as metadata
+ * read from the class file.
+ *
+ * @since 5.3
+ * @see CandidateComponentsIndex#getAnnotationMetadata(String)
+ */
+final class IndexedAnnotationMetadata implements AnnotationMetadata {
+
+	private static final String METHOD_PREFIX = "/method/";
+
+
+	private final String className;
+
+	private final Set<String> modifiers;
+
+	private final Map<String, String> attributes;
+
+	private final MethodMetadata[] annotatedMethods;
+
+	private final MergedAnnotations annotations;
+
+	@Nullable
+	private Set<String> annotationTypes;
+
+
+	/**
+	 * Create a new {@code IndexedAnnotationMetadata} for the specified type.
+	 * @param className the name of the type
+	 * @param attributes the attributes of the type, keyed by relative name
+	 * @param classLoader the class loader to use to load annotation types
+	 * @throws IllegalArgumentException if an attribute value is not compatible
+	 * with the current annotation types
+	 */
+	IndexedAnnotationMetadata(String className, Map<String, String> attributes, @Nullable ClassLoader classLoader) {
+		this.className = className;
+		this.modifiers = getModifiers(attributes, "");
+		this.attributes = attributes;
+		List<MethodMetadata> annotatedMethods = new ArrayList<>();
+		for (int i = 0; attributes.containsKey(METHOD_PREFIX + i); i++) {
+			String prefix = METHOD_PREFIX + i;
+			annotatedMethods.add(new IndexedMethodMetadata(attributes.get(prefix + "/name"), getModifiers(attributes, prefix),
+					className, attributes.get(prefix + "/returns"), getAnnotations(attributes, prefix, classLoader)));
+		}
+		this.annotatedMethods = annotatedMethods.toArray(new MethodMetadata[0]);
+		this.annotations = getAnnotations(attributes, "", classLoader);
+	}
+
+
+	@Override
+	public String getClassName() {
+		return this.className;
+	}
+
+	@Override
+	public boolean isInterface() {
+		return this.modifiers.contains("interface");
+	}
+
+	@Override
+	public boolean isAnnotation() {
+		return this.modifiers.contains("annotation");
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return this.modifiers.contains("abstract");
+	}
+
+	@Override
+	public boolean isFinal() {
+		return this.modifiers.contains("final");
+	}
+
+	@Override
+	public boolean isIndependent() {
+		return (getEnclosingClassName() == null || this.modifiers.contains("static"));
+	}
+
+	@Override
+	@Nullable
+	public String getEnclosingClassName() {
+		return this.attributes.get("/enclosing");
+	}
+
+	@Override
+	@Nullable
+	public String getSuperClassName() {
+		return this.attributes.get("/super");
+	}
+
+	@Override
+	public String[] getInterfaceNames() {
+		return StringUtils.commaDelimitedListToStringArray(this.attributes.get("/interfaces"));
+	}
+
+	@Override
+	public String[] getMemberClassNames() {
+		return StringUtils.commaDelimitedListToStringArray(this.attributes.get("/members"));
+	}
+
+	@Override
+	public Set<String> getAnnotationTypes() {
+		Set<String> annotationTypes = this.annotationTypes;
+		if (annotationTypes == null) {
+			annotationTypes = Collections.unmodifiableSet(
+					AnnotationMetadata.super.getAnnotationTypes());
+			this.annotationTypes = annotationTypes;
+		}
+		return annotationTypes;
+	}
+
+	@Override
+	public Set<MethodMetadata> getAnnotatedMethods(String annotationName) {
+		Set<MethodMetadata> annotatedMethods = null;
+		for (MethodMetadata annotatedMethod : this.annotatedMethods) {
+			if (annotatedMethod.isAnnotated(annotationName)) {
+				if (annotatedMethods == null) {
+					annotatedMethods = new LinkedHashSet<>(4);
+				}
+				annotatedMethods.add(annotatedMethod);
+			}
+		}
+		return (annotatedMethods != null ? annotatedMethods : Collections.emptySet());
+	}
+
+	@Override
+	public MergedAnnotations getAnnotations() {
+		return this.annotations;
+	}
+
+	@Override
+	public String toString() {
+		return this.className;
+	}
+
+
+	private static Set<String> getModifiers(Map<String, String> attributes, String prefix) {
+		return StringUtils.commaDelimitedListToSet(attributes.get(prefix));
+	}
+
+	private static MergedAnnotations getAnnotations(
+			Map<String, String> attributes, String prefix, @Nullable ClassLoader classLoader) {
+
+		String annotationPrefix = prefix + "@";
+		Map<String, Map<String, String>> annotationAttributes = new TreeMap<>();
+		attributes.forEach((key, value) -> {
+			if (key.startsWith(annotationPrefix)) {
+				String name = key.substring(annotationPrefix.length());
+				int index = name.indexOf('/');
+				if (index == -1) {
+					annotationAttributes.computeIfAbsent(name, n -> new TreeMap<>());
+				}
+				else {
+					annotationAttributes.computeIfAbsent(name.substring(0, index), n -> new TreeMap<>())
+							.put(name.substring(index + 1), value);
+				}
+			}
+		});
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(annotationAttributes.size());
+		annotationAttributes.forEach((annotationName, values) -> {
+			MergedAnnotation<?> annotation = createAnnotation(annotationName, values, classLoader);
+			if (annotation != null) {
+				annotations.add(annotation);
+			}
+		});
+		return MergedAnnotations.of(annotations);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static MergedAnnotation<?> createAnnotation(
+			String annotationName, Map<String, String> values, @Nullable ClassLoader classLoader) {
+
+		if (AnnotationFilter.PLAIN.matches(annotationName)) {
+			return null;
+		}
+		Class<? extends Annotation> annotationType;
+		try {
+			annotationType = (Class<? extends Annotation>) ClassUtils.forName(annotationName, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// Not on the classpath, as with metadata read from the class file
+			return null;
+		}
+		Map<String, Object> attributes = new TreeMap<>();
+		values.forEach((name, value) -> {
+			Method attribute = ReflectionUtils.findMethod(annotationType, name);
+			if (attribute == null) {
+				throw new IllegalArgumentException("No attribute '" + name + "' on " + annotationType);
+			}
+			attributes.put(name, getAttributeValue(value, attribute.getReturnType()));
+		});
+		return MergedAnnotation.of(classLoader, null, annotationType, attributes);
+	}
+
+	private static Object getAttributeValue(String value, Class<?> type) {
+		if (type.isArray()) {
+			Class<?> componentType = type.getComponentType();
+			String[] elements = StringUtils.commaDelimitedListToStringArray(value);
+			Object array = Array.newInstance((componentType == Class.class ? String.class : componentType), elements.length);
+			for (int i = 0; i < elements.length; i++) {
+				Array.set(array, i, getSingleAttributeValue(elements[i], componentType));
+			}
+			return array;
+		}
+		return getSingleAttributeValue(value, type);
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static Object getSingleAttributeValue(String value, Class<?> type) {
+		if (type == String.class || type == Class.class) {
+			// Class values are exposed by name, as with metadata read from the class file
+			return value;
+		}
+		if (type.isEnum()) {
+			return Enum.valueOf((Class<? extends Enum>) type, value);
+		}
+		if (type == boolean.class) {
+			return Boolean.valueOf(value);
+		}
+		if (type == char.class) {
+			if (value.length() != 1) {
+				throw new IllegalArgumentException("Invalid char value '" + value + "'");
+			}
+			return value.charAt(0);
+		}
+		if (type.isPrimitive()) {
+			return NumberUtils.parseNumber(value, (Class<? extends Number>) ClassUtils.resolvePrimitiveIfNecessary(type));
+		}
+		throw new IllegalArgumentException("Unsupported attribute type " + type.getName());
+	}
+
+}
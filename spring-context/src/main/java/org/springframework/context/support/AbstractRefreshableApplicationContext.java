@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,23 @@
 
 package org.springframework.context.support;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
 
 /**
  * Base class for {@link org.springframework.context.ApplicationContext}
@@ -64,12 +73,24 @@ import org.springframework.lang.Nullable;
  */
 public abstract class AbstractRefreshableApplicationContext extends AbstractApplicationContext {
 
+	/**
+	 * Name of the internal singleton which writes the bean definition snapshot,
+	 * if a snapshot file has been specified.
+	 * @see #setBeanDefinitionSnapshotFile
+	 */
+	private static final String SNAPSHOT_WRITER_BEAN_NAME =
+			AbstractRefreshableApplicationContext.class.getName() + ".snapshotWriter";
+
+
 	@Nullable
 	private Boolean allowBeanDefinitionOverriding;
 
 	@Nullable
 	private Boolean allowCircularReferences;
 
+	@Nullable
+	private File beanDefinitionSnapshotFile;
+
 	/** Bean factory for this context. */
 	@Nullable
 	private DefaultListableBeanFactory beanFactory;
@@ -114,6 +135,36 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 		this.allowCircularReferences = allowCircularReferences;
 	}
 
+	/**
+	 * Specify a file to keep a snapshot of this context's bean definitions in,
+	 * allowing subsequent refreshes - typically in a fresh JVM - to skip the
+	 * parsing of bean definition files and the processing of configuration classes.
+	 * <p>If the file exists and has been written for the same
+	 * {@linkplain #determineBeanDefinitionSnapshotFingerprint() fingerprint},
+	 * bean definitions are restored from it instead of being
+	 * {@linkplain #loadBeanDefinitions loaded}. Otherwise, bean definitions are
+	 * loaded as usual and the snapshot file is (re-)written once all
+	 * {@link BeanDefinitionRegistryPostProcessor BeanDefinitionRegistryPostProcessors}
+	 * have registered their bean definitions. Regular
+	 * {@link org.springframework.beans.factory.config.BeanFactoryPostProcessor
+	 * BeanFactoryPostProcessors} such as placeholder configurers are applied
+	 * on every refresh.
+	 * <p>Note that side effects of configuration class processing other than
+	 * bean definition registration, such as {@code @PropertySource} declarations
+	 * and {@code ImportAware} callbacks, do not apply to restored bean definitions.
+	 * Likewise, environment properties are not part of the default fingerprint:
+	 * bean definitions registered depending on them, e.g. through
+	 * {@code @Conditional}, keep the outcome of the evaluation at the time the
+	 * snapshot was written.
+	 * Bean definitions with state that cannot be captured in a snapshot, such as
+	 * instance suppliers, prevent a snapshot from being written at all.
+	 * @since 5.3
+	 * @see BeanDefinitionSnapshot
+	 */
+	public void setBeanDefinitionSnapshotFile(@Nullable File beanDefinitionSnapshotFile) {
+		this.beanDefinitionSnapshotFile = beanDefinitionSnapshotFile;
+	}
+
 
 	/**
 	 * This implementation performs an actual refresh of this context's underlying
@@ -130,7 +181,13 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 			DefaultListableBeanFactory beanFactory = createBeanFactory();
 			beanFactory.setSerializationId(getId());
 			customizeBeanFactory(beanFactory);
-			loadBeanDefinitions(beanFactory);
+			if (!restoreBeanDefinitionSnapshot(beanFactory)) {
+				loadBeanDefinitions(beanFactory);
+				if (this.beanDefinitionSnapshotFile != null) {
+					beanFactory.registerSingleton(SNAPSHOT_WRITER_BEAN_NAME,
+							new BeanDefinitionSnapshotWriter(this.beanDefinitionSnapshotFile));
+				}
+			}
 			synchronized (this.beanFactoryMonitor) {
 				this.beanFactory = beanFactory;
 			}
@@ -230,6 +287,55 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 		}
 	}
 
+	/**
+	 * Restore the bean definitions of the given bean factory from the
+	 * {@linkplain #setBeanDefinitionSnapshotFile snapshot file}, if any.
+	 * @param beanFactory the bean factory to register the bean definitions with
+	 * @return {@code true} if the bean definitions have been restored,
+	 * {@code false} if they need to be loaded
+	 */
+	private boolean restoreBeanDefinitionSnapshot(DefaultListableBeanFactory beanFactory) {
+		File snapshotFile = this.beanDefinitionSnapshotFile;
+		if (snapshotFile == null || !snapshotFile.isFile()) {
+			return false;
+		}
+		try (InputStream in = new FileInputStream(snapshotFile)) {
+			if (BeanDefinitionSnapshot.read(
+					in, determineBeanDefinitionSnapshotFingerprint(), beanFactory, getClassLoader())) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Restored " + beanFactory.getBeanDefinitionCount() +
+							" bean definitions from snapshot file [" + snapshotFile + "]");
+				}
+				return true;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring outdated bean definition snapshot file [" + snapshotFile + "]");
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Could not read bean definition snapshot file [" + snapshotFile + "]: " + ex);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine the fingerprint that a
+	 * {@linkplain #setBeanDefinitionSnapshotFile bean definition snapshot}
+	 * needs to match in order to be restored.
+	 * <p>The default implementation combines a fingerprint of the classpath
+	 * with this context's active profiles. Can be overridden in subclasses
+	 * to take further state into account that affects bean definitions,
+	 * such as the bean definition resources that they are loaded from.
+	 * @since 5.3
+	 * @see BeanDefinitionSnapshot#classpathFingerprint(ClassLoader)
+	 */
+	protected String determineBeanDefinitionSnapshotFingerprint() {
+		return BeanDefinitionSnapshot.classpathFingerprint(getClassLoader()) + ";" +
+				StringUtils.arrayToCommaDelimitedString(getEnvironment().getActiveProfiles());
+	}
+
 	/**
 	 * Load bean definitions into the given bean factory, typically through
 	 * delegating to one or more bean definition readers.
@@ -242,4 +348,45 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
 	protected abstract void loadBeanDefinitions(DefaultListableBeanFactory beanFactory)
 			throws BeansException, IOException;
 
+
+	/**
+	 * Writes the bean definition snapshot once all registry post-processors
+	 * have been applied, before any regular bean factory post-processing.
+	 */
+	private class BeanDefinitionSnapshotWriter implements BeanDefinitionRegistryPostProcessor {
+
+		private final File snapshotFile;
+
+		BeanDefinitionSnapshotWriter(File snapshotFile) {
+			this.snapshotFile = snapshotFile;
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+			File tempFile = new File(this.snapshotFile.getPath() + ".tmp");
+			try {
+				try (OutputStream out = new FileOutputStream(tempFile)) {
+					BeanDefinitionSnapshot.write(beanFactory, determineBeanDefinitionSnapshotFingerprint(), out);
+				}
+				if (!tempFile.renameTo(this.snapshotFile) &&
+						!(this.snapshotFile.delete() && tempFile.renameTo(this.snapshotFile))) {
+					throw new IOException("Could not rename [" + tempFile + "] to [" + this.snapshotFile + "]");
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Wrote bean definition snapshot file [" + this.snapshotFile + "]");
+				}
+			}
+			catch (IOException ex) {
+				tempFile.delete();
+				if (logger.isInfoEnabled()) {
+					logger.info("Could not write bean definition snapshot file [" + this.snapshotFile + "]: " + ex);
+				}
+			}
+		}
+	}
+
 }
@@ -16,9 +16,13 @@
 
 package org.springframework.context.support;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -125,6 +129,51 @@ public abstract class AbstractRefreshableConfigApplicationContext extends Abstra
 		return getEnvironment().resolveRequiredPlaceholders(path);
 	}
 
+	/**
+	 * This implementation additionally takes the config locations into account,
+	 * along with the last-modified timestamps of the resources they resolve to
+	 * unless those are covered by the classpath fingerprint already.
+	 * @since 5.3
+	 * @see #getConfigLocations()
+	 */
+	@Override
+	protected String determineBeanDefinitionSnapshotFingerprint() {
+		StringBuilder fingerprint = new StringBuilder(super.determineBeanDefinitionSnapshotFingerprint());
+		String[] configLocations = getConfigLocations();
+		if (configLocations != null) {
+			for (String location : configLocations) {
+				fingerprint.append(';').append(location);
+				if (!location.startsWith(CLASSPATH_URL_PREFIX) && !location.startsWith(CLASSPATH_ALL_URL_PREFIX)) {
+					appendLastModified(fingerprint, location);
+				}
+			}
+		}
+		return fingerprint.toString();
+	}
+
+	private void appendLastModified(StringBuilder fingerprint, String location) {
+		Resource[] resources;
+		try {
+			resources = getResources(location);
+		}
+		catch (IOException ex) {
+			// Reported when loading the bean definitions
+			fingerprint.append("@?");
+			return;
+		}
+		for (Resource resource : resources) {
+			if (!(resource instanceof ClassPathResource)) {
+				fingerprint.append('@').append(resource.getDescription()).append('=');
+				try {
+					fingerprint.append(resource.lastModified());
+				}
+				catch (IOException ex) {
+					fingerprint.append('?');
+				}
+			}
+		}
+	}
+
 
 	@Override
 	public void setId(String id) {
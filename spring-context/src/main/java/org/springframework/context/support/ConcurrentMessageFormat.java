@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * {@link MessageFormat} variant that can be formatted by concurrent threads
+ * through {@link #formatConcurrently}, without external synchronization:
+ * the parsed pattern serves as a template for copies that each format for
+ * one thread at a time, pooled for reuse so that the pattern is only parsed once.
+ *
+ * <p>Meant to be created once and cached, as by {@link MessageSourceSupport};
+ * changes to the pattern or formats after the first call to
+ * {@code formatConcurrently} do not necessarily apply to pooled copies.
+ * The inherited {@code format} methods still require synchronization.
+ *
+ * @since 5.3
+ * @see MessageSourceSupport#createMessageFormat
+ */
+@SuppressWarnings("serial")
+class ConcurrentMessageFormat extends MessageFormat {
+
+	private transient Queue<MessageFormat> pool = new ConcurrentLinkedQueue<>();
+
+
+	ConcurrentMessageFormat(String pattern, Locale locale) {
+		super(pattern, locale);
+	}
+
+
+	/**
+	 * Format the given arguments with a copy of this MessageFormat
+	 * that is not in use by any other thread.
+	 * @param arguments the arguments to fill in for the placeholders
+	 * @return the formatted message
+	 */
+	public String formatConcurrently(Object[] arguments) {
+		MessageFormat copy = this.pool.poll();
+		if (copy == null) {
+			copy = (MessageFormat) super.clone();
+		}
+		try {
+			return copy.format(arguments);
+		}
+		finally {
+			this.pool.offer(copy);
+		}
+	}
+
+	@Override
+	public Object clone() {
+		ConcurrentMessageFormat clone = (ConcurrentMessageFormat) super.clone();
+		clone.pool = new ConcurrentLinkedQueue<>();
+		return clone;
+	}
+
+}
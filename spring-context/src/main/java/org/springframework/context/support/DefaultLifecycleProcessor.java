@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,13 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +45,7 @@ import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.Phased;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -56,6 +62,9 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 
 	private volatile long timeoutPerShutdownPhase = 30000;
 
+	@Nullable
+	private volatile Executor lifecycleExecutor;
+
 	private volatile boolean running;
 
 	@Nullable
@@ -71,6 +80,21 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		this.timeoutPerShutdownPhase = timeoutPerShutdownPhase;
 	}
 
+	/**
+	 * Specify an executor for starting and stopping the beans within each phase
+	 * concurrently rather than one after another.
+	 * <p>Phases are still processed in order, and a bean declared as a dependency
+	 * of another bean is started before, and stopped after, the dependent bean.
+	 * A bean is only stopped once all of its dependent beans have completed their
+	 * stop procedure, within the {@link #setTimeoutPerShutdownPhase timeout} of the
+	 * phase. The start or stop time of each bean is logged at debug level.
+	 * <p>Default is none, starting and stopping beans sequentially.
+	 * @since 5.3
+	 */
+	public void setLifecycleExecutor(@Nullable Executor lifecycleExecutor) {
+		this.lifecycleExecutor = lifecycleExecutor;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
@@ -173,20 +197,59 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			for (String dependency : dependenciesForBean) {
 				doStart(lifecycleBeans, dependency, autoStartupOnly);
 			}
-			if (!bean.isRunning() &&
-					(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
-				if (logger.isTraceEnabled()) {
-					logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
-				}
-				try {
-					bean.start();
-				}
-				catch (Throwable ex) {
-					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Successfully started bean '" + beanName + "'");
-				}
+			startBean(beanName, bean, autoStartupOnly);
+		}
+	}
+
+	/**
+	 * Schedule the start of the specified bean on the given executor, once the
+	 * beans that it depends on have been started.
+	 * @param lifecycleBeans a Map with bean name as key and Lifecycle instance as value
+	 * @param beanName the name of the bean to start
+	 * @param scheduled the start futures of the beans scheduled so far, by bean name
+	 * @return the future for the start of the bean
+	 */
+	private CompletableFuture<Void> scheduleStart(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			boolean autoStartupOnly, Executor executor, Map<String, CompletableFuture<Void>> scheduled) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null || bean == this) {
+			// Not a Lifecycle bean, started in an earlier phase, or part of a dependency cycle
+			CompletableFuture<Void> existing = scheduled.get(beanName);
+			return (existing != null ? existing : CompletableFuture.completedFuture(null));
+		}
+		String[] dependenciesForBean = getBeanFactory().getDependenciesForBean(beanName);
+		CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependenciesForBean.length];
+		for (int i = 0; i < dependenciesForBean.length; i++) {
+			dependencies[i] = scheduleStart(lifecycleBeans, dependenciesForBean[i], autoStartupOnly, executor, scheduled);
+		}
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+				.thenRunAsync(() -> startBean(beanName, bean, autoStartupOnly), executor);
+		scheduled.put(beanName, future);
+		return future;
+	}
+
+	private void startBean(String beanName, Lifecycle bean, boolean autoStartupOnly) {
+		if (!bean.isRunning() &&
+				(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
+			}
+			long startTime = System.nanoTime();
+			StartupStep lifecycleStart = getBeanFactory().getApplicationStartup()
+					.start("spring.context.lifecycle.start").tag("beanName", beanName);
+			try {
+				bean.start();
+			}
+			catch (Throwable ex) {
+				throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
+			}
+			finally {
+				lifecycleStart.end();
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully started bean '" + beanName + "' in " +
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
 			}
 		}
 	}
@@ -268,6 +331,71 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 	}
 
 
+	/**
+	 * Schedule the stop of the specified bean on the given executor, once the
+	 * beans that depend on it have completed their stop procedure.
+	 * @param lifecycleBeans a Map with bean name as key and Lifecycle instance as value
+	 * @param beanName the name of the bean to stop
+	 * @param scheduled the stop futures of the beans scheduled so far, by bean name
+	 * @return the future for the completion of the bean's stop procedure
+	 */
+	private CompletableFuture<Void> scheduleStop(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			Executor executor, Map<String, CompletableFuture<Void>> scheduled) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null) {
+			CompletableFuture<Void> existing = scheduled.get(beanName);
+			return (existing != null ? existing : CompletableFuture.completedFuture(null));
+		}
+		String[] dependentBeans = getBeanFactory().getDependentBeans(beanName);
+		CompletableFuture<?>[] dependents = new CompletableFuture<?>[dependentBeans.length];
+		for (int i = 0; i < dependentBeans.length; i++) {
+			dependents[i] = scheduleStop(lifecycleBeans, dependentBeans[i], executor, scheduled);
+		}
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependents)
+				.handle((result, ex) -> null)
+				.thenComposeAsync(result -> stopBean(beanName, bean), executor);
+		scheduled.put(beanName, future);
+		return future;
+	}
+
+	private CompletableFuture<Void> stopBean(String beanName, Lifecycle bean) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			if (bean.isRunning()) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Asking bean '" + beanName + "' of type [" + bean.getClass().getName() + "] to stop");
+				}
+				long startTime = System.nanoTime();
+				Runnable callback = () -> {
+					future.complete(null);
+					if (logger.isDebugEnabled()) {
+						logger.debug("Bean '" + beanName + "' completed its stop procedure in " +
+								TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+					}
+				};
+				if (bean instanceof SmartLifecycle) {
+					((SmartLifecycle) bean).stop(callback);
+				}
+				else {
+					bean.stop();
+					callback.run();
+				}
+			}
+			else {
+				future.complete(null);
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to stop bean '" + beanName + "'", ex);
+			}
+			future.complete(null);
+		}
+		return future;
+	}
+
+
 	// overridable hooks
 
 	/**
@@ -356,11 +484,36 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.debug("Starting beans in phase " + this.phase);
 			}
 			Collections.sort(this.members);
+			Executor executor = lifecycleExecutor;
+			if (executor != null) {
+				startConcurrently(executor);
+				return;
+			}
 			for (LifecycleGroupMember member : this.members) {
 				doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
 			}
 		}
 
+		private void startConcurrently(Executor executor) {
+			Map<String, CompletableFuture<Void>> scheduled = new LinkedHashMap<>();
+			for (LifecycleGroupMember member : this.members) {
+				scheduleStart(this.lifecycleBeans, member.name, this.autoStartupOnly, executor, scheduled);
+			}
+			try {
+				CompletableFuture.allOf(scheduled.values().toArray(new CompletableFuture<?>[0])).join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex;
+				while (cause instanceof CompletionException && cause.getCause() != null) {
+					cause = cause.getCause();
+				}
+				if (cause instanceof ApplicationContextException) {
+					throw (ApplicationContextException) cause;
+				}
+				throw new ApplicationContextException("Failed to start beans in phase " + this.phase, cause);
+			}
+		}
+
 		public void stop() {
 			if (this.members.isEmpty()) {
 				return;
@@ -369,6 +522,11 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.debug("Stopping beans in phase " + this.phase);
 			}
 			this.members.sort(Collections.reverseOrder());
+			Executor executor = lifecycleExecutor;
+			if (executor != null) {
+				stopConcurrently(executor);
+				return;
+			}
 			CountDownLatch latch = new CountDownLatch(this.smartMemberCount);
 			Set<String> countDownBeanNames = Collections.synchronizedSet(new LinkedHashSet<>());
 			Set<String> lifecycleBeanNames = new HashSet<>(this.lifecycleBeans.keySet());
@@ -393,6 +551,36 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				Thread.currentThread().interrupt();
 			}
 		}
+
+		private void stopConcurrently(Executor executor) {
+			Map<String, CompletableFuture<Void>> scheduled = new LinkedHashMap<>();
+			for (LifecycleGroupMember member : this.members) {
+				scheduleStop(this.lifecycleBeans, member.name, executor, scheduled);
+			}
+			try {
+				CompletableFuture.allOf(scheduled.values().toArray(new CompletableFuture<?>[0]))
+						.get(this.timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException ex) {
+				if (logger.isInfoEnabled()) {
+					Set<String> pendingBeanNames = new LinkedHashSet<>();
+					scheduled.forEach((beanName, future) -> {
+						if (!future.isDone()) {
+							pendingBeanNames.add(beanName);
+						}
+					});
+					logger.info("Failed to shut down " + pendingBeanNames.size() + " bean" +
+							(pendingBeanNames.size() > 1 ? "s" : "") + " with phase value " +
+							this.phase + " within timeout of " + this.timeout + ": " + pendingBeanNames);
+				}
+			}
+			catch (ExecutionException ex) {
+				// Not expected: failures to stop have been logged already
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,9 @@
 package org.springframework.context.support;
 
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,7 +53,7 @@ public abstract class MessageSourceSupport {
 	 * Used for passed-in default messages. MessageFormats for resolved
 	 * codes are cached on a specific basis in subclasses.
 	 */
-	private final Map<String, Map<Locale, MessageFormat>> messageFormatsPerMessage = new HashMap<>();
+	private final Map<String, Map<Locale, MessageFormat>> messageFormatsPerMessage = new ConcurrentHashMap<>();
 
 
 	/**
@@ -115,48 +115,57 @@ public abstract class MessageSourceSupport {
 		if (!isAlwaysUseMessageFormat() && ObjectUtils.isEmpty(args)) {
 			return msg;
 		}
-		MessageFormat messageFormat = null;
-		synchronized (this.messageFormatsPerMessage) {
-			Map<Locale, MessageFormat> messageFormatsPerLocale = this.messageFormatsPerMessage.get(msg);
-			if (messageFormatsPerLocale != null) {
-				messageFormat = messageFormatsPerLocale.get(locale);
+		Map<Locale, MessageFormat> messageFormatsPerLocale =
+				this.messageFormatsPerMessage.computeIfAbsent(msg, key -> new ConcurrentHashMap<>());
+		MessageFormat messageFormat = messageFormatsPerLocale.get(locale);
+		if (messageFormat == null) {
+			try {
+				messageFormat = createMessageFormat(msg, locale);
 			}
-			else {
-				messageFormatsPerLocale = new HashMap<>();
-				this.messageFormatsPerMessage.put(msg, messageFormatsPerLocale);
-			}
-			if (messageFormat == null) {
-				try {
-					messageFormat = createMessageFormat(msg, locale);
-				}
-				catch (IllegalArgumentException ex) {
-					// Invalid message format - probably not intended for formatting,
-					// rather using a message structure with no arguments involved...
-					if (isAlwaysUseMessageFormat()) {
-						throw ex;
-					}
-					// Silently proceed with raw message if format not enforced...
-					messageFormat = INVALID_MESSAGE_FORMAT;
+			catch (IllegalArgumentException ex) {
+				// Invalid message format - probably not intended for formatting,
+				// rather using a message structure with no arguments involved...
+				if (isAlwaysUseMessageFormat()) {
+					throw ex;
 				}
-				messageFormatsPerLocale.put(locale, messageFormat);
+				// Silently proceed with raw message if format not enforced...
+				messageFormat = INVALID_MESSAGE_FORMAT;
+			}
+			MessageFormat existing = messageFormatsPerLocale.putIfAbsent(locale, messageFormat);
+			if (existing != null) {
+				messageFormat = existing;
 			}
 		}
 		if (messageFormat == INVALID_MESSAGE_FORMAT) {
 			return msg;
 		}
-		synchronized (messageFormat) {
-			return messageFormat.format(resolveArguments(args, locale));
-		}
+		return format(messageFormat, resolveArguments(args, locale));
 	}
 
 	/**
 	 * Create a MessageFormat for the given message and Locale.
+	 * <p>As of 5.3, the default implementation returns a MessageFormat that
+	 * may be used by concurrent threads without synchronizing on it. Custom
+	 * MessageFormat instances are synchronized on when formatting.
 	 * @param msg the message to create a MessageFormat for
 	 * @param locale the Locale to create a MessageFormat for
 	 * @return the MessageFormat instance
 	 */
 	protected MessageFormat createMessageFormat(String msg, Locale locale) {
-		return new MessageFormat(msg, locale);
+		return new ConcurrentMessageFormat(msg, locale);
+	}
+
+	/**
+	 * Format the given MessageFormat with the given arguments,
+	 * synchronizing on it unless it is safe for concurrent use.
+	 */
+	static String format(MessageFormat messageFormat, Object[] args) {
+		if (messageFormat instanceof ConcurrentMessageFormat) {
+			return ((ConcurrentMessageFormat) messageFormat).formatConcurrently(args);
+		}
+		synchronized (messageFormat) {
+			return messageFormat.format(args);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,17 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.context.ResourceLoaderAware;
@@ -98,6 +103,9 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 
 	private boolean concurrentRefresh = true;
 
+	@Nullable
+	private Executor refreshExecutor;
+
 	private PropertiesPersister propertiesPersister = new DefaultPropertiesPersister();
 
 	private ResourceLoader resourceLoader = new DefaultResourceLoader();
@@ -141,6 +149,21 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 		this.concurrentRefresh = concurrentRefresh;
 	}
 
+	/**
+	 * Specify an Executor for refreshing stale cached properties files in the
+	 * background, with the requesting threads returning the old properties
+	 * without blocking until the refresh attempt has completed.
+	 * <p>Default is none, refreshing on the first thread to find the cached
+	 * properties stale. Only applies if "concurrentRefresh" is on.
+	 * Initial loading of a properties file always happens on the requesting thread.
+	 * @since 5.3
+	 * @see #setConcurrentRefresh
+	 * @see #setCacheSeconds
+	 */
+	public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
 	/**
 	 * Set the PropertiesPersister to use for parsing properties files.
 	 * <p>The default is a DefaultPropertiesPersister.
@@ -368,6 +391,11 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 		// At this point, we need to refresh...
 		if (this.concurrentRefresh && propHolder.getRefreshTimestamp() >= 0) {
 			// A populated but stale holder -> could keep using it.
+			Executor refreshExecutor = this.refreshExecutor;
+			if (refreshExecutor != null) {
+				scheduleRefresh(filename, propHolder, refreshExecutor);
+				return propHolder;
+			}
 			if (!propHolder.refreshLock.tryLock()) {
 				// Getting refreshed by another thread already ->
 				// let's return the existing properties for the time being.
@@ -389,6 +417,37 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 		}
 	}
 
+	/**
+	 * Schedule a refresh of the given stale PropertiesHolder on the given
+	 * Executor, unless one is pending already.
+	 */
+	private void scheduleRefresh(String filename, PropertiesHolder propHolder, Executor refreshExecutor) {
+		if (!propHolder.refreshScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			refreshExecutor.execute(() -> {
+				propHolder.refreshLock.lock();
+				try {
+					if (this.cachedProperties.get(filename) == propHolder &&
+							propHolder.getRefreshTimestamp() <= System.currentTimeMillis() - getCacheMillis()) {
+						refreshProperties(filename, propHolder);
+					}
+				}
+				finally {
+					propHolder.refreshLock.unlock();
+					propHolder.refreshScheduled.set(false);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not schedule refresh of properties for filename [" + filename + "]", ex);
+			}
+			propHolder.refreshScheduled.set(false);
+		}
+	}
+
 	/**
 	 * Refresh the PropertiesHolder for the given bundle filename.
 	 * The holder can be {@code null} if not cached before, or a timed-out cache entry
@@ -542,29 +601,41 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 	 * Stores the last-modified timestamp of the source file for efficient
 	 * change detection, and the timestamp of the last refresh attempt
 	 * (updated every time the cache entry gets re-validated).
+	 * <p>As of 5.3, messages are looked up in an immutable snapshot
+	 * of the properties taken on creation, without locking.
 	 */
 	protected class PropertiesHolder {
 
 		@Nullable
 		private final Properties properties;
 
+		private final Map<String, String> messages;
+
 		private final long fileTimestamp;
 
 		private volatile long refreshTimestamp = -2;
 
 		private final ReentrantLock refreshLock = new ReentrantLock();
 
+		private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
 		/** Cache to hold already generated MessageFormats per message code. */
 		private final ConcurrentMap<String, Map<Locale, MessageFormat>> cachedMessageFormats =
 				new ConcurrentHashMap<>();
 
 		public PropertiesHolder() {
 			this.properties = null;
+			this.messages = Collections.emptyMap();
 			this.fileTimestamp = -1;
 		}
 
 		public PropertiesHolder(Properties properties, long fileTimestamp) {
 			this.properties = properties;
+			Map<String, String> messages = new HashMap<>();
+			for (String code : properties.stringPropertyNames()) {
+				messages.put(code, properties.getProperty(code));
+			}
+			this.messages = messages;
 			this.fileTimestamp = fileTimestamp;
 		}
 
@@ -587,17 +658,11 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 
 		@Nullable
 		public String getProperty(String code) {
-			if (this.properties == null) {
-				return null;
-			}
-			return this.properties.getProperty(code);
+			return this.messages.get(code);
 		}
 
 		@Nullable
 		public MessageFormat getMessageFormat(String code, Locale locale) {
-			if (this.properties == null) {
-				return null;
-			}
 			Map<Locale, MessageFormat> localeMap = this.cachedMessageFormats.get(code);
 			if (localeMap != null) {
 				MessageFormat result = localeMap.get(locale);
@@ -605,7 +670,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
 					return result;
 				}
 			}
-			String msg = this.properties.getProperty(code);
+			String msg = this.messages.get(code);
 			if (msg != null) {
 				if (localeMap == null) {
 					localeMap = new ConcurrentHashMap<>();
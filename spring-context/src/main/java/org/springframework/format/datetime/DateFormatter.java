@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.format.Formatter;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
@@ -72,6 +73,9 @@ public class DateFormatter implements Formatter<Date> {
 
 	private boolean lenient = false;
 
+	// Configured DateFormats per Locale, to be cloned for each use
+	private final Map<Locale, DateFormat> cachedDateFormats = new ConcurrentHashMap<>(4);
+
 
 	/**
 	 * Create a new default DateFormatter.
@@ -93,6 +97,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setPattern(String pattern) {
 		this.pattern = pattern;
+		this.cachedDateFormats.clear();
 	}
 
 	/**
@@ -102,6 +107,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setIso(ISO iso) {
 		this.iso = iso;
+		this.cachedDateFormats.clear();
 	}
 
 	/**
@@ -115,6 +121,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setStyle(int style) {
 		this.style = style;
+		this.cachedDateFormats.clear();
 	}
 
 	/**
@@ -133,6 +140,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setStylePattern(String stylePattern) {
 		this.stylePattern = stylePattern;
+		this.cachedDateFormats.clear();
 	}
 
 	/**
@@ -140,6 +148,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setTimeZone(TimeZone timeZone) {
 		this.timeZone = timeZone;
+		this.cachedDateFormats.clear();
 	}
 
 	/**
@@ -149,6 +158,7 @@ public class DateFormatter implements Formatter<Date> {
 	 */
 	public void setLenient(boolean lenient) {
 		this.lenient = lenient;
+		this.cachedDateFormats.clear();
 	}
 
 
@@ -164,12 +174,18 @@ public class DateFormatter implements Formatter<Date> {
 
 
 	protected DateFormat getDateFormat(Locale locale) {
-		DateFormat dateFormat = createDateFormat(locale);
-		if (this.timeZone != null) {
-			dateFormat.setTimeZone(this.timeZone);
+		// DateFormat is not thread-safe: hand out a copy of the cached one,
+		// which is a lot cheaper than building one from the pattern each time
+		DateFormat dateFormat = this.cachedDateFormats.get(locale);
+		if (dateFormat == null) {
+			dateFormat = createDateFormat(locale);
+			if (this.timeZone != null) {
+				dateFormat.setTimeZone(this.timeZone);
+			}
+			dateFormat.setLenient(this.lenient);
+			this.cachedDateFormats.put(locale, dateFormat);
 		}
-		dateFormat.setLenient(this.lenient);
-		return dateFormat;
+		return (DateFormat) dateFormat.clone();
 	}
 
 	private DateFormat createDateFormat(Locale locale) {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.format.datetime.standard;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache for the localized and time-zone-specific variants of a base
+ * {@link DateTimeFormatter}, as applied by {@link DateTimeContextHolder#getFormatter}
+ * for each print and parse call, so that the common combinations of locale
+ * and time zone are derived from the base formatter only once.
+ *
+ * @since 5.3
+ * @see TemporalAccessorPrinter
+ * @see TemporalAccessorParser
+ */
+final class ContextualFormatterCache {
+
+	private final DateTimeFormatter formatter;
+
+	private final ConcurrentMap<Locale, LocalizedFormatter> localizedFormatters = new ConcurrentHashMap<>(4);
+
+
+	ContextualFormatterCache(DateTimeFormatter formatter) {
+		this.formatter = formatter;
+	}
+
+
+	/**
+	 * Return the formatter for the given locale, with the current
+	 * {@link DateTimeContext} applied.
+	 * @see DateTimeContextHolder#getFormatter(DateTimeFormatter, Locale)
+	 */
+	DateTimeFormatter getFormatter(@Nullable Locale locale) {
+		LocalizedFormatter localized = (locale != null ? getLocalizedFormatter(locale) : null);
+		DateTimeFormatter formatterToUse = (localized != null ? localized.formatter : this.formatter);
+		DateTimeContext context = DateTimeContextHolder.getDateTimeContext();
+		if (context == null) {
+			return formatterToUse;
+		}
+		if (localized == null || context.getChronology() != null) {
+			return context.getFormatter(formatterToUse);
+		}
+		ZoneId timeZone = context.resolveTimeZone();
+		return (timeZone != null ? localized.getZonedFormatter(timeZone) : formatterToUse);
+	}
+
+	private LocalizedFormatter getLocalizedFormatter(Locale locale) {
+		LocalizedFormatter localized = this.localizedFormatters.get(locale);
+		if (localized == null) {
+			localized = new LocalizedFormatter(this.formatter.withLocale(locale));
+			this.localizedFormatters.put(locale, localized);
+		}
+		return localized;
+	}
+
+
+	private static final class LocalizedFormatter {
+
+		final DateTimeFormatter formatter;
+
+		private final ConcurrentMap<ZoneId, DateTimeFormatter> zonedFormatters = new ConcurrentHashMap<>(4);
+
+		LocalizedFormatter(DateTimeFormatter formatter) {
+			this.formatter = formatter;
+		}
+
+		DateTimeFormatter getZonedFormatter(ZoneId timeZone) {
+			DateTimeFormatter zoned = this.zonedFormatters.get(timeZone);
+			if (zoned == null) {
+				zoned = this.formatter.withZone(timeZone);
+				this.zonedFormatters.put(timeZone, zoned);
+			}
+			return zoned;
+		}
+	}
+
+}
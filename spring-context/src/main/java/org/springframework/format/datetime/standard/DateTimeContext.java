@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -91,19 +91,30 @@ public class DateTimeContext {
 		if (this.chronology != null) {
 			formatter = formatter.withChronology(this.chronology);
 		}
+		ZoneId timeZone = resolveTimeZone();
+		if (timeZone != null) {
+			formatter = formatter.withZone(timeZone);
+		}
+		return formatter;
+	}
+
+	/**
+	 * Return the time zone to apply: the one set on this context, if any,
+	 * or else the one from the current {@link TimeZoneAwareLocaleContext}.
+	 */
+	@Nullable
+	ZoneId resolveTimeZone() {
 		if (this.timeZone != null) {
-			formatter = formatter.withZone(this.timeZone);
+			return this.timeZone;
 		}
-		else {
-			LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
-			if (localeContext instanceof TimeZoneAwareLocaleContext) {
-				TimeZone timeZone = ((TimeZoneAwareLocaleContext) localeContext).getTimeZone();
-				if (timeZone != null) {
-					formatter = formatter.withZone(timeZone.toZoneId());
-				}
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		if (localeContext instanceof TimeZoneAwareLocaleContext) {
+			TimeZone timeZone = ((TimeZoneAwareLocaleContext) localeContext).getTimeZone();
+			if (timeZone != null) {
+				return timeZone.toZoneId();
 			}
 		}
-		return formatter;
+		return null;
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,7 +47,7 @@ public final class TemporalAccessorParser implements Parser<TemporalAccessor> {
 
 	private final Class<? extends TemporalAccessor> temporalAccessorType;
 
-	private final DateTimeFormatter formatter;
+	private final ContextualFormatterCache formatterCache;
 
 
 	/**
@@ -58,13 +58,13 @@ public final class TemporalAccessorParser implements Parser<TemporalAccessor> {
 	 */
 	public TemporalAccessorParser(Class<? extends TemporalAccessor> temporalAccessorType, DateTimeFormatter formatter) {
 		this.temporalAccessorType = temporalAccessorType;
-		this.formatter = formatter;
+		this.formatterCache = new ContextualFormatterCache(formatter);
 	}
 
 
 	@Override
 	public TemporalAccessor parse(String text, Locale locale) throws ParseException {
-		DateTimeFormatter formatterToUse = DateTimeContextHolder.getFormatter(this.formatter, locale);
+		DateTimeFormatter formatterToUse = this.formatterCache.getFormatter(locale);
 		if (LocalDate.class == this.temporalAccessorType) {
 			return LocalDate.parse(text, formatterToUse);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,7 +33,7 @@ import org.springframework.format.Printer;
  */
 public final class TemporalAccessorPrinter implements Printer<TemporalAccessor> {
 
-	private final DateTimeFormatter formatter;
+	private final ContextualFormatterCache formatterCache;
 
 
 	/**
@@ -41,13 +41,13 @@ public final class TemporalAccessorPrinter implements Printer<TemporalAccessor>
 	 * @param formatter the base DateTimeFormatter instance
 	 */
 	public TemporalAccessorPrinter(DateTimeFormatter formatter) {
-		this.formatter = formatter;
+		this.formatterCache = new ContextualFormatterCache(formatter);
 	}
 
 
 	@Override
 	public String print(TemporalAccessor partial, Locale locale) {
-		return DateTimeContextHolder.getFormatter(this.formatter, locale).format(partial);
+		return this.formatterCache.getFormatter(locale).format(partial);
 	}
 
 }
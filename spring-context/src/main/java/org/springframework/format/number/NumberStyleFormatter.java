@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.format.number;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.lang.Nullable;
 
@@ -41,6 +43,9 @@ public class NumberStyleFormatter extends AbstractNumberFormatter {
 	@Nullable
 	private String pattern;
 
+	// Configured NumberFormats per Locale, to be cloned for each use
+	private final Map<Locale, NumberFormat> cachedNumberFormats = new ConcurrentHashMap<>(4);
+
 
 	/**
 	 * Create a new NumberStyleFormatter without a pattern.
@@ -65,11 +70,23 @@ public class NumberStyleFormatter extends AbstractNumberFormatter {
 	 */
 	public void setPattern(String pattern) {
 		this.pattern = pattern;
+		this.cachedNumberFormats.clear();
 	}
 
 
 	@Override
 	public NumberFormat getNumberFormat(Locale locale) {
+		// NumberFormat is not thread-safe: hand out a copy of the cached one,
+		// which is a lot cheaper than applying the pattern each time
+		NumberFormat format = this.cachedNumberFormats.get(locale);
+		if (format == null) {
+			format = createNumberFormat(locale);
+			this.cachedNumberFormats.put(locale, format);
+		}
+		return (NumberFormat) format.clone();
+	}
+
+	private NumberFormat createNumberFormat(Locale locale) {
 		NumberFormat format = NumberFormat.getInstance(locale);
 		if (!(format instanceof DecimalFormat)) {
 			if (this.pattern != null) {
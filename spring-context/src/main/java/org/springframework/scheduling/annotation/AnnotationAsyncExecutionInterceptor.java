@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,14 @@ package org.springframework.scheduling.annotation;
 
 import java.lang.reflect.Method;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.springframework.aop.interceptor.AsyncExecutionInterceptor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ForkJoinPoolTaskExecutor;
 
 /**
  * Specialization of {@link AsyncExecutionInterceptor} that delegates method execution to
@@ -87,4 +90,21 @@ public class AnnotationAsyncExecutionInterceptor extends AsyncExecutionIntercept
 		return (async != null ? async.value() : null);
 	}
 
+	/**
+	 * This implementation adapts a {@link ForkJoinPool}, e.g. as exposed by a
+	 * {@link org.springframework.scheduling.concurrent.ForkJoinPoolFactoryBean},
+	 * through a {@link ForkJoinPoolTaskExecutor}, so that async methods invoked
+	 * from one of its threads benefit from work stealing.
+	 * @since 5.3
+	 */
+	@Override
+	protected AsyncTaskExecutor adaptExecutor(Executor targetExecutor) {
+		// Maintainer's note: changes made here should also be made in
+		// AnnotationAsyncExecutionAspect#adaptExecutor
+		if (targetExecutor instanceof ForkJoinPool) {
+			return new ForkJoinPoolTaskExecutor((ForkJoinPool) targetExecutor);
+		}
+		return super.adaptExecutor(targetExecutor);
+	}
+
 }
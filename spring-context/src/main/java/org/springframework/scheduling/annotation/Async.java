@@ -65,6 +65,11 @@ public @interface Async {
 	 * <p>When specified on a class-level {@code @Async} annotation, indicates that the
 	 * given executor should be used for all methods within the class. Method-level use
 	 * of {@code Async#value} always overrides any value set at the class level.
+	 * <p>For many small asynchronous operations, consider a work-stealing
+	 * {@link java.util.concurrent.ForkJoinPool} or a
+	 * {@link org.springframework.scheduling.concurrent.ForkJoinPoolTaskExecutor}
+	 * as target, possibly decorated by a
+	 * {@link org.springframework.scheduling.concurrent.BatchingTaskExecutor}.
 	 * @since 3.1.2
 	 */
 	String value() default "";
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adjusts the core pool size of a {@link ThreadPoolExecutor} within given bounds,
+ * based on the queue wait time and throughput measured over fixed intervals.
+ *
+ * <p>The pool grows while the average queue wait exceeds the target, unless the
+ * previous growth step lowered the throughput, in which case it steps back.
+ * It shrinks by one thread per interval once tasks are picked up well within
+ * the target and threads sit idle. Adjustments are triggered by task submission
+ * and completion rather than by a dedicated thread.
+ *
+ * @since 5.3
+ * @see ThreadPoolTaskExecutor#setAdaptivePoolSizing
+ */
+class AdaptivePoolSizer {
+
+	private final ThreadPoolExecutor executor;
+
+	private final long targetQueueWait;
+
+	private final long interval;
+
+	private volatile int minPoolSize;
+
+	private volatile int maxPoolSize;
+
+	private final LongAdder queueWaitTime = new LongAdder();
+
+	private final LongAdder queueWaitCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final AtomicLong lastAdjustment = new AtomicLong(System.nanoTime());
+
+	private int previousPoolSize;
+
+	private double previousThroughput;
+
+
+	AdaptivePoolSizer(ThreadPoolExecutor executor, int minPoolSize, int maxPoolSize,
+			long targetQueueWaitMillis, long intervalMillis) {
+
+		this.executor = executor;
+		this.minPoolSize = minPoolSize;
+		this.maxPoolSize = maxPoolSize;
+		this.targetQueueWait = TimeUnit.MILLISECONDS.toNanos(targetQueueWaitMillis);
+		this.interval = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+		this.previousPoolSize = executor.getCorePoolSize();
+	}
+
+
+	/**
+	 * Update the bounds within which the core pool size may be adjusted.
+	 */
+	void setBounds(int minPoolSize, int maxPoolSize) {
+		this.minPoolSize = minPoolSize;
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/**
+	 * Record the time a task spent in the queue before a thread picked it up.
+	 */
+	void recordQueueWait(long nanos) {
+		this.queueWaitTime.add(nanos);
+		this.queueWaitCount.increment();
+	}
+
+	/**
+	 * Record the completion of a task.
+	 */
+	void recordCompletion() {
+		this.completedCount.increment();
+	}
+
+	/**
+	 * Re-evaluate the pool size if the current interval has elapsed.
+	 * Only one caller per interval performs the adjustment.
+	 */
+	void adjustIfNecessary() {
+		long now = System.nanoTime();
+		long last = this.lastAdjustment.get();
+		if (now - last < this.interval || !this.lastAdjustment.compareAndSet(last, now)) {
+			return;
+		}
+
+		long waitCount = this.queueWaitCount.sumThenReset();
+		long waitTime = this.queueWaitTime.sumThenReset();
+		double throughput = (double) this.completedCount.sumThenReset() / (now - last);
+		boolean backlog = !this.executor.getQueue().isEmpty();
+		long averageWait = (waitCount > 0 ? waitTime / waitCount : 0);
+
+		synchronized (this) {
+			int current = this.executor.getCorePoolSize();
+			int max = Math.min(this.maxPoolSize, this.executor.getMaximumPoolSize());
+			int target = current;
+			if (averageWait > this.targetQueueWait || (backlog && waitCount == 0)) {
+				if (current > this.previousPoolSize && throughput < this.previousThroughput * 0.9) {
+					// The last growth step made things worse: contention rather than lack of threads
+					target = this.previousPoolSize;
+				}
+				else {
+					target = Math.min(max, current + Math.max(1, current / 4));
+				}
+			}
+			else if (averageWait < this.targetQueueWait / 4 && !backlog && this.executor.getActiveCount() < current) {
+				target = current - 1;
+			}
+			target = Math.max(this.minPoolSize, Math.min(max, target));
+			if (target != current) {
+				this.previousPoolSize = current;
+				this.previousThroughput = throughput;
+				this.executor.setCorePoolSize(target);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * {@link org.springframework.core.task.TaskExecutor} decorator that groups tasks
+ * submitted in quick succession into batches, handing each batch to the target
+ * executor as a single task. This reduces the per-task submission overhead and
+ * the contention on the target executor's queue when fanning out many small tasks,
+ * for example through {@code @Async} methods that specify this executor's bean
+ * name as qualifier.
+ *
+ * <p>A batch is opened by the first task that finds no open batch, and it accepts
+ * further tasks until the target executor picks it up, optionally after waiting
+ * for the {@link #setBatchWindowMillis "batchWindowMillis"}, or until it reaches
+ * the {@link #setMaxBatchSize "maxBatchSize"}. The tasks of a batch run one after
+ * another on the same thread, while separate batches run concurrently. Each task
+ * still gets its own {@code Future}, completed as soon as the task itself is done.
+ *
+ * <p>An exception thrown by a plain {@code Runnable} passed to {@link #execute}
+ * is logged and does not affect the remaining tasks of its batch.
+ *
+ * @since 5.3
+ * @see org.springframework.scheduling.annotation.Async#value()
+ */
+public class BatchingTaskExecutor implements AsyncListenableTaskExecutor {
+
+	private static final Log logger = LogFactory.getLog(BatchingTaskExecutor.class);
+
+	private final Executor targetExecutor;
+
+	private int maxBatchSize = 64;
+
+	private long batchWindowNanos = 0;
+
+	private final AtomicReference<Batch> openBatch = new AtomicReference<>();
+
+
+	/**
+	 * Create a new BatchingTaskExecutor for the given target executor.
+	 * @param targetExecutor the executor to run the batches on
+	 */
+	public BatchingTaskExecutor(Executor targetExecutor) {
+		Assert.notNull(targetExecutor, "Target Executor must not be null");
+		this.targetExecutor = targetExecutor;
+	}
+
+
+	/**
+	 * Set the maximum number of tasks per batch. Default is 64.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be positive");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the time, in milliseconds, that a batch keeps accepting tasks once the
+	 * target executor picked it up, at the expense of occupying a thread of the
+	 * target executor while waiting.
+	 * <p>Default is 0, only grouping the tasks submitted while the batch waits
+	 * to be picked up by the target executor.
+	 */
+	public void setBatchWindowMillis(long batchWindowMillis) {
+		Assert.isTrue(batchWindowMillis >= 0, "'batchWindowMillis' must not be negative");
+		this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+	}
+
+	/**
+	 * Return the executor that runs the batches.
+	 */
+	public Executor getTargetExecutor() {
+		return this.targetExecutor;
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		Assert.notNull(task, "Runnable must not be null");
+		Batch current = this.openBatch.get();
+		if (current != null && current.add(task)) {
+			return;
+		}
+		Batch batch = new Batch(task);
+		// Submit before publishing, so that a rejected batch holds no other tasks
+		try {
+			this.targetExecutor.execute(batch);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + this.targetExecutor + "] did not accept task: " + task, ex);
+		}
+		// Open for further tasks, unless another batch got published concurrently
+		this.openBatch.compareAndSet(current, batch);
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+
+	/**
+	 * A group of tasks, run as a single task on the target executor.
+	 */
+	private class Batch implements Runnable {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		private boolean closed;
+
+		public Batch(Runnable firstTask) {
+			this.tasks.add(firstTask);
+		}
+
+		public synchronized boolean add(Runnable task) {
+			if (this.closed || this.tasks.size() >= maxBatchSize) {
+				return false;
+			}
+			this.tasks.add(task);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			if (batchWindowNanos > 0) {
+				// parkNanos may return early, e.g. spuriously
+				long deadline = System.nanoTime() + batchWindowNanos;
+				long remaining = batchWindowNanos;
+				while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+					LockSupport.parkNanos(remaining);
+					remaining = deadline - System.nanoTime();
+				}
+			}
+			List<Runnable> tasks;
+			synchronized (this) {
+				this.closed = true;
+				tasks = this.tasks;
+			}
+			openBatch.compareAndSet(this, null);
+			for (Runnable task : tasks) {
+				try {
+					task.run();
+				}
+				catch (Throwable ex) {
+					logger.error("Unexpected error occurred in batched task", ex);
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "Batch of " + this.tasks.size() + " tasks";
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * Spring {@link org.springframework.core.task.TaskExecutor} backed by a work-stealing
+ * {@link ForkJoinPool}, either a local pool configured through the bean properties
+ * or a given pool, e.g. one exposed by a {@link ForkJoinPoolFactoryBean}.
+ *
+ * <p>Tasks submitted from one of the pool's own threads, as typical for a fan-out of
+ * {@code @Async} calls issued by another async method, are pushed onto that thread's
+ * local queue instead of a single shared queue, with idle threads stealing from
+ * busy ones. This makes the executor a good fit for many small, non-blocking tasks,
+ * which is also what {@link #prefersShortLivedTasks()} indicates.
+ *
+ * <p>In contrast to {@link ThreadPoolTaskExecutor}, shutting this executor down lets
+ * all submitted tasks complete, as a {@link ForkJoinPool} does not hand remaining
+ * tasks back for cancellation.
+ *
+ * @since 5.3
+ * @see ForkJoinPool
+ * @see org.springframework.scheduling.annotation.Async
+ */
+@SuppressWarnings("serial")
+public class ForkJoinPoolTaskExecutor extends CustomizableThreadCreator
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor, InitializingBean, DisposableBean {
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private boolean asyncMode = true;
+
+	@Nullable
+	private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+
+	private int awaitTerminationSeconds = 0;
+
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+
+	private boolean localPool;
+
+
+	/**
+	 * Create a new ForkJoinPoolTaskExecutor, creating a local pool
+	 * on {@link #afterPropertiesSet()}.
+	 */
+	public ForkJoinPoolTaskExecutor() {
+	}
+
+	/**
+	 * Create a new ForkJoinPoolTaskExecutor for the given pool,
+	 * which will not be shut down along with this executor.
+	 * @param forkJoinPool the pool to delegate to
+	 */
+	public ForkJoinPoolTaskExecutor(ForkJoinPool forkJoinPool) {
+		Assert.notNull(forkJoinPool, "ForkJoinPool must not be null");
+		this.forkJoinPool = forkJoinPool;
+	}
+
+
+	/**
+	 * Specify the parallelism level of the local pool.
+	 * Default is {@link Runtime#availableProcessors()}.
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Specify whether the local pool processes tasks that are never joined in
+	 * first-in-first-out order. Default is {@code true}, as appropriate for
+	 * event-style asynchronous tasks such as {@code @Async} invocations.
+	 * @see ForkJoinPoolFactoryBean#setAsyncMode
+	 */
+	public void setAsyncMode(boolean asyncMode) {
+		this.asyncMode = asyncMode;
+	}
+
+	/**
+	 * Set the handler for worker threads of the local pool that terminate due to
+	 * unrecoverable errors encountered while executing tasks. Default is none.
+	 */
+	public void setUncaughtExceptionHandler(Thread.UncaughtExceptionHandler uncaughtExceptionHandler) {
+		this.uncaughtExceptionHandler = uncaughtExceptionHandler;
+	}
+
+	/**
+	 * Set the maximum number of seconds to block on shutdown, waiting for
+	 * remaining tasks to complete. Default is 0, not waiting at all.
+	 * @see ForkJoinPoolFactoryBean#setAwaitTerminationSeconds
+	 */
+	public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+		this.awaitTerminationSeconds = awaitTerminationSeconds;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.forkJoinPool == null) {
+			this.forkJoinPool = new ForkJoinPool(this.parallelism, this::newWorkerThread,
+					this.uncaughtExceptionHandler, this.asyncMode);
+			this.localPool = true;
+		}
+	}
+
+	private ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName(nextThreadName());
+		thread.setPriority(getThreadPriority());
+		thread.setDaemon(isDaemon());
+		return thread;
+	}
+
+	/**
+	 * Return the underlying ForkJoinPool for native access.
+	 * @throws IllegalStateException if the executor hasn't been initialized yet
+	 */
+	public ForkJoinPool getForkJoinPool() throws IllegalStateException {
+		Assert.state(this.forkJoinPool != null, "ForkJoinPoolTaskExecutor not initialized");
+		return this.forkJoinPool;
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		ForkJoinPool pool = getForkJoinPool();
+		try {
+			pool.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + pool + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		// A plain FutureTask rather than a ForkJoinTask, preserving the original
+		// exception instance in ExecutionException and interrupting on cancel
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public boolean prefersShortLivedTasks() {
+		return true;
+	}
+
+
+	/**
+	 * Shut down the local pool, letting submitted tasks complete.
+	 * A given pool is left untouched.
+	 */
+	@Override
+	public void destroy() {
+		if (this.forkJoinPool != null && this.localPool) {
+			this.forkJoinPool.shutdown();
+			if (this.awaitTerminationSeconds > 0) {
+				try {
+					this.forkJoinPool.awaitTermination(this.awaitTerminationSeconds, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ScheduledExecutorService} backed by a hashed timing wheel, scheduling
+ * and cancelling delayed tasks in constant time instead of the logarithmic cost
+ * of the priority queue in a {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * Designed for large numbers of short, mostly cancelled timeouts such as
+ * heartbeats, disconnect timers and receipt timeouts.
+ *
+ * <p>A single timer thread advances the wheel once per tick and hands due
+ * tasks over to a separate worker {@link ExecutorService}, so that running
+ * tasks never delays the timer. Tasks are thus executed up to one tick after
+ * their scheduled time: the tick duration trades precision for timer overhead.
+ * Delays longer than one revolution of the wheel are tracked in rounds, keeping
+ * scheduling independent of the delay.
+ *
+ * <p>Scheduling and cancellation only enqueue the task for the timer thread,
+ * which also removes cancelled tasks from the wheel right away. On shutdown,
+ * delayed tasks that are not due yet are cancelled rather than executed, and
+ * the worker executor is shut down as well.
+ *
+ * @since 5.3
+ * @see HashedWheelTaskScheduler
+ * @see ConcurrentTaskScheduler
+ */
+public class HashedWheelScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+	// Keeps trigger times comparable through System.nanoTime() differences, as in ScheduledThreadPoolExecutor
+	private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+	private static final int RUNNING = 0;
+
+	private static final int SHUTDOWN = 1;
+
+	private static final int STOP = 2;
+
+
+	private static final Log logger = LogFactory.getLog(HashedWheelScheduledExecutor.class);
+
+	private final long tickNanos;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final ExecutorService workerExecutor;
+
+	private final Queue<WheelTask<?>> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTask<?>> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+	private final Thread timerThread;
+
+	private final long startTime;
+
+	private final CountDownLatch timerTermination = new CountDownLatch(1);
+
+	private volatile int state = RUNNING;
+
+	private final List<Runnable> remainingTasks = new ArrayList<>();
+
+
+	/**
+	 * Create a new {@code HashedWheelScheduledExecutor}.
+	 * @param tickDuration the duration of a tick, i.e. the precision of the timer
+	 * @param unit the time unit of the tick duration
+	 * @param ticksPerWheel the number of buckets in the wheel, rounded up to
+	 * the next power of two
+	 * @param threadFactory the factory for the timer thread
+	 * @param workerExecutor the executor to run due tasks on, to be shut down
+	 * along with this executor
+	 */
+	public HashedWheelScheduledExecutor(long tickDuration, TimeUnit unit, int ticksPerWheel,
+			ThreadFactory threadFactory, ExecutorService workerExecutor) {
+
+		Assert.isTrue(tickDuration > 0, "Tick duration must be greater than 0");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30), "Ticks per wheel must be between 1 and 2^30");
+		Assert.notNull(threadFactory, "ThreadFactory must not be null");
+		Assert.notNull(workerExecutor, "Worker ExecutorService must not be null");
+		this.tickNanos = unit.toNanos(tickDuration);
+		int wheelSize = 1;
+		while (wheelSize < ticksPerWheel) {
+			wheelSize <<= 1;
+		}
+		this.wheel = new Bucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			this.wheel[i] = new Bucket();
+		}
+		this.mask = wheelSize - 1;
+		this.workerExecutor = workerExecutor;
+		this.startTime = System.nanoTime();
+		this.timerThread = threadFactory.newThread(this::runTimer);
+		Assert.state(this.timerThread != null, "ThreadFactory did not create a timer thread");
+		this.timerThread.start();
+	}
+
+
+	/**
+	 * Return the worker executor that due tasks are executed on.
+	 */
+	public ExecutorService getWorkerExecutor() {
+		return this.workerExecutor;
+	}
+
+	/**
+	 * Return the duration of a tick, in the given time unit.
+	 */
+	public long getTickDuration(TimeUnit unit) {
+		return unit.convert(this.tickNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the number of buckets in the wheel.
+	 */
+	public int getTicksPerWheel() {
+		return this.wheel.length;
+	}
+
+
+	@Override
+	public void execute(Runnable command) {
+		Assert.notNull(command, "Runnable must not be null");
+		if (this.state != RUNNING) {
+			throw new RejectedExecutionException("Executor has been shut down: " + this);
+		}
+		this.workerExecutor.execute(command);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		return schedule(new WheelTask<>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		Assert.notNull(callable, "Callable must not be null");
+		return schedule(new WheelTask<>(callable, triggerTime(delay, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(period > 0, "Period must be greater than 0");
+		return schedule(new WheelTask<>(command, null, triggerTime(initialDelay, unit), toNanos(period, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(delay > 0, "Delay must be greater than 0");
+		return schedule(new WheelTask<>(command, null, triggerTime(initialDelay, unit), -toNanos(delay, unit)));
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		return System.nanoTime() + Math.max(toNanos(delay, unit), 0);
+	}
+
+	private static long toNanos(long duration, TimeUnit unit) {
+		return Math.min(unit.toNanos(duration), MAX_DELAY_NANOS);
+	}
+
+	private <V> ScheduledFuture<V> schedule(WheelTask<V> task) {
+		if (this.state != RUNNING) {
+			throw new RejectedExecutionException("Executor has been shut down: " + this);
+		}
+		if (task.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+			this.workerExecutor.execute(task);
+		}
+		else {
+			this.pendingTasks.add(task);
+			if (this.state != RUNNING && this.pendingTasks.remove(task)) {
+				// Shut down concurrently, before the timer thread could pick up the task
+				throw new RejectedExecutionException("Executor has been shut down: " + this);
+			}
+		}
+		return task;
+	}
+
+	private void reschedule(WheelTask<?> task) {
+		if (this.state == RUNNING) {
+			this.pendingTasks.add(task);
+			if (this.state == RUNNING || !this.pendingTasks.remove(task)) {
+				return;
+			}
+		}
+		task.cancel(false);
+	}
+
+
+	// Timer thread
+
+	private void runTimer() {
+		long tick = 0;
+		try {
+			while (waitForNextTick(tick)) {
+				removeCancelledTasks();
+				transferPendingTasks(tick);
+				expireTasks(this.wheel[(int) (tick & this.mask)]);
+				tick++;
+			}
+		}
+		finally {
+			List<Runnable> remaining = new ArrayList<>();
+			for (Bucket bucket : this.wheel) {
+				bucket.drainTo(remaining);
+			}
+			WheelTask<?> task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				if (!task.isCancelled()) {
+					remaining.add(task);
+				}
+			}
+			this.cancelledTasks.clear();
+			if (this.state == STOP) {
+				synchronized (this.remainingTasks) {
+					this.remainingTasks.addAll(remaining);
+				}
+			}
+			else {
+				remaining.forEach(remainingTask -> ((WheelTask<?>) remainingTask).cancel(false));
+			}
+			this.timerTermination.countDown();
+		}
+	}
+
+	private boolean waitForNextTick(long tick) {
+		long deadline = this.startTime + this.tickNanos * (tick + 1);
+		while (this.state == RUNNING) {
+			long sleepNanos = deadline - System.nanoTime();
+			if (sleepNanos <= 0) {
+				return true;
+			}
+			LockSupport.parkNanos(this, sleepNanos);
+		}
+		return false;
+	}
+
+	private void removeCancelledTasks() {
+		WheelTask<?> task;
+		while ((task = this.cancelledTasks.poll()) != null) {
+			if (task.bucket != null) {
+				task.bucket.remove(task);
+			}
+		}
+	}
+
+	private void transferPendingTasks(long tick) {
+		for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+			WheelTask<?> task = this.pendingTasks.poll();
+			if (task == null) {
+				return;
+			}
+			if (task.isCancelled()) {
+				continue;
+			}
+			long calculatedTick = (task.triggerTime - this.startTime) / this.tickNanos;
+			task.remainingRounds = (calculatedTick - tick) / this.wheel.length;
+			this.wheel[(int) (Math.max(calculatedTick, tick) & this.mask)].add(task);
+		}
+	}
+
+	private void expireTasks(Bucket bucket) {
+		WheelTask<?> task = bucket.head;
+		while (task != null) {
+			WheelTask<?> next = task.next;
+			if (task.isCancelled()) {
+				bucket.remove(task);
+			}
+			else if (task.remainingRounds <= 0) {
+				bucket.remove(task);
+				dispatch(task);
+			}
+			else {
+				task.remainingRounds--;
+			}
+			task = next;
+		}
+	}
+
+	private void dispatch(WheelTask<?> task) {
+		try {
+			this.workerExecutor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Worker executor rejected due task - cancelling it: " + task, ex);
+			}
+			task.cancel(false);
+		}
+	}
+
+
+	// Lifecycle
+
+	@Override
+	public void shutdown() {
+		if (this.state == RUNNING) {
+			this.state = SHUTDOWN;
+			LockSupport.unpark(this.timerThread);
+		}
+		awaitTimerTermination();
+		this.workerExecutor.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.state = STOP;
+		LockSupport.unpark(this.timerThread);
+		awaitTimerTermination();
+		List<Runnable> tasks;
+		synchronized (this.remainingTasks) {
+			tasks = new ArrayList<>(this.remainingTasks);
+			this.remainingTasks.clear();
+		}
+		tasks.addAll(this.workerExecutor.shutdownNow());
+		return tasks;
+	}
+
+	private void awaitTimerTermination() {
+		if (Thread.currentThread() == this.timerThread) {
+			return;
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				this.timerTermination.await();
+				break;
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return (this.state != RUNNING);
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return (this.timerTermination.getCount() == 0 && this.workerExecutor.isTerminated());
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!this.timerTermination.await(timeout, unit)) {
+			return false;
+		}
+		return this.workerExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [tickDuration=" + this.tickNanos + "ns, ticksPerWheel=" +
+				this.wheel.length + ", state=" + (this.state == RUNNING ? "running" : "shut down") + "]";
+	}
+
+
+	/**
+	 * Doubly linked list of the tasks in a bucket of the wheel,
+	 * only accessed by the timer thread.
+	 */
+	private static final class Bucket {
+
+		@Nullable
+		WheelTask<?> head;
+
+		@Nullable
+		WheelTask<?> tail;
+
+		void add(WheelTask<?> task) {
+			task.bucket = this;
+			if (this.head == null) {
+				this.head = task;
+				this.tail = task;
+			}
+			else {
+				task.prev = this.tail;
+				this.tail.next = task;
+				this.tail = task;
+			}
+		}
+
+		void remove(WheelTask<?> task) {
+			WheelTask<?> next = task.next;
+			if (task.prev != null) {
+				task.prev.next = next;
+			}
+			if (next != null) {
+				next.prev = task.prev;
+			}
+			if (task == this.head) {
+				this.head = next;
+			}
+			if (task == this.tail) {
+				this.tail = task.prev;
+			}
+			task.prev = null;
+			task.next = null;
+			task.bucket = null;
+		}
+
+		void drainTo(List<Runnable> tasks) {
+			WheelTask<?> task = this.head;
+			while (task != null) {
+				WheelTask<?> next = task.next;
+				remove(task);
+				if (!task.isCancelled()) {
+					tasks.add(task);
+				}
+				task = next;
+			}
+		}
+	}
+
+
+	/**
+	 * A task in the wheel, either one-shot or periodic: a positive period
+	 * indicates a fixed rate, a negative one a fixed delay between executions.
+	 */
+	private final class WheelTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+		private volatile long triggerTime;
+
+		private final long period;
+
+		// Accessed by the timer thread only
+
+		long remainingRounds;
+
+		@Nullable
+		Bucket bucket;
+
+		@Nullable
+		WheelTask<?> prev;
+
+		@Nullable
+		WheelTask<?> next;
+
+		WheelTask(Runnable runnable, @Nullable V result, long triggerTime, long period) {
+			super(runnable, result);
+			this.triggerTime = triggerTime;
+			this.period = period;
+		}
+
+		WheelTask(Callable<V> callable, long triggerTime) {
+			super(callable);
+			this.triggerTime = triggerTime;
+			this.period = 0;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return (this.period != 0);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.triggerTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff < 0 ? -1 : (diff > 0 ? 1 : 0));
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				this.triggerTime = (this.period > 0 ? this.triggerTime + this.period : System.nanoTime() - this.period);
+				reschedule(this);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && !isShutdown()) {
+				// Let the timer thread unlink the task from its bucket
+				cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+	}
+
+}
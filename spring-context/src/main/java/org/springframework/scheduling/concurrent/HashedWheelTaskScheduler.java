@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link ThreadPoolTaskScheduler} backed by a
+ * {@link HashedWheelScheduledExecutor}, scheduling and cancelling tasks in
+ * constant time. Suited for applications creating large numbers of short,
+ * mostly cancelled timers, e.g. heartbeats and disconnect timeouts, where the
+ * queue of a {@link java.util.concurrent.ScheduledThreadPoolExecutor} becomes
+ * a point of contention.
+ *
+ * <p>Due tasks are executed by a separate worker pool of {@link #setPoolSize
+ * "poolSize"} threads, with the timer thread only advancing the wheel. The
+ * {@link #setTickDuration tick duration} determines the precision of the timer:
+ * tasks run up to one tick after their scheduled time. {@link org.springframework.scheduling.Trigger}
+ * based scheduling and the error handling of {@code ThreadPoolTaskScheduler}
+ * apply as usual. Cancelled tasks are always removed from the wheel right away.
+ *
+ * @since 5.3
+ * @see HashedWheelScheduledExecutor
+ */
+@SuppressWarnings("serial")
+public class HashedWheelTaskScheduler extends ThreadPoolTaskScheduler {
+
+	private long tickDuration = 10;
+
+	private int ticksPerWheel = 512;
+
+	@Nullable
+	private ThreadPoolExecutor workerPool;
+
+
+	/**
+	 * Set the duration of a tick in milliseconds, i.e. the precision of the timer.
+	 * Default is 10 ms.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of buckets in the wheel, rounded up to the next power of two.
+	 * Default is 512: together with the default tick duration, one revolution
+	 * of the wheel covers about 5 seconds, with longer delays taking several rounds.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0, "'ticksPerWheel' must be greater than 0");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the number of worker threads executing due tasks. Default is 1.
+	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 */
+	@Override
+	public void setPoolSize(int poolSize) {
+		super.setPoolSize(poolSize);
+		ThreadPoolExecutor workerPool = this.workerPool;
+		if (workerPool != null) {
+			if (poolSize > workerPool.getMaximumPoolSize()) {
+				workerPool.setMaximumPoolSize(poolSize);
+				workerPool.setCorePoolSize(poolSize);
+			}
+			else {
+				workerPool.setCorePoolSize(poolSize);
+				workerPool.setMaximumPoolSize(poolSize);
+			}
+		}
+	}
+
+
+	@Override
+	protected ScheduledExecutorService createExecutor(
+			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.workerPool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		return new HashedWheelScheduledExecutor(
+				this.tickDuration, TimeUnit.MILLISECONDS, this.ticksPerWheel, threadFactory, this.workerPool);
+	}
+
+	/**
+	 * Return the current number of worker threads.
+	 */
+	@Override
+	public int getPoolSize() {
+		ThreadPoolExecutor workerPool = this.workerPool;
+		return (workerPool != null ? workerPool.getPoolSize() : super.getPoolSize());
+	}
+
+	/**
+	 * Return the number of currently active worker threads.
+	 */
+	@Override
+	public int getActiveCount() {
+		ThreadPoolExecutor workerPool = this.workerPool;
+		return (workerPool != null ? workerPool.getActiveCount() : 0);
+	}
+
+	/**
+	 * Return {@code true}: cancelled tasks are always removed from the wheel.
+	 */
+	@Override
+	public boolean isRemoveOnCancelPolicy() {
+		return true;
+	}
+
+}
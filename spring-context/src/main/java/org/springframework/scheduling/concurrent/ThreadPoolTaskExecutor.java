@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -29,12 +32,15 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.TaskRejectedException;
 import org.springframework.lang.Nullable;
 import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.scheduling.support.DurationHistogram;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.concurrent.ListenableFuture;
@@ -58,6 +64,14 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * {@link #setCorePoolSize "corePoolSize"} (see also the
  * {@link #setAllowCoreThreadTimeOut "allowCoreThreadTimeOut"} mode of scaling).
  *
+ * <p>Since a plain ThreadPoolExecutor only grows beyond its core size once its queue
+ * is full, the {@link #setQueueType "queueType"} may be switched to direct hand-off
+ * or to eager thread creation up to the max pool size. Alternatively, the
+ * {@link #setAdaptivePoolSizing "adaptivePoolSizing"} mode grows and shrinks the
+ * core pool size based on the measured queue wait time and throughput. Queue wait
+ * and execution times of individual tasks may be recorded through
+ * {@link #setTaskMetricsEnabled "taskMetricsEnabled"}.
+ *
  * <p><b>NOTE:</b> This class implements Spring's
  * {@link org.springframework.core.task.TaskExecutor} interface as well as the
  * {@link java.util.concurrent.Executor} interface, with the former being the primary
@@ -94,6 +108,23 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	private boolean allowCoreThreadTimeOut = false;
 
+	private QueueType queueType = QueueType.LINKED;
+
+	private boolean taskMetricsEnabled = false;
+
+	private boolean adaptivePoolSizing = false;
+
+	private long targetQueueWaitMillis = 100;
+
+	private long adaptiveIntervalMillis = 1000;
+
+	private final DurationHistogram queueWaitHistogram = new DurationHistogram();
+
+	private final DurationHistogram executionTimeHistogram = new DurationHistogram();
+
+	@Nullable
+	private AdaptivePoolSizer poolSizer;
+
 	@Nullable
 	private TaskDecorator taskDecorator;
 
@@ -116,6 +147,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 			if (this.threadPoolExecutor != null) {
 				this.threadPoolExecutor.setCorePoolSize(corePoolSize);
 			}
+			if (this.poolSizer != null) {
+				this.poolSizer.setBounds(corePoolSize, this.maxPoolSize);
+			}
 		}
 	}
 
@@ -139,6 +173,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 			if (this.threadPoolExecutor != null) {
 				this.threadPoolExecutor.setMaximumPoolSize(maxPoolSize);
 			}
+			if (this.poolSizer != null) {
+				this.poolSizer.setBounds(this.corePoolSize, maxPoolSize);
+			}
 		}
 	}
 
@@ -197,6 +234,69 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
 	}
 
+	/**
+	 * Specify the type of queue to hold tasks before they are executed.
+	 * <p>Default is {@link QueueType#LINKED}, applying the
+	 * {@link #setQueueCapacity "queueCapacity"} as described there.
+	 * @since 5.3
+	 * @see QueueType
+	 */
+	public void setQueueType(QueueType queueType) {
+		Assert.notNull(queueType, "QueueType must not be null");
+		this.queueType = queueType;
+	}
+
+	/**
+	 * Specify whether to record the queue wait time and the execution time of
+	 * each task, exposed through {@link #getQueueWaitHistogram()} and
+	 * {@link #getExecutionTimeHistogram()}.
+	 * <p>Default is "false".
+	 * @since 5.3
+	 */
+	public void setTaskMetricsEnabled(boolean taskMetricsEnabled) {
+		this.taskMetricsEnabled = taskMetricsEnabled;
+	}
+
+	/**
+	 * Specify whether to adapt the number of core threads to the load, between
+	 * the configured {@link #setCorePoolSize "corePoolSize"} and
+	 * {@link #setMaxPoolSize "maxPoolSize"}.
+	 * <p>The pool grows while tasks wait longer than the
+	 * {@link #setTargetQueueWaitMillis "targetQueueWaitMillis"} on average, unless
+	 * a previous growth step lowered the throughput, and shrinks again once threads
+	 * are idle. Threads beyond the adjusted core size are released after the
+	 * {@link #setKeepAliveSeconds "keepAliveSeconds"}.
+	 * <p>Default is "false". Requires a bounded max pool size.
+	 * @since 5.3
+	 * @see #setAdaptiveIntervalMillis
+	 */
+	public void setAdaptivePoolSizing(boolean adaptivePoolSizing) {
+		this.adaptivePoolSizing = adaptivePoolSizing;
+	}
+
+	/**
+	 * Set the average queue wait time, in milliseconds, beyond which the
+	 * {@link #setAdaptivePoolSizing adaptive} mode adds threads.
+	 * <p>Default is 100.
+	 * @since 5.3
+	 */
+	public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+		Assert.isTrue(targetQueueWaitMillis >= 0, "'targetQueueWaitMillis' must not be negative");
+		this.targetQueueWaitMillis = targetQueueWaitMillis;
+	}
+
+	/**
+	 * Set the interval, in milliseconds, over which queue wait time and
+	 * throughput are measured before the {@link #setAdaptivePoolSizing adaptive}
+	 * mode re-evaluates the pool size.
+	 * <p>Default is 1000.
+	 * @since 5.3
+	 */
+	public void setAdaptiveIntervalMillis(long adaptiveIntervalMillis) {
+		Assert.isTrue(adaptiveIntervalMillis > 0, "'adaptiveIntervalMillis' must be positive");
+		this.adaptiveIntervalMillis = adaptiveIntervalMillis;
+	}
+
 	/**
 	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
 	 * about to be executed.
@@ -222,28 +322,55 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	protected ExecutorService initializeExecutor(
 			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
 
-		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
+		BlockingQueue<Runnable> queue;
+		switch (this.queueType) {
+			case SYNCHRONOUS:
+				queue = new SynchronousQueue<>();
+				break;
+			case EAGER:
+				EagerTaskQueue eagerQueue = new EagerTaskQueue(this.queueCapacity);
+				RejectedExecutionHandler targetHandler = rejectedExecutionHandler;
+				rejectedExecutionHandler = (task, executor) -> {
+					// Thread creation failed at the max pool size: queue the task after all
+					if (executor.isShutdown() || !eagerQueue.forceOffer(task)) {
+						try {
+							targetHandler.rejectedExecution(task, executor);
+						}
+						finally {
+							// Unless the handler queued it again, as DiscardOldestPolicy does
+							if (task instanceof TimedTask && !((TimedTask) task).started &&
+									!eagerQueue.contains(task)) {
+								((TimedTask) task).release();
+							}
+						}
+					}
+				};
+				queue = eagerQueue;
+				break;
+			default:
+				queue = createQueue(this.queueCapacity);
+		}
 
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
-			executor = new ThreadPoolExecutor(
+		if (this.taskDecorator != null || this.taskMetricsEnabled || this.adaptivePoolSizing ||
+				queue instanceof EagerTaskQueue) {
+			Assert.state(!this.adaptivePoolSizing || this.maxPoolSize < Integer.MAX_VALUE,
+					"Adaptive pool sizing requires a bounded 'maxPoolSize'");
+			executor = new InstrumentedThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler) {
-				@Override
-				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
-						decoratedTaskMap.put(decorated, command);
-					}
-					super.execute(decorated);
-				}
-			};
+					queue, threadFactory, rejectedExecutionHandler);
+			if (this.adaptivePoolSizing) {
+				this.poolSizer = new AdaptivePoolSizer(executor, this.corePoolSize, this.maxPoolSize,
+						this.targetQueueWaitMillis, this.adaptiveIntervalMillis);
+			}
 		}
 		else {
 			executor = new ThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
 					queue, threadFactory, rejectedExecutionHandler);
-
+		}
+		if (queue instanceof EagerTaskQueue) {
+			((EagerTaskQueue) queue).setExecutor(executor);
 		}
 
 		if (this.allowCoreThreadTimeOut) {
@@ -306,6 +433,37 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks currently waiting in the queue.
+	 * @since 5.3
+	 * @see java.util.concurrent.ThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return this.threadPoolExecutor.getQueue().size();
+	}
+
+	/**
+	 * Return the histogram of the time tasks spent waiting in the queue.
+	 * Only populated if {@link #setTaskMetricsEnabled "taskMetricsEnabled"} is set.
+	 * @since 5.3
+	 */
+	public DurationHistogram getQueueWaitHistogram() {
+		return this.queueWaitHistogram;
+	}
+
+	/**
+	 * Return the histogram of task execution times.
+	 * Only populated if {@link #setTaskMetricsEnabled "taskMetricsEnabled"} is set.
+	 * @since 5.3
+	 */
+	public DurationHistogram getExecutionTimeHistogram() {
+		return this.executionTimeHistogram;
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
@@ -381,4 +539,238 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		}
 	}
 
+
+	/**
+	 * Types of queue that a {@link ThreadPoolTaskExecutor} may use.
+	 * @since 5.3
+	 * @see ThreadPoolTaskExecutor#setQueueType
+	 */
+	public enum QueueType {
+
+		/**
+		 * A {@link LinkedBlockingQueue} for a positive queue capacity, a
+		 * {@link SynchronousQueue} otherwise. Threads beyond the core pool size
+		 * are only created once the queue is full.
+		 * @see ThreadPoolTaskExecutor#createQueue(int)
+		 */
+		LINKED,
+
+		/**
+		 * A {@link SynchronousQueue} handing each task off to a thread directly,
+		 * creating threads up to the max pool size and rejecting tasks beyond,
+		 * regardless of the queue capacity.
+		 */
+		SYNCHRONOUS,
+
+		/**
+		 * A queue that creates threads up to the max pool size before it
+		 * holds any task for which no idle thread is available, only then
+		 * applying the queue capacity (unbounded for a non-positive capacity).
+		 */
+		EAGER
+	}
+
+
+	/**
+	 * ThreadPoolExecutor that applies the TaskDecorator and records
+	 * task timings for metrics and adaptive pool sizing.
+	 */
+	private class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+		public InstrumentedThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime,
+				TimeUnit unit, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory,
+				RejectedExecutionHandler handler) {
+
+			super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			if (command instanceof TimedTask) {
+				// Executed again by a rejection policy: already decorated and tracked
+				((TimedTask) command).track();
+				super.execute(command);
+				return;
+			}
+			Runnable task = command;
+			if (taskDecorator != null) {
+				task = taskDecorator.decorate(task);
+			}
+			EagerTaskQueue eagerQueue = (getQueue() instanceof EagerTaskQueue ? (EagerTaskQueue) getQueue() : null);
+			if (taskMetricsEnabled || poolSizer != null || eagerQueue != null) {
+				TimedTask timedTask = new TimedTask(task, eagerQueue);
+				timedTask.track();
+				task = timedTask;
+			}
+			if (task != command) {
+				decoratedTaskMap.put(task, command);
+			}
+			super.execute(task);
+			if (poolSizer != null) {
+				poolSizer.adjustIfNecessary();
+			}
+		}
+
+		@Override
+		protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+			if (poolSizer != null) {
+				poolSizer.recordCompletion();
+				poolSizer.adjustIfNecessary();
+			}
+		}
+	}
+
+
+	/**
+	 * Runnable wrapper that measures its time in the queue and its execution time,
+	 * keeping track of outstanding tasks for an {@link EagerTaskQueue}.
+	 */
+	private class TimedTask implements Runnable {
+
+		private final Runnable delegate;
+
+		@Nullable
+		private final EagerTaskQueue eagerQueue;
+
+		private final long submitTime = System.nanoTime();
+
+		private final AtomicBoolean outstanding = new AtomicBoolean();
+
+		volatile boolean started;
+
+		public TimedTask(Runnable delegate, @Nullable EagerTaskQueue eagerQueue) {
+			this.delegate = delegate;
+			this.eagerQueue = eagerQueue;
+		}
+
+		@Override
+		public void run() {
+			this.started = true;
+			long startTime = System.nanoTime();
+			long queueWait = startTime - this.submitTime;
+			if (poolSizer != null) {
+				poolSizer.recordQueueWait(queueWait);
+			}
+			if (taskMetricsEnabled) {
+				queueWaitHistogram.record(queueWait);
+			}
+			try {
+				this.delegate.run();
+			}
+			finally {
+				if (taskMetricsEnabled) {
+					executionTimeHistogram.record(System.nanoTime() - startTime);
+				}
+				release();
+			}
+		}
+
+		/**
+		 * Count this task as outstanding in the {@link EagerTaskQueue}, if any.
+		 */
+		void track() {
+			if (this.eagerQueue != null && this.outstanding.compareAndSet(false, true)) {
+				this.eagerQueue.taskSubmitted();
+			}
+		}
+
+		/**
+		 * Stop counting this task as outstanding: called once it completed,
+		 * or once it got removed from the queue or rejected without running.
+		 */
+		void release() {
+			if (this.eagerQueue != null && this.outstanding.compareAndSet(true, false)) {
+				this.eagerQueue.taskCompleted();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+	}
+
+
+	/**
+	 * LinkedBlockingQueue that refuses tasks while the pool may still grow and
+	 * no thread is idle, making the ThreadPoolExecutor create a new thread instead.
+	 * <p>Tasks taken out of the queue other than by a worker thread, for example
+	 * by {@link ThreadPoolExecutor.DiscardOldestPolicy} or on shutdown, are no
+	 * longer counted as outstanding.
+	 */
+	@SuppressWarnings("serial")
+	private static class EagerTaskQueue extends LinkedBlockingQueue<Runnable> {
+
+		private final AtomicInteger outstandingTasks = new AtomicInteger();
+
+		@Nullable
+		private volatile ThreadPoolExecutor executor;
+
+		public EagerTaskQueue(int capacity) {
+			super(capacity > 0 ? capacity : Integer.MAX_VALUE);
+		}
+
+		public void setExecutor(ThreadPoolExecutor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public boolean offer(Runnable task) {
+			ThreadPoolExecutor executor = this.executor;
+			if (executor != null) {
+				int poolSize = executor.getPoolSize();
+				if (this.outstandingTasks.get() > poolSize && poolSize < executor.getMaximumPoolSize()) {
+					return false;
+				}
+			}
+			return super.offer(task);
+		}
+
+		public boolean forceOffer(Runnable task) {
+			return super.offer(task);
+		}
+
+		@Override
+		@Nullable
+		public Runnable poll() {
+			Runnable task = super.poll();
+			if (task != null) {
+				release(task);
+			}
+			return task;
+		}
+
+		@Override
+		public boolean remove(Object task) {
+			boolean removed = super.remove(task);
+			if (removed) {
+				release(task);
+			}
+			return removed;
+		}
+
+		@Override
+		public int drainTo(Collection<? super Runnable> target, int maxElements) {
+			List<Runnable> drained = new ArrayList<>();
+			int count = super.drainTo(drained, maxElements);
+			drained.forEach(this::release);
+			target.addAll(drained);
+			return count;
+		}
+
+		private void release(Object task) {
+			if (task instanceof TimedTask) {
+				((TimedTask) task).release();
+			}
+		}
+
+		public void taskSubmitted() {
+			this.outstandingTasks.incrementAndGet();
+		}
+
+		public void taskCompleted() {
+			this.outstandingTasks.decrementAndGet();
+		}
+	}
+
 }
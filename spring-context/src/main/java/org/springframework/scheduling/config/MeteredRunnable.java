@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+/**
+ * Runnable decorator that records the {@link ScheduledTaskMetrics} of a task,
+ * keeping track of the planned time of each execution the same way as the
+ * scheduler does for the kind of task.
+ *
+ * @since 5.3
+ * @see ScheduledTaskRegistrar
+ */
+class MeteredRunnable implements Runnable {
+
+	private static final int MAX_SKIPPED_COUNT = 10_000;
+
+
+	private final Runnable delegate;
+
+	private final ScheduledTaskMetrics metrics;
+
+	private final long interval;
+
+	private final boolean fixedRate;
+
+	private volatile long plannedTime;
+
+
+	private MeteredRunnable(Runnable delegate, ScheduledTaskMetrics metrics,
+			long firstPlannedTime, long interval, boolean fixedRate) {
+
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.plannedTime = firstPlannedTime;
+		this.interval = interval;
+		this.fixedRate = fixedRate;
+	}
+
+
+	/**
+	 * Create a decorator for a task executed at a fixed rate.
+	 * @param startTime the planned time of the first execution, in milliseconds
+	 * @param interval the interval between planned executions, in milliseconds
+	 */
+	static MeteredRunnable forFixedRate(Runnable delegate, ScheduledTaskMetrics metrics, long startTime, long interval) {
+		return new MeteredRunnable(delegate, metrics, startTime, interval, true);
+	}
+
+	/**
+	 * Create a decorator for a task executed with a fixed delay.
+	 * @param startTime the planned time of the first execution, in milliseconds
+	 * @param delay the delay between the end of one execution and the next one, in milliseconds
+	 */
+	static MeteredRunnable forFixedDelay(Runnable delegate, ScheduledTaskMetrics metrics, long startTime, long delay) {
+		return new MeteredRunnable(delegate, metrics, startTime, delay, false);
+	}
+
+	/**
+	 * Create a decorator for a task executed according to a trigger,
+	 * to be scheduled along with the trigger returned by {@link #meter(Trigger)}.
+	 */
+	static MeteredRunnable forTrigger(Runnable delegate, ScheduledTaskMetrics metrics) {
+		return new MeteredRunnable(delegate, metrics, System.currentTimeMillis(), 0, false);
+	}
+
+
+	/**
+	 * Decorate the given trigger, capturing the planned time of each execution
+	 * and recording the executions skipped by a {@link CronTrigger}.
+	 */
+	Trigger meter(Trigger trigger) {
+		return new MeteredTrigger(trigger);
+	}
+
+	@Override
+	public void run() {
+		long plannedTime = this.plannedTime;
+		long startTime = System.currentTimeMillis();
+		long startNanos = System.nanoTime();
+		boolean failed = true;
+		try {
+			this.delegate.run();
+			failed = false;
+		}
+		finally {
+			long duration = System.nanoTime() - startNanos;
+			boolean overrun = false;
+			if (this.interval > 0) {
+				if (this.fixedRate) {
+					this.plannedTime = plannedTime + this.interval;
+					overrun = (startTime + TimeUnit.NANOSECONDS.toMillis(duration) > plannedTime + this.interval);
+				}
+				else {
+					this.plannedTime = System.currentTimeMillis() + this.interval;
+				}
+			}
+			this.metrics.recordExecution(
+					TimeUnit.MILLISECONDS.toNanos(startTime - plannedTime), duration, failed, overrun);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+
+	private class MeteredTrigger implements Trigger {
+
+		private final Trigger delegate;
+
+		MeteredTrigger(Trigger delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			Date next = this.delegate.nextExecutionTime(triggerContext);
+			if (next != null) {
+				plannedTime = next.getTime();
+				if (this.delegate instanceof CronTrigger) {
+					recordSkipped(triggerContext, next);
+				}
+			}
+			return next;
+		}
+
+		private void recordSkipped(TriggerContext triggerContext, Date next) {
+			Date lastScheduled = triggerContext.lastScheduledExecutionTime();
+			Date lastCompletion = triggerContext.lastCompletionTime();
+			if (lastScheduled == null || lastCompletion == null || !lastCompletion.after(lastScheduled)) {
+				return;
+			}
+			// The times that would have followed the last execution, had it completed in time
+			int skipped = 0;
+			Date time = this.delegate.nextExecutionTime(new SimpleTriggerContext(lastScheduled, lastScheduled, lastScheduled));
+			while (time != null && time.before(next) && skipped < MAX_SKIPPED_COUNT) {
+				skipped++;
+				time = this.delegate.nextExecutionTime(new SimpleTriggerContext(time, time, time));
+			}
+			if (skipped > 0) {
+				metrics.recordSkipped(skipped);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+	}
+
+}
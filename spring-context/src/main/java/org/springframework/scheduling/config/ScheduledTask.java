@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,8 @@ public final class ScheduledTask {
 
 	private final Task task;
 
+	private final ScheduledTaskMetrics metrics = new ScheduledTaskMetrics();
+
 	@Nullable
 	volatile ScheduledFuture<?> future;
 
@@ -52,6 +54,14 @@ public final class ScheduledTask {
 		return this.task;
 	}
 
+	/**
+	 * Return the metrics recorded for the executions of this task.
+	 * @since 5.3
+	 */
+	public ScheduledTaskMetrics getMetrics() {
+		return this.metrics;
+	}
+
 	/**
 	 * Trigger cancellation of this scheduled task.
 	 */
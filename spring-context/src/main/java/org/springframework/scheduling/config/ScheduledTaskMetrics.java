@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.support.DurationHistogram;
+
+/**
+ * Metrics recorded for the executions of a {@link ScheduledTask}: how late each
+ * execution started compared with its planned time, how long it ran, and how
+ * many executions failed, overran their schedule or were skipped as a result.
+ *
+ * <p>An execution overruns if it is still running when the next execution is
+ * due: for a fixed-rate task, if it takes longer than the interval, and for a
+ * cron task, if it ends after the next time matching the expression. A cron
+ * task skips the matching times that passed while it was overrunning, whereas
+ * the executions of a fixed-rate task pile up, showing as growing lag instead.
+ *
+ * @since 5.3
+ * @see ScheduledTask#getMetrics()
+ * @see ScheduledTaskMonitor
+ */
+public final class ScheduledTaskMetrics {
+
+	private final DurationHistogram lagHistogram = new DurationHistogram();
+
+	private final DurationHistogram durationHistogram = new DurationHistogram();
+
+	private final LongAdder failureCount = new LongAdder();
+
+	private final LongAdder overrunCount = new LongAdder();
+
+	private final LongAdder skippedCount = new LongAdder();
+
+
+	ScheduledTaskMetrics() {
+	}
+
+
+	/**
+	 * Return the histogram of the time between the planned start
+	 * and the actual start of each execution.
+	 */
+	public DurationHistogram getLagHistogram() {
+		return this.lagHistogram;
+	}
+
+	/**
+	 * Return the histogram of the execution times.
+	 */
+	public DurationHistogram getDurationHistogram() {
+		return this.durationHistogram;
+	}
+
+	/**
+	 * Return the number of completed executions, including failed ones.
+	 */
+	public long getExecutionCount() {
+		return this.durationHistogram.getCount();
+	}
+
+	/**
+	 * Return the number of executions that threw an exception.
+	 */
+	public long getFailureCount() {
+		return this.failureCount.sum();
+	}
+
+	/**
+	 * Return the number of executions that were still running
+	 * when the next execution was due.
+	 */
+	public long getOverrunCount() {
+		return this.overrunCount.sum();
+	}
+
+	/**
+	 * Return the number of planned executions of a cron or trigger task
+	 * that were skipped since a previous execution overran them.
+	 */
+	public long getSkippedCount() {
+		return this.skippedCount.sum();
+	}
+
+	/**
+	 * Discard all recorded metrics.
+	 */
+	public void reset() {
+		this.lagHistogram.reset();
+		this.durationHistogram.reset();
+		this.failureCount.reset();
+		this.overrunCount.reset();
+		this.skippedCount.reset();
+	}
+
+
+	void recordExecution(long lagNanos, long durationNanos, boolean failed, boolean overrun) {
+		this.lagHistogram.record(lagNanos);
+		this.durationHistogram.record(durationNanos);
+		if (failed) {
+			this.failureCount.increment();
+		}
+		if (overrun) {
+			this.overrunCount.increment();
+		}
+	}
+
+	void recordSkipped(int skipped) {
+		this.overrunCount.increment();
+		this.skippedCount.add(skipped);
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduledTaskMetrics [executions=" + getExecutionCount() + ", failures=" + getFailureCount() +
+				", overruns=" + getOverrunCount() + ", skipped=" + getSkippedCount() + ", lag=" +
+				this.lagHistogram + ", duration=" + this.durationHistogram + "]";
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedOperationParameters;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.support.DurationHistogram;
+import org.springframework.util.StringUtils;
+
+/**
+ * Exposes the {@link ScheduledTaskMetrics} of the tasks scheduled by the
+ * {@link ScheduledTaskHolder} beans in the containing bean factory, such as the
+ * {@link org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor}
+ * for {@code @Scheduled} methods, or by the given holders.
+ *
+ * <p>Registered as a bean, this monitor may be exposed to JMX by an
+ * {@link org.springframework.jmx.export.MBeanExporter}, or by an
+ * {@link org.springframework.jmx.export.annotation.AnnotationMBeanExporter}
+ * based on its {@link ManagedResource} metadata. Tasks are identified by name,
+ * which is the {@code toString()} representation of the task (the qualified
+ * method name for {@code @Scheduled} methods), with a {@code #n} suffix to tell
+ * several tasks of the same name apart.
+ *
+ * @since 5.3
+ * @see ScheduledTask#getMetrics()
+ */
+@ManagedResource(description = "Metrics of the executions of scheduled tasks")
+public class ScheduledTaskMonitor implements BeanFactoryAware {
+
+	private final List<ScheduledTaskHolder> holders = new ArrayList<>();
+
+	@Nullable
+	private BeanFactory beanFactory;
+
+
+	/**
+	 * Create a new ScheduledTaskMonitor for the {@link ScheduledTaskHolder}
+	 * beans in the containing bean factory.
+	 */
+	public ScheduledTaskMonitor() {
+	}
+
+	/**
+	 * Create a new ScheduledTaskMonitor for the given holders.
+	 * @param holders the holders of the tasks to expose
+	 */
+	public ScheduledTaskMonitor(ScheduledTaskHolder... holders) {
+		for (ScheduledTaskHolder holder : holders) {
+			this.holders.add(holder);
+		}
+	}
+
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+
+	/**
+	 * Return the scheduled tasks by name.
+	 */
+	public Map<String, ScheduledTask> getScheduledTasks() {
+		Map<String, ScheduledTask> tasks = new LinkedHashMap<>();
+		for (ScheduledTaskHolder holder : getHolders()) {
+			for (ScheduledTask task : holder.getScheduledTasks()) {
+				String name = task.toString();
+				String key = name;
+				for (int i = 2; tasks.containsKey(key); i++) {
+					key = name + "#" + i;
+				}
+				tasks.put(key, task);
+			}
+		}
+		return tasks;
+	}
+
+	private List<ScheduledTaskHolder> getHolders() {
+		if (!this.holders.isEmpty() || this.beanFactory == null) {
+			return this.holders;
+		}
+		List<ScheduledTaskHolder> holders = new ArrayList<>();
+		this.beanFactory.getBeanProvider(ScheduledTaskHolder.class).orderedStream().forEach(holders::add);
+		return holders;
+	}
+
+	/**
+	 * Return the names of the scheduled tasks.
+	 */
+	@ManagedAttribute(description = "The names of the scheduled tasks")
+	public String[] getTaskNames() {
+		return StringUtils.toStringArray(getScheduledTasks().keySet());
+	}
+
+	/**
+	 * Return the metrics of the given task in a map of JMX-friendly values,
+	 * keyed by metric name, with times in milliseconds.
+	 * @param taskName the name of the task
+	 * @return the metrics, or an empty map if there is no such task
+	 */
+	@ManagedOperation(description = "Return the metrics of the given scheduled task")
+	@ManagedOperationParameters(@ManagedOperationParameter(name = "taskName", description = "The name of the task"))
+	public Map<String, Object> describeMetrics(String taskName) {
+		Map<String, Object> description = new LinkedHashMap<>();
+		ScheduledTask task = getScheduledTasks().get(taskName);
+		if (task != null) {
+			ScheduledTaskMetrics metrics = task.getMetrics();
+			description.put("executionCount", metrics.getExecutionCount());
+			description.put("failureCount", metrics.getFailureCount());
+			description.put("overrunCount", metrics.getOverrunCount());
+			description.put("skippedCount", metrics.getSkippedCount());
+			describe(description, "lag", metrics.getLagHistogram());
+			describe(description, "duration", metrics.getDurationHistogram());
+			description.put("histogramBucketBounds", DurationHistogram.getBucketBounds());
+		}
+		return description;
+	}
+
+	private void describe(Map<String, Object> description, String prefix, DurationHistogram histogram) {
+		description.put(prefix + "Average", histogram.getAverageTime(TimeUnit.MILLISECONDS));
+		description.put(prefix + "Max", TimeUnit.NANOSECONDS.toMillis(histogram.getMaxTime()));
+		description.put(prefix + "Histogram", histogram.getBucketCounts());
+	}
+
+	/**
+	 * Reset the metrics of all scheduled tasks.
+	 */
+	@ManagedOperation(description = "Reset the metrics of all scheduled tasks")
+	public void reset() {
+		getScheduledTasks().values().forEach(task -> task.getMetrics().reset());
+	}
+
+}
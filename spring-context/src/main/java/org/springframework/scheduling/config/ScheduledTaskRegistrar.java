@@ -47,6 +47,9 @@ import org.springframework.util.CollectionUtils;
  * {@link org.springframework.scheduling.annotation.SchedulingConfigurer
  * SchedulingConfigurer} callback interface.
  *
+ * <p>As of 5.3, the executions of each scheduled task are measured, with the lag,
+ * duration and overrun metrics exposed through {@link ScheduledTask#getMetrics()}.
+ *
  * @author Juergen Hoeller
  * @author Chris Beams
  * @author Tobias Montagna-Hay
@@ -403,7 +406,8 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MeteredRunnable runnable = MeteredRunnable.forTrigger(task.getRunnable(), scheduledTask.getMetrics());
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.meter(task.getTrigger()));
 		}
 		else {
 			addTriggerTask(task);
@@ -428,7 +432,8 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MeteredRunnable runnable = MeteredRunnable.forTrigger(task.getRunnable(), scheduledTask.getMetrics());
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.meter(task.getTrigger()));
 		}
 		else {
 			addCronTask(task);
@@ -471,12 +476,16 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 		if (this.taskScheduler != null) {
 			if (task.getInitialDelay() > 0) {
 				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
+				Runnable runnable = MeteredRunnable.forFixedRate(
+						task.getRunnable(), scheduledTask.getMetrics(), startTime.getTime(), task.getInterval());
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, startTime, task.getInterval());
 			}
 			else {
+				Runnable runnable = MeteredRunnable.forFixedRate(
+						task.getRunnable(), scheduledTask.getMetrics(), System.currentTimeMillis(), task.getInterval());
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -520,12 +529,16 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 		if (this.taskScheduler != null) {
 			if (task.getInitialDelay() > 0) {
 				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
+				Runnable runnable = MeteredRunnable.forFixedDelay(
+						task.getRunnable(), scheduledTask.getMetrics(), startTime.getTime(), task.getInterval());
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, startTime, task.getInterval());
 			}
 			else {
+				Runnable runnable = MeteredRunnable.forFixedDelay(
+						task.getRunnable(), scheduledTask.getMetrics(), System.currentTimeMillis(), task.getInterval());
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, task.getInterval());
 			}
 		}
 		else {
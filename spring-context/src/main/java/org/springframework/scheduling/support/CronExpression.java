@@ -0,0 +1,551 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.Locale;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="https://www.manpagez.com/man/5/crontab/">crontab expression</a>
+ * that can calculate the next time it matches, based on {@code java.time}.
+ *
+ * <p>The expression is a list of six single space-separated fields: representing
+ * second, minute, hour, day-of-month, month, day-of-week. Month and weekday names
+ * can be given as the first three letters of the English names. Each field is
+ * precomputed into a bit mask, so that the search for the next match jumps
+ * straight to the next valid value of each field rather than stepping through
+ * a calendar.
+ *
+ * <p>Beyond the standard syntax, the following extensions are supported:
+ * <ul>
+ * <li>{@code L} in the day-of-month field: the last day of the month,
+ * optionally with an offset such as {@code L-3} for the third-to-last day</li>
+ * <li>{@code W} in the day-of-month field: the weekday (Monday to Friday) nearest
+ * to the given day within the same month, e.g. {@code 15W}; {@code LW} stands for
+ * the last weekday of the month</li>
+ * <li>{@code L} in the day-of-week field: the last given weekday of the month,
+ * e.g. {@code 5L} or {@code FRIL} for the last Friday</li>
+ * <li>{@code #} in the day-of-week field: the n-th given weekday of the month,
+ * e.g. {@code MON#2} for the second Monday</li>
+ * <li>the macros {@code @yearly} (or {@code @annually}), {@code @monthly},
+ * {@code @weekly}, {@code @daily} (or {@code @midnight}) and {@code @hourly}</li>
+ * </ul>
+ * As with {@link CronSequenceGenerator}, a date needs to match both the
+ * day-of-month and the day-of-week field, with {@code ?} being a synonym
+ * for {@code *}.
+ *
+ * <p>Example patterns:
+ * <ul>
+ * <li>"0 0 * * * *" = the top of every hour of every day.</li>
+ * <li>"*&#47;10 * * * * *" = every ten seconds.</li>
+ * <li>"0 0 8-10 * * *" = 8, 9 and 10 o'clock of every day.</li>
+ * <li>"0 0 6,19 * * *" = 6:00 AM and 7:00 PM every day.</li>
+ * <li>"0 0/30 8-10 * * *" = 8:00, 8:30, 9:00, 9:30, 10:00 and 10:30 every day.</li>
+ * <li>"0 0 9-17 * * MON-FRI" = on the hour nine-to-five weekdays</li>
+ * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
+ * <li>"0 0 0 L * *" = last day of the month at midnight</li>
+ * <li>"0 0 0 LW * *" = last weekday of the month at midnight</li>
+ * <li>"0 0 0 * * 5L" = last Friday of the month at midnight</li>
+ * <li>"0 0 0 * * THU#2" = the second Thursday of the month at midnight</li>
+ * </ul>
+ *
+ * <p>Regarding daylight saving time: local times skipped by a transition
+ * never match, while local times repeated by a transition only match once,
+ * unless the hour field is a wildcard.
+ *
+ * @since 5.3
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	/**
+	 * The number of years searched for the next match before giving up.
+	 */
+	static final int MAX_YEARS = 400;
+
+	private static final String[] MACROS = new String[] {
+			"@yearly", "0 0 0 1 1 *",
+			"@annually", "0 0 0 1 1 *",
+			"@monthly", "0 0 0 1 * *",
+			"@weekly", "0 0 0 * * 0",
+			"@daily", "0 0 0 * * *",
+			"@midnight", "0 0 0 * * *",
+			"@hourly", "0 0 * * * *"
+	};
+
+	private static final String[] MONTH_NAMES =
+			{"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	private static final long ALL_HOURS = (1L << 24) - 1;
+
+	private static final long ALL_DAYS_OF_WEEK = ((1L << 8) - 1) & ~1L;
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	private final long daysOfMonth;
+
+	@Nullable
+	private final DayRule dayOfMonthRule;
+
+	private final long months;
+
+	private final long daysOfWeek;
+
+	@Nullable
+	private final DayRule dayOfWeekRule;
+
+
+	private CronExpression(String expression, String[] fields) {
+		this.expression = expression;
+		this.seconds = parseField(fields[0], 0, 59, null);
+		this.minutes = parseField(fields[1], 0, 59, null);
+		this.hours = parseField(fields[2], 0, 23, null);
+		String dayOfMonthField = fields[3].toUpperCase(Locale.ENGLISH);
+		if (dayOfMonthField.contains("L") || dayOfMonthField.contains("W")) {
+			this.dayOfMonthRule = parseDayOfMonthRule(dayOfMonthField);
+			this.daysOfMonth = 0;
+		}
+		else {
+			this.dayOfMonthRule = null;
+			this.daysOfMonth = parseField(dayOfMonthField, 1, 31, null);
+		}
+		this.months = parseField(fields[4], 1, 12, MONTH_NAMES);
+		String dayOfWeekField = fields[5].toUpperCase(Locale.ENGLISH);
+		if (dayOfWeekField.endsWith("L") || dayOfWeekField.contains("#")) {
+			this.dayOfWeekRule = parseDayOfWeekRule(dayOfWeekField);
+			this.daysOfWeek = 0;
+		}
+		else {
+			this.dayOfWeekRule = null;
+			this.daysOfWeek = parseDaysOfWeek(dayOfWeekField);
+		}
+	}
+
+
+	/**
+	 * Parse the given crontab expression into a {@code CronExpression}.
+	 * @param expression a space-separated list of six time fields, or one of
+	 * the supported macros
+	 * @return the parsed expression
+	 * @throws IllegalArgumentException if the expression cannot be parsed
+	 */
+	public static CronExpression parse(String expression) {
+		Assert.hasLength(expression, "Cron expression must not be empty");
+		String expressionToUse = expression.trim();
+		for (int i = 0; i < MACROS.length; i += 2) {
+			if (MACROS[i].equalsIgnoreCase(expressionToUse)) {
+				expressionToUse = MACROS[i + 1];
+				break;
+			}
+		}
+		String[] fields = StringUtils.tokenizeToStringArray(expressionToUse, " ");
+		if (fields.length != 6) {
+			throw new IllegalArgumentException(String.format(
+					"Cron expression must consist of 6 fields (found %d in \"%s\")", fields.length, expression));
+		}
+		try {
+			return new CronExpression(expression, fields);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException(ex.getMessage() + " in cron expression \"" + expression + "\"", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given expression is a valid crontab expression.
+	 * @param expression the expression to check
+	 * @return {@code true} if the expression can be parsed, {@code false} otherwise
+	 */
+	public static boolean isValidExpression(@Nullable String expression) {
+		if (expression == null) {
+			return false;
+		}
+		try {
+			parse(expression);
+			return true;
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Calculate the next temporal matching this expression, strictly after the
+	 * given one. The result has a whole number of seconds, and keeps the time
+	 * zone of the given temporal, if any.
+	 * @param temporal the seed value, supporting the date and time fields,
+	 * e.g. a {@link java.time.ZonedDateTime} or {@link java.time.LocalDateTime}
+	 * @return the next matching temporal, or {@code null} if there is no match
+	 * within the next {@value #MAX_YEARS} years
+	 */
+	@Nullable
+	public <T extends Temporal & Comparable<? super T>> T next(T temporal) {
+		T candidate = cast(temporal.with(ChronoField.NANO_OF_SECOND, 0).plus(1, ChronoUnit.SECONDS));
+		int maxYear = candidate.get(ChronoField.YEAR) + MAX_YEARS;
+		while (candidate.get(ChronoField.YEAR) <= maxYear) {
+			int month = candidate.get(ChronoField.MONTH_OF_YEAR);
+			if (!isSet(this.months, month)) {
+				int next = nextSetBit(this.months, month + 1);
+				T firstDay = cast(candidate.with(ChronoField.DAY_OF_MONTH, 1));
+				candidate = (next < 0 ?
+						cast(firstDay.with(ChronoField.MONTH_OF_YEAR, 1).plus(1, ChronoUnit.YEARS)) :
+						cast(firstDay.with(ChronoField.MONTH_OF_YEAR, next)));
+				candidate = cast(candidate.with(LocalTime.MIDNIGHT));
+				continue;
+			}
+
+			LocalDate date = LocalDate.from(candidate);
+			if (!matchesDay(date)) {
+				candidate = nextDay(candidate, date);
+				continue;
+			}
+
+			int hour = candidate.get(ChronoField.HOUR_OF_DAY);
+			if (!isSet(this.hours, hour)) {
+				int next = nextSetBit(this.hours, hour + 1);
+				candidate = (next < 0 ? startOfNextDay(candidate) : startOfHour(candidate, next));
+				continue;
+			}
+
+			int minute = candidate.get(ChronoField.MINUTE_OF_HOUR);
+			if (!isSet(this.minutes, minute)) {
+				int next = nextSetBit(this.minutes, minute + 1);
+				candidate = (next < 0 ? startOfNextHour(candidate, hour) :
+						cast(candidate.with(ChronoField.SECOND_OF_MINUTE, 0).with(ChronoField.MINUTE_OF_HOUR, next)));
+				continue;
+			}
+
+			int second = candidate.get(ChronoField.SECOND_OF_MINUTE);
+			if (!isSet(this.seconds, second)) {
+				int next = nextSetBit(this.seconds, second + 1);
+				candidate = (next < 0 ? startOfNextMinute(candidate, hour, minute) :
+						cast(candidate.with(ChronoField.SECOND_OF_MINUTE, next)));
+				continue;
+			}
+
+			return candidate;
+		}
+		return null;
+	}
+
+	private boolean matchesDay(LocalDate date) {
+		boolean dayOfMonthMatches = (this.dayOfMonthRule != null ? this.dayOfMonthRule.matches(date) :
+				isSet(this.daysOfMonth, date.getDayOfMonth()));
+		return (dayOfMonthMatches && (this.dayOfWeekRule != null ? this.dayOfWeekRule.matches(date) :
+				isSet(this.daysOfWeek, date.getDayOfWeek().getValue())));
+	}
+
+	private <T extends Temporal> T nextDay(T candidate, LocalDate date) {
+		if (this.dayOfMonthRule == null && this.daysOfWeek == ALL_DAYS_OF_WEEK) {
+			// Jump straight to the next matching day of the month
+			int next = nextSetBit(this.daysOfMonth, date.getDayOfMonth() + 1);
+			if (next < 0 || next > date.lengthOfMonth()) {
+				return cast(candidate.with(ChronoField.DAY_OF_MONTH, 1).plus(1, ChronoUnit.MONTHS)
+						.with(LocalTime.MIDNIGHT));
+			}
+			return cast(candidate.with(ChronoField.DAY_OF_MONTH, next).with(LocalTime.MIDNIGHT));
+		}
+		return startOfNextDay(candidate);
+	}
+
+	private static <T extends Temporal> T startOfNextDay(T candidate) {
+		// Add the day first, since midnight may not exist on the current day
+		return cast(candidate.plus(1, ChronoUnit.DAYS).with(LocalTime.MIDNIGHT));
+	}
+
+	private static <T extends Temporal> T startOfHour(T candidate, int hour) {
+		return cast(candidate.with(ChronoField.SECOND_OF_MINUTE, 0).with(ChronoField.MINUTE_OF_HOUR, 0)
+				.with(ChronoField.HOUR_OF_DAY, hour));
+	}
+
+	private <T extends Temporal> T startOfNextHour(T candidate, int hour) {
+		if (this.hours == ALL_HOURS) {
+			// Progress in actual time, including an hour repeated by a daylight saving time transition
+			return cast(candidate.with(ChronoField.SECOND_OF_MINUTE, 0).with(ChronoField.MINUTE_OF_HOUR, 0)
+					.plus(1, ChronoUnit.HOURS));
+		}
+		// Progress in local time, matching a repeated hour only once
+		return (hour < 23 ? startOfHour(candidate, hour + 1) : startOfNextDay(candidate));
+	}
+
+	private <T extends Temporal> T startOfNextMinute(T candidate, int hour, int minute) {
+		// Progress in local time, as for hours, keeping the current offset within a repeated hour
+		return (minute < 59 ?
+				cast(candidate.with(ChronoField.SECOND_OF_MINUTE, 0).with(ChronoField.MINUTE_OF_HOUR, minute + 1)) :
+				startOfNextHour(candidate, hour));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Temporal> T cast(Temporal temporal) {
+		return (T) temporal;
+	}
+
+	private static boolean isSet(long bits, int index) {
+		return ((bits & (1L << index)) != 0);
+	}
+
+	private static int nextSetBit(long bits, int fromIndex) {
+		if (fromIndex >= Long.SIZE) {
+			return -1;
+		}
+		long remaining = bits & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
+	}
+
+
+	// Parsing
+
+	private static long parseField(String field, int min, int max, @Nullable String[] names) {
+		String fieldToUse = field.toUpperCase(Locale.ENGLISH);
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				fieldToUse = StringUtils.replace(fieldToUse, names[i], Integer.toString(i + min));
+			}
+		}
+		long bits = 0;
+		for (String part : StringUtils.delimitedListToStringArray(fieldToUse, ",")) {
+			int slashPos = part.indexOf('/');
+			String range = (slashPos != -1 ? part.substring(0, slashPos) : part);
+			int step = 1;
+			if (slashPos != -1) {
+				step = parseNumber(part.substring(slashPos + 1), 1, Integer.MAX_VALUE, "Increment");
+			}
+			int start;
+			int end;
+			if ("*".equals(range) || "?".equals(range)) {
+				start = min;
+				end = max;
+			}
+			else {
+				int dashPos = range.indexOf('-');
+				if (dashPos != -1) {
+					start = parseNumber(range.substring(0, dashPos), min, max, "Range start");
+					end = parseNumber(range.substring(dashPos + 1), min, max, "Range end");
+					if (start > end) {
+						throw new IllegalArgumentException("Invalid inverted range '" + part + "'");
+					}
+				}
+				else {
+					start = parseNumber(range, min, max, "Value");
+					end = (slashPos != -1 ? max : start);
+				}
+			}
+			for (int i = start; i <= end; i += step) {
+				bits |= (1L << i);
+			}
+		}
+		return bits;
+	}
+
+	private static long parseDaysOfWeek(String field) {
+		long bits = parseField(field, 0, 7, DAY_NAMES);
+		if (isSet(bits, 0)) {
+			// Sunday as 0 or 7, as in ISO-8601
+			bits = (bits | (1L << 7)) & ~1L;
+		}
+		return bits;
+	}
+
+	private static int parseNumber(String value, int min, int max, String description) {
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(description + " '" + value + "' is not a number");
+		}
+		if (number < min || number > max) {
+			throw new IllegalArgumentException(
+					description + " " + number + " out of range [" + min + ", " + max + "]");
+		}
+		return number;
+	}
+
+	private static DayRule parseDayOfMonthRule(String field) {
+		if ("L".equals(field)) {
+			return new DayRule(DayRule.LAST_DAY_OF_MONTH, 0, 0);
+		}
+		if ("LW".equals(field)) {
+			return new DayRule(DayRule.LAST_WEEKDAY_OF_MONTH, 0, 0);
+		}
+		if (field.startsWith("L-")) {
+			return new DayRule(DayRule.LAST_DAY_OF_MONTH, parseNumber(field.substring(2), 1, 30, "Offset"), 0);
+		}
+		if (field.endsWith("W") && field.indexOf('W') == field.length() - 1) {
+			int day = parseNumber(field.substring(0, field.length() - 1), 1, 31, "Day of month");
+			return new DayRule(DayRule.NEAREST_WEEKDAY, day, 0);
+		}
+		throw new IllegalArgumentException("Invalid day-of-month field '" + field + "'");
+	}
+
+	private static DayRule parseDayOfWeekRule(String field) {
+		int hashPos = field.indexOf('#');
+		if (hashPos != -1) {
+			int dayOfWeek = parseDayOfWeek(field.substring(0, hashPos));
+			int ordinal = parseNumber(field.substring(hashPos + 1), 1, 5, "Ordinal");
+			return new DayRule(DayRule.NTH_DAY_OF_WEEK, dayOfWeek, ordinal);
+		}
+		return new DayRule(DayRule.LAST_DAY_OF_WEEK, parseDayOfWeek(field.substring(0, field.length() - 1)), 0);
+	}
+
+	private static int parseDayOfWeek(String value) {
+		for (int i = 0; i < DAY_NAMES.length; i++) {
+			if (DAY_NAMES[i].equals(value)) {
+				return (i == 0 ? 7 : i);
+			}
+		}
+		int dayOfWeek = parseNumber(value, 0, 7, "Day of week");
+		return (dayOfWeek == 0 ? 7 : dayOfWeek);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherCron = (CronExpression) other;
+		return (this.seconds == otherCron.seconds && this.minutes == otherCron.minutes &&
+				this.hours == otherCron.hours && this.daysOfMonth == otherCron.daysOfMonth &&
+				this.months == otherCron.months && this.daysOfWeek == otherCron.daysOfWeek &&
+				ObjectUtils.nullSafeEquals(this.dayOfMonthRule, otherCron.dayOfMonthRule) &&
+				ObjectUtils.nullSafeEquals(this.dayOfWeekRule, otherCron.dayOfWeekRule));
+	}
+
+	@Override
+	public int hashCode() {
+		return (17 * Long.hashCode(this.months) + 29 * Long.hashCode(this.daysOfMonth) +
+				37 * Long.hashCode(this.daysOfWeek) + 41 * Long.hashCode(this.hours) +
+				53 * Long.hashCode(this.minutes) + 61 * Long.hashCode(this.seconds) +
+				ObjectUtils.nullSafeHashCode(this.dayOfMonthRule) + ObjectUtils.nullSafeHashCode(this.dayOfWeekRule));
+	}
+
+	/**
+	 * Return the expression that this {@code CronExpression} has been parsed from.
+	 */
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+
+	/**
+	 * Day matching rule for the {@code L}, {@code W} and {@code #} extensions.
+	 */
+	private static final class DayRule {
+
+		static final int LAST_DAY_OF_MONTH = 0;
+
+		static final int LAST_WEEKDAY_OF_MONTH = 1;
+
+		static final int NEAREST_WEEKDAY = 2;
+
+		static final int LAST_DAY_OF_WEEK = 3;
+
+		static final int NTH_DAY_OF_WEEK = 4;
+
+		private final int type;
+
+		// Offset from the last day, day of month, or ISO day of week, depending on the type
+		private final int value;
+
+		private final int ordinal;
+
+		DayRule(int type, int value, int ordinal) {
+			this.type = type;
+			this.value = value;
+			this.ordinal = ordinal;
+		}
+
+		boolean matches(LocalDate date) {
+			int dayOfMonth = date.getDayOfMonth();
+			int lengthOfMonth = date.lengthOfMonth();
+			switch (this.type) {
+				case LAST_DAY_OF_MONTH:
+					return (dayOfMonth == lengthOfMonth - this.value);
+				case LAST_WEEKDAY_OF_MONTH:
+					return (dayOfMonth == nearestWeekday(date.withDayOfMonth(lengthOfMonth)));
+				case NEAREST_WEEKDAY:
+					return (this.value <= lengthOfMonth &&
+							dayOfMonth == nearestWeekday(date.withDayOfMonth(this.value)));
+				case LAST_DAY_OF_WEEK:
+					return (date.getDayOfWeek().getValue() == this.value && dayOfMonth + 7 > lengthOfMonth);
+				default:
+					return (date.getDayOfWeek().getValue() == this.value &&
+							(dayOfMonth - 1) / 7 + 1 == this.ordinal);
+			}
+		}
+
+		/**
+		 * Determine the day of the weekday nearest to the given date within its month.
+		 */
+		private static int nearestWeekday(LocalDate date) {
+			int dayOfMonth = date.getDayOfMonth();
+			DayOfWeek dayOfWeek = date.getDayOfWeek();
+			if (dayOfWeek == DayOfWeek.SATURDAY) {
+				return (dayOfMonth > 1 ? dayOfMonth - 1 : dayOfMonth + 2);
+			}
+			if (dayOfWeek == DayOfWeek.SUNDAY) {
+				return (dayOfMonth < date.lengthOfMonth() ? dayOfMonth + 1 : dayOfMonth - 2);
+			}
+			return dayOfMonth;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DayRule)) {
+				return false;
+			}
+			DayRule otherRule = (DayRule) other;
+			return (this.type == otherRule.type && this.value == otherRule.value &&
+					this.ordinal == otherRule.ordinal);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * (31 * this.type + this.value) + this.ordinal);
+		}
+	}
+
+}
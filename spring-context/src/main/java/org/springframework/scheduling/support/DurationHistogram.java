@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of task timings, for example the time a task spent
+ * waiting in an executor queue or the time it took to run.
+ *
+ * <p>Durations are recorded in nanoseconds into fixed buckets with upper bounds
+ * from 10 microseconds to 10 seconds in powers of ten, plus one overflow bucket.
+ * Recording is contention-free, so a single instance may be shared by all
+ * threads of a pool.
+ *
+ * @since 5.3
+ * @see #getBucketBounds()
+ */
+public class DurationHistogram {
+
+	private static final long[] BUCKET_BOUNDS = {
+			10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L};
+
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+	private final LongAdder totalTime = new LongAdder();
+
+	private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+
+	public DurationHistogram() {
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+
+	/**
+	 * Record a single duration.
+	 * @param nanos the duration in nanoseconds (negative values count as 0)
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(nanos, 0);
+		this.buckets[getBucket(duration)].increment();
+		this.totalTime.add(duration);
+		this.maxTime.accumulate(duration);
+	}
+
+	/**
+	 * Return the number of recorded durations.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : this.buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the sum of all recorded durations, in nanoseconds.
+	 */
+	public long getTotalTime() {
+		return this.totalTime.sum();
+	}
+
+	/**
+	 * Return the longest recorded duration, in nanoseconds.
+	 */
+	public long getMaxTime() {
+		return this.maxTime.get();
+	}
+
+	/**
+	 * Return the average recorded duration in the given unit,
+	 * or 0 if nothing has been recorded yet.
+	 */
+	public double getAverageTime(TimeUnit unit) {
+		long count = getCount();
+		return (count > 0 ? (double) getTotalTime() / count / unit.toNanos(1) : 0);
+	}
+
+	/**
+	 * Return a snapshot of the number of durations per bucket, as defined by
+	 * {@link #getBucketBounds()}, with one additional bucket for durations
+	 * exceeding the last bound.
+	 */
+	public long[] getBucketCounts() {
+		long[] counts = new long[this.buckets.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.buckets[i].sum();
+		}
+		return counts;
+	}
+
+	/**
+	 * Discard all recorded durations.
+	 */
+	public void reset() {
+		for (LongAdder bucket : this.buckets) {
+			bucket.reset();
+		}
+		this.totalTime.reset();
+		this.maxTime.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "DurationHistogram [count=" + getCount() + ", average=" +
+				getAverageTime(TimeUnit.MILLISECONDS) + "ms, max=" +
+				TimeUnit.NANOSECONDS.toMillis(getMaxTime()) + "ms]";
+	}
+
+
+	/**
+	 * Return the inclusive upper bounds of the histogram buckets, in nanoseconds.
+	 */
+	public static long[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+
+	static int getBucket(long nanos) {
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			if (nanos <= BUCKET_BOUNDS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_BOUNDS.length;
+	}
+
+}
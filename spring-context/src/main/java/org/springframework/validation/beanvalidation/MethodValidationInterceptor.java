@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,9 @@
 package org.springframework.validation.beanvalidation;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
@@ -25,6 +27,7 @@ import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
 import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.MethodDescriptor;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -32,6 +35,7 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.SmartFactoryBean;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ClassUtils;
 import org.springframework.validation.annotation.Validated;
@@ -52,6 +56,11 @@ import org.springframework.validation.annotation.Validated;
  *
  * <p>As of Spring 5.0, this functionality requires a Bean Validation 1.1 provider.
  *
+ * <p>As of Spring 5.3, the constraint metadata of each method is looked up once
+ * and cached along with its validation groups, with methods that have neither
+ * constrained parameters nor a constrained return value proceeding without
+ * any validation.
+ *
  * @author Juergen Hoeller
  * @since 3.1
  * @see MethodValidationPostProcessor
@@ -61,6 +70,8 @@ public class MethodValidationInterceptor implements MethodInterceptor {
 
 	private final Validator validator;
 
+	private final Map<MethodClassKey, MethodValidationMetadata> metadataCache = new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Create a new MethodValidationInterceptor using a default JSR-303 validator underneath.
@@ -89,8 +100,8 @@ public class MethodValidationInterceptor implements MethodInterceptor {
 	@Override
 	@SuppressWarnings("unchecked")
 	public Object invoke(MethodInvocation invocation) throws Throwable {
-		// Avoid Validator invocation on FactoryBean.getObjectType/isSingleton
-		if (isFactoryBeanMetadataMethod(invocation.getMethod())) {
+		MethodValidationMetadata metadata = getMetadata(invocation);
+		if (!metadata.isConstrained()) {
 			return invocation.proceed();
 		}
 
@@ -98,35 +109,89 @@ public class MethodValidationInterceptor implements MethodInterceptor {
 
 		// Standard Bean Validation 1.1 API
 		ExecutableValidator execVal = this.validator.forExecutables();
-		Method methodToValidate = invocation.getMethod();
+		Method methodToValidate = metadata.getMethodToValidate(invocation.getMethod());
 		Set<ConstraintViolation<Object>> result;
 
-		try {
-			result = execVal.validateParameters(
-					invocation.getThis(), methodToValidate, invocation.getArguments(), groups);
-		}
-		catch (IllegalArgumentException ex) {
-			// Probably a generic type mismatch between interface and impl as reported in SPR-12237 / HV-1011
-			// Let's try to find the bridged method on the implementation class...
-			methodToValidate = BridgeMethodResolver.findBridgedMethod(
-					ClassUtils.getMostSpecificMethod(invocation.getMethod(), invocation.getThis().getClass()));
-			result = execVal.validateParameters(
-					invocation.getThis(), methodToValidate, invocation.getArguments(), groups);
-		}
-		if (!result.isEmpty()) {
-			throw new ConstraintViolationException(result);
+		if (metadata.parametersConstrained) {
+			try {
+				result = execVal.validateParameters(
+						invocation.getThis(), methodToValidate, invocation.getArguments(), groups);
+			}
+			catch (IllegalArgumentException ex) {
+				if (methodToValidate == metadata.bridgedMethod) {
+					throw ex;
+				}
+				// Probably a generic type mismatch between interface and impl as reported in SPR-12237 / HV-1011
+				// Let's use the bridged method on the implementation class from now on...
+				metadata.useBridgedMethod = true;
+				methodToValidate = metadata.bridgedMethod;
+				result = execVal.validateParameters(
+						invocation.getThis(), methodToValidate, invocation.getArguments(), groups);
+			}
+			if (!result.isEmpty()) {
+				throw new ConstraintViolationException(result);
+			}
 		}
 
 		Object returnValue = invocation.proceed();
 
-		result = execVal.validateReturnValue(invocation.getThis(), methodToValidate, returnValue, groups);
-		if (!result.isEmpty()) {
-			throw new ConstraintViolationException(result);
+		if (metadata.returnValueConstrained) {
+			try {
+				result = execVal.validateReturnValue(invocation.getThis(), methodToValidate, returnValue, groups);
+			}
+			catch (IllegalArgumentException ex) {
+				if (methodToValidate == metadata.bridgedMethod) {
+					throw ex;
+				}
+				metadata.useBridgedMethod = true;
+				methodToValidate = metadata.bridgedMethod;
+				result = execVal.validateReturnValue(invocation.getThis(), methodToValidate, returnValue, groups);
+			}
+			if (!result.isEmpty()) {
+				throw new ConstraintViolationException(result);
+			}
 		}
 
 		return returnValue;
 	}
 
+	/**
+	 * Return the cached validation metadata for the method of the given invocation,
+	 * looking up its constraints on first invocation.
+	 */
+	private MethodValidationMetadata getMetadata(MethodInvocation invocation) {
+		Method method = invocation.getMethod();
+		Object target = invocation.getThis();
+		Class<?> targetClass = (target != null ? target.getClass() : method.getDeclaringClass());
+		MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+		MethodValidationMetadata metadata = this.metadataCache.get(cacheKey);
+		if (metadata == null) {
+			metadata = buildMetadata(method, targetClass);
+			this.metadataCache.put(cacheKey, metadata);
+		}
+		return metadata;
+	}
+
+	private MethodValidationMetadata buildMetadata(Method method, Class<?> targetClass) {
+		Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(
+				ClassUtils.getMostSpecificMethod(method, targetClass));
+		// Avoid Validator invocation on FactoryBean.getObjectType/isSingleton
+		if (isFactoryBeanMetadataMethod(method)) {
+			return new MethodValidationMetadata(bridgedMethod, new Class<?>[0], false, false);
+		}
+		MethodDescriptor descriptor = this.validator.getConstraintsForClass(targetClass)
+				.getConstraintsForMethod(bridgedMethod.getName(), bridgedMethod.getParameterTypes());
+		if (descriptor == null && bridgedMethod != method) {
+			descriptor = this.validator.getConstraintsForClass(method.getDeclaringClass())
+					.getConstraintsForMethod(method.getName(), method.getParameterTypes());
+		}
+		if (descriptor == null) {
+			return new MethodValidationMetadata(bridgedMethod, new Class<?>[0], false, false);
+		}
+		return new MethodValidationMetadata(bridgedMethod, resolveValidationGroups(method, targetClass),
+				descriptor.hasConstrainedParameters(), descriptor.hasConstrainedReturnValue());
+	}
+
 	private boolean isFactoryBeanMetadataMethod(Method method) {
 		Class<?> clazz = method.getDeclaringClass();
 
@@ -156,11 +221,49 @@ public class MethodValidationInterceptor implements MethodInterceptor {
 	 * @return the applicable validation groups as a Class array
 	 */
 	protected Class<?>[] determineValidationGroups(MethodInvocation invocation) {
-		Validated validatedAnn = AnnotationUtils.findAnnotation(invocation.getMethod(), Validated.class);
+		return getMetadata(invocation).groups;
+	}
+
+	private Class<?>[] resolveValidationGroups(Method method, Class<?> targetClass) {
+		Validated validatedAnn = AnnotationUtils.findAnnotation(method, Validated.class);
 		if (validatedAnn == null) {
-			validatedAnn = AnnotationUtils.findAnnotation(invocation.getThis().getClass(), Validated.class);
+			validatedAnn = AnnotationUtils.findAnnotation(targetClass, Validated.class);
 		}
 		return (validatedAnn != null ? validatedAnn.value() : new Class<?>[0]);
 	}
 
+
+	/**
+	 * Validation metadata for a specific method on a specific target class.
+	 */
+	private static class MethodValidationMetadata {
+
+		final Method bridgedMethod;
+
+		final Class<?>[] groups;
+
+		final boolean parametersConstrained;
+
+		final boolean returnValueConstrained;
+
+		volatile boolean useBridgedMethod;
+
+		MethodValidationMetadata(Method bridgedMethod, Class<?>[] groups,
+				boolean parametersConstrained, boolean returnValueConstrained) {
+
+			this.bridgedMethod = bridgedMethod;
+			this.groups = groups;
+			this.parametersConstrained = parametersConstrained;
+			this.returnValueConstrained = returnValueConstrained;
+		}
+
+		boolean isConstrained() {
+			return (this.parametersConstrained || this.returnValueConstrained);
+		}
+
+		Method getMethodToValidate(Method method) {
+			return (this.useBridgedMethod ? this.bridgedMethod : method);
+		}
+	}
+
 }
@@ -378,6 +378,42 @@ public abstract class AbstractAopProxyTests {
 		assertThat(di.getCount()).as("3 more invocations via AOP as the first call was reentrant through the proxy").isEqualTo(4);
 	}
 
+	@Test
+	public void testTargetCanGetProxyWhenFrozen() {
+		NopInterceptor di = new NopInterceptor();
+		INeedsToSeeProxy target = new TargetChecker();
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.setExposeProxy(true);
+		proxyFactory.addAdvice(di);
+		proxyFactory.setFrozen(true);
+		INeedsToSeeProxy proxied = (INeedsToSeeProxy) createProxy(proxyFactory);
+
+		proxied.incrementViaProxy();
+		assertThat(target.getCount()).as("Increment happened").isEqualTo(1);
+		assertThat(di.getCount()).as("Reentrant call through the proxy").isEqualTo(2);
+		assertThatIllegalStateException().as("Proxy exposed during invocation only").isThrownBy(
+				AopContext::currentProxy);
+	}
+
+	@Test
+	public void testFrozenProxyAppliesAdvicePerMethod() {
+		TestBean target = new TestBean();
+		target.setAge(27);
+		NopInterceptor di = new NopInterceptor();
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new NameMatchMethodPointcut().addMethodName("getAge"), di));
+		proxyFactory.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(proxyFactory);
+
+		assertThat(proxied.getAge()).isEqualTo(27);
+		assertThat(di.getCount()).isEqualTo(1);
+		proxied.setName("name");
+		assertThat(proxied.getName()).isEqualTo("name");
+		assertThat(di.getCount()).isEqualTo(1);
+		assertThat(proxied.getAge()).isEqualTo(27);
+		assertThat(di.getCount()).isEqualTo(2);
+	}
+
 	@Test
 	// Should fail to get proxy as exposeProxy wasn't set to true
 	public void testTargetCantGetProxyByDefault() {
@@ -16,7 +16,10 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -87,6 +90,27 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testCacheGetAllPutAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "george");
+		entries.put(key2, null);
+
+		assertThat(cache.getAll(Arrays.asList(key1, key2, key3))).isEmpty();
+		cache.putAll(entries);
+		assertThat(cache.get(key1).get()).isEqualTo("george");
+		Map<Object, Cache.ValueWrapper> values = cache.getAll(Arrays.asList(key3, key2, key1));
+		assertThat(values).containsOnlyKeys(key2, key1);
+		assertThat(values.keySet()).containsExactly(key2, key1);
+		assertThat(values.get(key1).get()).isEqualTo("george");
+		assertThat(values.get(key2).get()).isNull();
+	}
+
 	@Test
 	public void testCacheRemove() throws Exception {
 		T cache = getCache();
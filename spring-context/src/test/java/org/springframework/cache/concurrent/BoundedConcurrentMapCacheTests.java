@@ -0,0 +1,304 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.AbstractValueAdaptingCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BoundedConcurrentMapCache}.
+ */
+public class BoundedConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	private final MutableClock clock = new MutableClock();
+
+	private final ConcurrentMapCacheConfiguration configuration =
+			ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(1000).withClock(this.clock);
+
+	private BoundedConcurrentMapCache cache;
+
+	private BoundedConcurrentMapCache cacheNoNull;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, this.configuration);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, this.configuration, false);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected ConcurrentMap<Object, Object> getNativeCache() {
+		return this.cache.getNativeCache();
+	}
+
+
+	@Test
+	public void maximumSize() {
+		BoundedConcurrentMapCache cache = createCache(
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(10));
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "value" + i);
+		}
+		assertThat(cache.getEstimatedSize()).isEqualTo(10);
+		assertThat(cache.getStatistics().getEvictionCount()).isEqualTo(90);
+		for (int i = 90; i < 100; i++) {
+			assertThat(cache.get(i, String.class)).isEqualTo("value" + i);
+		}
+	}
+
+	@Test
+	public void maximumSizeKeepsFrequentlyUsedEntries() {
+		BoundedConcurrentMapCache cache = createCache(
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(10));
+		cache.put("hot", "value");
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "value" + i);
+			assertThat(cache.get("hot")).isNotNull();
+		}
+		assertThat(cache.getEstimatedSize()).isEqualTo(10);
+		assertThat(cache.get("hot", String.class)).isEqualTo("value");
+	}
+
+	@Test
+	public void maximumSizeWithValueLoader() {
+		BoundedConcurrentMapCache cache = createCache(
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(5));
+		for (int i = 0; i < 20; i++) {
+			int value = i;
+			cache.get(i, () -> value);
+		}
+		assertThat(cache.getEstimatedSize()).isEqualTo(5);
+	}
+
+	@Test
+	public void expireAfterWrite() {
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterWrite(Duration.ofSeconds(10)).withClock(this.clock));
+		cache.put("key", "value");
+		this.clock.advance(Duration.ofSeconds(5));
+		assertThat(cache.get("key", String.class)).isEqualTo("value");
+		this.clock.advance(Duration.ofSeconds(5));
+		assertThat(cache.get("key")).isNull();
+		assertThat(cache.getEstimatedSize()).isEqualTo(0);
+		assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void expireAfterAccess() {
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterAccess(Duration.ofSeconds(10)).withClock(this.clock));
+		cache.put("key", "value");
+		for (int i = 0; i < 5; i++) {
+			this.clock.advance(Duration.ofSeconds(5));
+			assertThat(cache.get("key", String.class)).isEqualTo("value");
+		}
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(cache.get("key")).isNull();
+	}
+
+	@Test
+	public void expiredEntryReloaded() {
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterWrite(Duration.ofSeconds(10)).withClock(this.clock));
+		assertThat(cache.get("key", () -> "value1")).isEqualTo("value1");
+		assertThat(cache.get("key", () -> "value2")).isEqualTo("value1");
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(cache.get("key", () -> "value2")).isEqualTo("value2");
+		assertThat(cache.putIfAbsent("key", "value3").get()).isEqualTo("value2");
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(cache.putIfAbsent("key", "value3")).isNull();
+		assertThat(cache.get("key", String.class)).isEqualTo("value3");
+	}
+
+	@Test
+	public void refreshAhead() {
+		List<Runnable> refreshes = new ArrayList<>();
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterWrite(Duration.ofSeconds(10)).withRefreshAhead(Duration.ofSeconds(2))
+				.withRefreshExecutor(refreshes::add).withClock(this.clock));
+		assertThat(cache.get("key", () -> "value1")).isEqualTo("value1");
+		this.clock.advance(Duration.ofSeconds(7));
+		assertThat(cache.get("key", () -> "value2")).isEqualTo("value1");
+		assertThat(refreshes).isEmpty();
+
+		this.clock.advance(Duration.ofSeconds(1));
+		assertThat(cache.get("key", () -> "value2")).isEqualTo("value1");
+		assertThat(cache.get("key", () -> "value3")).isEqualTo("value1");
+		assertThat(refreshes).hasSize(1);
+		refreshes.get(0).run();
+		assertThat(cache.get("key", String.class)).isEqualTo("value2");
+
+		this.clock.advance(Duration.ofSeconds(5));
+		assertThat(cache.get("key", String.class)).isEqualTo("value2");
+		assertThat(cache.getStatistics().getLoadSuccessCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void refreshAheadFailureKeepsCurrentValue() {
+		List<Runnable> refreshes = new ArrayList<>();
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterWrite(Duration.ofSeconds(10)).withRefreshAhead(Duration.ofSeconds(2))
+				.withRefreshExecutor(refreshes::add).withClock(this.clock));
+		cache.get("key", () -> "value1");
+		this.clock.advance(Duration.ofSeconds(9));
+		Callable<String> failingLoader = () -> {
+			throw new IllegalStateException("Test exception");
+		};
+		assertThat(cache.get("key", failingLoader)).isEqualTo("value1");
+		refreshes.get(0).run();
+		assertThat(cache.get("key", String.class)).isEqualTo("value1");
+		assertThat(cache.getStatistics().getLoadFailureCount()).isEqualTo(1);
+
+		assertThat(cache.get("key", () -> "value2")).isEqualTo("value1");
+		assertThat(refreshes).hasSize(2);
+		refreshes.get(1).run();
+		assertThat(cache.get("key", String.class)).isEqualTo("value2");
+	}
+
+	@Test
+	public void refreshAheadRequiresLongerExpireAfterWrite() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+						.withRefreshAhead(Duration.ofSeconds(2))));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+						.withExpireAfterWrite(Duration.ofSeconds(2)).withRefreshAhead(Duration.ofSeconds(2))));
+	}
+
+	@Test
+	public void expiredEntriesRemovedOnWrite() {
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterWrite(Duration.ofSeconds(10)).withClock(this.clock));
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "value" + i);
+		}
+		this.clock.advance(Duration.ofSeconds(10));
+		cache.put("key", "value");
+		assertThat(cache.getEstimatedSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void cleanUp() {
+		BoundedConcurrentMapCache cache = createCache(ConcurrentMapCacheConfiguration.defaultCacheConfig()
+				.withExpireAfterAccess(Duration.ofSeconds(10)).withClock(this.clock));
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "value" + i);
+		}
+		this.clock.advance(Duration.ofSeconds(5));
+		cache.get(42);
+		this.clock.advance(Duration.ofSeconds(5));
+		cache.cleanUp();
+		assertThat(cache.getEstimatedSize()).isEqualTo(1);
+		assertThat(cache.getStatistics().getExpirationCount()).isEqualTo(99);
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put("key", "value");
+		this.cache.get("key");
+		this.cache.get("key");
+		this.cache.get("missing");
+		this.cache.get("loaded", () -> "value");
+		this.cache.get("loaded", () -> "value");
+		assertThatExceptionOfType(Cache.ValueRetrievalException.class).isThrownBy(() ->
+				this.cache.get("failed", () -> {
+					throw new IllegalStateException("Test exception");
+				}));
+
+		ConcurrentMapCacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(3);
+		assertThat(statistics.getMissCount()).isEqualTo(3);
+		assertThat(statistics.getHitRate()).isEqualTo(0.5);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(1);
+		assertThat(statistics.getTotalLoadTime()).isGreaterThan(0);
+		assertThat(statistics.getEvictionCount()).isEqualTo(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void storeByValue() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, this.configuration, true,
+				new SerializationDelegate(BoundedConcurrentMapCacheTests.class.getClassLoader()));
+		assertThat(cache.isStoreByValue()).isTrue();
+
+		List<String> content = new ArrayList<>(Arrays.asList("one", "two", "three"));
+		cache.put("key", content);
+		content.remove(0);
+		assertThat((List<String>) cache.get("key").get()).containsExactly("one", "two", "three");
+	}
+
+
+	private BoundedConcurrentMapCache createCache(ConcurrentMapCacheConfiguration configuration) {
+		return new BoundedConcurrentMapCache(CACHE_NAME, configuration);
+	}
+
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant = Instant.ofEpochMilli(0);
+
+		void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
@@ -140,4 +143,26 @@ public class ConcurrentMapCacheManagerTests {
 		assertThat(cache1x.get("key")).isNull();
 	}
 
+	@Test
+	public void testCacheConfigurations() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		Cache cache1 = cm.getCache("c1");
+		assertThat(cache1).isNotInstanceOf(BoundedConcurrentMapCache.class);
+
+		ConcurrentMapCacheConfiguration defaultConfig =
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(100);
+		ConcurrentMapCacheConfiguration c2Config =
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withExpireAfterWrite(Duration.ofMinutes(1));
+		cm.setCacheConfiguration(defaultConfig);
+		cm.setCacheConfigurations(Collections.singletonMap("c2", c2Config));
+
+		Cache cache1x = cm.getCache("c1");
+		assertThat(cache1x).isNotSameAs(cache1).isInstanceOf(BoundedConcurrentMapCache.class);
+		assertThat(((BoundedConcurrentMapCache) cache1x).getConfiguration()).isEqualTo(defaultConfig);
+		Cache cache2 = cm.getCache("c2");
+		assertThat(cache2).isInstanceOf(BoundedConcurrentMapCache.class);
+		assertThat(((BoundedConcurrentMapCache) cache2).getConfiguration()).isEqualTo(c2Config);
+		assertThat(cm.getCacheConfiguration("c3")).isEqualTo(defaultConfig);
+	}
+
 }
@@ -19,8 +19,15 @@ package org.springframework.cache.concurrent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -78,6 +85,87 @@ public class ConcurrentMapCacheTests
 		assertThat(this.cache.isStoreByValue()).isFalse();
 	}
 
+	@Test
+	public void testCacheGetCallableCoalescesConcurrentLoads() throws Exception {
+		String key = createRandomKey();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> first = executor.submit(() -> this.cache.get(key, () -> {
+				loadCount.incrementAndGet();
+				loading.countDown();
+				release.await();
+				return "value";
+			}));
+			loading.await();
+			Future<Object> second = executor.submit(() -> this.cache.get(key, () -> {
+				loadCount.incrementAndGet();
+				return "anotherValue";
+			}));
+			// Loading another key is not blocked by the load in progress
+			assertThat(this.cache.get(createRandomKey(), () -> "otherValue")).isEqualTo("otherValue");
+			release.countDown();
+
+			assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+			assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+			assertThat(loadCount.get()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCacheRetrieve() throws Exception {
+		String key = createRandomKey();
+		assertThat(this.cache.retrieve(key).get()).isNull();
+
+		this.cache.put(key, "value");
+		assertThat(this.cache.retrieve(key).get().get()).isEqualTo("value");
+		assertThat(this.cache.retrieve(key, () -> CompletableFuture.completedFuture("anotherValue")).get())
+				.isEqualTo("value");
+	}
+
+	@Test
+	public void testCacheRetrieveWithLoaderCoalescesConcurrentLoads() throws Exception {
+		String key = createRandomKey();
+		CompletableFuture<String> load = new CompletableFuture<>();
+		AtomicInteger loadCount = new AtomicInteger();
+
+		CompletableFuture<String> first = this.cache.retrieve(key, () -> {
+			loadCount.incrementAndGet();
+			return load;
+		});
+		CompletableFuture<String> second = this.cache.retrieve(key, () -> {
+			loadCount.incrementAndGet();
+			return CompletableFuture.completedFuture("anotherValue");
+		});
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+		assertThat(this.cache.get(key)).isNull();
+
+		load.complete("value");
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(loadCount.get()).isEqualTo(1);
+		assertThat(this.cache.get(key).get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testCacheRetrieveWithLoaderDoesNotStoreFailure() {
+		String key = createRandomKey();
+		CompletableFuture<String> load = new CompletableFuture<>();
+		CompletableFuture<String> result = this.cache.retrieve(key, () -> load);
+
+		load.completeExceptionally(new IllegalStateException("Expected failure"));
+		assertThat(result).isCompletedExceptionally();
+		assertThat(this.cache.get(key)).isNull();
+		assertThat(this.cache.retrieve(key, () -> CompletableFuture.completedFuture("value")).join())
+				.isEqualTo("value");
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testSerializer() {
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for the caching of asynchronous results, i.e. {@link CompletableFuture}
+ * and {@link Mono} return types, as opposed to {@link Flux} return types.
+ */
+public class CacheAsyncTests {
+
+	private ConfigurableApplicationContext context;
+
+	private AsyncService service;
+
+	private Cache cache;
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void completableFutureValueIsCached() throws Exception {
+		CompletableFuture<Object> first = this.service.findFuture("key");
+		assertThat(first).isNotDone();
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.complete("key", "value");
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(this.service.findFuture("key").get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void completableFutureFailureIsNotCached() throws Exception {
+		CompletableFuture<Object> first = this.service.findFuture("key");
+		this.service.fail("key", new IllegalStateException("Expected failure"));
+		assertThat(first).isCompletedExceptionally();
+		assertThat(this.cache.get("key")).isNull();
+
+		CompletableFuture<Object> second = this.service.findFuture("key");
+		this.service.complete("key", "value");
+		assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void completableFutureCancellationIsNotCached() {
+		CompletableFuture<Object> first = this.service.findFuture("key");
+		this.service.getPending("key").cancel(true);
+		assertThat(first).isCompletedExceptionally();
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void cancellingCallerFutureDoesNotAffectOtherCallers() throws Exception {
+		this.context.getBean(CacheInterceptor.class).setCoalesceInvocations(true);
+		CompletableFuture<Object> first = this.service.findFuture("key");
+		CompletableFuture<Object> second = this.service.findFuture("key");
+		first.cancel(true);
+
+		this.service.complete("key", "value");
+		assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void concurrentCompletableFutureMissesShareInvocation() throws Exception {
+		this.context.getBean(CacheInterceptor.class).setCoalesceInvocations(true);
+		CompletableFuture<Object> first = this.service.findFuture("key");
+		CompletableFuture<Object> second = this.service.findFuture("key");
+		CompletableFuture<Object> other = this.service.findFuture("anotherKey");
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+
+		this.service.complete("key", "value");
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(other).isNotDone();
+	}
+
+	@Test
+	public void syncCompletableFutureValueIsCached() throws Exception {
+		CompletableFuture<Object> first = this.service.findFutureSync("key");
+		CompletableFuture<Object> second = this.service.findFutureSync("key");
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+
+		this.service.complete("key", "value");
+		assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void cachePutStoresCompletableFutureValue() throws Exception {
+		this.service.updateFuture("key", "value").get(10, TimeUnit.SECONDS);
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(this.service.findFuture("key").get(10, TimeUnit.SECONDS)).isEqualTo("value");
+		assertThat(this.service.getInvocationCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void monoIsDeferredAndItsValueCached() {
+		Mono<Object> mono = this.service.findMono("key");
+		assertThat(this.service.getInvocationCount()).isEqualTo(0);
+
+		assertThat(mono.block(Duration.ofSeconds(10))).isEqualTo("key-1");
+		assertThat(this.cache.get("key").get()).isEqualTo("key-1");
+		assertThat(this.service.findMono("key").block(Duration.ofSeconds(10))).isEqualTo("key-1");
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void monoErrorIsNotCached() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.findFailingMono("key").block(Duration.ofSeconds(10)));
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void fluxIsNotBuffered() {
+		Flux<Object> flux = this.service.findFlux("key");
+		List<Object> values = flux.take(3).collectList().block(Duration.ofSeconds(10));
+		assertThat(values).containsExactly("key-1", "key-2", "key-3");
+		assertThat(this.cache.get("key").get()).isSameAs(flux);
+
+		assertThat(this.service.findFlux("key")).isSameAs(flux);
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+	}
+
+
+	static class AsyncService {
+
+		private final AtomicInteger invocationCount = new AtomicInteger();
+
+		private final ConcurrentMap<Object, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+
+		@Cacheable("testCache")
+		public CompletableFuture<Object> findFuture(Object key) {
+			return newPending(key);
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<Object> findFutureSync(Object key) {
+			return newPending(key);
+		}
+
+		@CachePut(cacheNames = "testCache", key = "#key")
+		public CompletableFuture<Object> updateFuture(Object key, Object value) {
+			return CompletableFuture.completedFuture(value);
+		}
+
+		@Cacheable("testCache")
+		public Mono<Object> findMono(Object key) {
+			int invocation = this.invocationCount.incrementAndGet();
+			return Mono.just(key + "-" + invocation);
+		}
+
+		@Cacheable("testCache")
+		public Mono<Object> findFailingMono(Object key) {
+			this.invocationCount.incrementAndGet();
+			return Mono.error(new IllegalStateException("Expected failure"));
+		}
+
+		@Cacheable("testCache")
+		public Flux<Object> findFlux(Object key) {
+			this.invocationCount.incrementAndGet();
+			return Flux.range(1, Integer.MAX_VALUE).map(i -> key + "-" + i);
+		}
+
+		public void complete(Object key, Object value) {
+			getPending(key).complete(value);
+		}
+
+		public void fail(Object key, Throwable ex) {
+			getPending(key).completeExceptionally(ex);
+		}
+
+		public CompletableFuture<Object> getPending(Object key) {
+			return this.pending.remove(key);
+		}
+
+		public int getInvocationCount() {
+			return this.invocationCount.get();
+		}
+
+		private CompletableFuture<Object> newPending(Object key) {
+			this.invocationCount.incrementAndGet();
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			this.pending.put(key, future);
+			return future;
+		}
+	}
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache");
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+}
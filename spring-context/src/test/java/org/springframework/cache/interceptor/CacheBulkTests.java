@@ -0,0 +1,261 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.springframework.cache.CacheTestUtils.assertCacheHit;
+import static org.springframework.cache.CacheTestUtils.assertCacheMiss;
+
+/**
+ * Tests for {@link Cacheable#bulk()}.
+ */
+public class CacheBulkTests {
+
+	private ConfigurableApplicationContext context;
+
+	private BulkService service;
+
+	private Cache cache;
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BulkService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void missingKeysAreLoadedAndCachedIndividually() {
+		Map<Long, String> result = this.service.find(Arrays.asList(1L, 2L));
+		assertThat(result).containsExactly(entry(1L, "v1"), entry(2L, "v2"));
+		assertThat(this.service.getInvocations()).containsExactly(Arrays.asList(1L, 2L));
+		assertCacheHit(1L, "v1", this.cache);
+		assertCacheHit(2L, "v2", this.cache);
+	}
+
+	@Test
+	public void partialHitOnlyLoadsMissingKeys() {
+		this.cache.put(2L, "cached2");
+
+		Map<Long, String> result = this.service.find(Arrays.asList(1L, 2L, 3L));
+		assertThat(result).containsExactly(entry(1L, "v1"), entry(2L, "cached2"), entry(3L, "v3"));
+		assertThat(this.service.getInvocations()).containsExactly(Arrays.asList(1L, 3L));
+		assertCacheHit(3L, "v3", this.cache);
+	}
+
+	@Test
+	public void fullHitDoesNotInvokeMethod() {
+		this.service.find(Arrays.asList(1L, 2L));
+		this.service.getInvocations().clear();
+
+		Map<Long, String> result = this.service.find(Arrays.asList(2L, 1L));
+		assertThat(result).containsExactly(entry(2L, "v2"), entry(1L, "v1"));
+		assertThat(this.service.getInvocations()).isEmpty();
+	}
+
+	@Test
+	public void missingKeysKeepDeclaredCollectionType() {
+		this.cache.put(1L, "cached1");
+
+		Map<Long, String> result = this.service.findSet(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+		assertThat(result).containsExactly(entry(1L, "cached1"), entry(2L, "v2"));
+		assertThat(this.service.getInvocations()).hasSize(1);
+		assertThat(this.service.getInvocations().get(0)).isInstanceOf(Set.class).containsExactly(2L);
+	}
+
+	@Test
+	public void keysAbsentFromResultAreNotCached() {
+		Map<Long, String> result = this.service.find(Arrays.asList(1L, 404L));
+		assertThat(result).containsExactly(entry(1L, "v1"));
+		assertCacheMiss(404L, this.cache);
+	}
+
+	@Test
+	public void unlessIsEvaluatedPerValue() {
+		Map<Long, String> result = this.service.findUnless(Arrays.asList(1L, 20L));
+		assertThat(result).containsExactly(entry(1L, "v1"), entry(20L, "v20"));
+		assertCacheHit(1L, "v1", this.cache);
+		assertCacheMiss(20L, this.cache);
+	}
+
+	@Test
+	public void conditionNotPassingBypassesCache() {
+		this.cache.put(1L, "cached1");
+
+		Map<Long, String> result = this.service.findConditional(Arrays.asList(1L, 2L), false);
+		assertThat(result).containsExactly(entry(1L, "v1"), entry(2L, "v2"));
+		assertCacheMiss(2L, this.cache);
+	}
+
+	@Test
+	public void bulkWithSync() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.bulkWithSync(Arrays.asList(1L)))
+			.withMessageContaining("@Cacheable(bulk=true) cannot be combined with sync=true");
+	}
+
+	@Test
+	public void bulkWithAnotherOperation() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.bulkWithAnotherOperation(Arrays.asList(1L)))
+			.withMessageContaining("@Cacheable(bulk=true) cannot be combined with other cache operations");
+	}
+
+	@Test
+	public void bulkWithKey() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.bulkWithKey(Arrays.asList(1L)))
+			.withMessageContaining("@Cacheable(bulk=true) does not support key attribute");
+	}
+
+	@Test
+	public void bulkWithoutMapReturnType() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.bulkWithoutMapReturnType(Arrays.asList(1L)))
+			.withMessageContaining("@Cacheable(bulk=true) requires a Map return type");
+	}
+
+	@Test
+	public void bulkWithoutCollectionParameter() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.bulkWithoutCollectionParameter(1L))
+			.withMessageContaining("@Cacheable(bulk=true) requires a Collection parameter");
+	}
+
+
+	private static Map.Entry<Long, String> entry(Long key, String value) {
+		return new AbstractMap.SimpleEntry<>(key, value);
+	}
+
+
+	static class BulkService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> find(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> findSet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, unless = "#result.length() > 2")
+		public Map<Long, String> findUnless(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, condition = "#useCache")
+		public Map<Long, String> findConditional(List<Long> ids, boolean useCache) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, sync = true)
+		public Map<Long, String> bulkWithSync(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		@CacheEvict(cacheNames = "anotherTestCache", allEntries = true)
+		public Map<Long, String> bulkWithAnotherOperation(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true, key = "#ids")
+		public Map<Long, String> bulkWithKey(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Object bulkWithoutMapReturnType(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", bulk = true)
+		public Map<Long, String> bulkWithoutCollectionParameter(Long id) {
+			return load(Arrays.asList(id));
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id != 404L) {
+					result.put(id, "v" + id);
+				}
+			}
+			return result;
+		}
+	}
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache", "anotherTestCache");
+		}
+
+		@Bean
+		public BulkService bulkService() {
+			return new BulkService();
+		}
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheTestUtils;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the coalescing of concurrent invocations that miss the same
+ * cache entries.
+ *
+ * @see CacheAspectSupport#setCoalesceInvocations(boolean)
+ */
+public class CacheInvocationCoalescingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private SlowService service;
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SlowService.class);
+		this.context.getBean(CacheInterceptor.class).setCoalesceInvocations(true);
+	}
+
+	@AfterEach
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void concurrentMissesShareInvocation() throws Exception {
+		AtomicReference<Object> first = invokeAsync(() -> this.service.find("key"), 1);
+		AtomicReference<Object> second = new AtomicReference<>();
+		Thread waiting = startWaiting(() -> this.service.find("key"), second);
+
+		this.service.release();
+		waiting.join(10_000);
+		assertThat(first.get()).isEqualTo(1);
+		assertThat(second.get()).isEqualTo(1);
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+		assertThat(this.service.find("key")).isEqualTo(1);
+	}
+
+	@Test
+	public void concurrentMissesShareInvocationAcrossSeveralCaches() throws Exception {
+		AtomicReference<Object> first = invokeAsync(() -> this.service.findInSeveralCaches("key"), 1);
+		AtomicReference<Object> second = new AtomicReference<>();
+		Thread waiting = startWaiting(() -> this.service.findInSeveralCaches("key"), second);
+
+		this.service.release();
+		waiting.join(10_000);
+		assertThat(first.get()).isEqualTo(1);
+		assertThat(second.get()).isEqualTo(1);
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void concurrentMissesForDifferentKeysDoNotWait() throws Exception {
+		invokeAsync(() -> this.service.find("key"), 1);
+		AtomicReference<Object> other = invokeAsync(() -> this.service.find("anotherKey"), 2);
+
+		this.service.release();
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+		assertThat(other.get()).isNotNull();
+	}
+
+	@Test
+	public void coalescingDisabledByDefault() {
+		assertThat(new CacheInterceptor().isCoalesceInvocations()).isFalse();
+	}
+
+	@Test
+	public void coalescingDisabled() throws Exception {
+		this.context.getBean(CacheInterceptor.class).setCoalesceInvocations(false);
+		invokeAsync(() -> this.service.find("key"), 1);
+		invokeAsync(() -> this.service.find("key"), 2);
+
+		this.service.release();
+		assertThat(this.service.getInvocationCount()).isEqualTo(2);
+	}
+
+
+	/**
+	 * Invoke the given action in a new thread, waiting until the underlying method
+	 * has been entered the given number of times overall.
+	 */
+	private AtomicReference<Object> invokeAsync(Action action, int expectedInvocationCount)
+			throws InterruptedException {
+
+		AtomicReference<Object> result = new AtomicReference<>();
+		Thread thread = new Thread(() -> result.set(action.invoke()));
+		thread.setDaemon(true);
+		thread.start();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (this.service.getInvocationCount() < expectedInvocationCount &&
+				System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(this.service.getInvocationCount()).isEqualTo(expectedInvocationCount);
+		return result;
+	}
+
+	/**
+	 * Invoke the given action in a new thread, waiting until that thread is blocked
+	 * on the invocation in progress.
+	 */
+	private Thread startWaiting(Action action, AtomicReference<Object> result) throws InterruptedException {
+		Thread thread = new Thread(() -> result.set(action.invoke()));
+		thread.setDaemon(true);
+		thread.start();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+		assertThat(this.service.getInvocationCount()).isEqualTo(1);
+		return thread;
+	}
+
+
+	@FunctionalInterface
+	private interface Action {
+
+		Object invoke();
+	}
+
+
+	static class SlowService {
+
+		private final AtomicInteger invocationCount = new AtomicInteger();
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		@Cacheable("testCache")
+		public Object find(Object key) {
+			return await();
+		}
+
+		@Caching(cacheable = {
+				@Cacheable("testCache"),
+				@Cacheable("anotherTestCache")
+		})
+		public Object findInSeveralCaches(Object key) {
+			return await();
+		}
+
+		public void release() throws InterruptedException {
+			this.latch.countDown();
+			Thread.sleep(50);
+		}
+
+		public int getInvocationCount() {
+			return this.invocationCount.get();
+		}
+
+		private Object await() {
+			int invocation = this.invocationCount.incrementAndGet();
+			try {
+				this.latch.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return invocation;
+		}
+	}
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return CacheTestUtils.createSimpleCacheManager("testCache", "anotherTestCache");
+		}
+
+		@Bean
+		public SlowService slowService() {
+			return new SlowService();
+		}
+	}
+
+}
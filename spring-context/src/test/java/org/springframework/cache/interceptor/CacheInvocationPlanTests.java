@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the invocation plans that {@link CacheAspectSupport} precomputes
+ * per method and target class, including the fast path for cache hits.
+ */
+public class CacheInvocationPlanTests {
+
+	private final CacheManager cacheManager = new ConcurrentMapCacheManager("testCache");
+
+	private final CountingCacheOperationSource cacheOperationSource = new CountingCacheOperationSource();
+
+
+	@Test
+	public void operationsAreDeterminedOnce() {
+		SimpleService service = createProxy(new CacheInterceptor());
+		Object value = service.get(1L);
+		assertThat(service.get(1L)).isSameAs(value);
+		assertThat(service.get(2L)).isNotEqualTo(value);
+		service.uncached();
+		service.uncached();
+
+		assertThat(this.cacheOperationSource.getCount("get")).isEqualTo(1);
+		assertThat(this.cacheOperationSource.getCount("uncached")).isEqualTo(1);
+	}
+
+	@Test
+	public void hitsOnFastPath() {
+		SimpleService service = createProxy(new CacheInterceptor());
+		Object value = service.get(1L);
+		assertThat(service.get(1L)).isSameAs(value);
+		assertThat(service.getInvocationCount()).isEqualTo(1);
+
+		assertThat(service.getNull("id")).isNull();
+		assertThat(service.getNull("id")).isNull();
+		assertThat(service.getInvocationCount()).isEqualTo(2);
+
+		Optional<Object> optional = service.getOptional("first", "second");
+		assertThat(optional).isPresent();
+		assertThat(service.getOptional("first", "second")).isEqualTo(optional);
+		assertThat(service.getInvocationCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void customizedOperationContextsDisableFastPath() {
+		AtomicInteger contextCount = new AtomicInteger();
+		SimpleService service = createProxy(new CacheInterceptor() {
+			@Override
+			protected CacheOperationContext getOperationContext(CacheOperation operation, Method method,
+					Object[] args, Object target, Class<?> targetClass) {
+				contextCount.incrementAndGet();
+				return super.getOperationContext(operation, method, args, target, targetClass);
+			}
+		});
+		Object value = service.get(1L);
+		assertThat(service.get(1L)).isSameAs(value);
+		assertThat(contextCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void expressionsBeyondCompilationThreshold() {
+		SimpleService service = createProxy(new CacheInterceptor());
+		// Beyond the threshold for compiling expressions in mixed mode
+		for (int i = 0; i < 250; i++) {
+			Object value = service.getConditionally("key" + (i % 10), i % 2 == 0);
+			Object cached = service.getConditionally("key" + (i % 10), i % 2 == 0);
+			if (i % 2 == 0) {
+				assertThat(cached).isSameAs(value);
+			}
+			else {
+				assertThat(cached).isNotSameAs(value);
+			}
+		}
+		assertThat(this.cacheManager.getCache("testCache").get("prefix-key0").get()).isNotNull();
+		assertThat(this.cacheManager.getCache("testCache").get("prefix-key1")).isNull();
+	}
+
+	private SimpleService createProxy(CacheInterceptor interceptor) {
+		interceptor.setCacheOperationSources(this.cacheOperationSource);
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+		ProxyFactory proxyFactory = new ProxyFactory(new SimpleService());
+		proxyFactory.addAdvice(interceptor);
+		return (SimpleService) proxyFactory.getProxy();
+	}
+
+
+	private static class CountingCacheOperationSource implements CacheOperationSource {
+
+		private final CacheOperationSource delegate = new AnnotationCacheOperationSource();
+
+		private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+		@Override
+		@Nullable
+		public Collection<CacheOperation> getCacheOperations(Method method, @Nullable Class<?> targetClass) {
+			this.counts.computeIfAbsent(method.getName(), key -> new AtomicInteger()).incrementAndGet();
+			return this.delegate.getCacheOperations(method, targetClass);
+		}
+
+		public int getCount(String methodName) {
+			AtomicInteger count = this.counts.get(methodName);
+			return (count != null ? count.get() : 0);
+		}
+	}
+
+
+	public static class SimpleService {
+
+		private final AtomicInteger invocationCount = new AtomicInteger();
+
+		@Cacheable("testCache")
+		public Object get(long id) {
+			this.invocationCount.incrementAndGet();
+			return new Object();
+		}
+
+		@Cacheable("testCache")
+		@Nullable
+		public Object getNull(String id) {
+			this.invocationCount.incrementAndGet();
+			return null;
+		}
+
+		@Cacheable("testCache")
+		public Optional<Object> getOptional(String first, String second) {
+			this.invocationCount.incrementAndGet();
+			return Optional.of(new Object());
+		}
+
+		@Cacheable(cacheNames = "testCache", key = "'prefix-' + #root.args[0]", condition = "#p1")
+		public Object getConditionally(String key, boolean cache) {
+			return new Object();
+		}
+
+		public void uncached() {
+		}
+
+		public int getInvocationCount() {
+			return this.invocationCount.get();
+		}
+	}
+
+}
@@ -33,6 +33,8 @@ import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
@@ -136,6 +138,20 @@ public class ExpressionEvaluatorTests {
 		assertThat(value).isEqualTo(String.class.getName());
 	}
 
+	@Test
+	public void keyExpressionIsCompilable() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey methodKey = new AnnotatedElementKey(method, AnnotatedClass.class);
+		Expression expression = this.eval.getKeyExpression("#root.args[1]", methodKey);
+		assertThat(this.eval.getKeyExpression(expression.getExpressionString(), methodKey)).isSameAs(expression);
+
+		EvaluationContext context = createEvaluationContext(CacheOperationExpressionEvaluator.NO_RESULT);
+		Object key = expression.getValue(context);
+		assertThat(((SpelExpression) expression).compileExpression()).isTrue();
+		assertThat(expression.getValue(context)).isEqualTo(key);
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.export.annotation.AnnotationMBeanExporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link CacheMetricsRegistry}, as fed by the cache interceptor.
+ */
+public class CacheMetricsRegistryTests {
+
+	private final CacheManager cacheManager = new ConcurrentMapCacheManager("testCache", "syncCache");
+
+	private final CacheMetricsRegistry registry = new CacheMetricsRegistry();
+
+
+	@Test
+	public void recordHitsMissesAndPuts() {
+		SimpleService service = createProxy();
+		service.get(1L);
+		service.get(1L);
+		service.get(1L);
+		service.get(2L);
+
+		CacheStatistics statistics = this.registry.getStatistics("testCache");
+		assertThat(statistics.getHitCount()).isEqualTo(2);
+		assertThat(statistics.getMissCount()).isEqualTo(2);
+		assertThat(statistics.getHitRate()).isEqualTo(0.5);
+		assertThat(statistics.getPutCount()).isEqualTo(2);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(2);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(0);
+		assertThat(statistics.getLoadTimeHistogram()).hasSize(CacheStatistics.getLoadTimeBucketBounds().length + 1);
+		assertThat(sum(statistics.getLoadTimeHistogram())).isEqualTo(2);
+		assertThat(this.registry.getCacheNames()).containsExactly("testCache");
+	}
+
+	@Test
+	public void recordEvictionsAndClears() {
+		SimpleService service = createProxy();
+		service.get(1L);
+		service.evict(1L);
+		service.evict(2L);
+		service.clear();
+
+		CacheStatistics statistics = this.registry.getStatistics("testCache");
+		assertThat(statistics.getEvictionCount()).isEqualTo(2);
+		assertThat(statistics.getClearCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void recordLoadFailures() {
+		SimpleService service = createProxy();
+		assertThatIllegalStateException().isThrownBy(() -> service.getOrFail(true));
+		service.getOrFail(false);
+
+		CacheStatistics statistics = this.registry.getStatistics("testCache");
+		assertThat(statistics.getMissCount()).isEqualTo(2);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(1);
+		assertThat(statistics.getAverageLoadPenalty()).isGreaterThan(0);
+	}
+
+	@Test
+	public void recordSynchronizedLookups() {
+		SimpleService service = createProxy();
+		service.getSynchronized(1L);
+		service.getSynchronized(1L);
+
+		CacheStatistics statistics = this.registry.getStatistics("syncCache");
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(1);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(service.getInvocationCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void reportHotKeys() {
+		this.registry.setHotKeySampleRate(1);
+		SimpleService service = createProxy();
+		for (long i = 0; i < 10; i++) {
+			service.get(1L);
+		}
+		for (long i = 0; i < 5; i++) {
+			service.get(2L);
+		}
+		service.get(3L);
+
+		Map<String, Long> hotKeys = this.registry.getHotKeys("testCache", 2);
+		assertThat(hotKeys).containsExactly(entry("1", 10L), entry("2", 5L));
+		assertThat(this.registry.getHotKeys("unknownCache", 2)).isEmpty();
+	}
+
+	@Test
+	public void hotKeyCapacityFavoursHotKeys() {
+		this.registry.setHotKeySampleRate(1);
+		this.registry.setHotKeyCapacity(4);
+		CacheMetrics metrics = this.registry.getMetrics("testCache");
+		for (int i = 0; i < 100; i++) {
+			metrics.recordMiss("cold" + i);
+			if (i % 4 == 0) {
+				metrics.recordHit("hot");
+			}
+		}
+
+		Map<String, Long> hotKeys = metrics.getHotKeys(10);
+		assertThat(hotKeys).hasSizeLessThanOrEqualTo(4);
+		assertThat(hotKeys.keySet().iterator().next()).isEqualTo("hot");
+	}
+
+	@Test
+	public void reset() {
+		SimpleService service = createProxy();
+		service.get(1L);
+		service.get(1L);
+		this.registry.reset();
+
+		CacheStatistics statistics = this.registry.getStatistics("testCache");
+		assertThat(statistics.getRequestCount()).isEqualTo(0);
+		assertThat(statistics.getPutCount()).isEqualTo(0);
+		assertThat(sum(statistics.getLoadTimeHistogram())).isEqualTo(0);
+	}
+
+	@Test
+	public void exposeThroughMBeanExporter() throws Exception {
+		SimpleService service = createProxy();
+		service.get(1L);
+		service.get(1L);
+
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		MBeanExporter exporter = new AnnotationMBeanExporter();
+		exporter.setServer(server);
+		ObjectName objectName = ObjectName.getInstance("spring:type=CacheMetrics");
+		try {
+			exporter.registerManagedResource(this.registry, objectName);
+			assertThat((String[]) server.getAttribute(objectName, "CacheNames")).containsExactly("testCache");
+			Map<?, ?> statistics = (Map<?, ?>) server.invoke(objectName, "describeStatistics",
+					new Object[] {"testCache"}, new String[] {String.class.getName()});
+			assertThat(statistics.get("hitCount")).isEqualTo(1L);
+			assertThat(statistics.get("missCount")).isEqualTo(1L);
+			assertThat(statistics.get("putCount")).isEqualTo(1L);
+			server.invoke(objectName, "reset", new Object[0], new String[0]);
+			assertThat(this.registry.getStatistics("testCache").getHitCount()).isEqualTo(0);
+		}
+		finally {
+			exporter.destroy();
+		}
+	}
+
+	private SimpleService createProxy() {
+		CacheInterceptor interceptor = new CacheInterceptor();
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.setMetricsRegistry(this.registry);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+		ProxyFactory proxyFactory = new ProxyFactory(new SimpleService());
+		proxyFactory.addAdvice(interceptor);
+		return (SimpleService) proxyFactory.getProxy();
+	}
+
+	private static long sum(long[] values) {
+		long sum = 0;
+		for (long value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+
+
+	public static class SimpleService {
+
+		private final AtomicInteger invocationCount = new AtomicInteger();
+
+		@Cacheable("testCache")
+		public Object get(long id) {
+			this.invocationCount.incrementAndGet();
+			return new Object();
+		}
+
+		@Cacheable("testCache")
+		public Object getOrFail(boolean fail) {
+			if (fail) {
+				throw new IllegalStateException("Load failure");
+			}
+			return new Object();
+		}
+
+		@Cacheable(cacheNames = "syncCache", sync = true)
+		public Object getSynchronized(long id) {
+			this.invocationCount.incrementAndGet();
+			return new Object();
+		}
+
+		@CacheEvict("testCache")
+		public void evict(long id) {
+		}
+
+		@CacheEvict(cacheNames = "testCache", allEntries = true)
+		public void clear() {
+		}
+
+		public int getInvocationCount() {
+			return this.invocationCount.get();
+		}
+	}
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link TwoLevelCacheManager}, simulating two nodes that share
+ * the same remote caches and invalidation channel.
+ */
+public class TwoLevelCacheManagerTests {
+
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("testCache");
+
+	private final LocalCacheInvalidationChannel invalidationChannel = new LocalCacheInvalidationChannel();
+
+	private TwoLevelCacheManager node1;
+
+	private TwoLevelCacheManager node2;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.node1 = createCacheManager();
+		this.node2 = createCacheManager();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.node1.destroy();
+		this.node2.destroy();
+	}
+
+	private TwoLevelCacheManager createCacheManager() {
+		TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(this.remoteCacheManager);
+		cacheManager.setInvalidationChannel(this.invalidationChannel);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+
+	@Test
+	public void cachesOfRemoteCacheManager() {
+		assertThat(this.node1.getCacheNames()).containsExactly("testCache");
+		assertThat(this.node1.getCache("testCache")).isInstanceOf(TwoLevelCache.class);
+		assertThat(this.node1.getCache("testCache")).isSameAs(this.node1.getCache("testCache"));
+		assertThat(this.node1.getCache("unknownCache")).isNull();
+	}
+
+	@Test
+	public void remoteHitIsServedLocallyAfterwards() {
+		this.remoteCacheManager.getCache("testCache").put("key", "value");
+		TwoLevelCache cache = getCache(this.node1);
+
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalCache().get("key").get()).isEqualTo("value");
+		assertThat(cache.get("key", String.class)).isEqualTo("value");
+		assertThat(cache.get("missing")).isNull();
+
+		TwoLevelCacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getLocalHitCount()).isEqualTo(1);
+		assertThat(statistics.getRemoteHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(1);
+		assertThat(statistics.getLocalHitRate()).isEqualTo(1.0 / 3);
+		assertThat(statistics.getRemoteHitRate()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void valueLoaderPopulatesBothLevels() {
+		TwoLevelCache cache = getCache(this.node1);
+		assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+		assertThat(cache.get("key", () -> "anotherValue")).isEqualTo("value");
+
+		assertThat(cache.getRemoteCache().get("key").get()).isEqualTo("value");
+		assertThat(getCache(this.node2).get("key", () -> "anotherValue")).isEqualTo("value");
+		assertThat(cache.getStatistics().getMissCount()).isEqualTo(1);
+		assertThat(cache.getStatistics().getLocalHitCount()).isEqualTo(1);
+		assertThat(getCache(this.node2).getStatistics().getRemoteHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void valueLoaderFailureIsNotNested() {
+		TwoLevelCache cache = getCache(this.node1);
+		IllegalStateException failure = new IllegalStateException("Test failure");
+		assertThatExceptionOfType(Cache.ValueRetrievalException.class).isThrownBy(() ->
+				cache.get("key", () -> {
+					throw failure;
+				}))
+			.withCause(failure);
+		assertThat(cache.getRemoteCache().get("key")).isNull();
+		assertThat(cache.getLocalCache().get("key")).isNull();
+	}
+
+	@Test
+	public void syncCacheableFailureIsRethrown() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SyncConfig.class);
+		try {
+			SyncService service = context.getBean(SyncService.class);
+			assertThatIllegalStateException().isThrownBy(() -> service.failingGet("key"))
+				.withMessage("Test failure 1");
+			assertThatIllegalStateException().isThrownBy(() -> service.failingGet("key"))
+				.withMessage("Test failure 2");
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	@Test
+	public void putInvalidatesOtherNodes() {
+		TwoLevelCache cache1 = getCache(this.node1);
+		TwoLevelCache cache2 = getCache(this.node2);
+		cache1.put("key", "value");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+
+		cache1.put("key", "newValue");
+		assertThat(cache2.getLocalCache().get("key")).isNull();
+		assertThat(cache2.get("key").get()).isEqualTo("newValue");
+		assertThat(cache2.getStatistics().getInvalidationCount()).isEqualTo(2);
+		// Own changes are applied directly rather than invalidated
+		assertThat(cache1.getLocalCache().get("key").get()).isEqualTo("newValue");
+		assertThat(cache1.getStatistics().getInvalidationCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictInvalidatesOtherNodes() {
+		TwoLevelCache cache1 = getCache(this.node1);
+		TwoLevelCache cache2 = getCache(this.node2);
+		cache1.put("key", "value");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+
+		assertThat(cache1.evictIfPresent("key")).isTrue();
+		assertThat(cache2.get("key")).isNull();
+		assertThat(cache1.get("key")).isNull();
+	}
+
+	@Test
+	public void clearInvalidatesOtherNodes() {
+		TwoLevelCache cache1 = getCache(this.node1);
+		TwoLevelCache cache2 = getCache(this.node2);
+		cache1.put("key", "value");
+		cache1.put("anotherKey", "anotherValue");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+		assertThat(cache2.get("anotherKey").get()).isEqualTo("anotherValue");
+
+		cache1.clear();
+		assertThat(cache2.getLocalCache().get("key")).isNull();
+		assertThat(cache2.getLocalCache().get("anotherKey")).isNull();
+		assertThat(cache2.get("key")).isNull();
+	}
+
+	@Test
+	public void putIfAbsentKeepsExistingValue() {
+		TwoLevelCache cache1 = getCache(this.node1);
+		TwoLevelCache cache2 = getCache(this.node2);
+		assertThat(cache1.putIfAbsent("key", "value")).isNull();
+		assertThat(cache2.putIfAbsent("key", "anotherValue").get()).isEqualTo("value");
+		assertThat(cache1.get("key").get()).isEqualTo("value");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void copyIsDiscardedIfSameKeyIsInvalidatedMeanwhile() {
+		AtomicInteger lookups = new AtomicInteger();
+		TwoLevelCache[] holder = new TwoLevelCache[1];
+		ConcurrentMapCache remoteCache = new ConcurrentMapCache("testCache") {
+			@Override
+			public ValueWrapper get(Object key) {
+				if (lookups.incrementAndGet() == 1) {
+					holder[0].invalidateLocal(key);
+				}
+				return super.get(key);
+			}
+		};
+		remoteCache.put("key", "value");
+		TwoLevelCache cache = new TwoLevelCache(new ConcurrentMapCache("testCache"), remoteCache,
+				this.invalidationChannel, "test");
+		holder[0] = cache;
+
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalCache().get("key")).isNull();
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalCache().get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void copyIsKeptIfOtherKeyIsInvalidatedMeanwhile() {
+		TwoLevelCache[] holder = new TwoLevelCache[1];
+		ConcurrentMapCache remoteCache = new ConcurrentMapCache("testCache") {
+			@Override
+			public ValueWrapper get(Object key) {
+				holder[0].invalidateLocal("key".equals(key) ? "anotherKey" : "key");
+				return super.get(key);
+			}
+		};
+		remoteCache.put("key", "value");
+		TwoLevelCache cache = new TwoLevelCache(new ConcurrentMapCache("testCache"), remoteCache,
+				this.invalidationChannel, "test");
+		holder[0] = cache;
+
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalCache().get("key").get()).isEqualTo("value");
+		assertThat(cache.get("anotherKey", () -> "anotherValue")).isEqualTo("anotherValue");
+		assertThat(cache.getLocalCache().get("anotherKey").get()).isEqualTo("anotherValue");
+		assertThat(cache.getLocalCache().get("key")).isNull();
+	}
+
+	@Test
+	public void nullValuesAreKeptLocally() {
+		TwoLevelCache cache = getCache(this.node1);
+		cache.put("key", null);
+		Cache.ValueWrapper wrapper = cache.get("key");
+		assertThat(wrapper).isNotNull();
+		assertThat(wrapper.get()).isNull();
+		assertThat(cache.getStatistics().getLocalHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void changesAreNotReceivedAfterDestroy() {
+		TwoLevelCache cache2 = getCache(this.node2);
+		getCache(this.node1).put("key", "value");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+
+		this.node2.destroy();
+		getCache(this.node1).put("key", "newValue");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void localCacheConfiguration() {
+		TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(this.remoteCacheManager);
+		cacheManager.setLocalCacheConfiguration(
+				ConcurrentMapCacheConfiguration.defaultCacheConfig().withMaximumSize(1));
+		TwoLevelCache cache = getCache(cacheManager);
+		assertThat(cache.getLocalCache()).isInstanceOf(BoundedConcurrentMapCache.class);
+		cache.put("key", "value");
+		cache.put("anotherKey", "anotherValue");
+
+		assertThat(((BoundedConcurrentMapCache) cache.getLocalCache()).getEstimatedSize()).isEqualTo(1);
+		assertThat(cache.getRemoteCache().get("key").get()).isEqualTo("value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+	}
+
+	private TwoLevelCache getCache(TwoLevelCacheManager cacheManager) {
+		Cache cache = cacheManager.getCache("testCache");
+		assertThat(cache).isInstanceOf(TwoLevelCache.class);
+		return (TwoLevelCache) cache;
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class SyncConfig {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new TwoLevelCacheManager(new ConcurrentMapCacheManager("testCache"));
+		}
+
+		@Bean
+		public SyncService syncService() {
+			return new SyncService();
+		}
+	}
+
+
+	static class SyncService {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public Object failingGet(Object key) {
+			throw new IllegalStateException("Test failure " + this.counter.incrementAndGet());
+		}
+	}
+
+}
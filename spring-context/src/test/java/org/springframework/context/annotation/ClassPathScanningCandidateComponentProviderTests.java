@@ -40,6 +40,7 @@ import example.scannable.sub.BarComponent;
 import org.aspectj.lang.annotation.Aspect;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.index.CandidateComponentsTestClassLoader;
@@ -89,6 +90,23 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, AnnotatedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void defaultsWithIndexAttributes() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(CandidateComponentsTestClassLoader.indexWithAttributes(
+				getClass().getClassLoader(),
+				new ClassPathResource("indexed-spring.components", NamedComponent.class),
+				new ClassPathResource("indexed-spring.components.attributes", NamedComponent.class))));
+		// Candidates only exist in the index: their metadata must not be read from class files
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertThat(candidates).hasSize(1);
+		AnnotatedBeanDefinition candidate = (AnnotatedBeanDefinition) candidates.iterator().next();
+		assertThat(candidate.getBeanClassName()).isEqualTo("example.scannable.IndexedOnlyComponent");
+		assertThat(candidate.getMetadata().isAnnotated(Lazy.class.getName())).isTrue();
+		assertThat(candidate.getMetadata().getAnnotationAttributes(Component.class.getName()))
+				.containsEntry("value", "indexedOnly");
+	}
+
 	private void testDefault(ClassPathScanningCandidateComponentProvider provider,
 			Class<? extends BeanDefinition> expectedBeanDefinitionType) {
 		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
@@ -22,6 +22,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import example.scannable.CustomComponent;
 import example.scannable.CustomStereotype;
@@ -186,6 +188,28 @@ public class ComponentScanAnnotationIntegrationTests {
 		assertThat(ctx.containsBean("scannedComponent")).isTrue();
 	}
 
+	@Test
+	public void multiComponentScanWithComponentScanExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+			ctx.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+					.getPropertyValues().add("componentScanExecutor", executor);
+			ctx.register(MultiComponentScan.class, ComponentScanAnnotatedConfig.class);
+			ctx.refresh();
+			AnnotationConfigApplicationContext sequentialCtx =
+					new AnnotationConfigApplicationContext(MultiComponentScan.class, ComponentScanAnnotatedConfig.class);
+
+			assertThat(ctx.getBeanDefinitionNames()).containsExactly(sequentialCtx.getBeanDefinitionNames());
+			assertThat(ctx.getBean(CustomScopeAnnotationBean.class)).isNotSameAs(ctx.getBean(CustomScopeAnnotationBean.class));
+			assertThat(ctx.containsBean("scannedComponent")).isTrue();
+			assertThat(ctx.containsBean("fooServiceImpl")).isTrue();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void withCustomTypeFilter() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(ComponentScanWithCustomTypeFilter.class);
@@ -579,6 +579,21 @@ public class AnnotationDrivenEventListenerTests {
 		this.eventCollector.assertTotalEventsCount(4);
 	}
 
+	@Test
+	public void conditionMatchWithRepeatedEvaluation() {
+		load(ConditionalEventListener.class);
+		ConditionalEventInterface listener = this.context.getBean(ConditionalEventInterface.class);
+
+		// Beyond the threshold for compiling conditions in mixed mode
+		for (int i = 0; i < 250; i++) {
+			this.context.publishEvent("OK" + i);
+			this.context.publishEvent("NOT OK" + i);
+			this.context.publishEvent(new TestEvent(this, (i % 2 == 0 ? "OK" : "KO")));
+		}
+		this.eventCollector.assertTotalEventsCount(375);
+		assertThat(this.eventCollector.getEvents(listener)).startsWith("OK0").endsWith("OK249");
+	}
+
 	@Test
 	public void conditionDoesNotMatch() {
 		long maxLong = Long.MAX_VALUE;
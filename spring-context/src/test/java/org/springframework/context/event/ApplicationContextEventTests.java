@@ -244,6 +244,35 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void listenerRegistrationOnlyInvalidatesAffectedEventTypes() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.addApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(smc.getApplicationListeners(new MyEvent(this), ResolvableType.forClass(MyEvent.class)))
+				.containsExactly(listener1, listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		assertThat(smc.getApplicationListeners(new MyEvent(this), ResolvableType.forClass(MyEvent.class)))
+				.containsExactly(listener1);
+		smc.removeApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(0);
+		assertThat(smc.getApplicationListeners(new MyOtherEvent(this), ResolvableType.forClass(MyOtherEvent.class)))
+				.isEmpty();
+		assertThat(listener1.seenEvents.size()).isEqualTo(3);
+	}
+
 	@Test
 	public void testEventPublicationInterceptor() throws Throwable {
 		MethodInvocation invocation = mock(MethodInvocation.class);
@@ -297,8 +326,10 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.contains(event3)).isTrue();
 		assertThat(listener1.seenEvents.contains(event4)).isTrue();
 
+		// The lazily registered listener2 only invalidates MyEvent retrieval,
+		// so the ContextRefreshedEvent entry remains cached alongside both event types
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(3);
 
 		context.close();
 	}
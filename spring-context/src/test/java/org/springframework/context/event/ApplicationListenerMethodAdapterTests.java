@@ -19,6 +19,9 @@ package org.springframework.context.event;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -26,9 +29,12 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -304,6 +310,64 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void batchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		supportsEventType(true, method, createGenericEventType(String.class));
+		supportsEventType(false, method, createGenericEventType(Integer.class));
+		assertThat(createTestInstance(method).supportsBatch()).isTrue();
+	}
+
+	@Test
+	public void batchListenerWithoutListParameter() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "invalidBatch", String.class);
+		assertThatIllegalStateException().isThrownBy(() ->
+				createTestInstance(method));
+	}
+
+	@Test
+	public void invokeBatchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.onApplicationEvents(Arrays.asList(
+				new PayloadApplicationEvent<>(this, "test1"), new PayloadApplicationEvent<>(this, "test2")));
+		verify(this.sampleEvents, times(1)).handleStringBatch(Arrays.asList("test1", "test2"));
+	}
+
+	@Test
+	public void invokeBatchListenerWithSingleEvent() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		invokeListener(method, new PayloadApplicationEvent<>(this, "test"));
+		verify(this.sampleEvents, times(1)).handleStringBatch(Collections.singletonList("test"));
+	}
+
+	@Test
+	public void invokeNonBatchListenerWithSeveralEvents() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		assertThat(adapter.supportsBatch()).isFalse();
+		adapter.onApplicationEvents(Arrays.asList(
+				new PayloadApplicationEvent<>(this, "test1"), new PayloadApplicationEvent<>(this, "test2")));
+		verify(this.sampleEvents, times(1)).handleString("test1");
+		verify(this.sampleEvents, times(1)).handleString("test2");
+	}
+
+	@Test
+	public void conditionIsCompilable() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		EventExpressionEvaluator evaluator = new EventExpressionEvaluator();
+		Expression condition = evaluator.getCondition("#root.event.source != null and #p0.length() > 2",
+				new AnnotatedElementKey(method, SampleEvents.class));
+		assertThat(evaluator.getCondition(condition.getExpressionString(),
+				new AnnotatedElementKey(method, SampleEvents.class))).isSameAs(condition);
+
+		PayloadApplicationEvent<String> event = new PayloadApplicationEvent<>(this, "test");
+		assertThat(evaluator.condition(condition, event, method, new Object[] {"test"}, null)).isTrue();
+		assertThat(((SpelExpression) condition).compileExpression()).isTrue();
+		assertThat(evaluator.condition(condition, event, method, new Object[] {"test"}, null)).isTrue();
+		assertThat(evaluator.condition(condition, event, method, new Object[] {"te"}, null)).isFalse();
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
@@ -416,6 +480,14 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void moreThanOneParameter(String foo, Integer bar) {
 		}
 
+		@EventListener(batch = true)
+		public void handleStringBatch(List<String> payloads) {
+		}
+
+		@EventListener(batch = true)
+		public void invalidBatch(String payload) {
+		}
+
 		@EventListener
 		public void generateRuntimeException(GenericTestEvent<String> event) {
 			if ("fail".equals(event.getPayload())) {
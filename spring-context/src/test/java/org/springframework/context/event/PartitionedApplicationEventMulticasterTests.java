@@ -0,0 +1,394 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.PartitionedApplicationEventMulticaster.OverflowPolicy;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PartitionedApplicationEventMulticaster}.
+ */
+@SuppressWarnings("serial")
+public class PartitionedApplicationEventMulticasterTests {
+
+	private final PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+
+	private final BlockingListener blockingListener = new BlockingListener();
+
+
+	@AfterEach
+	public void destroy() {
+		this.blockingListener.release();
+		this.multicaster.destroy();
+	}
+
+
+	@Test
+	public void eventsWithSameKeyDeliveredInOrder() {
+		Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+		this.multicaster.setPartitionCount(4);
+		this.multicaster.setQueueCapacity(16);
+		this.multicaster.setPartitionKeyResolver(event -> ((KeyedEvent) event).key);
+		this.multicaster.addApplicationListener((ApplicationListener<KeyedEvent>) event ->
+				received.computeIfAbsent(event.key, key -> Collections.synchronizedList(new ArrayList<>()))
+						.add(event.sequence));
+
+		for (int i = 0; i < 500; i++) {
+			for (String key : Arrays.asList("a", "b", "c", "d", "e")) {
+				this.multicaster.multicastEvent(new KeyedEvent(key, i));
+			}
+		}
+		this.multicaster.destroy();
+
+		assertThat(received).hasSize(5);
+		received.forEach((key, sequences) -> {
+			assertThat(sequences).hasSize(500);
+			for (int i = 0; i < sequences.size(); i++) {
+				assertThat(sequences.get(i)).isEqualTo(i);
+			}
+		});
+	}
+
+	@Test
+	public void batchListenerReceivesQueuedEvents() throws InterruptedException {
+		List<List<Integer>> batches = new ArrayList<>();
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.addApplicationListener(this.blockingListener);
+		this.multicaster.addApplicationListener((BatchApplicationListener<KeyedEvent>) events -> {
+			List<Integer> batch = new ArrayList<>();
+			events.forEach(event -> batch.add(event.sequence));
+			batches.add(batch);
+		});
+
+		publishAndBlock();
+		for (int i = 1; i < 6; i++) {
+			this.multicaster.multicastEvent(new KeyedEvent("a", i));
+		}
+		this.blockingListener.release();
+		this.multicaster.destroy();
+
+		assertThat(batches).containsExactly(Collections.singletonList(0), Arrays.asList(1, 2, 3, 4, 5));
+	}
+
+	@Test
+	public void batchSizeIsLimited() throws InterruptedException {
+		List<List<Integer>> batches = new ArrayList<>();
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setMaxBatchSize(2);
+		this.multicaster.addApplicationListener(this.blockingListener);
+		this.multicaster.addApplicationListener((BatchApplicationListener<KeyedEvent>) events -> {
+			List<Integer> batch = new ArrayList<>();
+			events.forEach(event -> batch.add(event.sequence));
+			batches.add(batch);
+		});
+
+		publishAndBlock();
+		for (int i = 1; i < 6; i++) {
+			this.multicaster.multicastEvent(new KeyedEvent("a", i));
+		}
+		this.blockingListener.release();
+		this.multicaster.destroy();
+
+		assertThat(batches).containsExactly(Collections.singletonList(0),
+				Arrays.asList(1, 2), Arrays.asList(3, 4), Collections.singletonList(5));
+	}
+
+	@Test
+	public void overflowWithBlockPolicy() throws InterruptedException {
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.addApplicationListener(this.blockingListener);
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		Thread publisher = new Thread(() -> this.multicaster.multicastEvent(new KeyedEvent("a", 2)));
+		publisher.start();
+		publisher.join(100);
+		assertThat(publisher.isAlive()).isTrue();
+
+		this.blockingListener.release();
+		publisher.join(5000);
+		this.multicaster.destroy();
+		assertThat(this.blockingListener.sequences).containsExactly(0, 1, 2);
+	}
+
+	@Test
+	public void overflowWithFailPolicy() throws InterruptedException {
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.FAIL);
+		this.multicaster.addApplicationListener(this.blockingListener);
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+				this.multicaster.multicastEvent(new KeyedEvent("a", 2)));
+
+		this.blockingListener.release();
+		this.multicaster.destroy();
+		assertThat(this.blockingListener.sequences).containsExactly(0, 1);
+	}
+
+	@Test
+	public void overflowWithDiscardPolicy() throws InterruptedException {
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DISCARD);
+		this.multicaster.addApplicationListener(this.blockingListener);
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		this.multicaster.multicastEvent(new KeyedEvent("a", 2));
+		assertThat(this.multicaster.getQueuedEventCount()).isEqualTo(1);
+
+		this.blockingListener.release();
+		this.multicaster.destroy();
+		assertThat(this.blockingListener.sequences).containsExactly(0, 1);
+	}
+
+	@Test
+	public void overflowWithDiscardOldestPolicy() throws InterruptedException {
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DISCARD_OLDEST);
+		this.multicaster.addApplicationListener(this.blockingListener);
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		this.multicaster.multicastEvent(new KeyedEvent("a", 2));
+
+		this.blockingListener.release();
+		this.multicaster.destroy();
+		assertThat(this.blockingListener.sequences).containsExactly(0, 2);
+	}
+
+	@Test
+	public void overflowWithCallerRunsPolicy() throws InterruptedException {
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+		this.multicaster.addApplicationListener(this.blockingListener);
+		this.multicaster.addApplicationListener((ApplicationListener<KeyedEvent>) event -> {
+			if (event.sequence == 2) {
+				threads.add(Thread.currentThread());
+			}
+		});
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		this.multicaster.multicastEvent(new KeyedEvent("a", 2));
+		assertThat(threads).containsExactly(Thread.currentThread());
+
+		this.blockingListener.release();
+		this.multicaster.destroy();
+		assertThat(this.blockingListener.sequences).containsExactly(0, 2, 1);
+	}
+
+	@Test
+	public void listenerExceptionDoesNotStopPartition() {
+		List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.addApplicationListener((ApplicationListener<KeyedEvent>) event -> {
+			if (event.sequence == 1) {
+				throw new IllegalStateException("Test exception");
+			}
+			received.add(event.sequence);
+		});
+
+		for (int i = 0; i < 3; i++) {
+			this.multicaster.multicastEvent(new KeyedEvent("a", i));
+		}
+		this.multicaster.destroy();
+		assertThat(received).containsExactly(0, 2);
+	}
+
+	@Test
+	public void dispatchExceptionDoesNotStopPartition() {
+		List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+		PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster() {
+			@Override
+			protected void dispatchEvents(List<ApplicationEvent> batch, List<ResolvableType> eventTypes) {
+				if (batch.stream().anyMatch(event -> ((KeyedEvent) event).sequence == 1)) {
+					throw new IllegalStateException("Test exception");
+				}
+				super.dispatchEvents(batch, eventTypes);
+			}
+		};
+		multicaster.setPartitionCount(1);
+		multicaster.setMaxBatchSize(1);
+		multicaster.addApplicationListener((ApplicationListener<KeyedEvent>) event -> received.add(event.sequence));
+
+		for (int i = 0; i < 3; i++) {
+			multicaster.multicastEvent(new KeyedEvent("a", i));
+		}
+		multicaster.destroy();
+		assertThat(received).containsExactly(0, 2);
+	}
+
+	@Test
+	public void destroyDoesNotBlockOnFullQueue() throws InterruptedException {
+		List<Thread> workers = Collections.synchronizedList(new ArrayList<>());
+		this.multicaster.setPartitionCount(1);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DISCARD_OLDEST);
+		this.multicaster.setAwaitTerminationMillis(100);
+		this.multicaster.setTaskExecutor(task -> {
+			Thread worker = new Thread(task);
+			workers.add(worker);
+			worker.start();
+		});
+		this.multicaster.addApplicationListener(this.blockingListener);
+
+		publishAndBlock();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 1));
+		this.multicaster.destroy();
+
+		this.blockingListener.release();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 2));
+		for (Thread worker : new ArrayList<>(workers)) {
+			worker.join(5000);
+			assertThat(worker.isAlive()).isFalse();
+		}
+		assertThat(this.blockingListener.sequences).containsExactlyInAnyOrder(0, 1, 2);
+	}
+
+	@Test
+	public void eventsDeliveredSynchronouslyAfterDestroy() {
+		List<Thread> threads = new ArrayList<>();
+		this.multicaster.addApplicationListener(
+				(ApplicationListener<KeyedEvent>) event -> threads.add(Thread.currentThread()));
+
+		this.multicaster.destroy();
+		this.multicaster.multicastEvent(new KeyedEvent("a", 0));
+		assertThat(threads).containsExactly(Thread.currentThread());
+	}
+
+	@Test
+	public void batchEventListenerMethod() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(BatchConfig.class);
+		BatchEventListener listener = context.getBean(BatchEventListener.class);
+		for (int i = 0; i < 100; i++) {
+			context.publishEvent("event-" + i);
+		}
+		context.close();
+
+		List<String> received = new ArrayList<>();
+		listener.batches.forEach(received::addAll);
+		assertThat(received).hasSize(100);
+		for (int i = 0; i < received.size(); i++) {
+			assertThat(received.get(i)).isEqualTo("event-" + i);
+		}
+	}
+
+
+	private void publishAndBlock() throws InterruptedException {
+		this.multicaster.multicastEvent(new KeyedEvent("a", 0));
+		assertThat(this.blockingListener.entered.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+
+	static class KeyedEvent extends ApplicationEvent {
+
+		final String key;
+
+		final int sequence;
+
+		KeyedEvent(String key, int sequence) {
+			super(key);
+			this.key = key;
+			this.sequence = sequence;
+		}
+	}
+
+
+	static class BlockingListener implements ApplicationListener<KeyedEvent> {
+
+		final CountDownLatch entered = new CountDownLatch(1);
+
+		final CountDownLatch released = new CountDownLatch(1);
+
+		final List<Integer> sequences = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void onApplicationEvent(KeyedEvent event) {
+			this.sequences.add(event.sequence);
+			this.entered.countDown();
+			try {
+				this.released.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void release() {
+			this.released.countDown();
+		}
+	}
+
+
+	@Configuration
+	static class BatchConfig {
+
+		@Bean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+		public PartitionedApplicationEventMulticaster applicationEventMulticaster() {
+			return new PartitionedApplicationEventMulticaster();
+		}
+
+		@Bean
+		public BatchEventListener batchEventListener() {
+			return new BatchEventListener();
+		}
+	}
+
+
+	@Component
+	static class BatchEventListener {
+
+		final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+		@EventListener(batch = true)
+		public void onEvents(List<String> events) {
+			this.batches.add(new ArrayList<>(events));
+		}
+	}
+
+}
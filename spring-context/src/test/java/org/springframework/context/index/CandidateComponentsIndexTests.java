@@ -23,6 +23,19 @@ import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -80,6 +93,90 @@ public class CandidateComponentsIndexTests {
 				.contains("com.example.Foo");
 	}
 
+	@Test
+	public void getAnnotationMetadata() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()),
+				Collections.singletonList(createSampleAttributes()), getClass().getClassLoader());
+		AnnotationMetadata metadata = index.getAnnotationMetadata("com.example.service.One");
+		assertThat(metadata).isNotNull();
+		assertThat(metadata.getClassName()).isEqualTo("com.example.service.One");
+		assertThat(metadata.isConcrete()).isTrue();
+		assertThat(metadata.isIndependent()).isTrue();
+		assertThat(metadata.getSuperClassName()).isEqualTo("com.example.service.AbstractService");
+		assertThat(metadata.getInterfaceNames()).containsExactly("java.io.Serializable", "java.lang.Runnable");
+		assertThat(metadata.getMemberClassNames()).isEmpty();
+		assertThat(metadata.getAnnotationTypes()).containsExactly(Conditional.class.getName(),
+				DependsOn.class.getName(), Lazy.class.getName(), Primary.class.getName(),
+				Scope.class.getName(), Service.class.getName());
+		assertThat(metadata.hasMetaAnnotation(Component.class.getName())).isTrue();
+		assertThat(metadata.getAnnotationAttributes(Service.class.getName())).containsEntry("value", "one");
+		assertThat(metadata.getAnnotationAttributes(Component.class.getName())).containsEntry("value", "one");
+		assertThat(metadata.getAnnotationAttributes(Lazy.class.getName())).containsEntry("value", true);
+		assertThat(metadata.getAnnotationAttributes(DependsOn.class.getName()))
+				.containsEntry("value", new String[] {"two", "three"});
+		assertThat(metadata.getAllAnnotationAttributes(Conditional.class.getName(), true).get("value"))
+				.containsExactly((Object) new String[] {"com.example.service.OnOne"});
+		AnnotationAttributes scope = AnnotationAttributes.fromMap(
+				metadata.getAnnotationAttributes(Scope.class.getName()));
+		assertThat(scope.getString("value")).isEqualTo("prototype");
+		assertThat(scope.<ScopedProxyMode>getEnum("proxyMode")).isEqualTo(ScopedProxyMode.TARGET_CLASS);
+	}
+
+	@Test
+	public void getAnnotationMetadataWithAnnotatedMethods() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()),
+				Collections.singletonList(createSampleAttributes()), getClass().getClassLoader());
+		AnnotationMetadata metadata = index.getAnnotationMetadata("com.example.service.One");
+		assertThat(metadata.hasAnnotatedMethods(Bean.class.getName())).isTrue();
+		Set<MethodMetadata> beanMethods = metadata.getAnnotatedMethods(Bean.class.getName());
+		assertThat(beanMethods).extracting(MethodMetadata::getMethodName).containsExactly("first", "second");
+		MethodMetadata first = beanMethods.iterator().next();
+		assertThat(first.getDeclaringClassName()).isEqualTo("com.example.service.One");
+		assertThat(first.getReturnTypeName()).isEqualTo("java.lang.String");
+		assertThat(first.isStatic()).isTrue();
+		assertThat(first.isOverridable()).isFalse();
+		assertThat(first.getAnnotationAttributes(Bean.class.getName()))
+				.containsEntry("name", new String[] {"a", "b"});
+		assertThat(metadata.getAnnotatedMethods(Lazy.class.getName()))
+				.extracting(MethodMetadata::getMethodName).containsExactly("second");
+	}
+
+	@Test
+	public void getAnnotationMetadataWithoutAttributes() {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()),
+				Collections.singletonList(createSampleAttributes()), getClass().getClassLoader());
+		assertThat(index.getAnnotationMetadata("com.example.service.sub.Two")).isNull();
+	}
+
+	@Test
+	public void getAnnotationMetadataWithIncompatibleAttributes() {
+		Properties attributes = new Properties();
+		attributes.put("com.example.service.One", "");
+		attributes.put("com.example.service.One@" + Scope.class.getName(), "");
+		attributes.put("com.example.service.One@" + Scope.class.getName() + "/proxyMode", "UNKNOWN");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()),
+				Collections.singletonList(attributes), getClass().getClassLoader());
+		assertThat(index.getAnnotationMetadata("com.example.service.One")).isNull();
+	}
+
+	@Test
+	public void getAnnotationMetadataIgnoresUnknownAnnotation() {
+		Properties attributes = new Properties();
+		attributes.put("com.example.service.One", "final");
+		attributes.put("com.example.service.One@com.example.Unknown", "");
+		attributes.put("com.example.service.One@" + Primary.class.getName(), "");
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createSampleProperties()),
+				Collections.singletonList(attributes), getClass().getClassLoader());
+		AnnotationMetadata metadata = index.getAnnotationMetadata("com.example.service.One");
+		assertThat(metadata.isFinal()).isTrue();
+		assertThat(metadata.getAnnotationTypes()).containsExactly(Primary.class.getName());
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
@@ -95,4 +192,35 @@ public class CandidateComponentsIndexTests {
 		return properties;
 	}
 
+	private static Properties createSampleAttributes() {
+		Properties properties = new Properties();
+		properties.put("com.example.service.One", "");
+		properties.put("com.example.service.One/super", "com.example.service.AbstractService");
+		properties.put("com.example.service.One/interfaces", "java.io.Serializable,java.lang.Runnable");
+		properties.put("com.example.service.One@" + Service.class.getName(), "");
+		properties.put("com.example.service.One@" + Service.class.getName() + "/value", "one");
+		properties.put("com.example.service.One@" + Scope.class.getName(), "");
+		properties.put("com.example.service.One@" + Scope.class.getName() + "/value", "prototype");
+		properties.put("com.example.service.One@" + Scope.class.getName() + "/proxyMode", "TARGET_CLASS");
+		properties.put("com.example.service.One@" + Lazy.class.getName(), "");
+		properties.put("com.example.service.One@" + Primary.class.getName(), "");
+		properties.put("com.example.service.One@" + DependsOn.class.getName(), "");
+		properties.put("com.example.service.One@" + DependsOn.class.getName() + "/value", "two,three");
+		properties.put("com.example.service.One@" + Conditional.class.getName(), "");
+		properties.put("com.example.service.One@" + Conditional.class.getName() + "/value",
+				"com.example.service.OnOne");
+		properties.put("com.example.service.One/method/0", "static");
+		properties.put("com.example.service.One/method/0/name", "first");
+		properties.put("com.example.service.One/method/0/returns", "java.lang.String");
+		properties.put("com.example.service.One/method/0@" + Bean.class.getName(), "");
+		properties.put("com.example.service.One/method/0@" + Bean.class.getName() + "/name", "a,b");
+		properties.put("com.example.service.One/method/1", "");
+		properties.put("com.example.service.One/method/1/name", "second");
+		properties.put("com.example.service.One/method/1/returns", "int");
+		properties.put("com.example.service.One/method/1@" + Bean.class.getName(), "");
+		properties.put("com.example.service.One/method/1@" + Lazy.class.getName(), "");
+		properties.put("com.example.service.One/method/1@" + Lazy.class.getName() + "/value", "false");
+		return properties;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,15 +54,35 @@ public class CandidateComponentsTestClassLoader extends ClassLoader {
 	 * specified resources.
 	 */
 	public static ClassLoader index(ClassLoader classLoader, Resource... resources) {
-		return new CandidateComponentsTestClassLoader(classLoader,
-				Collections.enumeration(Stream.of(resources).map(r -> {
-					try {
-						return r.getURL();
-					}
-					catch (Exception ex) {
-						throw new IllegalArgumentException("Invalid resource " + r, ex);
-					}
-				}).collect(Collectors.toList())));
+		return new CandidateComponentsTestClassLoader(classLoader, toUrls(resources));
+	}
+
+	/**
+	 * Create a test {@link ClassLoader} that creates an index with the
+	 * specified {@link Resource} for the candidates and their attributes.
+	 * @param classLoader the classloader to use for all other operations
+	 * @param index the resource defining the candidates
+	 * @param attributes the resource defining the attributes of the candidates
+	 * @return a test {@link ClassLoader} with an index built based on the
+	 * specified resources.
+	 * @see CandidateComponentsIndexLoader#COMPONENTS_ATTRIBUTES_RESOURCE_LOCATION
+	 */
+	public static ClassLoader indexWithAttributes(ClassLoader classLoader, Resource index, Resource attributes) {
+		CandidateComponentsTestClassLoader testClassLoader =
+				new CandidateComponentsTestClassLoader(classLoader, toUrls(index));
+		testClassLoader.attributesUrls = toUrls(attributes);
+		return testClassLoader;
+	}
+
+	private static Enumeration<URL> toUrls(Resource... resources) {
+		return Collections.enumeration(Stream.of(resources).map(r -> {
+			try {
+				return r.getURL();
+			}
+			catch (Exception ex) {
+				throw new IllegalArgumentException("Invalid resource " + r, ex);
+			}
+		}).collect(Collectors.toList()));
 	}
 
 
@@ -70,6 +90,8 @@ public class CandidateComponentsTestClassLoader extends ClassLoader {
 
 	private final IOException cause;
 
+	private Enumeration<URL> attributesUrls;
+
 	public CandidateComponentsTestClassLoader(ClassLoader classLoader, Enumeration<URL> resourceUrls) {
 		super(classLoader);
 		this.resourceUrls = resourceUrls;
@@ -90,6 +112,10 @@ public class CandidateComponentsTestClassLoader extends ClassLoader {
 			}
 			throw this.cause;
 		}
+		if (CandidateComponentsIndexLoader.COMPONENTS_ATTRIBUTES_RESOURCE_LOCATION.equals(name) &&
+				this.attributesUrls != null) {
+			return this.attributesUrls;
+		}
 		return super.getResources(name);
 	}
 
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.RecordedStep;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ApplicationStartup} support in application contexts.
+ */
+class ApplicationContextStartupTests {
+
+	@Test
+	void recordsRefreshSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(StartupConfig.class);
+		context.refresh();
+
+		List<RecordedStep> steps = applicationStartup.getRecordedSteps();
+		assertThat(steps).extracting(StartupStep::getName).contains("spring.context.refresh",
+				"spring.context.beans.post-process", "spring.context.beandef-registry.post-process",
+				"spring.context.bean-factory.post-process", "spring.context.config-classes.parse",
+				"spring.context.config-classes.enhance", "spring.beans.instantiate",
+				"spring.context.lifecycle.start", "spring.event.invoke-listener");
+
+		Map<Long, RecordedStep> stepsById = steps.stream()
+				.collect(Collectors.toMap(StartupStep::getId, Function.identity()));
+		RecordedStep testBean = steps.stream()
+				.filter(step -> "testBean".equals(step.getTag("beanName"))).findFirst().get();
+		assertThat(testBean.getName()).isEqualTo("spring.beans.instantiate");
+		RecordedStep root = testBean;
+		while (root.getParentId() != null) {
+			root = stepsById.get(root.getParentId());
+		}
+		assertThat(root.getName()).isEqualTo("spring.context.refresh");
+		assertThat(root.getDuration()).isGreaterThanOrEqualTo(testBean.getDuration());
+
+		StartupConfig config = context.getBean(StartupConfig.class);
+		assertThat(config.applicationStartup).isSameAs(applicationStartup);
+		assertThat(context.getBean(ConfigurableApplicationContext.APPLICATION_STARTUP_BEAN_NAME))
+				.isSameAs(applicationStartup);
+		assertThat(context.getBeanFactory().getApplicationStartup()).isSameAs(applicationStartup);
+		context.close();
+	}
+
+	@Test
+	void exportFoldedStacksAfterRefresh() throws Exception {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(StartupConfig.class);
+		context.refresh();
+		context.close();
+
+		StringWriter writer = new StringWriter();
+		applicationStartup.exportFoldedStacks(writer);
+		assertThat(writer.toString()).contains("spring.context.refresh;").contains("spring.beans.instantiate[testBean]");
+	}
+
+	@Test
+	void endsStepsWhenRefreshFails() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(FailingConfig.class);
+		assertThatIllegalStateException().isThrownBy(context::refresh);
+
+		assertThat(applicationStartup.getRecordedSteps()).extracting(StartupStep::getName)
+				.contains("spring.context.refresh", "spring.context.beans.post-process");
+		StartupStep next = applicationStartup.start("next");
+		next.end();
+		assertThat(next.getParentId()).isNull();
+	}
+
+	@Test
+	void defaultApplicationStartup() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(StartupConfig.class);
+		assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+		assertThat(context.getBean(StartupConfig.class).applicationStartup).isSameAs(ApplicationStartup.DEFAULT);
+		context.close();
+	}
+
+
+	@Configuration
+	static class StartupConfig implements ApplicationStartupAware {
+
+		ApplicationStartup applicationStartup;
+
+		@Override
+		public void setApplicationStartup(ApplicationStartup applicationStartup) {
+			this.applicationStartup = applicationStartup;
+		}
+
+		@Bean
+		public TestBean testBean() {
+			return new TestBean();
+		}
+
+		@Bean
+		public SmartLifecycle lifecycle() {
+			return new SmartLifecycle() {
+				private boolean running;
+				@Override
+				public void start() {
+					this.running = true;
+				}
+				@Override
+				public void stop() {
+					this.running = false;
+				}
+				@Override
+				public boolean isRunning() {
+					return this.running;
+				}
+			};
+		}
+
+		@EventListener
+		public void onRefresh(ContextRefreshedEvent event) {
+		}
+	}
+
+
+	@Configuration
+	static class FailingConfig {
+
+		@Bean
+		public static BeanFactoryPostProcessor failingPostProcessor() {
+			return beanFactory -> {
+				throw new IllegalStateException("Test exception");
+			};
+		}
+	}
+
+}
@@ -18,6 +18,8 @@ package org.springframework.context.support;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
@@ -27,19 +29,24 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.CannotLoadBeanClassException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.tests.sample.beans.ResourceTestBean;
+import org.springframework.tests.sample.beans.TestBean;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.ObjectUtils;
 
@@ -71,6 +78,7 @@ public class ClassPathXmlApplicationContextTests {
 	private static final String ALIAS_THAT_OVERRIDES_PARENT_CONTEXT = PATH + "aliasThatOverridesParent.xml";
 	private static final String ALIAS_FOR_PARENT_CONTEXT = PATH + "aliasForParent.xml";
 	private static final String TEST_PROPERTIES = "test.properties";
+	private static final String FQ_SNAPSHOT_CONTEXT = PATH + "snapshotContext.xml";
 
 
 	@Test
@@ -402,4 +410,107 @@ public class ClassPathXmlApplicationContextTests {
 		ctx.close();
 	}
 
+	@Test
+	public void testBeanDefinitionSnapshot(@TempDir File tempDir) {
+		File snapshotFile = new File(tempDir, "beans.snapshot");
+		ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SNAPSHOT_CONTEXT}, false);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(snapshotFile).isFile();
+		assertThat(ctx.getBean("snapshotBean", TestBean.class).getName()).isEqualTo("fromConfig");
+		ctx.close();
+
+		// Bean definitions must be restored from the snapshot rather than loaded from the config location
+		ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SNAPSHOT_CONTEXT}, false) {
+			@Override
+			protected void loadBeanDefinitions(DefaultListableBeanFactory beanFactory) {
+				throw new IllegalStateException("Bean definitions should have been restored");
+			}
+		};
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(ctx.getBean("placeholderBean", TestBean.class).getName()).isEqualTo("placeholder");
+		SnapshotConfig config = ctx.getBean(SnapshotConfig.class);
+		assertThat(config.snapshotBean()).isSameAs(ctx.getBean("snapshotBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void testBeanDefinitionSnapshotWithOutdatedFingerprint(@TempDir File tempDir) {
+		File snapshotFile = new File(tempDir, "beans.snapshot");
+		ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SNAPSHOT_CONTEXT}, false);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		ctx.close();
+
+		ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SIMPLE_CONTEXT}, false) {
+			@Override
+			protected String determineBeanDefinitionSnapshotFingerprint() {
+				return "outdated";
+			}
+		};
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(ctx.containsBean("someMessageSource")).isTrue();
+		assertThat(ctx.containsBean("placeholderBean")).isFalse();
+		ctx.close();
+	}
+
+	@Test
+	public void testBeanDefinitionSnapshotWithOtherConfigLocation(@TempDir File tempDir) {
+		File snapshotFile = new File(tempDir, "beans.snapshot");
+		ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SNAPSHOT_CONTEXT}, false);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		ctx.close();
+
+		ctx = new ClassPathXmlApplicationContext(new String[] {FQ_SIMPLE_CONTEXT}, false);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(ctx.containsBean("someMessageSource")).isTrue();
+		assertThat(ctx.containsBean("placeholderBean")).isFalse();
+		ctx.close();
+	}
+
+	@Test
+	public void testBeanDefinitionSnapshotWithModifiedConfigFile(@TempDir File tempDir) throws IOException {
+		File snapshotFile = new File(tempDir, "beans.snapshot");
+		File configFile = new File(tempDir, "beans.xml");
+		writeSingleBeanConfig(configFile, "first");
+		FileSystemXmlApplicationContext ctx = new FileSystemXmlApplicationContext(
+				new String[] {configFile.toURI().toString()}, false, null);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(ctx.containsBean("first")).isTrue();
+		ctx.close();
+
+		writeSingleBeanConfig(configFile, "second");
+		assertThat(configFile.setLastModified(configFile.lastModified() + 10000)).isTrue();
+		ctx = new FileSystemXmlApplicationContext(new String[] {configFile.toURI().toString()}, false, null);
+		ctx.setBeanDefinitionSnapshotFile(snapshotFile);
+		ctx.refresh();
+		assertThat(ctx.containsBean("second")).isTrue();
+		assertThat(ctx.containsBean("first")).isFalse();
+		ctx.close();
+	}
+
+	private static void writeSingleBeanConfig(File configFile, String beanName) throws IOException {
+		FileCopyUtils.copy("<beans xmlns=\"http://www.springframework.org/schema/beans\" " +
+				"xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"" +
+				"http://www.springframework.org/schema/beans " +
+				"https://www.springframework.org/schema/beans/spring-beans.xsd\">" +
+				"<bean id=\"" + beanName + "\" class=\"" + TestBean.class.getName() + "\"/></beans>",
+				new FileWriter(configFile));
+	}
+
+
+	@Configuration
+	static class SnapshotConfig {
+
+		@Bean
+		public TestBean snapshotBean() {
+			return new TestBean("fromConfig");
+		}
+	}
+
 }
@@ -17,6 +17,8 @@
 package org.springframework.context.support;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -24,12 +26,15 @@ import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContextException;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.tests.EnabledForTestGroups;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.springframework.tests.TestGroup.PERFORMANCE;
 
 /**
@@ -569,6 +574,53 @@ public class DefaultLifecycleProcessorTests {
 				((SmartLifecycle) lifecycle).getPhase() : 0;
 	}
 
+	@Test
+	public void concurrentStartAndStopWithinPhase() throws Exception {
+		CopyOnWriteArrayList<String> events = new CopyOnWriteArrayList<>();
+		// Both beans block in start() and stop() until the other one gets there as well
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		StaticApplicationContext context = createContextWithLifecycleExecutor();
+		context.getBeanFactory().registerSingleton("bean1", new ConcurrentLifecycleBean("bean1", events, barrier));
+		context.getBeanFactory().registerSingleton("bean2", new ConcurrentLifecycleBean("bean2", events, barrier));
+		context.getBeanFactory().registerSingleton("bean3", new ConcurrentLifecycleBean("bean3", events, null));
+		context.getBeanFactory().registerDependentBean("bean1", "bean3");
+		context.refresh();
+		assertThat(events).containsExactlyInAnyOrder("start:bean1", "start:bean2", "start:bean3");
+		assertThat(events.indexOf("start:bean3")).isGreaterThan(events.indexOf("start:bean1"));
+
+		events.clear();
+		context.stop();
+		assertThat(events).containsExactlyInAnyOrder("stop:bean1", "stop:bean2", "stop:bean3");
+		assertThat(events.indexOf("stop:bean3")).isLessThan(events.indexOf("stop:bean1"));
+		context.close();
+	}
+
+	@Test
+	public void concurrentStartFailure() throws Exception {
+		CopyOnWriteArrayList<String> events = new CopyOnWriteArrayList<>();
+		StaticApplicationContext context = createContextWithLifecycleExecutor();
+		context.getBeanFactory().registerSingleton("failing", new ConcurrentLifecycleBean("failing", events, null) {
+			@Override
+			public void start() {
+				throw new IllegalStateException("intentional");
+			}
+		});
+		context.getBeanFactory().registerSingleton("dependent", new ConcurrentLifecycleBean("dependent", events, null));
+		context.getBeanFactory().registerDependentBean("failing", "dependent");
+		assertThatExceptionOfType(ApplicationContextException.class).isThrownBy(context::refresh)
+				.withMessageContaining("'failing'")
+				.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(events).doesNotContain("start:dependent");
+	}
+
+	private static StaticApplicationContext createContextWithLifecycleExecutor() {
+		BeanDefinition beanDefinition = new RootBeanDefinition(DefaultLifecycleProcessor.class);
+		beanDefinition.getPropertyValues().addPropertyValue("lifecycleExecutor", new SimpleAsyncTaskExecutor());
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("lifecycleProcessor", beanDefinition);
+		return context;
+	}
+
 
 	private static class TestLifecycleBean implements Lifecycle {
 
@@ -675,6 +727,54 @@ public class DefaultLifecycleProcessorTests {
 	}
 
 
+	private static class ConcurrentLifecycleBean implements SmartLifecycle {
+
+		private final String name;
+
+		private final CopyOnWriteArrayList<String> events;
+
+		private final CyclicBarrier barrier;
+
+		private volatile boolean running;
+
+		ConcurrentLifecycleBean(String name, CopyOnWriteArrayList<String> events, CyclicBarrier barrier) {
+			this.name = name;
+			this.events = events;
+			this.barrier = barrier;
+		}
+
+		@Override
+		public void start() {
+			awaitBarrier();
+			this.events.add("start:" + this.name);
+			this.running = true;
+		}
+
+		@Override
+		public void stop() {
+			awaitBarrier();
+			this.events.add("stop:" + this.name);
+			this.running = false;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+
+		private void awaitBarrier() {
+			if (this.barrier != null) {
+				try {
+					this.barrier.await(5, TimeUnit.SECONDS);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Not invoked concurrently", ex);
+				}
+			}
+		}
+	}
+
+
 	public static class DummySmartLifecycleBean implements SmartLifecycle {
 
 		public boolean running = false;
@@ -16,10 +16,14 @@
 
 package org.springframework.context.support;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -313,6 +317,56 @@ public class ResourceBundleMessageSourceTests {
 		assertThat(ms.getMessage("code2", null, Locale.GERMAN)).isEqualTo("nachricht2");
 	}
 
+	@Test
+	public void testReloadableResourceBundleMessageSourceWithRefreshExecutor() throws InterruptedException {
+		List<Runnable> refreshTasks = new ArrayList<>();
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+		ms.setBasename("org/springframework/context/support/messages");
+		ms.setCacheMillis(1);
+		ms.setRefreshExecutor(refreshTasks::add);
+		// Initial cache attempt on the calling thread
+		assertThat(ms.getMessage("code1", null, Locale.ENGLISH)).isEqualTo("message1");
+		assertThat(refreshTasks).isEmpty();
+		Thread.sleep(10);
+		// Stale properties returned while refreshing in the background
+		assertThat(ms.getMessage("code1", null, Locale.ENGLISH)).isEqualTo("message1");
+		int refreshCount = refreshTasks.size();
+		assertThat(refreshCount).isGreaterThan(0);
+		assertThat(ms.getMessage("code1", null, Locale.ENGLISH)).isEqualTo("message1");
+		assertThat(refreshTasks).hasSize(refreshCount);
+		new ArrayList<>(refreshTasks).forEach(Runnable::run);
+		Thread.sleep(10);
+		assertThat(ms.getMessage("code1", null, Locale.ENGLISH)).isEqualTo("message1");
+		assertThat(refreshTasks).hasSize(refreshCount * 2);
+	}
+
+	@Test
+	public void testReloadableResourceBundleMessageSourceWithConcurrentFormatting() throws Exception {
+		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
+		ms.setBasename("org/springframework/context/support/messages");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					for (int j = 0; j < 1000; j++) {
+						String expected = j + ", " + String.format(Locale.ENGLISH, "%,d", j * 1000);
+						if (!expected.equals(ms.getMessage("hello", new Object[] {j, j * 1000}, Locale.ENGLISH))) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testReloadableResourceBundleMessageSourceWithCommonMessages() {
 		ReloadableResourceBundleMessageSource ms = new ReloadableResourceBundleMessageSource();
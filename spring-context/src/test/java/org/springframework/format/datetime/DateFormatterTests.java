@@ -65,6 +65,19 @@ public class DateFormatterTests {
 		assertThat(formatter.parse("2009-06-01", Locale.US)).isEqualTo(date);
 	}
 
+	@Test
+	public void shouldApplySettingsChangedAfterUse() throws ParseException {
+		DateFormatter formatter = new DateFormatter("yyyy-MM-dd HH:mm");
+		formatter.setTimeZone(UTC);
+		Date date = getDate(2009, Calendar.JUNE, 1);
+		assertThat(formatter.print(date, Locale.US)).isEqualTo("2009-06-01 00:00");
+		formatter.setPattern("dd.MM.yyyy HH:mm");
+		assertThat(formatter.print(date, Locale.US)).isEqualTo("01.06.2009 00:00");
+		formatter.setTimeZone(TimeZone.getTimeZone("GMT+02:00"));
+		assertThat(formatter.print(date, Locale.US)).isEqualTo("01.06.2009 02:00");
+		assertThat(formatter.parse("01.06.2009 02:00", Locale.US)).isEqualTo(date);
+	}
+
 	@Test
 	public void shouldPrintAndParseShort() throws Exception {
 		DateFormatter formatter = new DateFormatter();
@@ -27,6 +27,8 @@ import java.time.Period;
 import java.time.Year;
 import java.time.YearMonth;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 import java.util.ArrayList;
@@ -91,6 +93,20 @@ public class DateTimeFormattingTests {
 	}
 
 
+	@Test
+	public void testPrintWithDateTimeContext() {
+		TemporalAccessorPrinter printer = new TemporalAccessorPrinter(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm xxx"));
+		ZonedDateTime dateTime = ZonedDateTime.of(2009, 10, 31, 12, 0, 0, 0, ZoneOffset.UTC);
+		assertThat(printer.print(dateTime, Locale.US)).isEqualTo("2009-10-31 07:00 -05:00");
+		assertThat(printer.print(dateTime, Locale.GERMANY)).isEqualTo("2009-10-31 07:00 -05:00");
+		DateTimeContext context = new DateTimeContext();
+		context.setTimeZone(ZoneId.of("+01:00"));
+		DateTimeContextHolder.setDateTimeContext(context);
+		assertThat(printer.print(dateTime, Locale.US)).isEqualTo("2009-10-31 13:00 +01:00");
+		DateTimeContextHolder.setDateTimeContext(null);
+		assertThat(printer.print(dateTime, Locale.US)).isEqualTo("2009-10-31 12:00 +00:00");
+	}
+
 	@Test
 	public void testBindLocalDate() {
 		MutablePropertyValues propertyValues = new MutablePropertyValues();
@@ -38,6 +38,15 @@ public class NumberStyleFormatterTests {
 		assertThat(formatter.print(new BigDecimal("23.56"), Locale.US)).isEqualTo("23.56");
 	}
 
+	@Test
+	public void formatValueWithChangedPattern() {
+		formatter.setPattern("#,##0.0");
+		assertThat(formatter.print(new BigDecimal("1234.56"), Locale.US)).isEqualTo("1,234.6");
+		assertThat(formatter.print(new BigDecimal("1234.56"), Locale.GERMANY)).isEqualTo("1.234,6");
+		formatter.setPattern("0.000");
+		assertThat(formatter.print(new BigDecimal("1234.56"), Locale.US)).isEqualTo("1234.560");
+	}
+
 	@Test
 	public void parseValue() throws ParseException {
 		assertThat(formatter.parse("23.56", Locale.US)).isEqualTo(new BigDecimal("23.56"));
@@ -18,9 +18,14 @@ package org.springframework.scheduling.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ForkJoinPoolTaskExecutor;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -58,6 +63,22 @@ public class AnnotationAsyncExecutionInterceptorTests {
 		}
 	}
 
+	@Test
+	public void forkJoinPoolAdaptedForWorkStealing() {
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			AnnotationAsyncExecutionInterceptor i = new AnnotationAsyncExecutionInterceptor(pool);
+			assertThat(i.adaptExecutor(pool)).isInstanceOf(ForkJoinPoolTaskExecutor.class);
+		}
+		finally {
+			pool.shutdown();
+		}
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+		assertThat(new AnnotationAsyncExecutionInterceptor(executor).adaptExecutor(executor)).isSameAs(executor);
+		assertThat(new AnnotationAsyncExecutionInterceptor(null).adaptExecutor(Runnable::run))
+				.isInstanceOf(TaskExecutorAdapter.class);
+	}
+
 	@Async("qMeta")
 	@Retention(RetentionPolicy.RUNTIME)
 	@interface MyAsync { }
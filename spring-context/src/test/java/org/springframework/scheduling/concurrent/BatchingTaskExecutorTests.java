@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BatchingTaskExecutor}.
+ */
+public class BatchingTaskExecutorTests {
+
+	private final ExecutorService target = Executors.newSingleThreadExecutor();
+
+	private final AtomicInteger targetTaskCount = new AtomicInteger();
+
+	private final BatchingTaskExecutor executor = new BatchingTaskExecutor(task -> {
+		this.targetTaskCount.incrementAndGet();
+		this.target.execute(task);
+	});
+
+
+	@AfterEach
+	public void shutdown() {
+		this.target.shutdownNow();
+	}
+
+
+	@Test
+	public void tasksSubmittedWhileTargetBusyShareOneBatch() throws Exception {
+		CountDownLatch latch = blockTarget();
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			int value = i;
+			futures.add(this.executor.submit(() -> value));
+		}
+		assertThat(this.targetTaskCount.get()).isEqualTo(2);
+
+		latch.countDown();
+		for (int i = 0; i < 10; i++) {
+			assertThat(futures.get(i).get(1, TimeUnit.SECONDS)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	public void maxBatchSizeOpensNewBatch() throws Exception {
+		this.executor.setMaxBatchSize(4);
+		CountDownLatch latch = blockTarget();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(this.executor.submitListenable(() -> { }));
+		}
+		// One blocking batch plus three batches of at most four tasks
+		assertThat(this.targetTaskCount.get()).isEqualTo(4);
+
+		latch.countDown();
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void failingTaskDoesNotAffectOthersInBatch() throws Exception {
+		CountDownLatch latch = blockTarget();
+		CountDownLatch done = new CountDownLatch(1);
+		this.executor.execute(() -> {
+			throw new IllegalStateException("intentional");
+		});
+		Future<String> future = this.executor.submit(() -> "ok");
+		this.executor.execute(done::countDown);
+
+		latch.countDown();
+		assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.get()).isEqualTo("ok");
+	}
+
+	@Test
+	public void batchWindowGroupsTasksSubmittedAfterPickup() throws Exception {
+		this.executor.setBatchWindowMillis(200);
+		CountDownLatch done = new CountDownLatch(3);
+		this.executor.execute(done::countDown);
+		Thread.sleep(50);
+		this.executor.execute(done::countDown);
+		this.executor.execute(done::countDown);
+
+		assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.targetTaskCount.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void rejectedBatch() {
+		Executor rejecting = task -> {
+			throw new RejectedExecutionException();
+		};
+		BatchingTaskExecutor executor = new BatchingTaskExecutor(rejecting);
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(() -> { }));
+	}
+
+
+	private CountDownLatch blockTarget() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		this.executor.execute(() -> {
+			started.countDown();
+			try {
+				latch.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+		return latch;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.concurrent.ListenableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ForkJoinPoolTaskExecutor}.
+ */
+public class ForkJoinPoolTaskExecutorTests {
+
+	private final ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+
+
+	@AfterEach
+	public void shutdown() {
+		this.executor.destroy();
+	}
+
+
+	@Test
+	public void executeOnNamedWorkerThreads() throws Exception {
+		this.executor.setThreadNamePrefix("fj-");
+		this.executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		List<String> threadNames = new CopyOnWriteArrayList<>();
+		this.executor.execute(() -> {
+			threadNames.add(Thread.currentThread().getName());
+			latch.countDown();
+		});
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(threadNames).hasSize(1);
+		assertThat(threadNames.get(0)).startsWith("fj-");
+		assertThat(this.executor.prefersShortLivedTasks()).isTrue();
+	}
+
+	@Test
+	public void submitPreservesOriginalException() throws Exception {
+		this.executor.afterPropertiesSet();
+		IllegalStateException failure = new IllegalStateException("intentional");
+		Future<Object> future = this.executor.submit(() -> {
+			throw failure;
+		});
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+				.withCause(failure);
+	}
+
+	@Test
+	public void nestedSubmissionsFromWorkerThreads() throws Exception {
+		this.executor.setParallelism(2);
+		this.executor.afterPropertiesSet();
+		Future<Integer> future = this.executor.submit(() -> {
+			List<Future<Integer>> parts = new CopyOnWriteArrayList<>();
+			for (int i = 1; i <= 100; i++) {
+				int value = i;
+				parts.add(this.executor.submit(() -> value));
+			}
+			int sum = 0;
+			for (Future<Integer> part : parts) {
+				sum += part.get();
+			}
+			return sum;
+		});
+		assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(5050);
+	}
+
+	@Test
+	public void submitListenable() throws Exception {
+		this.executor.afterPropertiesSet();
+		ListenableFuture<String> future = this.executor.submitListenable(() -> "done");
+		CountDownLatch latch = new CountDownLatch(1);
+		future.addCallback(result -> latch.countDown(), ex -> { });
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.get()).isEqualTo("done");
+	}
+
+	@Test
+	public void givenPoolIsNotShutDown() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor(pool);
+			executor.afterPropertiesSet();
+			assertThat(executor.getForkJoinPool()).isSameAs(pool);
+			assertThat(executor.submit(() -> "ok").get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+			executor.destroy();
+			assertThat(pool.isShutdown()).isFalse();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link HashedWheelTaskScheduler} and {@link HashedWheelScheduledExecutor}.
+ */
+public class HashedWheelTaskSchedulerTests extends AbstractSchedulingTaskExecutorTests {
+
+	private final HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		this.scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		this.scheduler.setTickDuration(5);
+		this.scheduler.setTicksPerWheel(8);
+		this.scheduler.afterPropertiesSet();
+		return this.scheduler;
+	}
+
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		long start = System.currentTimeMillis();
+		CountDownLatch latch = new CountDownLatch(1);
+		ScheduledFuture<?> future = this.scheduler.schedule(latch::countDown, new Date(start + 50));
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(45);
+		assertThat(future.get(1, TimeUnit.SECONDS)).isNull();
+		assertThat(future.isDone()).isTrue();
+	}
+
+	@Test
+	public void scheduleBeyondOneRevolution() throws Exception {
+		// 8 ticks of 5 ms per revolution: 200 ms take several rounds
+		long start = System.currentTimeMillis();
+		CountDownLatch latch = new CountDownLatch(1);
+		this.scheduler.schedule(latch::countDown, new Date(start + 200));
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(195);
+	}
+
+	@Test
+	public void scheduleInOrder() throws Exception {
+		List<Integer> order = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		long start = System.currentTimeMillis();
+		for (int i = 3; i > 0; i--) {
+			int index = i;
+			this.scheduler.schedule(() -> {
+				synchronized (order) {
+					order.add(index);
+				}
+				latch.countDown();
+			}, new Date(start + index * 40));
+		}
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(order).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void scheduleTriggerTask() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			count.incrementAndGet();
+			latch.countDown();
+		}, new PeriodicTrigger(10));
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+		int countAfterCancel = count.get();
+		Thread.sleep(50);
+		assertThat(count.get()).isLessThanOrEqualTo(countAfterCancel + 1);
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 10);
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithFixedDelay() throws Exception {
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(latch::countDown, 10);
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void cancelledTasksDoNotRun() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		long start = System.currentTimeMillis();
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			futures.add(this.scheduler.schedule(count::incrementAndGet, new Date(start + 500)));
+		}
+		CountDownLatch latch = new CountDownLatch(1);
+		this.scheduler.schedule(latch::countDown, new Date(start + 600));
+		futures.forEach(future -> future.cancel(false));
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(count.get()).isEqualTo(0);
+		assertThat(futures).allMatch(ScheduledFuture::isCancelled);
+	}
+
+	@Test
+	public void scheduleWithMaximumDelay() throws Exception {
+		ScheduledExecutorService executor = this.scheduler.getScheduledExecutor();
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = executor.schedule(count::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		ScheduledFuture<?> periodic = executor.scheduleAtFixedRate(
+				count::incrementAndGet, Long.MAX_VALUE, Long.MAX_VALUE, TimeUnit.DAYS);
+		Thread.sleep(50);
+		assertThat(count.get()).isEqualTo(0);
+		assertThat(future.getDelay(TimeUnit.DAYS)).isGreaterThan(365 * 100);
+		assertThat(periodic.getDelay(TimeUnit.DAYS)).isGreaterThan(365 * 100);
+		assertThat(future.isDone()).isFalse();
+		future.cancel(false);
+		periodic.cancel(false);
+	}
+
+	@Test
+	public void shutdownCancelsDelayedTasks() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> { }, new Date(System.currentTimeMillis() + 10_000));
+		this.scheduler.destroy();
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(this.scheduler.getScheduledExecutor().isShutdown()).isTrue();
+		assertThat(this.scheduler.getScheduledExecutor().awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void adjustPoolSizeAtRuntime() {
+		assertThat(this.scheduler.isRemoveOnCancelPolicy()).isTrue();
+		this.scheduler.setPoolSize(4);
+		HashedWheelScheduledExecutor executor = (HashedWheelScheduledExecutor) this.scheduler.getScheduledExecutor();
+		assertThat(executor.getTicksPerWheel()).isEqualTo(8);
+		assertThat(executor.getTickDuration(TimeUnit.MILLISECONDS)).isEqualTo(5);
+		this.scheduler.setPoolSize(1);
+		assertThat(this.scheduler.getActiveCount()).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void withConcurrentTaskScheduler() throws Exception {
+		HashedWheelScheduledExecutor executor = new HashedWheelScheduledExecutor(
+				1, TimeUnit.MILLISECONDS, 100, Executors.defaultThreadFactory(), Executors.newSingleThreadExecutor());
+		try {
+			assertThat(executor.getTicksPerWheel()).isEqualTo(128);
+			ConcurrentTaskScheduler concurrentScheduler = new ConcurrentTaskScheduler(executor);
+			CountDownLatch latch = new CountDownLatch(2);
+			concurrentScheduler.schedule(latch::countDown, new PeriodicTrigger(5));
+			assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+		assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() ->
+				executor.schedule(() -> { }, 10, TimeUnit.MILLISECONDS));
+	}
+
+}
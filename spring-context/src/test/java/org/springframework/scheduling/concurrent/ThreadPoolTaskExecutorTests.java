@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,20 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
 import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor.QueueType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Juergen Hoeller
@@ -33,4 +46,190 @@ public class ThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorT
 		return executor;
 	}
 
+
+	@Test
+	public void linkedQueueOnlyGrowsWhenFull() throws Exception {
+		ThreadPoolTaskExecutor executor = buildExecutor(QueueType.LINKED, 1, 4, 10);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> await(latch));
+			}
+			assertThat(executor.getPoolSize()).isEqualTo(1);
+			assertThat(executor.getQueueSize()).isEqualTo(3);
+		}
+		finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void eagerQueueCreatesThreadsBeforeQueueing() throws Exception {
+		ThreadPoolTaskExecutor executor = buildExecutor(QueueType.EAGER, 1, 4, 10);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> await(latch));
+			}
+			assertThat(executor.getPoolSize()).isEqualTo(4);
+			assertThat(executor.getQueueSize()).isEqualTo(0);
+
+			executor.execute(() -> await(latch));
+			assertThat(executor.getPoolSize()).isEqualTo(4);
+			assertThat(executor.getQueueSize()).isEqualTo(1);
+		}
+		finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void eagerQueueDoesNotCountDiscardedTasks() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setQueueType(QueueType.EAGER);
+		executor.setMaxPoolSize(2);
+		executor.setQueueCapacity(1);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+		executor.afterPropertiesSet();
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicInteger completed = new AtomicInteger();
+			for (int i = 0; i < 5; i++) {
+				executor.execute(() -> {
+					await(latch);
+					completed.incrementAndGet();
+				});
+			}
+			assertThat(executor.getPoolSize()).isEqualTo(2);
+			latch.countDown();
+			long deadline = System.currentTimeMillis() + 5000;
+			while ((completed.get() < 3 || executor.getActiveCount() > 0) &&
+					System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertThat(completed.get()).isEqualTo(3);
+
+			// Two idle threads: further tasks are queued rather than creating threads
+			executor.setMaxPoolSize(3);
+			CountDownLatch anotherLatch = new CountDownLatch(1);
+			executor.execute(() -> await(anotherLatch));
+			deadline = System.currentTimeMillis() + 5000;
+			while (executor.getActiveCount() < 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			executor.execute(() -> await(anotherLatch));
+			assertThat(executor.getPoolSize()).isEqualTo(2);
+			anotherLatch.countDown();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void synchronousQueueRejectsBeyondMaxPoolSize() throws Exception {
+		ThreadPoolTaskExecutor executor = buildExecutor(QueueType.SYNCHRONOUS, 1, 2, 10);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			executor.execute(() -> await(latch));
+			assertThat(executor.getPoolSize()).isEqualTo(2);
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+					executor.execute(() -> await(latch)));
+		}
+		finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void taskMetrics() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskMetricsEnabled(true);
+		executor.afterPropertiesSet();
+		try {
+			for (int i = 0; i < 3; i++) {
+				executor.submit(() -> sleep(20));
+			}
+			executor.submit(() -> {});
+			executor.getThreadPoolExecutor().shutdown();
+			assertThat(executor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(executor.getExecutionTimeHistogram().getCount()).isEqualTo(4);
+			assertThat(executor.getExecutionTimeHistogram().getMaxTime())
+					.isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+			assertThat(executor.getQueueWaitHistogram().getCount()).isEqualTo(4);
+			// The last task waited for the three before it on the single thread
+			assertThat(executor.getQueueWaitHistogram().getMaxTime())
+					.isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void adaptivePoolSizingGrowsUnderLoad() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(4);
+		executor.setAdaptivePoolSizing(true);
+		executor.setTargetQueueWaitMillis(5);
+		executor.setAdaptiveIntervalMillis(20);
+		executor.afterPropertiesSet();
+		try {
+			for (int i = 0; i < 100; i++) {
+				executor.execute(() -> sleep(10));
+			}
+			long deadline = System.currentTimeMillis() + 5000;
+			while (executor.getPoolSize() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(executor.getPoolSize()).isBetween(2, 4);
+			assertThat(executor.getThreadPoolExecutor().getCorePoolSize()).isBetween(2, 4);
+			assertThat(executor.getCorePoolSize()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void adaptivePoolSizingRequiresBoundedMaxPoolSize() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setAdaptivePoolSizing(true);
+		assertThatIllegalStateException().isThrownBy(executor::afterPropertiesSet);
+	}
+
+
+	private static ThreadPoolTaskExecutor buildExecutor(QueueType queueType, int core, int max, int capacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setQueueType(queueType);
+		executor.setCorePoolSize(core);
+		executor.setMaxPoolSize(max);
+		executor.setQueueCapacity(capacity);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 }
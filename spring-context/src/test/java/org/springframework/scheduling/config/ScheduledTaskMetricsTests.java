@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link ScheduledTaskMetrics} and {@link ScheduledTaskMonitor}.
+ */
+class ScheduledTaskMetricsTests {
+
+	private final ScheduledTaskMetrics metrics = new ScheduledTaskMetrics();
+
+
+	@Test
+	void fixedRateExecutionPastNextPlannedTime() {
+		long plannedTime = System.currentTimeMillis() - 100;
+		Runnable runnable = MeteredRunnable.forFixedRate(() -> sleep(30), this.metrics, plannedTime, 10);
+		runnable.run();
+
+		assertThat(this.metrics.getExecutionCount()).isEqualTo(1);
+		assertThat(this.metrics.getOverrunCount()).isEqualTo(1);
+		assertThat(this.metrics.getFailureCount()).isEqualTo(0);
+		assertThat(this.metrics.getLagHistogram().getMaxTime()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(this.metrics.getDurationHistogram().getMaxTime())
+				.isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+	}
+
+	@Test
+	void fixedRateExecutionWithinInterval() {
+		Runnable runnable = MeteredRunnable.forFixedRate(() -> {}, this.metrics, System.currentTimeMillis(), 60_000);
+		runnable.run();
+
+		assertThat(this.metrics.getExecutionCount()).isEqualTo(1);
+		assertThat(this.metrics.getOverrunCount()).isEqualTo(0);
+	}
+
+	@Test
+	void failedExecution() {
+		Runnable runnable = MeteredRunnable.forFixedDelay(() -> {
+			throw new IllegalStateException();
+		}, this.metrics, System.currentTimeMillis(), 1000);
+		assertThatIllegalStateException().isThrownBy(runnable::run);
+
+		assertThat(this.metrics.getExecutionCount()).isEqualTo(1);
+		assertThat(this.metrics.getFailureCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cronTriggerWithSkippedExecutions() {
+		MeteredRunnable runnable = MeteredRunnable.forTrigger(() -> {}, this.metrics);
+		Trigger trigger = runnable.meter(new CronTrigger("* * * * * *"));
+		// Last execution planned at a full second and completed 3.5 seconds later
+		long lastScheduled = (System.currentTimeMillis() / 1000) * 1000;
+		Date next = trigger.nextExecutionTime(new SimpleTriggerContext(
+				new Date(lastScheduled), new Date(lastScheduled), new Date(lastScheduled + 3500)));
+
+		assertThat(next).isEqualTo(new Date(lastScheduled + 4000));
+		assertThat(this.metrics.getSkippedCount()).isEqualTo(3);
+		assertThat(this.metrics.getOverrunCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cronTriggerWithoutSkippedExecutions() {
+		MeteredRunnable runnable = MeteredRunnable.forTrigger(() -> {}, this.metrics);
+		Trigger trigger = runnable.meter(new CronTrigger("* * * * * *"));
+		long lastScheduled = (System.currentTimeMillis() / 1000) * 1000;
+		trigger.nextExecutionTime(new SimpleTriggerContext(
+				new Date(lastScheduled), new Date(lastScheduled), new Date(lastScheduled + 500)));
+
+		assertThat(this.metrics.getSkippedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void metricsOfRegisteredTasks() throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+		registrar.setTaskScheduler(scheduler);
+		registrar.addFixedRateTask(latch::countDown, 10);
+		registrar.afterPropertiesSet();
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			ScheduledTask task = registrar.getScheduledTasks().iterator().next();
+			assertThat(task.getMetrics().getExecutionCount()).isGreaterThanOrEqualTo(2);
+
+			ScheduledTaskMonitor monitor = new ScheduledTaskMonitor(registrar);
+			assertThat(monitor.getTaskNames()).containsExactly(task.toString());
+			Map<String, Object> description = monitor.describeMetrics(task.toString());
+			assertThat(description).containsKeys("executionCount", "failureCount", "overrunCount",
+					"skippedCount", "lagAverage", "lagMax", "durationAverage", "durationMax");
+			assertThat((Long) description.get("executionCount")).isGreaterThanOrEqualTo(2);
+			assertThat(monitor.describeMetrics("unknown")).isEmpty();
+		}
+		finally {
+			registrar.destroy();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void monitorDistinguishesTasksOfSameName() {
+		Runnable runnable = () -> {};
+		ScheduledTask task1 = new ScheduledTask(new IntervalTask(runnable, 10));
+		ScheduledTask task2 = new ScheduledTask(new IntervalTask(runnable, 20));
+		ScheduledTaskMonitor monitor = new ScheduledTaskMonitor(
+				() -> Collections.singleton(task1), () -> Collections.singleton(task2));
+
+		assertThat(monitor.getTaskNames()).containsExactly(task1.toString(), task1.toString() + "#2");
+	}
+
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link CronExpression}.
+ */
+public class CronExpressionTests {
+
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+
+	@Test
+	public void matchAll() {
+		CronExpression expression = CronExpression.parse("* * * * * *");
+		LocalDateTime last = LocalDateTime.of(2019, 12, 31, 23, 59, 59, 500);
+		assertThat(expression.next(last)).isEqualTo(LocalDateTime.of(2020, 1, 1, 0, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 10, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2019, 6, 1, 10, 0, 1));
+	}
+
+	@Test
+	public void rollOverFields() {
+		CronExpression expression = CronExpression.parse("10 15 8 * * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 8, 15, 10)))
+				.isEqualTo(LocalDateTime.of(2019, 6, 2, 8, 15, 10));
+		assertThat(expression.next(LocalDateTime.of(2019, 12, 31, 9, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 1, 1, 8, 15, 10));
+	}
+
+	@Test
+	public void rangesStepsAndLists() {
+		CronExpression expression = CronExpression.parse("0 0/30 8-10 * * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 7, 0))).isEqualTo(LocalDateTime.of(2019, 6, 1, 8, 0));
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 8, 0))).isEqualTo(LocalDateTime.of(2019, 6, 1, 8, 30));
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 10, 30))).isEqualTo(LocalDateTime.of(2019, 6, 2, 8, 0));
+
+		expression = CronExpression.parse("0 0 6,19 * * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 7, 0))).isEqualTo(LocalDateTime.of(2019, 6, 1, 19, 0));
+	}
+
+	@Test
+	public void monthAndDayNames() {
+		CronExpression expression = CronExpression.parse("0 0 9-17 * DEC MON-FRI");
+		// Saturday, 30 November 2019
+		assertThat(expression.next(LocalDateTime.of(2019, 11, 30, 12, 0)))
+				.isEqualTo(LocalDateTime.of(2019, 12, 2, 9, 0));
+		assertThat(CronExpression.parse("0 0 0 * * sun")).isEqualTo(CronExpression.parse("0 0 0 * * 7"));
+		assertThat(CronExpression.parse("0 0 0 * * 0")).isEqualTo(CronExpression.parse("0 0 0 * * SUN"));
+	}
+
+	@Test
+	public void dayOfMonthAndDayOfWeekMustBothMatch() {
+		// Friday the 13th
+		CronExpression expression = CronExpression.parse("0 0 0 13 * FRI");
+		assertThat(expression.next(LocalDateTime.of(2019, 10, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 12, 13, 0, 0));
+	}
+
+	@Test
+	public void leapDay() {
+		CronExpression expression = CronExpression.parse("0 0 0 29 2 *");
+		assertThat(expression.next(LocalDateTime.of(2019, 3, 1, 0, 0))).isEqualTo(LocalDateTime.of(2020, 2, 29, 0, 0));
+	}
+
+	@Test
+	public void lastDayOfMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 L * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 2, 10, 0, 0))).isEqualTo(LocalDateTime.of(2019, 2, 28, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2020, 2, 10, 0, 0))).isEqualTo(LocalDateTime.of(2020, 2, 29, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2019, 4, 30, 0, 0))).isEqualTo(LocalDateTime.of(2019, 5, 31, 0, 0));
+
+		expression = CronExpression.parse("0 0 0 L-2 * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 2, 10, 0, 0))).isEqualTo(LocalDateTime.of(2019, 2, 26, 0, 0));
+	}
+
+	@Test
+	public void lastWeekdayOfMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 LW * *");
+		// 31 August 2019 is a Saturday
+		assertThat(expression.next(LocalDateTime.of(2019, 8, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 8, 30, 0, 0));
+		// 30 June 2019 is a Sunday
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 28, 0, 0));
+	}
+
+	@Test
+	public void nearestWeekday() {
+		CronExpression expression = CronExpression.parse("0 0 0 15W * *");
+		// 15 June 2019 is a Saturday
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 14, 0, 0));
+		// 15 September 2019 is a Sunday
+		assertThat(expression.next(LocalDateTime.of(2019, 9, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 9, 16, 0, 0));
+		// 15 October 2019 is a Tuesday
+		assertThat(expression.next(LocalDateTime.of(2019, 10, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 10, 15, 0, 0));
+
+		// 1 June 2019 is a Saturday: the nearest weekday within the month is Monday the 3rd
+		expression = CronExpression.parse("0 0 0 1W * *");
+		assertThat(expression.next(LocalDateTime.of(2019, 5, 31, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 3, 0, 0));
+	}
+
+	@Test
+	public void lastDayOfWeekInMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 * * 5L");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 28, 0, 0));
+		assertThat(CronExpression.parse("0 0 0 * * FRIL")).isEqualTo(expression);
+	}
+
+	@Test
+	public void nthDayOfWeekInMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 * * MON#2");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 10, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 10, 0, 0))).isEqualTo(LocalDateTime.of(2019, 7, 8, 0, 0));
+
+		// Months with a fifth Sunday only
+		expression = CronExpression.parse("0 0 0 * * 0#5");
+		assertThat(expression.next(LocalDateTime.of(2019, 6, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 6, 30, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2019, 7, 1, 0, 0))).isEqualTo(LocalDateTime.of(2019, 9, 29, 0, 0));
+	}
+
+	@Test
+	public void macros() {
+		assertThat(CronExpression.parse("@yearly")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@annually")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@monthly")).isEqualTo(CronExpression.parse("0 0 0 1 * *"));
+		assertThat(CronExpression.parse("@weekly")).isEqualTo(CronExpression.parse("0 0 0 * * SUN"));
+		assertThat(CronExpression.parse("@daily")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@midnight")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@hourly")).isEqualTo(CronExpression.parse("0 0 * * * *"));
+		assertThat(CronExpression.parse("@hourly").toString()).isEqualTo("@hourly");
+	}
+
+	@Test
+	public void nonExistentDate() {
+		CronExpression expression = CronExpression.parse("0 0 0 31 6 *");
+		assertThat(expression.next(LocalDateTime.of(2019, 1, 1, 0, 0))).isNull();
+	}
+
+	@Test
+	public void daylightSavingGapIsSkipped() {
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		// Clocks go forward from 2:00 to 3:00 on 10 March 2019
+		ZonedDateTime last = ZonedDateTime.of(2019, 3, 9, 2, 30, 0, 0, NEW_YORK);
+		assertThat(expression.next(last)).isEqualTo(ZonedDateTime.of(2019, 3, 11, 2, 30, 0, 0, NEW_YORK));
+	}
+
+	@Test
+	public void daylightSavingOverlapMatchesOnce() {
+		CronExpression expression = CronExpression.parse("0 30 1 * * *");
+		// Clocks go back from 2:00 to 1:00 on 3 November 2019
+		ZonedDateTime first = expression.next(ZonedDateTime.of(2019, 11, 3, 0, 0, 0, 0, NEW_YORK));
+		assertThat(first.toLocalDateTime()).isEqualTo(LocalDateTime.of(2019, 11, 3, 1, 30));
+		ZonedDateTime second = expression.next(first);
+		assertThat(second.toLocalDateTime()).isEqualTo(LocalDateTime.of(2019, 11, 4, 1, 30));
+	}
+
+	@Test
+	public void daylightSavingOverlapMatchesLastMinuteOnce() {
+		CronExpression expression = CronExpression.parse("0 59 1 * * *");
+		// Clocks go back from 2:00 to 1:00 on 1 November 2020
+		ZonedDateTime first = expression.next(ZonedDateTime.of(2020, 11, 1, 0, 0, 0, 0, NEW_YORK));
+		assertThat(first.toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 11, 1, 1, 59));
+		assertThat(first.getOffset()).isEqualTo(ZoneOffset.ofHours(-4));
+		assertThat(expression.next(first).toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 11, 2, 1, 59));
+	}
+
+	@Test
+	public void daylightSavingOverlapRunsThroughHourOnce() {
+		CronExpression expression = CronExpression.parse("0 * 1 * * *");
+		ZonedDateTime candidate = ZonedDateTime.of(2020, 11, 1, 0, 59, 0, 0, NEW_YORK);
+		for (int minute = 0; minute < 60; minute++) {
+			candidate = expression.next(candidate);
+			assertThat(candidate.toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 11, 1, 1, minute));
+			assertThat(candidate.getOffset()).isEqualTo(ZoneOffset.ofHours(-4));
+		}
+		assertThat(expression.next(candidate).toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 11, 2, 1, 0));
+	}
+
+	@Test
+	public void daylightSavingOverlapWithHourWildcard() {
+		CronExpression expression = CronExpression.parse("0 30 * * * *");
+		ZonedDateTime first = expression.next(ZonedDateTime.of(2019, 11, 3, 1, 0, 0, 0, NEW_YORK));
+		ZonedDateTime second = expression.next(first);
+		assertThat(second.toLocalDateTime()).isEqualTo(first.toLocalDateTime());
+		assertThat(second.toInstant()).isEqualTo(first.toInstant().plusSeconds(3600));
+		assertThat(expression.next(second).toLocalDateTime()).isEqualTo(LocalDateTime.of(2019, 11, 3, 2, 30));
+	}
+
+	@Test
+	public void whitespaceAndEquality() {
+		assertThat(CronExpression.parse("*  *  * *  1 *")).isEqualTo(CronExpression.parse("* * * * 1 *"));
+		assertThat(CronExpression.parse("0 0 * * * *")).isEqualTo(CronExpression.parse("0 0 */1 * * ?"));
+		assertThat(CronExpression.parse("0 0 0 L * *")).isNotEqualTo(CronExpression.parse("0 0 0 LW * *"));
+	}
+
+	@Test
+	public void invalidExpressions() {
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("77 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * 23-28 * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * 5-2 * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("*/0 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 1,LW * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 32W * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 * * MON#6"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 * * 8L"));
+		assertThat(CronExpression.isValidExpression("0 0 0 * * THU#2")).isTrue();
+		assertThat(CronExpression.isValidExpression("0 0 0 * *")).isFalse();
+		assertThat(CronExpression.isValidExpression(null)).isFalse();
+	}
+
+}
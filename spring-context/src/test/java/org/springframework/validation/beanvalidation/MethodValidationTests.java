@@ -19,6 +19,7 @@ package org.springframework.validation.beanvalidation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+import javax.validation.Validation;
 import javax.validation.ValidationException;
 import javax.validation.Validator;
 import javax.validation.constraints.Max;
@@ -42,6 +43,14 @@ import org.springframework.validation.annotation.Validated;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 /**
  * @author Juergen Hoeller
@@ -89,6 +98,29 @@ public class MethodValidationTests {
 				proxy.myGenericMethod(null));
 	}
 
+	@Test
+	public void testMethodValidationInterceptorWithUnconstrainedMethod() {
+		Validator validator = mock(Validator.class,
+				delegatesTo(Validation.buildDefaultValidatorFactory().getValidator()));
+		ProxyFactory proxyFactory = new ProxyFactory(new MyValidBean());
+		proxyFactory.addAdvice(new MethodValidationInterceptor(validator));
+		MyValidInterface<?> proxy = (MyValidInterface<?>) proxyFactory.getProxy();
+
+		assertThat(proxy.myUnconstrainedMethod(null)).isNull();
+		verify(validator, never()).forExecutables();
+		clearInvocations(validator);
+		// Constraint metadata looked up on first invocation only
+		assertThat(proxy.myUnconstrainedMethod("value")).isEqualTo("value");
+		verifyZeroInteractions(validator);
+
+		assertThatExceptionOfType(ValidationException.class).isThrownBy(() ->
+				proxy.myValidMethod("value", 15));
+		clearInvocations(validator);
+		assertThat(proxy.myValidMethod("value", 5)).isNotNull();
+		verify(validator, never()).getConstraintsForClass(any());
+		verify(validator, times(1)).forExecutables();
+	}
+
 	@Test
 	@SuppressWarnings("resource")
 	public void testLazyValidatorForMethodValidation() {
@@ -124,6 +156,11 @@ public class MethodValidationTests {
 		public String myGenericMethod(String value) {
 			return value;
 		}
+
+		@Override
+		public String myUnconstrainedMethod(String value) {
+			return value;
+		}
 	}
 
 
@@ -153,6 +190,11 @@ public class MethodValidationTests {
 		public String myGenericMethod(String value) {
 			return value;
 		}
+
+		@Override
+		public String myUnconstrainedMethod(String value) {
+			return value;
+		}
 	}
 
 
@@ -164,6 +206,8 @@ public class MethodValidationTests {
 		@Async void myValidAsyncMethod(@NotNull(groups = OtherGroup.class) String arg1, @Max(10) int arg2);
 
 		T myGenericMethod(@NotNull T value);
+
+		String myUnconstrainedMethod(String value);
 	}
 
 
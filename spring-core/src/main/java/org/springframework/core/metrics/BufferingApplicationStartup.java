@@ -0,0 +1,333 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation which keeps ended steps in memory,
+ * up to a configurable capacity, for later inspection.
+ *
+ * <p>Steps get nested per thread: a step started while another step is still
+ * active on the same thread refers to the latter as its parent. Recorded steps
+ * can be retrieved in start order through {@link #getRecordedSteps()}, or
+ * exported in the "folded stacks" format understood by common flame graph
+ * tools through {@link #exportFoldedStacks(Writer)}.
+ *
+ * <p>Once the configured capacity is reached, further steps are not recorded
+ * anymore; see {@link #getDroppedStepCount()}.
+ *
+ * @since 5.3
+ * @see org.springframework.core.metrics.ApplicationStartup#DEFAULT
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final Instant startTime = Instant.now();
+
+	private final long startNanos = System.nanoTime();
+
+	private final AtomicLong idGenerator = new AtomicLong();
+
+	private final ThreadLocal<RecordedStep> currentStep = new NamedThreadLocal<>("Current startup step");
+
+	private final Queue<RecordedStep> recordedSteps = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger recordedCount = new AtomicInteger();
+
+	private final AtomicInteger droppedCount = new AtomicInteger();
+
+
+	/**
+	 * Create a new {@code BufferingApplicationStartup} with the given capacity.
+	 * @param capacity the maximum number of steps to keep
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		RecordedStep parent = this.currentStep.get();
+		RecordedStep step = new RecordedStep(this, name, this.idGenerator.getAndIncrement(), parent);
+		this.currentStep.set(step);
+		return step;
+	}
+
+	private void record(RecordedStep step) {
+		if (this.currentStep.get() == step) {
+			// Parent steps may have ended before their nested steps
+			RecordedStep parent = step.parent;
+			while (parent != null && parent.durationNanos >= 0) {
+				parent = parent.parent;
+			}
+			if (parent != null) {
+				this.currentStep.set(parent);
+			}
+			else {
+				this.currentStep.remove();
+			}
+		}
+		if (this.recordedCount.incrementAndGet() <= this.capacity) {
+			this.recordedSteps.add(step);
+		}
+		else {
+			this.recordedCount.decrementAndGet();
+			this.droppedCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Return the steps which have ended so far, ordered by their start.
+	 */
+	public List<RecordedStep> getRecordedSteps() {
+		List<RecordedStep> steps = new ArrayList<>(this.recordedSteps);
+		steps.sort(Comparator.comparingLong(RecordedStep::getId));
+		return steps;
+	}
+
+	/**
+	 * Return the number of ended steps which have not been recorded
+	 * since the capacity of this buffer had been reached.
+	 */
+	public int getDroppedStepCount() {
+		return this.droppedCount.get();
+	}
+
+	/**
+	 * Discard all recorded steps, making room for new ones.
+	 */
+	public void clear() {
+		this.recordedSteps.clear();
+		this.recordedCount.set(0);
+		this.droppedCount.set(0);
+	}
+
+	/**
+	 * Export the recorded steps in "folded stacks" format: one line per distinct
+	 * stack of nested steps, with frames separated by {@code ';'}, followed by the
+	 * time spent in the innermost step itself (in microseconds, excluding nested steps).
+	 * <p>Frames are labeled with the step name and the value of its first tag, if any,
+	 * e.g. {@code spring.context.refresh;spring.beans.instantiate[myBean] 1234}.
+	 * @param writer the writer to export to (not closed after the export)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void exportFoldedStacks(Writer writer) throws IOException {
+		List<RecordedStep> steps = getRecordedSteps();
+		Map<Long, RecordedStep> stepsById = new HashMap<>(steps.size());
+		Map<Long, Long> nestedNanos = new HashMap<>(steps.size());
+		for (RecordedStep step : steps) {
+			stepsById.put(step.getId(), step);
+			Long parentId = step.getParentId();
+			if (parentId != null) {
+				nestedNanos.merge(parentId, step.durationNanos, Long::sum);
+			}
+		}
+		Map<String, Long> stacks = new LinkedHashMap<>();
+		for (RecordedStep step : steps) {
+			long selfNanos = Math.max(step.durationNanos - nestedNanos.getOrDefault(step.getId(), 0L), 0);
+			stacks.merge(buildStack(step, stepsById), selfNanos, Long::sum);
+		}
+		for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+			writer.write(entry.getKey());
+			writer.write(' ');
+			writer.write(Long.toString(entry.getValue() / 1000));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	private String buildStack(RecordedStep step, Map<Long, RecordedStep> stepsById) {
+		List<String> frames = new ArrayList<>();
+		RecordedStep current = step;
+		while (current != null) {
+			frames.add(current.getFrameLabel());
+			Long parentId = current.getParentId();
+			current = (parentId != null ? stepsById.get(parentId) : null);
+		}
+		Collections.reverse(frames);
+		return String.join(";", frames);
+	}
+
+	private Instant toInstant(long nanos) {
+		return this.startTime.plusNanos(nanos - this.startNanos);
+	}
+
+
+	/**
+	 * {@link StartupStep} recorded by a {@link BufferingApplicationStartup},
+	 * exposing its start time and duration once ended.
+	 */
+	public static final class RecordedStep implements StartupStep {
+
+		private final BufferingApplicationStartup startup;
+
+		private final String name;
+
+		private final long id;
+
+		@Nullable
+		private final RecordedStep parent;
+
+		private final long startNanos;
+
+		private final List<Tag> tags = new ArrayList<>(2);
+
+		private volatile long durationNanos = -1;
+
+		RecordedStep(BufferingApplicationStartup startup, String name, long id, @Nullable RecordedStep parent) {
+			this.startup = startup;
+			this.name = name;
+			this.id = id;
+			this.parent = parent;
+			this.startNanos = System.nanoTime();
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.getId() : null);
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(this.durationNanos < 0, "StartupStep has already ended");
+			this.tags.add(new RecordedTag(key, value));
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return () -> Collections.unmodifiableList(this.tags).iterator();
+		}
+
+		/**
+		 * Return the value of the tag with the given key, if any.
+		 * @param key the tag key
+		 */
+		@Nullable
+		public String getTag(String key) {
+			for (Tag tag : this.tags) {
+				if (tag.getKey().equals(key)) {
+					return tag.getValue();
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Return the point in time when this step started.
+		 */
+		public Instant getStartTime() {
+			return this.startup.toInstant(this.startNanos);
+		}
+
+		/**
+		 * Return the duration of this step, or {@code null} if it has not ended yet.
+		 */
+		@Nullable
+		public Duration getDuration() {
+			long duration = this.durationNanos;
+			return (duration >= 0 ? Duration.ofNanos(duration) : null);
+		}
+
+		@Override
+		public void end() {
+			Assert.state(this.durationNanos < 0, "StartupStep has already ended");
+			this.durationNanos = Math.max(System.nanoTime() - this.startNanos, 0);
+			this.startup.record(this);
+		}
+
+		String getFrameLabel() {
+			Iterator<Tag> it = this.tags.iterator();
+			String label = (it.hasNext() ? this.name + "[" + it.next().getValue() + "]" : this.name);
+			return label.replace(';', ',').replace(' ', '_').replace('\n', '_');
+		}
+
+		@Override
+		public String toString() {
+			return this.name + this.tags + (this.durationNanos >= 0 ? " " + getDuration() : " (active)");
+		}
+	}
+
+
+	private static final class RecordedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		RecordedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.BufferingApplicationStartup.RecordedStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BufferingApplicationStartup}.
+ */
+class BufferingApplicationStartupTests {
+
+	private final BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(16);
+
+
+	@Test
+	void defaultApplicationStartupDoesNotRecord() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("test").tag("key", "value");
+		step.end();
+
+		assertThat(step.getTags()).isEmpty();
+		assertThat(step.getParentId()).isNull();
+	}
+
+	@Test
+	void recordsNestedSteps() {
+		StartupStep outer = this.applicationStartup.start("outer");
+		StartupStep inner = this.applicationStartup.start("inner").tag("beanName", "first");
+		inner.end();
+		StartupStep sibling = this.applicationStartup.start("inner").tag("beanName", () -> "second");
+		sibling.end();
+		outer.end();
+		StartupStep next = this.applicationStartup.start("next");
+		next.end();
+
+		List<RecordedStep> steps = this.applicationStartup.getRecordedSteps();
+		assertThat(steps).extracting(StartupStep::getName).containsExactly("outer", "inner", "inner", "next");
+		assertThat(steps.get(0).getParentId()).isNull();
+		assertThat(steps.get(1).getParentId()).isEqualTo(outer.getId());
+		assertThat(steps.get(2).getParentId()).isEqualTo(outer.getId());
+		assertThat(steps.get(3).getParentId()).isNull();
+		assertThat(steps.get(2).getTag("beanName")).isEqualTo("second");
+		assertThat(steps.get(0).getDuration()).isGreaterThanOrEqualTo(steps.get(1).getDuration());
+		assertThat(steps.get(0).getStartTime()).isBeforeOrEqualTo(steps.get(1).getStartTime());
+	}
+
+	@Test
+	void recordsStepsPerThread() throws Exception {
+		StartupStep outer = this.applicationStartup.start("outer");
+		Thread thread = new Thread(() -> this.applicationStartup.start("other").end());
+		thread.start();
+		thread.join();
+		outer.end();
+
+		assertThat(this.applicationStartup.getRecordedSteps()).filteredOn(step -> step.getName().equals("other"))
+				.hasSize(1).allSatisfy(step -> assertThat(step.getParentId()).isNull());
+	}
+
+	@Test
+	void stepsEndedOutOfOrderDoNotBecomeParents() {
+		StartupStep outer = this.applicationStartup.start("outer");
+		StartupStep inner = this.applicationStartup.start("inner");
+		outer.end();
+		inner.end();
+		StartupStep next = this.applicationStartup.start("next");
+		next.end();
+
+		assertThat(next.getParentId()).isNull();
+	}
+
+	@Test
+	void endedStepIsImmutable() {
+		StartupStep step = this.applicationStartup.start("test");
+		step.end();
+
+		assertThatIllegalStateException().isThrownBy(() -> step.tag("key", "value"));
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+	@Test
+	void dropsStepsBeyondCapacity() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(2);
+		for (int i = 0; i < 5; i++) {
+			applicationStartup.start("test").end();
+		}
+
+		assertThat(applicationStartup.getRecordedSteps()).hasSize(2);
+		assertThat(applicationStartup.getDroppedStepCount()).isEqualTo(3);
+
+		applicationStartup.clear();
+		assertThat(applicationStartup.getRecordedSteps()).isEmpty();
+		assertThat(applicationStartup.getDroppedStepCount()).isEqualTo(0);
+	}
+
+	@Test
+	void exportFoldedStacks() throws Exception {
+		StartupStep outer = this.applicationStartup.start("outer");
+		this.applicationStartup.start("inner").tag("beanName", "my bean;1").end();
+		this.applicationStartup.start("inner").tag("beanName", "my bean;1").end();
+		outer.end();
+
+		StringWriter writer = new StringWriter();
+		this.applicationStartup.exportFoldedStacks(writer);
+		String[] lines = writer.toString().split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).matches("outer \\d+");
+		assertThat(lines[1]).matches("outer;inner\\[my_bean,1] \\d+");
+	}
+
+}
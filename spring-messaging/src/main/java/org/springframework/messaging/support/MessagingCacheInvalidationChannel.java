@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.support.CacheInvalidation;
+import org.springframework.cache.support.CacheInvalidationChannel;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationChannel} that propagates invalidations as messages,
+ * sending them to a {@link MessageChannel} and receiving them from a
+ * {@link SubscribableChannel}, typically both bridged to a broker topic
+ * that all nodes subscribe to.
+ *
+ * <p>Invalidations are converted to and from messages with the configured
+ * {@link MessageConverter}; by default, the {@link CacheInvalidation} itself
+ * is used as payload. Messages that cannot be converted are ignored.
+ *
+ * @since 5.3
+ * @see org.springframework.cache.support.TwoLevelCacheManager#setInvalidationChannel
+ */
+public class MessagingCacheInvalidationChannel implements CacheInvalidationChannel {
+
+	private static final Log logger = LogFactory.getLog(MessagingCacheInvalidationChannel.class);
+
+
+	private final MessageChannel outboundChannel;
+
+	private final SubscribableChannel inboundChannel;
+
+	private final Set<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArraySet<>();
+
+	private final MessageHandler messageHandler = this::handleMessage;
+
+	private MessageConverter messageConverter = new SimpleMessageConverter();
+
+
+	/**
+	 * Create a new MessagingCacheInvalidationChannel that sends invalidations
+	 * to, and receives them from, the given channel.
+	 * @param channel the channel to use in both directions
+	 */
+	public MessagingCacheInvalidationChannel(SubscribableChannel channel) {
+		this(channel, channel);
+	}
+
+	/**
+	 * Create a new MessagingCacheInvalidationChannel for the given channels.
+	 * @param outboundChannel the channel to send published invalidations to
+	 * @param inboundChannel the channel to receive invalidations from
+	 */
+	public MessagingCacheInvalidationChannel(MessageChannel outboundChannel, SubscribableChannel inboundChannel) {
+		Assert.notNull(outboundChannel, "Outbound MessageChannel must not be null");
+		Assert.notNull(inboundChannel, "Inbound SubscribableChannel must not be null");
+		this.outboundChannel = outboundChannel;
+		this.inboundChannel = inboundChannel;
+	}
+
+
+	/**
+	 * Set the {@link MessageConverter} to convert invalidations to and from messages.
+	 * <p>Default is a {@link SimpleMessageConverter}.
+	 */
+	public void setMessageConverter(MessageConverter messageConverter) {
+		Assert.notNull(messageConverter, "MessageConverter must not be null");
+		this.messageConverter = messageConverter;
+	}
+
+	/**
+	 * Return the configured {@link MessageConverter}.
+	 */
+	public MessageConverter getMessageConverter() {
+		return this.messageConverter;
+	}
+
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		Assert.notNull(invalidation, "CacheInvalidation must not be null");
+		Message<?> message = this.messageConverter.toMessage(invalidation, null);
+		Assert.state(message != null, () -> "Unable to convert " + invalidation + " to a message");
+		if (!this.outboundChannel.send(message) && logger.isWarnEnabled()) {
+			logger.warn("Failed to send " + invalidation + " to " + this.outboundChannel);
+		}
+	}
+
+	@Override
+	public synchronized void subscribe(Consumer<CacheInvalidation> listener) {
+		Assert.notNull(listener, "Listener must not be null");
+		if (this.listeners.add(listener) && this.listeners.size() == 1) {
+			this.inboundChannel.subscribe(this.messageHandler);
+		}
+	}
+
+	@Override
+	public synchronized void unsubscribe(Consumer<CacheInvalidation> listener) {
+		if (this.listeners.remove(listener) && this.listeners.isEmpty()) {
+			this.inboundChannel.unsubscribe(this.messageHandler);
+		}
+	}
+
+	private void handleMessage(Message<?> message) {
+		CacheInvalidation invalidation = fromMessage(message);
+		if (invalidation == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring message without CacheInvalidation payload: " + message);
+			}
+			return;
+		}
+		for (Consumer<CacheInvalidation> listener : this.listeners) {
+			listener.accept(invalidation);
+		}
+	}
+
+	@Nullable
+	private CacheInvalidation fromMessage(Message<?> message) {
+		Object payload = this.messageConverter.fromMessage(message, CacheInvalidation.class);
+		return (payload instanceof CacheInvalidation ? (CacheInvalidation) payload : null);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.CacheInvalidation;
+import org.springframework.cache.support.TwoLevelCache;
+import org.springframework.cache.support.TwoLevelCacheManager;
+import org.springframework.messaging.Message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link MessagingCacheInvalidationChannel}.
+ */
+public class MessagingCacheInvalidationChannelTests {
+
+	private final ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+
+	private final MessagingCacheInvalidationChannel invalidationChannel =
+			new MessagingCacheInvalidationChannel(this.channel);
+
+
+	@Test
+	public void publishedInvalidationIsReceived() {
+		List<CacheInvalidation> received = new ArrayList<>();
+		this.invalidationChannel.subscribe(received::add);
+		assertThat(this.channel.getSubscribers()).hasSize(1);
+
+		CacheInvalidation invalidation = new CacheInvalidation("origin", "testCache", "key");
+		this.invalidationChannel.publish(invalidation);
+		assertThat(received).containsExactly(invalidation);
+	}
+
+	@Test
+	public void unsubscribedListenerIsNotNotified() {
+		List<CacheInvalidation> received = new ArrayList<>();
+		Consumer<CacheInvalidation> listener = received::add;
+		this.invalidationChannel.subscribe(listener);
+		this.invalidationChannel.unsubscribe(listener);
+		assertThat(this.channel.getSubscribers()).isEmpty();
+
+		this.invalidationChannel.publish(new CacheInvalidation("origin", "testCache", null));
+		assertThat(received).isEmpty();
+	}
+
+	@Test
+	public void messageWithoutInvalidationIsIgnored() {
+		List<CacheInvalidation> received = new ArrayList<>();
+		this.invalidationChannel.subscribe(received::add);
+		Message<String> message = MessageBuilder.withPayload("payload").build();
+		this.channel.send(message);
+		assertThat(received).isEmpty();
+	}
+
+	@Test
+	public void invalidationsBetweenCacheManagers() {
+		ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("testCache");
+		TwoLevelCacheManager node1 = createCacheManager(remoteCacheManager);
+		TwoLevelCacheManager node2 = createCacheManager(remoteCacheManager);
+		TwoLevelCache cache1 = (TwoLevelCache) node1.getCache("testCache");
+		TwoLevelCache cache2 = (TwoLevelCache) node2.getCache("testCache");
+
+		cache1.put("key", "value");
+		assertThat(cache2.get("key").get()).isEqualTo("value");
+		cache1.put("key", "newValue");
+		assertThat(cache2.get("key").get()).isEqualTo("newValue");
+
+		node1.destroy();
+		node2.destroy();
+		assertThat(this.channel.getSubscribers()).isEmpty();
+	}
+
+	private TwoLevelCacheManager createCacheManager(ConcurrentMapCacheManager remoteCacheManager) {
+		TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(remoteCacheManager);
+		cacheManager.setInvalidationChannel(this.invalidationChannel);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+}